@@ -0,0 +1,462 @@
+package us.kbase.typedobj.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import us.kbase.common.utils.sortjson.KeyDuplicationException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Sorts the keys of all the maps in a JSON document with an external merge
+ * sort, so that the memory used stays bounded regardless of the number of
+ * keys in a single map.
+ *
+ * The entries of a map, with their values already sorted, are collected in
+ * memory until the memory limit is reached. The entries are then sorted and
+ * written to a temporary run file. When the end of the map is reached the
+ * runs are merged into the output. Values larger than a quarter of the limit
+ * are kept in their own temporary file rather than in memory.
+ *
+ * Since every nesting level of the document may hold its own set of entries,
+ * the memory limit is approximate. This sorter is considerably slower than
+ * the UTF8JsonSorter and is intended for data that sorter cannot handle in
+ * the available memory.
+ *
+ * Keys are compared with String.compareTo(), i.e. by UTF-16 code unit
+ * rather than UTF-8 byte order, after any escapes are decoded. This is the
+ * same order the UTF8JsonSorter produces and the validator checks for, so
+ * either sorter produces the same bytes for the same data.
+ */
+public class ExternalJsonSorter {
+
+	//the maximum number of runs merged at once
+	private static final int MAX_MERGE_FILES = 64;
+	//rough estimate of the memory required for an entry apart from its data
+	private static final int ENTRY_OVERHEAD = 64;
+	private static final int COPY_BUFFER_SIZE = 10000;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final JsonFactory FACTORY = new JsonFactory();
+
+	private final TempFilesManager tfm;
+	private final long maxMemoryUsage;
+	private final long maxValueMemoryUsage;
+	private final List<File> tempFiles = new LinkedList<File>();
+	private final JsonDocumentLocation path = new JsonDocumentLocation();
+
+	/** Create a new sorter.
+	 * @param tfm the temporary file manager to use for the run files.
+	 * @param maxMemoryUsage the approximate maximum amount of memory, in
+	 * bytes, to use for the entries of a single map before writing them to
+	 * a temporary file.
+	 */
+	public ExternalJsonSorter(final TempFilesManager tfm,
+			final long maxMemoryUsage) {
+		if (tfm == null) {
+			throw new NullPointerException("tfm cannot be null");
+		}
+		if (maxMemoryUsage < 1) {
+			throw new IllegalArgumentException(
+					"maxMemoryUsage must be at least 1");
+		}
+		this.tfm = tfm;
+		this.maxMemoryUsage = maxMemoryUsage;
+		this.maxValueMemoryUsage = Math.max(1, maxMemoryUsage / 4);
+	}
+
+	/** Sort the keys of the maps in a UTF-8 JSON document.
+	 * @param input the file containing the document.
+	 * @param output the stream to which the sorted document will be written.
+	 * The stream is flushed but not closed.
+	 * @throws IOException if an IO exception occurs.
+	 * @throws KeyDuplicationException if a map contains the same key twice.
+	 */
+	public void sort(final File input, final OutputStream output)
+			throws IOException, KeyDuplicationException {
+		final JsonParser jp = FACTORY.createParser(input);
+		try {
+			final OutputStream os = new BufferedOutputStream(output);
+			if (jp.nextToken() == null) {
+				throw new IOException("No JSON data found in " + input);
+			}
+			writeValue(jp, os);
+			os.flush();
+		} finally {
+			jp.close();
+			for (final File f: tempFiles) {
+				tfm.deleteTempFile(f);
+			}
+			tempFiles.clear();
+		}
+	}
+
+	private void writeValue(final JsonParser jp, final OutputStream os)
+			throws IOException, KeyDuplicationException {
+		final JsonToken t = jp.getCurrentToken();
+		if (t == JsonToken.START_OBJECT) {
+			writeObject(jp, os);
+		} else if (t == JsonToken.START_ARRAY) {
+			path.addArrayStart();
+			os.write('[');
+			boolean first = true;
+			while (jp.nextToken() != JsonToken.END_ARRAY) {
+				path.incrementArrayLocation();
+				if (!first) {
+					os.write(',');
+				}
+				first = false;
+				writeValue(jp, os);
+			}
+			os.write(']');
+			path.removeLast();
+		} else if (t == JsonToken.VALUE_STRING) {
+			writeString(jp.getText(), os);
+		} else if (t == JsonToken.VALUE_NUMBER_INT ||
+				t == JsonToken.VALUE_NUMBER_FLOAT ||
+				t == JsonToken.VALUE_TRUE ||
+				t == JsonToken.VALUE_FALSE ||
+				t == JsonToken.VALUE_NULL) {
+			//the parser returns the number as it appears in the document
+			os.write(jp.getText().getBytes(UTF8));
+		} else {
+			throw new IOException("Unexpected token type: " + t);
+		}
+	}
+
+	private void writeObject(final JsonParser jp, final OutputStream os)
+			throws IOException, KeyDuplicationException {
+		path.addMapStart();
+		final List<Entry> entries = new ArrayList<Entry>();
+		final List<File> runs = new LinkedList<File>();
+		long mem = 0;
+		while (jp.nextToken() != JsonToken.END_OBJECT) {
+			final String key = jp.getCurrentName();
+			path.replaceLast(key);
+			jp.nextToken();
+			final ValueBuffer value = new ValueBuffer();
+			try {
+				writeValue(jp, value);
+			} finally {
+				value.close();
+			}
+			final Entry e = new Entry(key, value.getBytes(), value.getFile());
+			entries.add(e);
+			mem += e.getMemorySize();
+			if (mem > maxMemoryUsage) {
+				Collections.sort(entries);
+				runs.add(writeRun(new ListSource(entries)));
+				entries.clear();
+				mem = 0;
+			}
+		}
+		if (runs.isEmpty()) {
+			Collections.sort(entries);
+			writeEntries(new ListSource(entries), os);
+		} else {
+			if (!entries.isEmpty()) {
+				Collections.sort(entries);
+				runs.add(writeRun(new ListSource(entries)));
+				entries.clear();
+			}
+			while (runs.size() > MAX_MERGE_FILES) {
+				final List<File> merged = new LinkedList<File>();
+				while (!runs.isEmpty()) {
+					final List<File> group = new LinkedList<File>();
+					while (!runs.isEmpty() && group.size() < MAX_MERGE_FILES) {
+						group.add(runs.remove(0));
+					}
+					final MergeSource src = new MergeSource(group);
+					try {
+						merged.add(writeRun(src));
+					} finally {
+						src.close();
+					}
+					for (final File f: group) {
+						tfm.deleteTempFile(f);
+					}
+				}
+				runs.addAll(merged);
+			}
+			final MergeSource src = new MergeSource(runs);
+			try {
+				writeEntries(src, os);
+			} finally {
+				src.close();
+			}
+			for (final File f: runs) {
+				tfm.deleteTempFile(f);
+			}
+		}
+		path.removeLast();
+	}
+
+	private void writeEntries(final EntrySource src, final OutputStream os)
+			throws IOException, KeyDuplicationException {
+		os.write('{');
+		String prevKey = null;
+		Entry e;
+		while ((e = src.next()) != null) {
+			if (prevKey != null) {
+				if (prevKey.equals(e.key)) {
+					final String container =
+							path.getLocationOfContainerAsString();
+					throw new KeyDuplicationException(
+							container.isEmpty() ? "/" : container, e.key);
+				}
+				os.write(',');
+			}
+			prevKey = e.key;
+			writeString(e.key, os);
+			os.write(':');
+			if (e.value != null) {
+				os.write(e.value);
+			} else {
+				final InputStream is = new FileInputStream(e.valueFile);
+				try {
+					final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+					int len;
+					while ((len = is.read(buffer)) > -1) {
+						os.write(buffer, 0, len);
+					}
+				} finally {
+					is.close();
+				}
+			}
+		}
+		os.write('}');
+	}
+
+	private File writeRun(final EntrySource src) throws IOException {
+		final File run = newTempFile("sortrun");
+		final DataOutputStream dos = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(run)));
+		try {
+			Entry e;
+			while ((e = src.next()) != null) {
+				writeBytes(e.key.getBytes(UTF8), dos);
+				if (e.value != null) {
+					writeBytes(e.value, dos);
+				} else {
+					dos.writeInt(-1);
+					writeBytes(e.valueFile.getPath().getBytes(UTF8), dos);
+				}
+			}
+			dos.writeInt(-1);
+		} finally {
+			dos.close();
+		}
+		return run;
+	}
+
+	private static void writeBytes(final byte[] b, final DataOutputStream dos)
+			throws IOException {
+		dos.writeInt(b.length);
+		dos.write(b);
+	}
+
+	private static void writeString(final String s, final OutputStream os)
+			throws IOException {
+		os.write('"');
+		os.write(JsonStringEncoder.getInstance().quoteAsUTF8(s));
+		os.write('"');
+	}
+
+	private File newTempFile(final String prefix) {
+		final File f = tfm.generateTempFile(prefix, "bin");
+		tempFiles.add(f);
+		return f;
+	}
+
+	private static class Entry implements Comparable<Entry> {
+
+		private final String key;
+		private final byte[] value;
+		private final File valueFile;
+
+		private Entry(final String key, final byte[] value,
+				final File valueFile) {
+			this.key = key;
+			this.value = value;
+			this.valueFile = valueFile;
+		}
+
+		private long getMemorySize() {
+			return ENTRY_OVERHEAD + 2L * key.length() +
+					(value == null ? 0 : value.length);
+		}
+
+		// must match the UTF8JsonSorter's order, see the class doc
+		@Override
+		public int compareTo(final Entry e) {
+			return key.compareTo(e.key);
+		}
+	}
+
+	private interface EntrySource {
+
+		/** Returns the next entry or null if there are no more entries. */
+		Entry next() throws IOException;
+	}
+
+	private static class ListSource implements EntrySource {
+
+		private final Iterator<Entry> iter;
+
+		private ListSource(final List<Entry> entries) {
+			iter = entries.iterator();
+		}
+
+		@Override
+		public Entry next() {
+			return iter.hasNext() ? iter.next() : null;
+		}
+	}
+
+	private static class RunReader implements Comparable<RunReader> {
+
+		private final DataInputStream dis;
+		private Entry current = null;
+
+		private RunReader(final File run) throws IOException {
+			dis = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(run)));
+		}
+
+		private boolean advance() throws IOException {
+			final byte[] key = readBytes(dis.readInt());
+			if (key == null) {
+				current = null;
+				return false;
+			}
+			final int valueLen = dis.readInt();
+			if (valueLen < 0) {
+				current = new Entry(new String(key, UTF8), null, new File(
+						new String(readBytes(dis.readInt()), UTF8)));
+			} else {
+				current = new Entry(new String(key, UTF8),
+						readBytes(valueLen), null);
+			}
+			return true;
+		}
+
+		private byte[] readBytes(final int len) throws IOException {
+			if (len < 0) {
+				return null;
+			}
+			final byte[] b = new byte[len];
+			dis.readFully(b);
+			return b;
+		}
+
+		@Override
+		public int compareTo(final RunReader rr) {
+			return current.compareTo(rr.current);
+		}
+	}
+
+	private static class MergeSource implements EntrySource {
+
+		private final List<RunReader> readers = new LinkedList<RunReader>();
+		private final PriorityQueue<RunReader> queue =
+				new PriorityQueue<RunReader>();
+
+		private MergeSource(final List<File> runs) throws IOException {
+			try {
+				for (final File run: runs) {
+					final RunReader rr = new RunReader(run);
+					readers.add(rr);
+					if (rr.advance()) {
+						queue.add(rr);
+					}
+				}
+			} catch (IOException ioe) {
+				close();
+				throw ioe;
+			}
+		}
+
+		@Override
+		public Entry next() throws IOException {
+			final RunReader rr = queue.poll();
+			if (rr == null) {
+				return null;
+			}
+			final Entry ret = rr.current;
+			if (rr.advance()) {
+				queue.add(rr);
+			}
+			return ret;
+		}
+
+		private void close() throws IOException {
+			for (final RunReader rr: readers) {
+				rr.dis.close();
+			}
+		}
+	}
+
+	/* Holds the sorted JSON of a map value in memory, switching to a
+	 * temporary file when the value gets too large.
+	 */
+	private class ValueBuffer extends OutputStream {
+
+		private ByteArrayOutputStream mem = new ByteArrayOutputStream();
+		private File file = null;
+		private OutputStream fos = null;
+
+		private OutputStream getTarget() throws IOException {
+			if (file == null && mem.size() > maxValueMemoryUsage) {
+				file = newTempFile("sortval");
+				fos = new BufferedOutputStream(new FileOutputStream(file));
+				mem.writeTo(fos);
+				mem = null;
+			}
+			return file == null ? mem : fos;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			getTarget().write(b);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+				throws IOException {
+			getTarget().write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (fos != null) {
+				fos.close();
+			}
+		}
+
+		private byte[] getBytes() {
+			return mem == null ? null : mem.toByteArray();
+		}
+
+		private File getFile() {
+			return file;
+		}
+	}
+}
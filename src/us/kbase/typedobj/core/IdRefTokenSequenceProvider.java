@@ -37,6 +37,9 @@ public class IdRefTokenSequenceProvider implements TokenSequenceProvider {
 	private boolean wasValue = false;
 	// previous key name is compared to current key in order to find are they sorted
 	private String prevFieldName = null;
+	// text of current token after relabeling, kept so that the key or value
+	// is only read from jts and looked up in the id handlers once per token
+	private String curText = null;
 	// sorted flag is switched into false after first occurrence of unsorted keys
 	private boolean sorted = true;
 	// reference to find
@@ -81,6 +84,7 @@ public class IdRefTokenSequenceProvider implements TokenSequenceProvider {
 			removeLastSchemaLocation();
 		}
 		wasValue = false;
+		curText = null;
 		JsonToken t = jts.nextToken();
 		if (t == JsonToken.START_OBJECT) {
 			incrementArrayPosAndUpdateSchemaIfInArray();
@@ -96,11 +100,13 @@ public class IdRefTokenSequenceProvider implements TokenSequenceProvider {
 			// this token that can not be first of some scalar or object and it means 
 			// we don't need to call incrementArrayPosIfInArray().
 			// we change last path element into new field
-			path.replaceLast(jts.getText());
+			final String fieldName = jts.getText();
+			path.replaceLast(fieldName);
 			updateSchemaLocation();
 			wasField = true;
 			// get real name of key after relabeling
-			String curFieldName = getText();
+			curText = relabel(fieldName);
+			final String curFieldName = curText;
 			// check for sorting order
 			if (prevFieldName != null && prevFieldName.compareTo(curFieldName) >= 0) {
 				sorted = false;
@@ -143,7 +149,13 @@ public class IdRefTokenSequenceProvider implements TokenSequenceProvider {
 
 	@Override
 	public String getText() throws IOException, JsonParseException {
-		final String ret = jts.getText();
+		if (curText == null) {
+			curText = relabel(jts.getText());
+		}
+		return curText;
+	}
+	
+	private String relabel(final String ret) {
 		final JsonTokenValidationSchema s;
 		if (wasField) {
 			s = getPreviousSchema();
@@ -76,15 +76,17 @@ public class JsonDocumentLocation {
 		return l;
 	}
 	
+	// replaceLast(String) and replaceLast(int) are called for every key and
+	// array item in a document, so swap the last element in place
 	public JsonLocation replaceLast(final String loc) {
-		final JsonLocation l = removeLast();
-		addMapLocation(loc);
+		final JsonLocation l = getLast();
+		this.loc.set(this.loc.size() - 1, new JsonMapLocation(loc));
 		return l;
 	}
 	
 	public JsonLocation replaceLast(final int loc) {
-		final JsonLocation l = removeLast();
-		addArrayLocation(loc);
+		final JsonLocation l = getLast();
+		this.loc.set(this.loc.size() - 1, new JsonArrayLocation(loc));
 		return l;
 	}
 	
@@ -55,4 +55,10 @@ public interface JsonTokenValidationListener {
 	 * @param selection
 	 */
 	public void addMetadataWsMessage(JsonNode selection);
+	
+	/**
+	 * Method for registering that the keys of a mapping or structure in the
+	 * data are not in sorted order. May be called more than once.
+	 */
+	public void addUnsortedKeysMessage();
 }
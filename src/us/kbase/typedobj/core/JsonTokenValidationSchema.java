@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -43,6 +44,7 @@ public class JsonTokenValidationSchema {
 	private JsonTokenValidationSchema objectAdditionalPropertiesType;	// For mapping value type: additionalProperties
 	private boolean objectAdditionalPropertiesBoolean;	// For structures: additionalProperties
 	private Map<String, Integer> objectRequired;		// For structures: required
+	private Map<String, ObjectField> objectFields;		// For structures: properties and required merged for lookup
 	private JsonTokenValidationSchema arrayItems;						// For list: items (one type for all items)
 	private List<JsonTokenValidationSchema> arrayItemList;				// For tuple: items (list of types)
 	private Integer arrayMinItems;						// For tuple: minItems
@@ -50,6 +52,7 @@ public class JsonTokenValidationSchema {
 	
 	private NumberRange numberRange;					// For number: minimum, maximum, exclusiveMinimum, exclusiveMaximum
 	private IntRange intRange;							// For integer: minimum, maximum, exclusiveMinimum, exclusiveMaximum
+	private boolean idReferenceKeys;					// For all: whether this node or any child is a mapping with id-reference keys
 
 	private static final String VALID_TYPEDEF_NAMES = "valid-typedef-names";
 	private static final String ATTRIBUTES = "attributes";
@@ -145,6 +148,8 @@ public class JsonTokenValidationSchema {
 				for (String reqItem : reqList)
 					ret.objectRequired.put(reqItem, ret.objectRequired.size());
 			}
+			ret.objectFields = compileObjectFields(ret.objectProperties,
+					ret.objectRequired);
 		} else if (ret.type == Type.array) {
 			Object items = data.get("items");
 			if (items instanceof Map) {
@@ -164,8 +169,35 @@ public class JsonTokenValidationSchema {
 		} else if (ret.type == Type.integer) {
 			ret.intRange = new IntRange(data);
 		}
+		ret.idReferenceKeys = ret.findIdReferenceKeys();
 		return ret;
 	}
+	
+	private boolean findIdReferenceKeys() {
+		if (type == Type.object) {
+			if (idReference != null) {
+				return true;
+			}
+			for (final JsonTokenValidationSchema child:
+					objectProperties.values()) {
+				if (child.idReferenceKeys) {
+					return true;
+				}
+			}
+			return objectAdditionalPropertiesType != null &&
+					objectAdditionalPropertiesType.idReferenceKeys;
+		} else if (type == Type.array) {
+			if (arrayItems != null) {
+				return arrayItems.idReferenceKeys;
+			}
+			for (final JsonTokenValidationSchema child: arrayItemList) {
+				if (child.idReferenceKeys) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
 
 	/**
 	 * Method validates object described by tokens provided by json parser against 
@@ -228,11 +260,15 @@ public class JsonTokenValidationSchema {
 					throw new JsonTokenValidationException(
 							generateError(type, t, path, false));
 				}
-				// flags for usage (true) or not usage (false) of fields having positions in this 
-				// array coded in objectRequired map
-				boolean[] reqPropUsage = new boolean[objectRequired.size()];
-				// count of true values in reqPropUsage
-				int reqPropUsageCount = 0;
+				// bits for usage (1) or not usage (0) of fields having positions coded in
+				// objectRequired map. Up to 64 required fields are tracked in a single
+				// long without allocation, larger structures use an array of longs
+				final int reqPropCount = objectRequired.size();
+				long reqPropUsage = 0;
+				final long[] reqPropUsageBits = reqPropCount > Long.SIZE ?
+						new long[(reqPropCount + Long.SIZE - 1) / Long.SIZE] : null;
+				// previous key is compared to current key in order to find are they sorted
+				String prevFieldName = null;
 				// in following loop we process all fields of opened object
 				while (true) {
 					t = jp.nextToken();
@@ -250,13 +286,27 @@ public class JsonTokenValidationSchema {
 					String fieldName = jp.getCurrentName();
 					// set current path pointing to this field
 					path.replaceLast(fieldName);
-					// if this field is required we mark it as visited
-					if (objectRequired.containsKey(fieldName)) {
-						reqPropUsageCount++;
-						reqPropUsage[objectRequired.get(fieldName)] = true;
+					if (prevFieldName != null &&
+							prevFieldName.compareTo(fieldName) >= 0) {
+						lst.addUnsortedKeysMessage();
+					}
+					prevFieldName = fieldName;
+					// single lookup gives both the json-schema node describing value of this
+					// field and its position among required fields (if it's required)
+					final ObjectField field = objectFields.get(fieldName);
+					JsonTokenValidationSchema childType = null;
+					if (field != null) {
+						// if this field is required we mark it as visited
+						final int reqPos = field.requiredPosition;
+						if (reqPos >= 0) {
+							if (reqPropUsageBits == null) {
+								reqPropUsage |= 1L << reqPos;
+							} else {
+								reqPropUsageBits[reqPos / Long.SIZE] |= 1L << reqPos;
+							}
+						}
+						childType = field.schema;
 					}
-					// we need to find json-schema node describing value of this field
-					JsonTokenValidationSchema childType = objectProperties.get(fieldName);
 					if (childType == null) {
 						if (!objectAdditionalPropertiesBoolean) {
 							if (objectProperties.size() > 0)
@@ -270,7 +320,7 @@ public class JsonTokenValidationSchema {
 					}
 					if (childType == null) {
 						// if we don't have such schema it means we don't need to validate it, just skip it
-						skipValue(jp);
+						skipValue(jp, lst);
 					} else {
 						// otherwise we execute validation recursively for child json-schema node
 						childType.checkJsonData(jp, lst, path);
@@ -286,11 +336,21 @@ public class JsonTokenValidationSchema {
 					}
 				}
 				// check whether all required fields were occured
-				if (reqPropUsageCount != reqPropUsage.length) {
+				int reqPropUsageCount = Long.bitCount(reqPropUsage);
+				if (reqPropUsageBits != null) {
+					for (final long bits: reqPropUsageBits) {
+						reqPropUsageCount += Long.bitCount(bits);
+					}
+				}
+				if (reqPropUsageCount != reqPropCount) {
 					List<String> absentProperties = new ArrayList<String>();
-					for (Map.Entry<String, Integer> entry : objectRequired.entrySet())
-						if (!reqPropUsage[entry.getValue()])
+					for (Map.Entry<String, Integer> entry : objectRequired.entrySet()) {
+						final int pos = entry.getValue();
+						final long bits = reqPropUsageBits == null ?
+								reqPropUsage : reqPropUsageBits[pos / Long.SIZE];
+						if ((bits & (1L << pos)) == 0)
 							absentProperties.add(entry.getKey());
+					}
 					lst.addError("Object doesn't have required fields : " +
 							absentProperties + ", at " +
 							path.getLocationOfContainerAsString());
@@ -337,7 +397,7 @@ public class JsonTokenValidationSchema {
 					if (skipAll || childType == null) {
 						// if we have more items than we expect or we didn't specify types for 
 						// some of them then we skip real data of these items
-						skipValueWithoutFirst(jp);
+						skipValueWithoutFirst(jp, lst);
 					} else {
 						// otherwise we execute recursive validation for current item
 						childType.checkJsonDataWithoutFirst(jp, lst, path);
@@ -362,7 +422,7 @@ public class JsonTokenValidationSchema {
 				}
 				if (t == JsonToken.START_ARRAY
 						|| t == JsonToken.START_OBJECT) {
-					skipValueWithoutFirst(jp);
+					skipValueWithoutFirst(jp, lst);
 				}
 			} else {
 				if (idReference != null) {
@@ -387,7 +447,7 @@ public class JsonTokenValidationSchema {
 				}
 				if (t == JsonToken.START_ARRAY
 						|| t == JsonToken.START_OBJECT) {
-					skipValueWithoutFirst(jp);
+					skipValueWithoutFirst(jp, lst);
 				}
 			} else {
 				//range check
@@ -413,7 +473,7 @@ public class JsonTokenValidationSchema {
 				lst.addError(generateError(type, t, path, false));
 				if (t == JsonToken.START_ARRAY
 						|| t == JsonToken.START_OBJECT) {
-					skipValueWithoutFirst(jp);
+					skipValueWithoutFirst(jp, lst);
 				}	
 			} else {
 				//range check
@@ -427,6 +487,29 @@ public class JsonTokenValidationSchema {
 		}
 	}
 	
+	/**
+	 * Merges the properties and required fields of a structure into a single
+	 * map so the validator needs only one lookup per field of the data.
+	 */
+	private static Map<String, ObjectField> compileObjectFields(
+			final Map<String, JsonTokenValidationSchema> properties,
+			final Map<String, Integer> required) {
+		final Map<String, ObjectField> ret = new HashMap<String, ObjectField>(
+				Math.max(16, (properties.size() + required.size()) * 2));
+		for (final Map.Entry<String, JsonTokenValidationSchema> e:
+				properties.entrySet()) {
+			final Integer pos = required.get(e.getKey());
+			ret.put(e.getKey(), new ObjectField(e.getValue(),
+					pos == null ? -1 : pos));
+		}
+		for (final Map.Entry<String, Integer> e: required.entrySet()) {
+			if (!ret.containsKey(e.getKey())) {
+				ret.put(e.getKey(), new ObjectField(null, e.getValue()));
+			}
+		}
+		return ret;
+	}
+	
 	private static String generateError(
 			final Type expectedType,
 			final JsonToken actualToken,
@@ -474,27 +557,37 @@ public class JsonTokenValidationSchema {
 		}
 	}
 	
-	private static void skipValue(JsonParser jp) throws JsonParseException, IOException, JsonTokenValidationException {
+	private static void skipValue(JsonParser jp, JsonTokenValidationListener lst)
+			throws JsonParseException, IOException, JsonTokenValidationException {
 		jp.nextToken();
-		skipValueWithoutFirst(jp);
+		skipValueWithoutFirst(jp, lst);
 	}
 	
-	private static void skipValueWithoutFirst(JsonParser jp) throws JsonParseException, IOException, JsonTokenValidationException {
+	private static void skipValueWithoutFirst(JsonParser jp, JsonTokenValidationListener lst)
+			throws JsonParseException, IOException, JsonTokenValidationException {
 		JsonToken t = jp.getCurrentToken();
 		if (t == JsonToken.START_OBJECT) {
+			// skipped data isn't validated, but the order of keys is still checked
+			String prevFieldName = null;
 			while (true) {
 				t = jp.nextToken();
 				if (t == JsonToken.END_OBJECT) {
 					break;
 				}
-				skipValue(jp);
+				final String fieldName = jp.getCurrentName();
+				if (prevFieldName != null &&
+						prevFieldName.compareTo(fieldName) >= 0) {
+					lst.addUnsortedKeysMessage();
+				}
+				prevFieldName = fieldName;
+				skipValue(jp, lst);
 			}
 		} else if (t == JsonToken.START_ARRAY) {
 			while (true) {
 				t = jp.nextToken();
 				if (t == JsonToken.END_ARRAY)
 					break;
-				skipValueWithoutFirst(jp);
+				skipValueWithoutFirst(jp, lst);
 			}
 		}
 	}
@@ -515,6 +608,15 @@ public class JsonTokenValidationSchema {
 		return idReference != null;
 	}
 	
+	/**
+	 * @return true if this node or any of its children describes a mapping
+	 * whose keys are id references, and therefore relabeling ids could change
+	 * the order of keys in the data.
+	 */
+	public boolean hasIdReferenceKeys() {
+		return idReferenceKeys;
+	}
+	
 	public IdReferenceType getIdReferenceType() {
 		return idReference == null ? null : idReference.idType;
 	}
@@ -527,6 +629,10 @@ public class JsonTokenValidationSchema {
 		return searchableWsSubset;
 	}
 	
+	public JsonNode getMetadataWs() {
+		return metadataWs;
+	}
+	
 	public Map<String, JsonTokenValidationSchema> getObjectProperties() {
 		return objectProperties;
 	}
@@ -625,6 +731,16 @@ public class JsonTokenValidationSchema {
 
 
 
+	private static class ObjectField {
+		final JsonTokenValidationSchema schema;
+		final int requiredPosition;
+		public ObjectField(JsonTokenValidationSchema schema,
+				int requiredPosition) {
+			this.schema = schema;
+			this.requiredPosition = requiredPosition;
+		}
+	}
+	
 	private static class IdRefDescr {
 		IdReferenceType idType;
 		List<String> attributes;
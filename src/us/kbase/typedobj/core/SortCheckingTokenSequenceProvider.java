@@ -16,6 +16,8 @@ public class SortCheckingTokenSequenceProvider implements TokenSequenceProvider
 	private JsonTokenStream jts;
 	// previous key name is compared to current key in order to find are they sorted
 	private String prevFieldName = null;
+	// name of the key if current token is a key, so it's read from jts only once
+	private String curFieldName = null;
 	// sorted flag is switched into false after first occurrence of unsroted keys
 	private boolean sorted = true;
 	
@@ -34,12 +36,12 @@ public class SortCheckingTokenSequenceProvider implements TokenSequenceProvider
 	
 	@Override
 	public JsonToken nextToken() throws IOException, JsonParseException {
+		curFieldName = null;
 		JsonToken t = jts.nextToken();
 		if (t == JsonToken.START_OBJECT) {
 			prevFieldName = null;
 		} else if (t == JsonToken.FIELD_NAME) {
-			// get real name of key after relabeling
-			String curFieldName = getText();
+			curFieldName = jts.getText();
 			// check for sorting order
 			if (prevFieldName != null && prevFieldName.compareTo(curFieldName) >= 0) {
 				sorted = false;
@@ -51,6 +53,9 @@ public class SortCheckingTokenSequenceProvider implements TokenSequenceProvider
 
 	@Override
 	public String getText() throws IOException, JsonParseException {
+		if (curFieldName != null) {
+			return curFieldName;
+		}
 		return jts.getText();
 	}
 
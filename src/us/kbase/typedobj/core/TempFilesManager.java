@@ -4,22 +4,67 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manager of temporary files for the workspace. All temporary files are
  * prefixed with "ws.".
+ * 
+ * A thread may open a request scope, in which case temporary files created
+ * by the thread are placed in a subdirectory of the temporary directory
+ * specific to the request. The subdirectory is created when the first
+ * temporary file is created, so requests that don't use temporary files
+ * don't touch the file system. When the scope is closed the subdirectory is
+ * renamed out of the way and deleted, along with any files the request
+ * didn't delete itself, on a background thread. Large files deleted via
+ * deleteTempFile() are also deleted on the background thread, so that a
+ * request never waits for the file system to unlink large files.
  * @author rsutormin
  */
 public class TempFilesManager {
 	
 	
 	private static final String WS_PREFIX = "ws.";
+	private static final String SCOPE_PREFIX = WS_PREFIX + "req.";
+	private static final String TRASH_PREFIX = WS_PREFIX + "trash.";
+	/** Files at least this size are deleted on a background thread. */
+	public static final long ASYNC_DELETE_SIZE = 16 * 1024 * 1024;
+	
 	private File tempDir;
 	private final Set<TempFileListener> listeners =
-			new HashSet<TempFileListener>();
+			new CopyOnWriteArraySet<TempFileListener>();
+	// bytes in temp files deleted via deleteTempFile() or at the end of the
+	// request scope, per thread
+	private final ThreadLocal<long[]> threadBytes = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[1];
+		}
+	};
+	// the request scope for the thread, if any
+	private final ThreadLocal<RequestScope> scope =
+			new ThreadLocal<RequestScope>();
+	// files waiting for deletion on the background thread
+	private final Set<File> pending = Collections.newSetFromMap(
+			new ConcurrentHashMap<File, Boolean>());
+	private final AtomicLong totalBytes = new AtomicLong();
+	private final AtomicLong pendingBytes = new AtomicLong();
+	private final ExecutorService deleter;
+	
+	private static class RequestScope {
+		// null until the first temporary file is created in the scope
+		private File dir = null;
+	}
 	
 	private static final FileFilter ff = new FileFilter() {
 		
@@ -48,6 +93,21 @@ public class TempFilesManager {
 		} else {
 			tempDir.mkdir();
 		}
+		// one thread that exits when idle, so unused managers don't hold
+		// threads
+		final ThreadPoolExecutor tpe = new ThreadPoolExecutor(1, 1,
+				30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					
+					@Override
+					public Thread newThread(final Runnable r) {
+						final Thread t = new Thread(r, "ws-temp-file-deleter");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		tpe.allowCoreThreadTimeOut(true);
+		deleter = tpe;
 	}
 	
 	/** Get the temporary file directory.
@@ -57,7 +117,8 @@ public class TempFilesManager {
 		return tempDir;
 	}
 	
-	/** Create a temporary file.
+	/** Create a temporary file. If the current thread has an open request
+	 * scope, the file is created in the scope directory.
 	 * @param prefix the prefix of the temporary file.
 	 * @param extension the extension of the temporary file.
 	 * @return a temporary file.
@@ -65,7 +126,7 @@ public class TempFilesManager {
 	public File generateTempFile(String prefix, String extension) {
 		try {
 			final File t = File.createTempFile(
-					WS_PREFIX + prefix, "." + extension, tempDir);
+					WS_PREFIX + prefix, "." + extension, getScopeDir());
 			for (TempFileListener l: listeners) {
 				l.createdTempFile(t);
 			}
@@ -75,6 +136,163 @@ public class TempFilesManager {
 		}
 	}
 	
+	private File getScopeDir() {
+		final RequestScope rs = scope.get();
+		if (rs == null) {
+			return tempDir;
+		}
+		if (rs.dir == null) {
+			final File d;
+			try {
+				d = File.createTempFile(SCOPE_PREFIX, "", tempDir);
+			} catch (IOException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+			// reserve the name with a file, then replace it with a directory
+			if (!d.delete() || !d.mkdir()) {
+				throw new IllegalStateException(
+						"Could not create request temporary directory " + d);
+			}
+			rs.dir = d;
+		}
+		// may have been removed by cleanup()
+		if (!rs.dir.isDirectory() && !rs.dir.mkdir()) {
+			return tempDir;
+		}
+		return rs.dir;
+	}
+	
+	/** Open a request scope for the current thread. Until the scope is
+	 * closed, temporary files created by the thread are placed in a
+	 * directory specific to the request, which is created along with the
+	 * first file. Also resets the count of temporary file bytes for the
+	 * thread. If the thread already has an open scope, it is closed first.
+	 */
+	public void startRequestScope() {
+		if (scope.get() != null) {
+			endRequestScope();
+		}
+		resetThreadTempFileBytes();
+		scope.set(new RequestScope());
+	}
+	
+	/** Close the request scope for the current thread. Any temporary files
+	 * remaining in the scope directory are deleted on a background thread
+	 * and their sizes are added to the thread's count of temporary file
+	 * bytes. If the thread has no open scope, or the scope directory was
+	 * never created, nothing is deleted.
+	 * @return the count of temporary file bytes for the thread, i.e. the
+	 * total size of the temporary files written during the request.
+	 */
+	public long endRequestScope() {
+		final RequestScope rs = scope.get();
+		scope.remove();
+		if (rs == null || rs.dir == null) {
+			return getThreadTempFileBytes();
+		}
+		final File d = rs.dir;
+		long size = 0;
+		final File[] files = d.listFiles();
+		if (files != null) {
+			for (final File f: files) {
+				if (!pending.contains(f)) {
+					size += f.length();
+				}
+			}
+		}
+		threadBytes.get()[0] += size;
+		totalBytes.addAndGet(size);
+		// the rename is a single operation regardless of the directory
+		// contents, so the directory is out of the way immediately
+		final File trash = new File(tempDir,
+				TRASH_PREFIX + d.getName().substring(SCOPE_PREFIX.length()));
+		deleteInBackground(d.renameTo(trash) ? trash : d, size);
+		return getThreadTempFileBytes();
+	}
+	
+	private void deleteInBackground(final File f, final long size) {
+		pending.add(f);
+		pendingBytes.addAndGet(size);
+		deleter.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				try {
+					deleteRecursively(f);
+				} finally {
+					pending.remove(f);
+					pendingBytes.addAndGet(-size);
+				}
+			}
+		});
+	}
+	
+	private static void deleteRecursively(final File f) {
+		if (f.isDirectory()) {
+			final File[] files = f.listFiles();
+			if (files != null) {
+				for (final File c: files) {
+					deleteRecursively(c);
+				}
+			}
+		}
+		f.delete();
+	}
+	
+	/** Delete a temporary file, adding its size to the count of temporary
+	 * file bytes for the current thread. Since temporary files are written
+	 * once and then deleted, the count is the number of bytes the thread
+	 * has written to temporary files. Files of at least ASYNC_DELETE_SIZE
+	 * bytes are deleted on a background thread.
+	 * @param f the file to delete. If null, nothing happens.
+	 * @return true if the file was deleted or queued for deletion.
+	 */
+	public boolean deleteTempFile(final File f) {
+		if (f == null || !f.isFile() || pending.contains(f)) {
+			return false;
+		}
+		final long size = f.length();
+		if (size >= ASYNC_DELETE_SIZE) {
+			deleteInBackground(f, size);
+		} else if (!f.delete()) {
+			return false;
+		}
+		threadBytes.get()[0] += size;
+		totalBytes.addAndGet(size);
+		return true;
+	}
+	
+	/** Get the total size of the temporary files deleted by the current
+	 * thread via deleteTempFile() since the last call to
+	 * resetThreadTempFileBytes() or startRequestScope(), plus the size of
+	 * any files remaining when the request scope was closed.
+	 * @return the size of the deleted files in bytes.
+	 */
+	public long getThreadTempFileBytes() {
+		return threadBytes.get()[0];
+	}
+	
+	/** Reset the count of temporary file bytes for the current thread. */
+	public void resetThreadTempFileBytes() {
+		threadBytes.get()[0] = 0;
+	}
+	
+	/** Get the total size of all the temporary files deleted by this
+	 * manager, excluding files deleted by cleanup().
+	 * @return the size of the deleted files in bytes.
+	 */
+	public long getTotalTempFileBytes() {
+		return totalBytes.get();
+	}
+	
+	/** Get the total size of the temporary files waiting for deletion on the
+	 * background thread.
+	 * @return the size of the files in bytes.
+	 */
+	public long getPendingDeleteBytes() {
+		return pendingBytes.get();
+	}
+	
 	/** Add a listener that is notifed whenever a temp file is created.
 	 * @param listener the listener.
 	 */
@@ -89,31 +307,51 @@ public class TempFilesManager {
 		listeners.remove(listener);
 	}
 	
-	/** Delete all the temporary files.
+	/** Delete all the temporary files, including request scope directories.
 	 */
 	public synchronized void cleanup() {
 		for (File f : tempDir.listFiles(ff)) {
-			f.delete();
+			deleteRecursively(f);
 		}
 	}
 
-	/** Check if any temporary files exist.
+	/** Check if any temporary files exist. Empty request scope directories
+	 * are ignored, but files waiting for deletion on the background thread
+	 * are not.
 	 * @return true if any temporary files exist.
 	 */
 	public boolean isEmpty() {
-		if(tempDir.listFiles(ff).length > 0) {
-			return false;
-		}
-		return true;
+		return listTempFiles(true).isEmpty();
 	}
 	
-	/** Get a list of all the temporary files.
+	/** Get a list of all the temporary files. Files in request scope
+	 * directories are listed as directory/file.
 	 * @return a list of all the temporary files.
 	 */
 	public List<String> getTempFileList() {
-		List<String> ret = new ArrayList<String>();
-		for (File f : tempDir.listFiles(ff))
-			ret.add(f.getName());
+		return listTempFiles(false);
+	}
+	
+	private List<String> listTempFiles(final boolean stopAtFirst) {
+		final List<String> ret = new ArrayList<String>();
+		for (File f : tempDir.listFiles(ff)) {
+			if (!f.isDirectory()) {
+				ret.add(f.getName());
+			} else {
+				final File[] files = f.listFiles();
+				if (files != null) {
+					for (final File c: files) {
+						ret.add(f.getName() + "/" + c.getName());
+						if (stopAtFirst) {
+							break;
+						}
+					}
+				}
+			}
+			if (stopAtFirst && !ret.isEmpty()) {
+				break;
+			}
+		}
 		return ret;
 	}
 }
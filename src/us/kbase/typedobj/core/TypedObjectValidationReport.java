@@ -84,8 +84,16 @@ public class TypedObjectValidationReport {
 	
 	private File fileForSorting = null;
 	
+	// the manager that created fileForSorting
+	private TempFilesManager sortFileManager = null;
+	
 	private final JsonTokenValidationSchema schema;
 	
+	// true if the validator found the keys of all maps in sorted order and
+	// relabeling ids cannot change that order. In that case the data never
+	// needs to be sorted or buffered and is streamed as is.
+	private final boolean sortedBeforeRelabeling;
+	
 	/**
 	 * keep a jackson mapper around so we don't have to create a new one over and over during subset extraction
 	 */
@@ -105,6 +113,24 @@ public class TypedObjectValidationReport {
 			final JsonNode wsMetadataSelection,
 			final JsonTokenValidationSchema schema,
 			final IdReferenceHandlerSet<?> idHandler) {
+		this(tokenStreamProvider, validationTypeDefId, errors,
+				wsSubsetSelection, wsMetadataSelection, schema, idHandler,
+				false);
+	}
+	
+	/**
+	 * As above, but also records whether the validator found the keys of all
+	 * the maps in the instance in sorted order.
+	 */
+	protected TypedObjectValidationReport(
+			final UObject tokenStreamProvider,
+			final AbsoluteTypeDefId validationTypeDefId, 
+			final List<String> errors,
+			final JsonNode wsSubsetSelection,
+			final JsonNode wsMetadataSelection,
+			final JsonTokenValidationSchema schema,
+			final IdReferenceHandlerSet<?> idHandler,
+			final boolean keysSorted) {
 		this.errors = errors == null ? new LinkedList<String>() : errors;
 		this.wsSubsetSelection = wsSubsetSelection;
 		this.wsMetadataExtractionHandler = new MetadataExtractionHandler(wsMetadataSelection,-1);
@@ -112,6 +138,8 @@ public class TypedObjectValidationReport {
 		this.idHandler = idHandler;
 		this.tokenStreamProvider = tokenStreamProvider;
 		this.schema = schema;
+		this.sortedBeforeRelabeling = keysSorted && schema != null &&
+				!schema.hasIdReferenceKeys();
 	}
 	
 	/**
@@ -217,7 +245,12 @@ public class TypedObjectValidationReport {
 			}
 		};
 		final JsonGenerator jgen = new JsonFactory().createGenerator(sizeOs);
-		sorted = relabelWsIdReferencesIntoGeneratorAndCheckOrder(jgen);
+		if (sortedBeforeRelabeling) {
+			relabelWsIdReferencesIntoGenerator(jgen);
+			sorted = true;
+		} else {
+			sorted = relabelWsIdReferencesIntoGeneratorAndCheckOrder(jgen);
+		}
 		jgen.close();
 		this.size = size[0];
 		return this.size;
@@ -257,6 +290,17 @@ public class TypedObjectValidationReport {
 		if (fac == null) {
 			throw new NullPointerException("Sorter factory cannot be null");
 		}
+		if (sortedBeforeRelabeling) {
+			// no need to relabel the data just to check the order
+			if (!idHandler.wereIdsProcessed()) {
+				throw new IllegalStateException(
+						"Must process IDs in handler prior to relabling");
+			}
+			nullifySortCacheFile();
+			cacheForSorting = null;
+			sorted = true;
+			return;
+		}
 		if (size < 0) {
 			getRelabeledSize();
 		}
@@ -285,12 +329,13 @@ public class TypedObjectValidationReport {
 					jgen = null;
 					fileForSorting = tfm.generateTempFile(
 							"sortout", "json");
+					sortFileManager = tfm;
 					final FileOutputStream os = new FileOutputStream(
 							fileForSorting);
 					fac.getSorter(f1).writeIntoStream(os);
 					os.close();
 				} finally {
-					f1.delete();
+					tfm.deleteTempFile(f1);
 					if (jgen != null)
 						jgen.close();
 				}
@@ -298,10 +343,66 @@ public class TypedObjectValidationReport {
 		}
 	}
 	
+	/** Relabel ids and sort the object with an external merge sort,
+	 * keeping a copy in a temporary file. Use this method when sort() fails
+	 * because the keys of a map don't fit in memory.
+	 * You must call this method or sort() prior to calling
+	 * createJsonWritable().
+	 * @param tfm the temporary file manager to use for managing temporary
+	 * files.
+	 * @param maxMemoryUsage the approximate maximum amount of memory to use
+	 * for the keys and values of a map before writing them to disk.
+	 * @throws IOException if an IO exception occurs.
+	 * @throws KeyDuplicationException if there are duplicate keys present
+	 * in a map after relabeling.
+	 */
+	public void externalSort(final TempFilesManager tfm,
+			final long maxMemoryUsage)
+			throws IOException, KeyDuplicationException {
+		if (tfm == null) {
+			throw new NullPointerException("tfm cannot be null");
+		}
+		if (size < 0) {
+			getRelabeledSize();
+		}
+		nullifySortCacheFile();
+		cacheForSorting = null;
+		if (!sorted) {
+			final File f1 = tfm.generateTempFile("sortinp", "json");
+			JsonGenerator jgen = null;
+			try {
+				jgen = mapper.getFactory()
+						.createGenerator(f1, JsonEncoding.UTF8);
+				relabelWsIdReferencesIntoGenerator(jgen);
+				jgen.close();
+				jgen = null;
+				fileForSorting = tfm.generateTempFile("sortout", "json");
+				sortFileManager = tfm;
+				final FileOutputStream os = new FileOutputStream(
+						fileForSorting);
+				boolean success = false;
+				try {
+					new ExternalJsonSorter(tfm, maxMemoryUsage).sort(f1, os);
+					success = true;
+				} finally {
+					os.close();
+					if (!success) {
+						nullifySortCacheFile();
+					}
+				}
+			} finally {
+				tfm.deleteTempFile(f1);
+				if (jgen != null)
+					jgen.close();
+			}
+		}
+	}
+	
 	private void nullifySortCacheFile() {
 		if (this.fileForSorting != null) {
-			this.fileForSorting.delete();
+			sortFileManager.deleteTempFile(this.fileForSorting);
 			this.fileForSorting = null;
+			sortFileManager = null;
 		}
 	}
 	
@@ -10,6 +10,8 @@ import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import us.kbase.common.service.JsonTokenStream;
 import us.kbase.common.service.UObject;
@@ -71,12 +73,21 @@ public final class TypedObjectValidator {
 	
 	private static final int maxErrorCount = 10;
 	
+	private static final int DEFAULT_SCHEMA_CACHE_SIZE = 1000;
+	
 	/**
 	 * This object is used to fetch the typed object Json Schema documents and
 	 * JsonSchema objects which are used for validation
 	 */
 	protected TypeDefinitionDB typeDefDB;
 	
+	/**
+	 * Parsed validation schemas, keyed by the absolute type they were
+	 * parsed for. The source document is kept to detect a schema change for
+	 * the same type id, in which case the schema is parsed again.
+	 */
+	private final Cache<AbsoluteTypeDefId, ParsedSchema> schemaCache;
+	
 	
 	/**
 	 * Get the type database the validator validates typed object instances against.
@@ -91,7 +102,24 @@ public final class TypedObjectValidator {
 	 * Construct a TypedObjectValidator set to the specified Typed Object Definition DB
 	 */
 	public TypedObjectValidator(TypeDefinitionDB typeDefDB) {
+		this(typeDefDB, DEFAULT_SCHEMA_CACHE_SIZE);
+	}
+	
+	/**
+	 * Construct a TypedObjectValidator set to the specified Typed Object Definition DB
+	 * @param typeDefDB the type database.
+	 * @param schemaCacheSize the maximum number of parsed type schemas to
+	 * keep in memory.
+	 */
+	public TypedObjectValidator(TypeDefinitionDB typeDefDB,
+			int schemaCacheSize) {
+		if (schemaCacheSize < 1) {
+			throw new IllegalArgumentException(
+					"Schema cache size must be at least 1");
+		}
 		this.typeDefDB = typeDefDB;
+		schemaCache = CacheBuilder.newBuilder()
+				.maximumSize(schemaCacheSize).build();
 	}
 	
 	
@@ -177,13 +205,12 @@ public final class TypedObjectValidator {
 		
 		// Actually perform the validation and return the report
 		final List<String> errors = new ArrayList<String>();
-		String schemaText = typeDefDB.getJsonSchemaDocument(absoluteTypeDefId);
-		final JsonTokenValidationSchema schema =
-				JsonTokenValidationSchema.parseJsonSchema(schemaText);
+		final JsonTokenValidationSchema schema = getSchema(absoluteTypeDefId);
 		
 		// these must be arrays to get the inner class def override to work
 		final JsonNode [] wsSubsetSelection = new JsonNode[] {null}; // was renamed from searchDataWrap
 		final JsonNode [] metadataSelection = new JsonNode[] {null};
+		final boolean [] keysSorted = new boolean[] {true};
 		try {
 			if (!schema.getOriginalType().equals("kidl-structure"))
 				throw new JsonTokenValidationException(
@@ -253,6 +280,11 @@ public final class TypedObjectValidator {
 					public void addMetadataWsMessage(JsonNode selection) {
 						metadataSelection[0] = selection;
 					}
+
+					@Override
+					public void addUnsortedKeysMessage() {
+						keysSorted[0] = false;
+					}
 				});
 			} finally {
 				try { jts.close(); } catch (Exception ignore) {}
@@ -281,7 +313,96 @@ public final class TypedObjectValidator {
 									wsSubsetSelection[0], 
 									metadataSelection[0],
 									schema,
-									handlers);
+									handlers,
+									// the order is unknown if validation stopped early
+									keysSorted[0] && errors.isEmpty());
+	}
+	
+	/**
+	 * Check whether a type specifies workspace metadata that is extracted from
+	 * typed object instances, i.e. the 'metadata ws' annotation.
+	 * @param type the type to check.
+	 * @return true if metadata is extracted from instances of the type.
+	 * @throws NoSuchTypeException
+	 * @throws NoSuchModuleException
+	 * @throws TypeStorageException
+	 * @throws TypedObjectSchemaException
+	 */
+	public boolean hasWsMetadata(final AbsoluteTypeDefId type)
+			throws NoSuchTypeException, NoSuchModuleException,
+			TypeStorageException, TypedObjectSchemaException {
+		return hasWsMetadata(getSchema(type));
+	}
+	
+	private static boolean hasWsMetadata(
+			final JsonTokenValidationSchema schema) {
+		if (schema == null) {
+			return false;
+		}
+		if (schema.getMetadataWs() != null) {
+			return true;
+		}
+		if (schema.getObjectProperties() != null) {
+			for (final JsonTokenValidationSchema s:
+					schema.getObjectProperties().values()) {
+				if (hasWsMetadata(s)) {
+					return true;
+				}
+			}
+		}
+		if (schema.getArrayItemList() != null) {
+			for (final JsonTokenValidationSchema s:
+					schema.getArrayItemList()) {
+				if (hasWsMetadata(s)) {
+					return true;
+				}
+			}
+		}
+		return hasWsMetadata(schema.getObjectAdditionalPropertiesType()) ||
+				hasWsMetadata(schema.getArrayItems());
+	}
+	
+	/**
+	 * Load and parse the schema for a type into the schema cache, e.g. to
+	 * avoid the cost when the type is first used.
+	 * @param type the type to load.
+	 * @throws NoSuchTypeException
+	 * @throws NoSuchModuleException
+	 * @throws TypeStorageException
+	 * @throws TypedObjectSchemaException
+	 */
+	public void preloadSchema(final AbsoluteTypeDefId type)
+			throws NoSuchTypeException, NoSuchModuleException,
+			TypeStorageException, TypedObjectSchemaException {
+		getSchema(type);
+	}
+	
+	private JsonTokenValidationSchema getSchema(
+			final AbsoluteTypeDefId type)
+			throws NoSuchTypeException, NoSuchModuleException,
+			TypeStorageException, TypedObjectSchemaException {
+		// the type db caches schema documents, so this is usually cheap and
+		// returns the same instance the parsed schema was built from
+		final String schemaText = typeDefDB.getJsonSchemaDocument(type);
+		final ParsedSchema cached = schemaCache.getIfPresent(type);
+		if (cached != null && cached.document.equals(schemaText)) {
+			return cached.schema;
+		}
+		final JsonTokenValidationSchema schema =
+				JsonTokenValidationSchema.parseJsonSchema(schemaText);
+		schemaCache.put(type, new ParsedSchema(schemaText, schema));
+		return schema;
+	}
+	
+	private static class ParsedSchema {
+		final String document;
+		final JsonTokenValidationSchema schema;
+		
+		ParsedSchema(final String document,
+				final JsonTokenValidationSchema schema) {
+			this.document = document;
+			this.schema = schema;
+		}
 	}
 	
 	private void mapErrors(final List<String> errors, final String err) {
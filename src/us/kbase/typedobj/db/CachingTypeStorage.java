@@ -0,0 +1,613 @@
+package us.kbase.typedobj.db;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import us.kbase.typedobj.exceptions.TypeStorageException;
+
+/**
+ * Read-through cache around another type storage.
+ *
+ * Records that never change once written for a module version (type schemas,
+ * type and function parse records, type MD5s and module specs) are kept until
+ * they're evicted by size or until their module is changed through this
+ * storage. Records that change as modules are registered and released
+ * (module info records, version lists, references) are additionally expired
+ * after a short time. Writes through this storage invalidate the cached
+ * records immediately, but writes made by other servers to the same
+ * database are only seen once the mutable records expire.
+ *
+ * Module info records and references are mutable objects, so copies are
+ * returned.
+ */
+public class CachingTypeStorage implements TypeStorage {
+
+	public static final int DEFAULT_MAX_RECORDS = 100000;
+	public static final long DEFAULT_MUTABLE_TTL_MS = 30 * 1000;
+
+	private static final String SCHEMA = "schema";
+	private static final String MD5 = "md5";
+	private static final String TYPE_PARSE = "typeparse";
+	private static final String FUNC_PARSE = "funcparse";
+	private static final String SPEC = "spec";
+	private static final String INFO = "info";
+	private static final String MODULE_VERSIONS = "modvers";
+	private static final String LAST_RELEASED = "lastrel";
+	private static final String LAST_UNRELEASED = "lastunrel";
+	private static final String TYPE_VERSIONS = "typevers";
+	private static final String FUNC_VERSIONS = "funcvers";
+	private static final String TYPE_REFS_BY_DEP = "typedep";
+	private static final String TYPE_REFS_BY_REF = "typeref";
+	private static final String FUNC_REFS_BY_DEP = "funcdep";
+	private static final String FUNC_REFS_BY_REF = "funcref";
+	private static final String MODS_FOR_TYPE = "modsfortype";
+	private static final String MODS_FOR_FUNC = "modsforfunc";
+
+	private final TypeStorage storage;
+	// keys are lists starting with the record kind and the module name
+	private final Cache<List<Object>, Object> immutable;
+	private final Cache<List<Object>, Object> mutable;
+	private final ObjectMapper mapper = new ObjectMapper();
+	// incremented on invalidation so loads that started before a write
+	// don't put old records in the cache
+	private long generation = 0;
+
+	public CachingTypeStorage(TypeStorage storage) {
+		this(storage, DEFAULT_MAX_RECORDS, DEFAULT_MUTABLE_TTL_MS);
+	}
+
+	/**
+	 * @param storage the storage to cache.
+	 * @param maxRecords the maximum number of records kept in each of the
+	 * immutable and mutable record caches.
+	 * @param mutableTTLms the time after which mutable records expire.
+	 */
+	public CachingTypeStorage(TypeStorage storage, int maxRecords,
+			long mutableTTLms) {
+		if (storage == null)
+			throw new NullPointerException("storage cannot be null");
+		if (maxRecords < 1)
+			throw new IllegalArgumentException("maxRecords must be at least 1");
+		if (mutableTTLms < 0)
+			throw new IllegalArgumentException("mutableTTLms cannot be negative");
+		this.storage = storage;
+		this.immutable = CacheBuilder.newBuilder().maximumSize(maxRecords)
+				.build();
+		this.mutable = CacheBuilder.newBuilder().maximumSize(maxRecords)
+				.expireAfterWrite(mutableTTLms, TimeUnit.MILLISECONDS).build();
+	}
+
+	/**
+	 * @return the storage wrapped by this cache.
+	 */
+	public TypeStorage getInnerStorage() {
+		return storage;
+	}
+
+	/**
+	 * Loads the records of the latest released and latest versions of a module
+	 * - the module info, spec, and the schema, MD5 and parse records of all
+	 * types and functions - into the cache.
+	 * @param moduleName the name of the module.
+	 * @throws TypeStorageException
+	 */
+	public void preloadModule(String moduleName) throws TypeStorageException {
+		Set<Long> versions = new TreeSet<Long>();
+		versions.add(getLastModuleVersionWithUnreleased(moduleName));
+		try {
+			versions.add(getLastReleasedModuleVersion(moduleName));
+		} catch (TypeStorageException e) {
+			// module was never released
+		}
+		for (long version : versions) {
+			if (!checkModuleInfoRecordExist(moduleName, version))
+				continue;
+			ModuleInfo info = getModuleInfoRecord(moduleName, version);
+			if (checkModuleSpecRecordExist(moduleName, version))
+				getModuleSpecRecord(moduleName, version);
+			for (TypeInfo ti : info.getTypes().values()) {
+				if (!ti.isSupported())
+					continue;
+				getTypeSchemaRecord(moduleName, ti.getTypeName(), ti.getTypeVersion());
+				getTypeMd5(moduleName, ti.getTypeName(), ti.getTypeVersion());
+				getTypeParseRecord(moduleName, ti.getTypeName(), ti.getTypeVersion());
+				getTypeRefsByDep(moduleName, ti.getTypeName(), ti.getTypeVersion());
+			}
+			for (FuncInfo fi : info.getFuncs().values()) {
+				if (!fi.isSupported())
+					continue;
+				getFuncParseRecord(moduleName, fi.getFuncName(), fi.getFuncVersion());
+				getFuncRefsByDep(moduleName, fi.getFuncName(), fi.getFuncVersion());
+			}
+		}
+	}
+
+	/**
+	 * Drops all cached records of a module, and all mutable records since
+	 * references and version lists span modules.
+	 * @param moduleName the name of the module.
+	 */
+	public synchronized void invalidateModule(String moduleName) {
+		generation++;
+		mutable.invalidateAll();
+		Iterator<List<Object>> it = immutable.asMap().keySet().iterator();
+		while (it.hasNext())
+			if (moduleName.equals(it.next().get(1)))
+				it.remove();
+	}
+
+	private synchronized void invalidateRefs() {
+		// references are only cached as mutable records
+		generation++;
+		mutable.invalidateAll();
+	}
+
+	/**
+	 * Drops all cached records.
+	 */
+	public synchronized void invalidateAll() {
+		generation++;
+		mutable.invalidateAll();
+		immutable.invalidateAll();
+	}
+
+	private static List<Object> key(Object... parts) {
+		return Arrays.asList(parts);
+	}
+
+	/* Storage methods may return null for missing records, in which case the
+	 * record isn't cached. Concurrent misses may load a record more than once.
+	 */
+	private abstract class Loader<T> {
+		abstract T load() throws TypeStorageException;
+
+		@SuppressWarnings("unchecked")
+		T get(Cache<List<Object>, Object> cache, List<Object> key)
+				throws TypeStorageException {
+			Object ret = cache.getIfPresent(key);
+			if (ret != null)
+				return (T)ret;
+			long gen;
+			synchronized (CachingTypeStorage.this) {
+				gen = generation;
+			}
+			T loaded = load();
+			if (loaded != null) {
+				synchronized (CachingTypeStorage.this) {
+					if (gen == generation)
+						cache.put(key, loaded);
+				}
+			}
+			return loaded;
+		}
+	}
+
+	private ModuleInfo copy(ModuleInfo info) {
+		if (info == null)
+			return null;
+		return mapper.convertValue(info, ModuleInfo.class);
+	}
+
+	private static Set<RefInfo> copy(Set<RefInfo> refs) {
+		if (refs == null)
+			return null;
+		Set<RefInfo> ret = new TreeSet<RefInfo>();
+		for (RefInfo ri : refs) {
+			RefInfo c = new RefInfo();
+			c.setDepModule(ri.getDepModule());
+			c.setDepName(ri.getDepName());
+			c.setDepVersion(ri.getDepVersion());
+			c.setDepModuleVersion(ri.getDepModuleVersion());
+			c.setRefModule(ri.getRefModule());
+			c.setRefName(ri.getRefName());
+			c.setRefVersion(ri.getRefVersion());
+			ret.add(c);
+		}
+		return ret;
+	}
+
+	private static <K, V> Map<K, V> copy(Map<K, V> map) {
+		return map == null ? null : new LinkedHashMap<K, V>(map);
+	}
+
+	//////////////////////////////// CACHED READS ////////////////////////////////
+
+	@Override
+	public long getLastReleasedModuleVersion(final String moduleName)
+			throws TypeStorageException {
+		return new Loader<Long>() {
+			Long load() throws TypeStorageException {
+				return storage.getLastReleasedModuleVersion(moduleName);
+			}
+		}.get(mutable, key(LAST_RELEASED, moduleName));
+	}
+
+	@Override
+	public long getLastModuleVersionWithUnreleased(final String moduleName)
+			throws TypeStorageException {
+		return new Loader<Long>() {
+			Long load() throws TypeStorageException {
+				return storage.getLastModuleVersionWithUnreleased(moduleName);
+			}
+		}.get(mutable, key(LAST_UNRELEASED, moduleName));
+	}
+
+	@Override
+	public TreeMap<Long, Boolean> getAllModuleVersions(final String moduleName)
+			throws TypeStorageException {
+		TreeMap<Long, Boolean> ret = new Loader<TreeMap<Long, Boolean>>() {
+			TreeMap<Long, Boolean> load() throws TypeStorageException {
+				return storage.getAllModuleVersions(moduleName);
+			}
+		}.get(mutable, key(MODULE_VERSIONS, moduleName));
+		return ret == null ? null : new TreeMap<Long, Boolean>(ret);
+	}
+
+	@Override
+	public String getModuleSpecRecord(final String moduleName, final long version)
+			throws TypeStorageException {
+		return new Loader<String>() {
+			String load() throws TypeStorageException {
+				return storage.getModuleSpecRecord(moduleName, version);
+			}
+		}.get(immutable, key(SPEC, moduleName, version));
+	}
+
+	@Override
+	public ModuleInfo getModuleInfoRecord(final String moduleName, final long version)
+			throws TypeStorageException {
+		return copy(new Loader<ModuleInfo>() {
+			ModuleInfo load() throws TypeStorageException {
+				return storage.getModuleInfoRecord(moduleName, version);
+			}
+		}.get(mutable, key(INFO, moduleName, version)));
+	}
+
+	@Override
+	public String getTypeSchemaRecord(final String moduleName, final String typeName,
+			final String version) throws TypeStorageException {
+		return new Loader<String>() {
+			String load() throws TypeStorageException {
+				return storage.getTypeSchemaRecord(moduleName, typeName, version);
+			}
+		}.get(immutable, key(SCHEMA, moduleName, typeName, version));
+	}
+
+	@Override
+	public String getTypeMd5(final String moduleName, final String typeName,
+			final String version) throws TypeStorageException {
+		return new Loader<String>() {
+			String load() throws TypeStorageException {
+				return storage.getTypeMd5(moduleName, typeName, version);
+			}
+		}.get(immutable, key(MD5, moduleName, typeName, version));
+	}
+
+	@Override
+	public String getTypeParseRecord(final String moduleName, final String typeName,
+			final String version) throws TypeStorageException {
+		return new Loader<String>() {
+			String load() throws TypeStorageException {
+				return storage.getTypeParseRecord(moduleName, typeName, version);
+			}
+		}.get(immutable, key(TYPE_PARSE, moduleName, typeName, version));
+	}
+
+	@Override
+	public String getFuncParseRecord(final String moduleName, final String funcName,
+			final String version) throws TypeStorageException {
+		return new Loader<String>() {
+			String load() throws TypeStorageException {
+				return storage.getFuncParseRecord(moduleName, funcName, version);
+			}
+		}.get(immutable, key(FUNC_PARSE, moduleName, funcName, version));
+	}
+
+	@Override
+	public Set<RefInfo> getTypeRefsByDep(final String depModule, final String depType,
+			final String version) throws TypeStorageException {
+		return copy(new Loader<Set<RefInfo>>() {
+			Set<RefInfo> load() throws TypeStorageException {
+				return storage.getTypeRefsByDep(depModule, depType, version);
+			}
+		}.get(mutable, key(TYPE_REFS_BY_DEP, depModule, depType, version)));
+	}
+
+	@Override
+	public Set<RefInfo> getTypeRefsByRef(final String refModule, final String refType,
+			final String version) throws TypeStorageException {
+		return copy(new Loader<Set<RefInfo>>() {
+			Set<RefInfo> load() throws TypeStorageException {
+				return storage.getTypeRefsByRef(refModule, refType, version);
+			}
+		}.get(mutable, key(TYPE_REFS_BY_REF, refModule, refType, version)));
+	}
+
+	@Override
+	public Map<String, Boolean> getAllTypeVersions(final String moduleName,
+			final String typeName) throws TypeStorageException {
+		return copy(new Loader<Map<String, Boolean>>() {
+			Map<String, Boolean> load() throws TypeStorageException {
+				return storage.getAllTypeVersions(moduleName, typeName);
+			}
+		}.get(mutable, key(TYPE_VERSIONS, moduleName, typeName)));
+	}
+
+	@Override
+	public Map<String, Boolean> getAllFuncVersions(final String moduleName,
+			final String funcName) throws TypeStorageException {
+		return copy(new Loader<Map<String, Boolean>>() {
+			Map<String, Boolean> load() throws TypeStorageException {
+				return storage.getAllFuncVersions(moduleName, funcName);
+			}
+		}.get(mutable, key(FUNC_VERSIONS, moduleName, funcName)));
+	}
+
+	@Override
+	public Set<RefInfo> getFuncRefsByDep(final String depModule, final String depFunc,
+			final String version) throws TypeStorageException {
+		return copy(new Loader<Set<RefInfo>>() {
+			Set<RefInfo> load() throws TypeStorageException {
+				return storage.getFuncRefsByDep(depModule, depFunc, version);
+			}
+		}.get(mutable, key(FUNC_REFS_BY_DEP, depModule, depFunc, version)));
+	}
+
+	@Override
+	public Set<RefInfo> getFuncRefsByRef(final String refModule, final String refType,
+			final String version) throws TypeStorageException {
+		return copy(new Loader<Set<RefInfo>>() {
+			Set<RefInfo> load() throws TypeStorageException {
+				return storage.getFuncRefsByRef(refModule, refType, version);
+			}
+		}.get(mutable, key(FUNC_REFS_BY_REF, refModule, refType, version)));
+	}
+
+	@Override
+	public Map<Long, Boolean> getModuleVersionsForTypeVersion(final String moduleName,
+			final String typeName, final String typeVersion) throws TypeStorageException {
+		return copy(new Loader<Map<Long, Boolean>>() {
+			Map<Long, Boolean> load() throws TypeStorageException {
+				return storage.getModuleVersionsForTypeVersion(moduleName, typeName, typeVersion);
+			}
+		}.get(mutable, key(MODS_FOR_TYPE, moduleName, typeName, typeVersion)));
+	}
+
+	@Override
+	public Map<Long, Boolean> getModuleVersionsForFuncVersion(final String moduleName,
+			final String funcName, final String funcVersion) throws TypeStorageException {
+		return copy(new Loader<Map<Long, Boolean>>() {
+			Map<Long, Boolean> load() throws TypeStorageException {
+				return storage.getModuleVersionsForFuncVersion(moduleName, funcName, funcVersion);
+			}
+		}.get(mutable, key(MODS_FOR_FUNC, moduleName, funcName, funcVersion)));
+	}
+
+	//////////////////////////////// UNCACHED READS ////////////////////////////////
+
+	@Override
+	public boolean checkModuleExist(String moduleName) throws TypeStorageException {
+		return storage.checkModuleExist(moduleName);
+	}
+
+	@Override
+	public long generateNewModuleVersion(String moduleName) throws TypeStorageException {
+		return storage.generateNewModuleVersion(moduleName);
+	}
+
+	@Override
+	public boolean checkModuleInfoRecordExist(String moduleName, long version)
+			throws TypeStorageException {
+		return storage.checkModuleInfoRecordExist(moduleName, version);
+	}
+
+	@Override
+	public boolean checkModuleSpecRecordExist(String moduleName, long version)
+			throws TypeStorageException {
+		return storage.checkModuleSpecRecordExist(moduleName, version);
+	}
+
+	@Override
+	public Set<String> getAllRegisteredModules(boolean withUnsupported)
+			throws TypeStorageException {
+		return storage.getAllRegisteredModules(withUnsupported);
+	}
+
+	@Override
+	public List<OwnerInfo> getNewModuleRegistrationRequests() throws TypeStorageException {
+		return storage.getNewModuleRegistrationRequests();
+	}
+
+	@Override
+	public String getOwnerForNewModuleRegistrationRequest(String moduleName)
+			throws TypeStorageException {
+		return storage.getOwnerForNewModuleRegistrationRequest(moduleName);
+	}
+
+	@Override
+	public Map<String, OwnerInfo> getOwnersForModule(String moduleName)
+			throws TypeStorageException {
+		return storage.getOwnersForModule(moduleName);
+	}
+
+	@Override
+	public boolean checkTypeSchemaRecordExists(String moduleName, String typeName,
+			String version) throws TypeStorageException {
+		return storage.checkTypeSchemaRecordExists(moduleName, typeName, version);
+	}
+
+	@Override
+	public List<String> getTypeVersionsByMd5(String moduleName, String typeName,
+			String md5) throws TypeStorageException {
+		return storage.getTypeVersionsByMd5(moduleName, typeName, md5);
+	}
+
+	@Override
+	public Map<String, OwnerInfo> getModulesForOwner(String userId)
+			throws TypeStorageException {
+		return storage.getModulesForOwner(userId);
+	}
+
+	@Override
+	public boolean getModuleSupportedState(String moduleName) throws TypeStorageException {
+		return storage.getModuleSupportedState(moduleName);
+	}
+
+	///////////////////////////////////// CHANGES //////////////////////////////////////////
+
+	@Override
+	public void writeTypeSchemaRecord(String moduleName, String typeName,
+			String version, long moduleVersion, String document, String md5)
+			throws TypeStorageException {
+		try {
+			storage.writeTypeSchemaRecord(moduleName, typeName, version,
+					moduleVersion, document, md5);
+		} finally {
+			invalidateModule(moduleName);
+		}
+	}
+
+	@Override
+	public void writeTypeParseRecord(String moduleName, String typeName,
+			String version, long moduleVersion, String document)
+			throws TypeStorageException {
+		try {
+			storage.writeTypeParseRecord(moduleName, typeName, version,
+					moduleVersion, document);
+		} finally {
+			invalidateModule(moduleName);
+		}
+	}
+
+	@Override
+	public void writeModuleRecords(ModuleInfo info, String specDocument,
+			long version) throws TypeStorageException {
+		try {
+			storage.writeModuleRecords(info, specDocument, version);
+		} finally {
+			invalidateModule(info.getModuleName());
+		}
+	}
+
+	@Override
+	public void initModuleInfoRecord(ModuleInfo info) throws TypeStorageException {
+		try {
+			storage.initModuleInfoRecord(info);
+		} finally {
+			invalidateModule(info.getModuleName());
+		}
+	}
+
+	@Override
+	public void writeFuncParseRecord(String moduleName, String funcName,
+			String version, long moduleVersion, String parseText)
+			throws TypeStorageException {
+		try {
+			storage.writeFuncParseRecord(moduleName, funcName, version,
+					moduleVersion, parseText);
+		} finally {
+			invalidateModule(moduleName);
+		}
+	}
+
+	@Override
+	public void removeModule(String moduleName) throws TypeStorageException {
+		try {
+			storage.removeModule(moduleName);
+		} finally {
+			invalidateModule(moduleName);
+		}
+	}
+
+	@Override
+	public void addRefs(Set<RefInfo> typeRefs, Set<RefInfo> funcRefs)
+			throws TypeStorageException {
+		try {
+			storage.addRefs(typeRefs, funcRefs);
+		} finally {
+			invalidateRefs();
+		}
+	}
+
+	@Override
+	public void addNewModuleRegistrationRequest(String moduleName, String userId)
+			throws TypeStorageException {
+		storage.addNewModuleRegistrationRequest(moduleName, userId);
+	}
+
+	@Override
+	public void removeNewModuleRegistrationRequest(String moduleName, String userId)
+			throws TypeStorageException {
+		storage.removeNewModuleRegistrationRequest(moduleName, userId);
+	}
+
+	@Override
+	public void addOwnerToModule(String moduleName, String userId,
+			boolean withChangeOwnersPrivilege) throws TypeStorageException {
+		storage.addOwnerToModule(moduleName, userId, withChangeOwnersPrivilege);
+	}
+
+	@Override
+	public void removeOwnerFromModule(String moduleName, String userId)
+			throws TypeStorageException {
+		storage.removeOwnerFromModule(moduleName, userId);
+	}
+
+	@Override
+	public void removeModuleVersionAndSwitchIfNotCurrent(String moduleName,
+			long versionToDelete, long versionToSwitchTo) throws TypeStorageException {
+		try {
+			storage.removeModuleVersionAndSwitchIfNotCurrent(moduleName,
+					versionToDelete, versionToSwitchTo);
+		} finally {
+			invalidateModule(moduleName);
+		}
+	}
+
+	@Override
+	public void setModuleReleaseVersion(String moduleName, long version)
+			throws TypeStorageException {
+		try {
+			storage.setModuleReleaseVersion(moduleName, version);
+		} finally {
+			invalidateModule(moduleName);
+		}
+	}
+
+	@Override
+	public void changeModuleSupportedState(String moduleName, boolean supported)
+			throws TypeStorageException {
+		try {
+			storage.changeModuleSupportedState(moduleName, supported);
+		} finally {
+			invalidateModule(moduleName);
+		}
+	}
+
+	////////////////////////////////////// TESTING ///////////////////////////////////////////
+
+	@Override
+	public void removeAllData() throws TypeStorageException {
+		try {
+			storage.removeAllData();
+		} finally {
+			invalidateAll();
+		}
+	}
+
+	@Override
+	public Map<String, Long> listObjects() throws TypeStorageException {
+		return storage.listObjects();
+	}
+}
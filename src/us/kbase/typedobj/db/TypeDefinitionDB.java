@@ -20,7 +20,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.codec.digest.DigestUtils;
 
@@ -85,9 +91,8 @@ public class TypeDefinitionDB {
 	private final TypeStorage storage;
 	private final File parentTempDir;
 	private final Object tempDirLock = new Object(); 
-	private final Object moduleStateLock = new Object(); 
-	private final Map<String, ModuleState> moduleStates = new HashMap<String, ModuleState>();
-	private final ThreadLocal<Map<String,Integer>> localReadLocks = new ThreadLocal<Map<String,Integer>>(); 
+	private final ConcurrentMap<String, ModuleLock> moduleLocks =
+			new ConcurrentHashMap<String, ModuleLock>();
 	private final String kbTopPath;
 	private final KidlSource kidlSource;
 	private final LoadingCache<String, ModuleInfo> moduleInfoCache;
@@ -202,38 +207,17 @@ public class TypeDefinitionDB {
 		return getJsonSchemaDocument(new TypeDefId(typeDefName));
 	}
 	
-	private ModuleState getModuleState(String moduleName) {
-		synchronized (moduleStateLock) {
-			ModuleState ret = moduleStates.get(moduleName);
-			if (ret == null) {
-				ret = new ModuleState();
-				moduleStates.put(moduleName, ret);
-			}
-			return ret;
-		}
-	}
-	
-	private int getLocalReadLocks(String moduleName) {
-		Map<String, Integer> map = localReadLocks.get();
-		if (map == null) {
-			map = new HashMap<String, Integer>();
-			localReadLocks.set(map);
+	private ModuleLock getModuleLock(String moduleName) {
+		ModuleLock ret = moduleLocks.get(moduleName);
+		if (ret == null) {
+			final ModuleLock newLock = new ModuleLock();
+			ret = moduleLocks.putIfAbsent(moduleName, newLock);
+			if (ret == null)
+				ret = newLock;
 		}
-		Integer ret = map.get(moduleName);
-		if (ret == null)
-			return 0;
 		return ret;
 	}
-
-	private void setLocalReadLocks(String moduleName, int locks) {
-		Map<String, Integer> map = localReadLocks.get();
-		if (map == null) {
-			map = new HashMap<String, Integer>();
-			localReadLocks.set(map);
-		}
-		map.put(moduleName, locks);
-	}
-
+	
 	private void requestReadLock(String moduleName) throws NoSuchModuleException, TypeStorageException {
 		if (moduleInfoCache.getIfPresent(moduleName) == null) {
 			if (!storage.checkModuleExist(moduleName))
@@ -243,70 +227,64 @@ public class TypeDefinitionDB {
 	}
 		
 	private void requestReadLockNM(String moduleName) throws TypeStorageException {
-		int lrl = getLocalReadLocks(moduleName);
-		if (lrl == 0) {
-			final ModuleState ms = getModuleState(moduleName);
-			synchronized (ms) {
-				long startTime = System.currentTimeMillis();
-				while (ms.writerCount > 0) {
-					try {
-						ms.wait(10000);
-					} catch (InterruptedException ignore) {}
-					if (System.currentTimeMillis() - startTime > maxDeadLockWaitTime)
-						throw new IllegalStateException("Looks like deadlock");
-				}
-				ms.readerCount++;
-				//new Exception("moduleName=" + moduleName + ", readerCount=" + ms.readerCount).printStackTrace(System.out);
-			}
-		}
-		setLocalReadLocks(moduleName, lrl + 1);
+		// read locks are reentrant, and readers only block each other while
+		// a writer is waiting or holds the lock
+		final ModuleLock ml = getModuleLock(moduleName);
+		if (!tryLock(ml.lock.readLock()))
+			throw new IllegalStateException("Looks like deadlock");
 	}
 	
 	private void releaseReadLock(String moduleName) {
-		final ModuleState ms = getModuleState(moduleName);
-		int lrl = getLocalReadLocks(moduleName);
-		lrl--;
-		setLocalReadLocks(moduleName, lrl);
-		if (lrl == 0) {
-			synchronized (ms) {
-				if (ms.readerCount == 0)
-					throw new IllegalStateException("Can not release empty read lock");
-				ms.readerCount--;
-				//new Exception("moduleName=" + moduleName + ", readerCount=" + ms.readerCount).printStackTrace(System.out);
-				ms.notifyAll();
-			}		
-		}
+		getModuleLock(moduleName).lock.readLock().unlock();
 	}
 	
 	private void requestWriteLock(String moduleName) {
-		final ModuleState ms = getModuleState(moduleName);
-		synchronized (ms) {
-			if (ms.writerCount > 0)
-				throw new IllegalStateException("Concurent changes of module " + moduleName);
-			ms.writerCount++;
-			//new Exception("moduleName=" + moduleName + ", writerCount=" + ms.writerCount).printStackTrace(System.out);
-			long startTime = System.currentTimeMillis();
-			while (ms.readerCount > 0) {
+		final ModuleLock ml = getModuleLock(moduleName);
+		if (!ml.writing.compareAndSet(false, true))
+			throw new IllegalStateException("Concurent changes of module " + moduleName);
+		if (!tryLock(ml.lock.writeLock())) {
+			ml.writing.set(false);
+			throw new IllegalStateException("Looks like deadlock");
+		}
+	}
+	
+	private void releaseWriteLock(String moduleName) {
+		final ModuleLock ml = getModuleLock(moduleName);
+		if (!ml.lock.isWriteLockedByCurrentThread())
+			throw new IllegalStateException("Can not release empty write lock");
+		ml.writing.set(false);
+		ml.lock.writeLock().unlock();
+	}
+	
+	private static boolean tryLock(Lock lock) {
+		boolean interrupted = false;
+		final long end = System.currentTimeMillis() + maxDeadLockWaitTime;
+		try {
+			while (true) {
 				try {
-					ms.wait(10000);
-				} catch (InterruptedException ignore) {}
-				if (System.currentTimeMillis() - startTime > maxDeadLockWaitTime) {
-					ms.writerCount--;
-					throw new IllegalStateException("Looks like deadlock");
+					return lock.tryLock(Math.max(0, end - System.currentTimeMillis()),
+							TimeUnit.MILLISECONDS);
+				} catch (InterruptedException ie) {
+					interrupted = true;
 				}
 			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
 		}
 	}
 	
-	private void releaseWriteLock(String moduleName) {
-		final ModuleState ms = getModuleState(moduleName);
-		synchronized (ms) {
-			if (ms.writerCount == 0)
-				throw new IllegalStateException("Can not release empty write lock");
-			ms.writerCount--;
-			//new Exception("moduleName=" + moduleName + ", writerCount=" + ms.writerCount).printStackTrace(System.out);
-			ms.notifyAll();
-		}		
+	/* Versions of type schemas never change once saved, so a schema
+	 * requested by exact version that is already cached can be returned
+	 * without locking the module. This is the path nearly all validation
+	 * takes.
+	 */
+	private String getCachedJsonSchemaDocument(final TypeDefId typeDefId) {
+		if (!typeDefId.isAbsolute() || typeDefId.getMd5() != null)
+			return null;
+		return typeJsonSchemaCache.getIfPresent(new AbsoluteTypeDefId(
+				typeDefId.getType(), typeDefId.getMajorVersion(),
+				typeDefId.getMinorVersion()));
 	}
 	
 	/**
@@ -322,6 +300,9 @@ public class TypeDefinitionDB {
 	 */
 	public String getJsonSchemaDocument(final TypeDefId typeDefId)
 			throws NoSuchTypeException, NoSuchModuleException, TypeStorageException {
+		final String cached = getCachedJsonSchemaDocument(typeDefId);
+		if (cached != null)
+			return cached;
 		String moduleName = typeDefId.getType().getModule();
 		requestReadLock(moduleName);
 		try {
@@ -346,6 +327,9 @@ public class TypeDefinitionDB {
 	 */
 	public String getJsonSchemaDocument(final TypeDefId typeDefId, String userId)
 			throws NoSuchTypeException, NoSuchModuleException, TypeStorageException {
+		final String cached = getCachedJsonSchemaDocument(typeDefId);
+		if (cached != null)
+			return cached;
 		String moduleName = typeDefId.getType().getModule();
 		requestReadLock(moduleName);
 		try {
@@ -2893,8 +2877,9 @@ public class TypeDefinitionDB {
 		}
 	}
 	
-	private static class ModuleState {
-		int readerCount = 0;
-		int writerCount = 0;
+	private static class ModuleLock {
+		final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+		// set while a writer holds or waits for the lock
+		final AtomicBoolean writing = new AtomicBoolean(false);
 	}
 }
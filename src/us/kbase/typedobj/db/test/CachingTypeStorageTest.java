@@ -0,0 +1,131 @@
+package us.kbase.typedobj.db.test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import us.kbase.typedobj.db.CachingTypeStorage;
+import us.kbase.typedobj.db.FileTypeStorage;
+import us.kbase.typedobj.db.ModuleInfo;
+import us.kbase.typedobj.db.TypeInfo;
+import us.kbase.typedobj.exceptions.TypeStorageException;
+import us.kbase.workspace.test.WorkspaceTestCommon;
+
+public class CachingTypeStorageTest {
+	private TestTypeStorage inner = null;
+	private CachingTypeStorage storage = null;
+	private final Map<String, Integer> calls = new HashMap<String, Integer>();
+
+	@Before
+	public void setUp() throws Exception {
+		String dir = Files.createTempDirectory(
+				Paths.get(WorkspaceTestCommon.getTempDir()),
+				"CachingTypeStorageTest").toFile().getAbsolutePath();
+		inner = TestTypeStorageFactory.createTypeStorageWrapper(
+				new FileTypeStorage(dir));
+		inner.addTypeStorageListener(new TypeStorageListener() {
+			@Override
+			public void onMethodStart(String method, Object[] params)
+					throws TypeStorageException {
+				Integer count = calls.get(method);
+				calls.put(method, count == null ? 1 : count + 1);
+			}
+			@Override
+			public void onMethodEnd(String method, Object[] params, Object ret)
+					throws TypeStorageException {
+			}
+		});
+		storage = new CachingTypeStorage(inner);
+	}
+
+	private int calls(String method) {
+		Integer count = calls.get(method);
+		return count == null ? 0 : count;
+	}
+
+	private long initModule(String moduleName) throws Exception {
+		ModuleInfo info = new ModuleInfo();
+		info.setModuleName(moduleName);
+		TypeInfo ti = new TypeInfo();
+		ti.setTypeName("Feature");
+		ti.setTypeVersion("0.1");
+		ti.setSupported(true);
+		info.getTypes().put("Feature", ti);
+		storage.initModuleInfoRecord(info);
+		storage.writeTypeSchemaRecord(moduleName, "Feature", "0.1",
+				info.getVersionTime(), "{\"v\":1}", "md5");
+		storage.writeTypeParseRecord(moduleName, "Feature", "0.1",
+				info.getVersionTime(), "{\"p\":1}");
+		storage.setModuleReleaseVersion(moduleName, info.getVersionTime());
+		return info.getVersionTime();
+	}
+
+	@Test
+	public void readThrough() throws Exception {
+		long ver = initModule("Mod");
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals("{\"v\":1}",
+					storage.getTypeSchemaRecord("Mod", "Feature", "0.1"));
+			Assert.assertEquals("{\"p\":1}",
+					storage.getTypeParseRecord("Mod", "Feature", "0.1"));
+			Assert.assertEquals("Mod", storage.getModuleInfoRecord("Mod", ver)
+					.getModuleName());
+		}
+		Assert.assertEquals(1, calls("getTypeSchemaRecord"));
+		Assert.assertEquals(1, calls("getTypeParseRecord"));
+		Assert.assertEquals(1, calls("getModuleInfoRecord"));
+	}
+
+	@Test
+	public void invalidateOnWrite() throws Exception {
+		long ver = initModule("Mod");
+		initModule("Other");
+		storage.getTypeSchemaRecord("Mod", "Feature", "0.1");
+		storage.getTypeSchemaRecord("Other", "Feature", "0.1");
+		storage.writeTypeSchemaRecord("Mod", "Feature", "0.1", ver,
+				"{\"v\":2}", "md5");
+		Assert.assertEquals("{\"v\":2}",
+				storage.getTypeSchemaRecord("Mod", "Feature", "0.1"));
+		storage.getTypeSchemaRecord("Other", "Feature", "0.1");
+		Assert.assertEquals(3, calls("getTypeSchemaRecord"));
+
+		ModuleInfo info = storage.getModuleInfoRecord("Mod", ver);
+		Assert.assertNull(info.getDescription());
+		info.setDescription("described");
+		storage.writeModuleRecords(info, "module Mod {};", ver);
+		Assert.assertEquals("described",
+				storage.getModuleInfoRecord("Mod", ver).getDescription());
+		Assert.assertEquals(2, calls("getModuleInfoRecord"));
+	}
+
+	@Test
+	public void copiesReturned() throws Exception {
+		long ver = initModule("Mod");
+		ModuleInfo info = storage.getModuleInfoRecord("Mod", ver);
+		info.setDescription("changed");
+		info.getTypes().clear();
+		ModuleInfo again = storage.getModuleInfoRecord("Mod", ver);
+		Assert.assertNull(again.getDescription());
+		Assert.assertEquals(1, again.getTypes().size());
+		Assert.assertEquals(1, calls("getModuleInfoRecord"));
+	}
+
+	@Test
+	public void preloadModule() throws Exception {
+		initModule("Mod");
+		calls.clear();
+		storage.preloadModule("Mod");
+		Assert.assertEquals(1, calls("getTypeSchemaRecord"));
+		Assert.assertEquals(1, calls("getTypeParseRecord"));
+		storage.getTypeSchemaRecord("Mod", "Feature", "0.1");
+		storage.getTypeParseRecord("Mod", "Feature", "0.1");
+		Assert.assertEquals(1, calls("getTypeSchemaRecord"));
+		Assert.assertEquals(1, calls("getTypeParseRecord"));
+	}
+}
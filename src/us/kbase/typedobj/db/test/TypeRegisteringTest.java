@@ -19,6 +19,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.Assert;
 
@@ -85,6 +91,8 @@ public class TypeRegisteringTest {
 					"testDeps",
 					"testOwnership",
 					"testEmpty",
+					"testSchemaCacheAfterRelease",
+					"testReadDuringWrite",
 			};
 			for (String method : methods) {
 				System.out.println("o-------------------------------------------------------");
@@ -830,6 +838,105 @@ public class TypeRegisteringTest {
 		Assert.assertEquals("funcdef foo() returns () authentication none;", db.getFuncDetailedInfo("EmptyModule", "foo", null, false, "author").getSpecDef());
 	}
 	
+	@Test
+	public void testSchemaCacheAfterRelease() throws Exception {
+		String module = "CacheModule";
+		String user = "author";
+		initModule(module, user);
+		db.registerModule("module CacheModule {typedef structure {int a;} foo;};", Arrays.asList("foo"), user);
+		releaseModule(module, user);
+		TypeDefId released = new TypeDefId(module + ".foo",
+				db.getLatestTypeVersion(new TypeDefName(module, "foo")));
+		TypeDefId latest = new TypeDefId(module + ".foo");
+		String oldSchema = db.getJsonSchemaDocument(released);
+		Assert.assertEquals(oldSchema, db.getJsonSchemaDocument(latest));
+		Assert.assertFalse(oldSchema, oldSchema.contains("\"b\""));
+		db.registerModule("module CacheModule {typedef structure {int a; string b;} foo;};", Arrays.asList("foo"), user);
+		// unreleased versions are only visible to owners
+		Assert.assertEquals(oldSchema, db.getJsonSchemaDocument(latest));
+		String newSchema = db.getJsonSchemaDocument(latest, user);
+		Assert.assertTrue(newSchema, newSchema.contains("\"b\""));
+		releaseModule(module, user);
+		Assert.assertEquals(newSchema, db.getJsonSchemaDocument(latest));
+		// the cached exact version is unchanged
+		Assert.assertEquals(oldSchema, db.getJsonSchemaDocument(released));
+	}
+	
+	@Test
+	public void testReadDuringWrite() throws Exception {
+		final String module = "LockModule";
+		final String user = "author";
+		initModule(module, user);
+		db.registerModule("module LockModule {typedef structure {int a;} foo;};", Arrays.asList("foo"), user);
+		releaseModule(module, user);
+		final TypeDefId released = new TypeDefId(module + ".foo",
+				db.getLatestTypeVersion(new TypeDefName(module, "foo")));
+		final TypeDefId latest = new TypeDefId(module + ".foo");
+		String oldSchema = db.getJsonSchemaDocument(released);
+		db.registerModule("module LockModule {typedef structure {int a; string b;} foo;};", Arrays.asList("foo"), user);
+		final CountDownLatch inWrite = new CountDownLatch(1);
+		final CountDownLatch finishWrite = new CountDownLatch(1);
+		storage.addTypeStorageListener(new TypeStorageListener() {
+			@Override
+			public void onMethodStart(String method, Object[] params)
+					throws TypeStorageException {
+				if (method.equals("setModuleReleaseVersion")) {
+					inWrite.countDown();
+					try {
+						finishWrite.await(60, TimeUnit.SECONDS);
+					} catch (InterruptedException ex) {
+						throw new TypeStorageException(ex.getMessage(), ex);
+					}
+				}
+			}
+			@Override
+			public void onMethodEnd(String method, Object[] params, Object ret)
+					throws TypeStorageException {
+			}
+		});
+		ExecutorService exec = Executors.newFixedThreadPool(3);
+		try {
+			Future<List<AbsoluteTypeDefId>> release = exec.submit(new Callable<List<AbsoluteTypeDefId>>() {
+				@Override
+				public List<AbsoluteTypeDefId> call() throws Exception {
+					return db.releaseModule(module, user, false);
+				}
+			});
+			Assert.assertTrue(inWrite.await(60, TimeUnit.SECONDS));
+			// a cached exact version is read without waiting for the writer
+			Future<String> cachedRead = exec.submit(new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					return db.getJsonSchemaDocument(released);
+				}
+			});
+			Assert.assertEquals(oldSchema, cachedRead.get(10, TimeUnit.SECONDS));
+			// a second writer fails rather than waiting
+			try {
+				db.registerModule("module LockModule {typedef structure {int a; string c;} foo;};", Arrays.asList("foo"), user);
+				Assert.fail();
+			} catch (IllegalStateException ex) {
+				Assert.assertEquals("Concurent changes of module LockModule", ex.getMessage());
+			}
+			// a read that must resolve the version waits for the writer
+			Future<String> latestRead = exec.submit(new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					return db.getJsonSchemaDocument(latest);
+				}
+			});
+			Thread.sleep(500);
+			Assert.assertFalse(latestRead.isDone());
+			finishWrite.countDown();
+			release.get(60, TimeUnit.SECONDS);
+			String newSchema = latestRead.get(60, TimeUnit.SECONDS);
+			Assert.assertTrue(newSchema, newSchema.contains("\"b\""));
+		} finally {
+			finishWrite.countDown();
+			exec.shutdownNow();
+		}
+	}
+	
 	private Map<String, Long> restrict(Object... params) {
 		Map<String, Long> restrictions = new HashMap<String, Long>();
 		for (int i = 0; i < params.length / 2; i++) {
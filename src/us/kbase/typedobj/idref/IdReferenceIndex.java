@@ -0,0 +1,246 @@
+package us.kbase.typedobj.idref;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** A compact store of the IDs found in a set of associated objects, for use
+ * by IdReferenceHandler implementations.
+ *
+ * Each unique ID string is stored once and given an integer index. Each
+ * associated object keeps a primitive array of the indexes of its IDs, and
+ * the remapped IDs are stored in an array by index. Hence adding an ID,
+ * looking up the remapped ID for an ID, and listing the IDs of an
+ * associated object are all constant time per ID, regardless of the number
+ * of associated objects.
+ *
+ * Not thread safe.
+ *
+ * @param <T> the type of the object to be associated with IDs.
+ */
+public class IdReferenceIndex<T> {
+
+	private static final int INITIAL_SIZE = 16;
+
+	private final Map<String, Integer> idToIndex =
+			new HashMap<String, Integer>();
+	private String[] ids = new String[INITIAL_SIZE];
+	private RemappedId[] remapped = new RemappedId[INITIAL_SIZE];
+	// the index of the associated object that most recently added each ID
+	private int[] lastObject = new int[INITIAL_SIZE];
+	// the index of the associated object that first added each ID
+	private int[] firstObject = new int[INITIAL_SIZE];
+	private int idCount = 0;
+
+	private final Map<T, Integer> objToIndex = new HashMap<T, Integer>();
+	private final List<T> objects = new ArrayList<T>();
+	private final List<IntList> objectIds = new ArrayList<IntList>();
+	private int currentObject = -1;
+
+	/** Add an ID to the index.
+	 * @param associatedObject the object associated with the ID.
+	 * @param id the ID.
+	 * @return true if the ID was not previously associated with the object.
+	 */
+	public boolean add(final T associatedObject, final String id) {
+		if (associatedObject == null || id == null) {
+			throw new NullPointerException(
+					"associatedObject and id cannot be null");
+		}
+		final int obj = getObjectIndex(associatedObject);
+		final Integer idx = idToIndex.get(id);
+		if (idx == null) {
+			final int newidx = addNewId(id, obj);
+			objectIds.get(obj).add(newidx);
+			return true;
+		}
+		if (lastObject[idx] == obj) {
+			return false;
+		}
+		final IntList objids = objectIds.get(obj);
+		/* if the object's IDs weren't all added in one contiguous run, the
+		 * last object check isn't sufficient. This should be rare.
+		 */
+		if (objids.revisited && objids.contains(idx)) {
+			lastObject[idx] = obj;
+			return false;
+		}
+		lastObject[idx] = obj;
+		objids.add(idx);
+		return true;
+	}
+
+	private int getObjectIndex(final T associatedObject) {
+		Integer obj = objToIndex.get(associatedObject);
+		if (obj == null) {
+			obj = objects.size();
+			objToIndex.put(associatedObject, obj);
+			objects.add(associatedObject);
+			objectIds.add(new IntList());
+		} else if (obj != currentObject) {
+			objectIds.get(obj).revisited = true;
+		}
+		currentObject = obj;
+		return obj;
+	}
+
+	private int addNewId(final String id, final int obj) {
+		if (idCount == ids.length) {
+			final int newsize = ids.length * 2;
+			ids = Arrays.copyOf(ids, newsize);
+			remapped = Arrays.copyOf(remapped, newsize);
+			lastObject = Arrays.copyOf(lastObject, newsize);
+			firstObject = Arrays.copyOf(firstObject, newsize);
+		}
+		final int idx = idCount++;
+		idToIndex.put(id, idx);
+		ids[idx] = id;
+		lastObject[idx] = obj;
+		firstObject[idx] = obj;
+		return idx;
+	}
+
+	/** Returns the number of unique IDs in the index.
+	 * @return the number of unique IDs.
+	 */
+	public int size() {
+		return idCount;
+	}
+
+	/** Returns the index of an ID, or -1 if the ID is not in the index.
+	 * @param id the ID.
+	 * @return the index of the ID.
+	 */
+	public int getIndex(final String id) {
+		final Integer idx = idToIndex.get(id);
+		return idx == null ? -1 : idx;
+	}
+
+	/** Returns true if the ID is in the index.
+	 * @param id the ID.
+	 * @return true if the ID is in the index.
+	 */
+	public boolean contains(final String id) {
+		return idToIndex.containsKey(id);
+	}
+
+	/** Returns the ID at an index.
+	 * @param index the index of the ID.
+	 * @return the ID.
+	 */
+	public String getId(final int index) {
+		checkIndex(index);
+		return ids[index];
+	}
+
+	/** Returns the first object that was associated with the ID at an index.
+	 * Useful for error reporting.
+	 * @param index the index of the ID.
+	 * @return the associated object.
+	 */
+	public T getFirstAssociatedObject(final int index) {
+		checkIndex(index);
+		return objects.get(firstObject[index]);
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= idCount) {
+			throw new IndexOutOfBoundsException("No ID at index " + index);
+		}
+	}
+
+	/** Returns all the unique IDs in the index, in the order they were
+	 * added.
+	 * @return the IDs.
+	 */
+	public List<String> getIds() {
+		return new ArrayList<String>(Arrays.asList(ids).subList(0, idCount));
+	}
+
+	/** Returns the objects that have been associated with IDs, in the order
+	 * they were added.
+	 * @return the associated objects.
+	 */
+	public List<T> getAssociatedObjects() {
+		return Collections.unmodifiableList(objects);
+	}
+
+	/** Returns the indexes of the IDs associated with an object.
+	 * @param associatedObject the object.
+	 * @return the indexes of the object's IDs, or an empty array if the
+	 * object is not in the index.
+	 */
+	public int[] getIdIndexes(final T associatedObject) {
+		final Integer obj = objToIndex.get(associatedObject);
+		if (obj == null) {
+			return new int[0];
+		}
+		return objectIds.get(obj).toArray();
+	}
+
+	/** Set the remapped ID for an ID.
+	 * @param index the index of the ID.
+	 * @param remappedId the remapped ID.
+	 */
+	public void setRemappedId(final int index, final RemappedId remappedId) {
+		checkIndex(index);
+		remapped[index] = remappedId;
+	}
+
+	/** Get the remapped ID for an ID.
+	 * @param id the original ID.
+	 * @return the remapped ID, or null if the ID is not in the index or
+	 * has not been remapped.
+	 */
+	public RemappedId getRemappedId(final String id) {
+		final Integer idx = idToIndex.get(id);
+		return idx == null ? null : remapped[idx];
+	}
+
+	/** Get the remapped IDs associated with an object.
+	 * @param associatedObject the object.
+	 * @return the remapped IDs, excluding any IDs that have not been
+	 * remapped.
+	 */
+	public Set<RemappedId> getRemappedIds(final T associatedObject) {
+		final Set<RemappedId> ret = new HashSet<RemappedId>();
+		for (final int idx: getIdIndexes(associatedObject)) {
+			if (remapped[idx] != null) {
+				ret.add(remapped[idx]);
+			}
+		}
+		return ret;
+	}
+
+	private static class IntList {
+
+		private int[] values = new int[4];
+		private int size = 0;
+		private boolean revisited = false;
+
+		private void add(final int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		private boolean contains(final int value) {
+			for (int i = 0; i < size; i++) {
+				if (values[i] == value) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
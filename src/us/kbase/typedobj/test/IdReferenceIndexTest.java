@@ -0,0 +1,85 @@
+package us.kbase.typedobj.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import us.kbase.typedobj.idref.IdReferenceIndex;
+import us.kbase.typedobj.idref.RemappedId;
+import us.kbase.typedobj.idref.SimpleRemappedId;
+
+public class IdReferenceIndexTest {
+
+	@Test
+	public void addIds() throws Exception {
+		IdReferenceIndex<Integer> idx = new IdReferenceIndex<Integer>();
+		assertThat("new id", idx.add(1, "a"), is(true));
+		assertThat("new id", idx.add(1, "b"), is(true));
+		assertThat("dup id", idx.add(1, "a"), is(false));
+		assertThat("id new to object", idx.add(2, "a"), is(true));
+		assertThat("new id", idx.add(2, "c"), is(true));
+		assertThat("dup id", idx.add(2, "c"), is(false));
+
+		//revisit an object after adding ids to another object
+		assertThat("dup id in revisited object", idx.add(1, "b"), is(false));
+		assertThat("dup id in revisited object", idx.add(1, "a"), is(false));
+		assertThat("new id in revisited object", idx.add(1, "c"), is(true));
+		assertThat("dup id in revisited object", idx.add(1, "c"), is(false));
+
+		assertThat("correct size", idx.size(), is(3));
+		assertThat("correct ids", idx.getIds(), is(Arrays.asList("a", "b", "c")));
+		assertThat("correct objects", idx.getAssociatedObjects(),
+				is(Arrays.asList(1, 2)));
+		assertThat("correct index", idx.getIndex("c"), is(2));
+		assertThat("missing index", idx.getIndex("d"), is(-1));
+		assertThat("contains", idx.contains("b"), is(true));
+		assertThat("doesn't contain", idx.contains("d"), is(false));
+		assertThat("first object", idx.getFirstAssociatedObject(2), is(2));
+		assertThat("obj 1 ids", idx.getIdIndexes(1).length, is(3));
+		assertThat("obj 2 ids", idx.getIdIndexes(2).length, is(2));
+		assertThat("no obj ids", idx.getIdIndexes(3).length, is(0));
+	}
+
+	@Test
+	public void remap() throws Exception {
+		IdReferenceIndex<String> idx = new IdReferenceIndex<String>();
+		for (int i = 0; i < 100; i++) {
+			idx.add("obj" + (i % 7), "id" + i);
+		}
+		for (int i = 0; i < idx.size(); i++) {
+			idx.setRemappedId(i, new SimpleRemappedId(idx.getId(i) + "r"));
+		}
+		assertThat("remapped id", idx.getRemappedId("id42").getId(),
+				is("id42r"));
+		assertThat("no such id", idx.getRemappedId("foo"), is((RemappedId) null));
+		Set<String> remapped = new HashSet<String>();
+		for (RemappedId r: idx.getRemappedIds("obj3")) {
+			remapped.add(r.getId());
+		}
+		Set<String> expected = new HashSet<String>();
+		for (int i = 3; i < 100; i += 7) {
+			expected.add("id" + i + "r");
+		}
+		assertThat("correct remapped ids", remapped, is(expected));
+		assertThat("no remapped ids", idx.getRemappedIds("foo").size(), is(0));
+	}
+
+	@Test
+	public void badIndex() throws Exception {
+		IdReferenceIndex<String> idx = new IdReferenceIndex<String>();
+		idx.add("o", "id");
+		try {
+			idx.getId(1);
+			fail("got id at bad index");
+		} catch (IndexOutOfBoundsException e) {
+			assertThat("correct exception", e.getMessage(),
+					is("No ID at index 1"));
+		}
+	}
+}
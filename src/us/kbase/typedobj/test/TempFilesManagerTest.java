@@ -0,0 +1,167 @@
+package us.kbase.typedobj.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import us.kbase.typedobj.core.TempFileListener;
+import us.kbase.typedobj.core.TempFilesManager;
+
+public class TempFilesManagerTest {
+
+	private static TempFilesManager makeManager() throws IOException {
+		final File d = File.createTempFile("TempFilesManagerTest", "");
+		d.delete();
+		final TempFilesManager tfm = new TempFilesManager(d);
+		d.deleteOnExit();
+		return tfm;
+	}
+
+	private static void write(final File f, final int size)
+			throws IOException {
+		final FileOutputStream fos = new FileOutputStream(f);
+		try {
+			fos.write(new byte[size]);
+		} finally {
+			fos.close();
+		}
+	}
+
+	private static void waitForEmpty(final TempFilesManager tfm)
+			throws InterruptedException {
+		for (int i = 0; i < 500 &&
+				(!tfm.isEmpty() || tfm.getPendingDeleteBytes() > 0); i++) {
+			Thread.sleep(10);
+		}
+		assertThat("temp files deleted", tfm.getTempFileList(),
+				is((List<String>) new ArrayList<String>()));
+		assertThat("nothing pending", tfm.getPendingDeleteBytes(), is(0L));
+	}
+
+	@Test
+	public void unscoped() throws Exception {
+		final TempFilesManager tfm = makeManager();
+		final File f = tfm.generateTempFile("foo", "bar");
+		assertThat("in temp dir", f.getParentFile(), is(tfm.getTempDir()));
+		assertThat("file name", f.getName().startsWith("ws.foo"), is(true));
+		assertThat("not empty", tfm.isEmpty(), is(false));
+		assertThat("file list", tfm.getTempFileList(),
+				is(Arrays.asList(f.getName())));
+		write(f, 10);
+		assertThat("deleted", tfm.deleteTempFile(f), is(true));
+		assertThat("deleted again", tfm.deleteTempFile(f), is(false));
+		assertThat("thread bytes", tfm.getThreadTempFileBytes(), is(10L));
+		assertThat("total bytes", tfm.getTotalTempFileBytes(), is(10L));
+		assertThat("empty", tfm.isEmpty(), is(true));
+		// no scope open
+		assertThat("end scope", tfm.endRequestScope(), is(10L));
+	}
+
+	@Test
+	public void scoped() throws Exception {
+		final TempFilesManager tfm = makeManager();
+		final List<File> created = new ArrayList<File>();
+		tfm.addListener(new TempFileListener() {
+
+			@Override
+			public void createdTempFile(final File f) {
+				created.add(f);
+			}
+		});
+		tfm.startRequestScope();
+		assertThat("empty scope dir ignored", tfm.isEmpty(), is(true));
+		final File f1 = tfm.generateTempFile("foo", "bar");
+		final File f2 = tfm.generateTempFile("baz", "bat");
+		assertThat("listener called", created, is(Arrays.asList(f1, f2)));
+		final File scope = f1.getParentFile();
+		assertThat("in scope dir", scope.getParentFile(),
+				is(tfm.getTempDir()));
+		assertThat("same scope dir", f2.getParentFile(), is(scope));
+		assertThat("not empty", tfm.isEmpty(), is(false));
+		write(f1, 7);
+		write(f2, 5);
+		tfm.deleteTempFile(f1);
+		assertThat("end scope", tfm.endRequestScope(), is(12L));
+		assertThat("scope dir moved", scope.exists(), is(false));
+		assertThat("total bytes", tfm.getTotalTempFileBytes(), is(12L));
+		waitForEmpty(tfm);
+
+		// new files go in the temp dir after the scope closes
+		final File f3 = tfm.generateTempFile("foo", "bar");
+		assertThat("in temp dir", f3.getParentFile(), is(tfm.getTempDir()));
+		tfm.cleanup();
+		assertThat("empty", tfm.isEmpty(), is(true));
+	}
+
+	@Test
+	public void unusedScope() throws Exception {
+		final TempFilesManager tfm = makeManager();
+		tfm.startRequestScope();
+		// the scope dir isn't created until it's needed
+		assertThat("no scope dir", tfm.getTempDir().listFiles().length, is(0));
+		assertThat("end scope", tfm.endRequestScope(), is(0L));
+		assertThat("no trash dir", tfm.getTempDir().listFiles().length,
+				is(0));
+		assertThat("nothing pending", tfm.getPendingDeleteBytes(), is(0L));
+	}
+
+	@Test
+	public void startResetsCount() throws Exception {
+		final TempFilesManager tfm = makeManager();
+		final File f = tfm.generateTempFile("foo", "bar");
+		write(f, 3);
+		tfm.deleteTempFile(f);
+		tfm.startRequestScope();
+		assertThat("thread bytes", tfm.getThreadTempFileBytes(), is(0L));
+		tfm.generateTempFile("foo", "bar");
+		// opening a new scope closes the old one
+		tfm.startRequestScope();
+		assertThat("end scope", tfm.endRequestScope(), is(0L));
+		waitForEmpty(tfm);
+	}
+
+	@Test
+	public void largeFileDeletedInBackground() throws Exception {
+		final TempFilesManager tfm = makeManager();
+		tfm.startRequestScope();
+		final File f = tfm.generateTempFile("foo", "bar");
+		final RandomAccessFile raf = new RandomAccessFile(f, "rw");
+		try {
+			raf.setLength(TempFilesManager.ASYNC_DELETE_SIZE);
+		} finally {
+			raf.close();
+		}
+		assertThat("queued", tfm.deleteTempFile(f), is(true));
+		assertThat("queued again", tfm.deleteTempFile(f), is(false));
+		// the file is counted once even if it's still in the scope dir
+		assertThat("end scope", tfm.endRequestScope(),
+				is(TempFilesManager.ASYNC_DELETE_SIZE));
+		waitForEmpty(tfm);
+		assertThat("deleted", f.exists(), is(false));
+	}
+
+	@Test
+	public void cleanupScopes() throws Exception {
+		final TempFilesManager tfm = makeManager();
+		tfm.startRequestScope();
+		tfm.generateTempFile("foo", "bar");
+		tfm.cleanup();
+		assertThat("empty", tfm.isEmpty(), is(true));
+		assertThat("no files", tfm.getTempDir().listFiles().length, is(0));
+		// the scope dir is recreated if needed
+		final File f = tfm.generateTempFile("foo", "bar");
+		assertThat("in scope dir", f.getParentFile().getParentFile(),
+				is(tfm.getTempDir()));
+		tfm.endRequestScope();
+		waitForEmpty(tfm);
+	}
+}
@@ -22,6 +22,8 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import us.kbase.common.utils.sortjson.KeyDuplicationException;
 import us.kbase.common.utils.sortjson.TooManyKeysException;
 import us.kbase.common.utils.sortjson.UTF8JsonSorterFactory;
@@ -33,6 +35,9 @@ import us.kbase.typedobj.core.TypedObjectValidator;
 import us.kbase.typedobj.core.Writable;
 import us.kbase.typedobj.db.FileTypeStorage;
 import us.kbase.typedobj.db.TypeDefinitionDB;
+import us.kbase.typedobj.exceptions.NoSuchModuleException;
+import us.kbase.typedobj.exceptions.NoSuchTypeException;
+import us.kbase.typedobj.exceptions.TypeStorageException;
 import us.kbase.typedobj.idref.IdReference;
 import us.kbase.typedobj.idref.IdReferenceHandlerSet;
 import us.kbase.typedobj.idref.IdReferenceHandlerSetFactory;
@@ -96,10 +101,13 @@ public class TypedObjectValidationReportTest {
 						"tuple<attrib1, int foo, attrib1_1, attrib1, attrib2> att;" +
 						"tuple<attrib1, int foo, attrib1_1, attrib1, attrib2> att2;" +
 					"} " + name + ";" +
+					"typedef structure {" +
+						"mapping<string, string> m;" +
+					"} NoIDMap;" +
 				"};";
 		db.requestModuleRegistration(module, USER);
 		db.approveModuleRegistrationRequest(USER, module, true);
-		db.registerModule(spec, Arrays.asList(name), USER);
+		db.registerModule(spec, Arrays.asList(name, "NoIDMap"), USER);
 		db.releaseModule(module, USER, false);
 		validator = new TypedObjectValidator(db);
 		
@@ -167,6 +175,48 @@ public class TypedObjectValidationReportTest {
 		tfm.cleanup();
 	}
 	
+	@Test
+	public void relabelAndSort() throws Exception {
+		// relabeling makes the sorted keys unsorted
+		String json = "{\"m\": {\"a\": \"b\", \"z\": \"d\"}}";
+		Map<String, String> refmap = new HashMap<String, String>();
+		refmap.put("a", "y");
+		refmap.put("z", "b");
+		refmap.put("b", "c");
+		refmap.put("d", "e");
+		IdReferenceHandlerSetFactory fac = new IdReferenceHandlerSetFactory(100);
+		fac.addFactory(new DummyIdHandlerFactory(new IdReferenceType("ws"),
+				refmap));
+		IdReferenceHandlerSet<String> handlers =
+				fac.createHandlers(String.class).associateObject("foo");
+		TypedObjectValidationReport tovr = validator.validate(json,
+				new TypeDefId("TestIDMap.IDMap"), handlers);
+		handlers.processIDs();
+		String expected = "{\"m\":{\"b\":\"e\",\"y\":\"c\"}}";
+		assertThat("correct relabeled size", tovr.getRelabeledSize(),
+				is((long) expected.length()));
+		tovr.sort(SORT_FAC);
+		checkJson(tovr, expected);
+		
+		// no IDs, unsorted keys
+		tovr = validateNoIDMap(
+				"{\"m\": {\"b\": \"x\", \"a\": \"y\", \"c\": \"z\"}}");
+		tovr.sort(SORT_FAC);
+		checkJson(tovr, "{\"m\":{\"a\":\"y\",\"b\":\"x\",\"c\":\"z\"}}");
+		
+		// no IDs, sorted keys are written as is
+		tovr = validateNoIDMap(
+				"{\"m\": {\"a\": \"a\", \"b\": \"b\"}}");
+		tovr.sort(SORT_FAC);
+		checkJson(tovr, "{\"m\":{\"a\":\"a\",\"b\":\"b\"}}");
+	}
+	
+	private void checkJson(TypedObjectValidationReport tovr, String expected)
+			throws Exception {
+		assertThat("correct json", toJson(tovr.createJsonWritable()),
+				is(expected));
+	}
+	
 	@Test
 	public void findIds() throws Exception {
 		String json = "{\"m\": {\"c\": \"a\", \"z\": \"d\"}," +
@@ -442,4 +492,241 @@ public class TypedObjectValidationReportTest {
 					(maxmem - filelength) + " bytes at /"));
 		}
 	}
+	
+	@Test
+	public void sortedDataIsNotBuffered() throws Exception {
+		String json = "{\"m\":{\"b\":\"d\",\"z\":\"a\"}}";
+		IdReferenceHandlerSetFactory fac = new IdReferenceHandlerSetFactory(100);
+		IdReferenceHandlerSet<String> handlers =
+				fac.createHandlers(String.class).associateObject("foo");
+		TypedObjectValidationReport tovr = validator.validate(json,
+				new TypeDefId("TestIDMap.NoIDMap"), handlers);
+		handlers.processIDs();
+		
+		TempFilesManager tfm = new TempFilesManager(
+				new File(WorkspaceTestCommon.getTempDir()));
+		tfm.cleanup();
+		tovr.sort(SORT_FAC, tfm);
+		assertThat("Temp files manager is empty", tfm.isEmpty(), is(true));
+		ByteArrayOutputStream o = new ByteArrayOutputStream();
+		tovr.createJsonWritable().write(o);
+		assertThat("data streamed correctly", o.toString("UTF-8"), is(json));
+		assertThat("correct object size", tovr.getRelabeledSize(), is(23L));
+		
+		handlers = fac.createHandlers(String.class).associateObject("foo");
+		tovr = validator.validate("{\"m\":{\"z\":\"a\",\"b\":\"d\"}}",
+				new TypeDefId("TestIDMap.NoIDMap"), handlers);
+		handlers.processIDs();
+		tovr.sort(SORT_FAC, tfm);
+		assertThat("TFM has one file", tfm.getTempFileList().size(), is(1));
+		o = new ByteArrayOutputStream();
+		Writable w = tovr.createJsonWritable();
+		w.write(o);
+		assertThat("unsorted data sorted correctly", o.toString("UTF-8"),
+				is(json));
+		w.releaseResources();
+		assertThat("Temp files manager is empty", tfm.isEmpty(), is(true));
+	}
+	
+	@Test
+	public void externalSort() throws Exception {
+		StringBuilder json = new StringBuilder("{\"m\": {");
+		List<String> keys = new LinkedList<String>();
+		for (int i = 0; i < 1000; i++) {
+			String key = "k" + ((i * 7919) % 1000);
+			keys.add(key);
+			if (i > 0) {
+				json.append(",");
+			}
+			json.append("\"" + key + "\": \"v" + i + "\"");
+		}
+		json.append("}}");
+		Map<String, String> expected = new HashMap<String, String>();
+		for (int i = 0; i < keys.size(); i++) {
+			expected.put(keys.get(i), "v" + i);
+		}
+		Collections.sort(keys);
+		StringBuilder expectedJson = new StringBuilder("{\"m\":{");
+		for (String key: keys) {
+			if (expectedJson.length() > 6) {
+				expectedJson.append(",");
+			}
+			expectedJson.append("\"" + key + "\":\"" + expected.get(key) + "\"");
+		}
+		expectedJson.append("}}");
+		
+		IdReferenceHandlerSetFactory hfac = new IdReferenceHandlerSetFactory(100);
+		IdReferenceHandlerSet<String> handlers =
+				hfac.createHandlers(String.class).associateObject("foo");
+		TypedObjectValidationReport tovr = validator.validate(json.toString(),
+				new TypeDefId("TestIDMap.IDMap"), handlers);
+		handlers.processIDs();
+		
+		TempFilesManager tfm = new TempFilesManager(
+				new File(WorkspaceTestCommon.getTempDir()));
+		tfm.cleanup();
+		try {
+			tovr.sort(new UTF8JsonSorterFactory(1000), tfm);
+			fail("sorted with too little memory");
+		} catch (TooManyKeysException tmke) {
+			//expected
+		}
+		// small enough to require multiple merge passes
+		tovr.externalSort(tfm, 100);
+		assertThat("TFM has one file", tfm.getTempFileList().size(), is(1));
+		ByteArrayOutputStream o = new ByteArrayOutputStream();
+		Writable w = tovr.createJsonWritable();
+		w.write(o);
+		assertThat("externally sorted correctly", o.toString("UTF-8"),
+				is(expectedJson.toString()));
+		w.releaseResources();
+		assertThat("Temp files manager is empty", tfm.isEmpty(), is(true));
+	}
+	
+	@Test
+	public void schemaCacheReparsesChangedSchema() throws Exception {
+		final String[] override = {null};
+		TypeDefinitionDB tdb = new TypeDefinitionDB(
+				new FileTypeStorage(tempdir.resolve("typestorage").toFile()
+						.getAbsolutePath()),
+				tempdir.toFile(), new Util().getKIDLpath(),
+				WorkspaceTestCommon.getKidlSource()) {
+			
+			@Override
+			public String getJsonSchemaDocument(final TypeDefId typeDefId)
+					throws NoSuchTypeException, NoSuchModuleException,
+					TypeStorageException {
+				if (override[0] != null) {
+					return override[0];
+				}
+				return super.getJsonSchemaDocument(typeDefId);
+			}
+		};
+		TypedObjectValidator val = new TypedObjectValidator(tdb, 1);
+		TypeDefId type = new TypeDefId("TestIDMap.NoIDMap");
+		String json = "{\"m\": {\"a\": \"b\"}}";
+		
+		assertThat("valid object", val.validate(json, type,
+				new IdReferenceHandlerSetFactory(100).createHandlers(
+						String.class).associateObject("foo")).isInstanceValid(), is(true));
+		// cached schema
+		assertThat("valid object", val.validate(json, type,
+				new IdReferenceHandlerSetFactory(100).createHandlers(
+						String.class).associateObject("foo")).isInstanceValid(), is(true));
+		
+		// the same type now has a different schema with a required field x
+		ObjectMapper mapper = new ObjectMapper();
+		@SuppressWarnings("unchecked")
+		Map<String, Object> schema = mapper.readValue(
+				tdb.getJsonSchemaDocument(type), Map.class);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> props =
+				(Map<String, Object>) schema.get("properties");
+		props.put("x", props.get("m"));
+		@SuppressWarnings("unchecked")
+		List<String> required = (List<String>) schema.get("required");
+		required.add("x");
+		override[0] = mapper.writeValueAsString(schema);
+		TypedObjectValidationReport tovr = val.validate(json, type,
+				new IdReferenceHandlerSetFactory(100).createHandlers(
+						String.class).associateObject("foo"));
+		assertThat("changed schema used", tovr.isInstanceValid(), is(false));
+		assertThat("correct error", tovr.getErrorMessages().size(), is(1));
+		
+		override[0] = null;
+		assertThat("original schema used", val.validate(json, type,
+				new IdReferenceHandlerSetFactory(100).createHandlers(
+						String.class).associateObject("foo")).isInstanceValid(), is(true));
+	}
+	
+	@Test
+	public void externalSortMatchesInMemorySort() throws Exception {
+		// keys that sort differently in UTF-16 and UTF-8 order, keys that
+		// are escaped in the input, and keys that must be escaped on output
+		String json = "{\"m\": {" +
+				"\"\\ud83d\\ude00\": \"escaped non-BMP\", " +
+				"\"\ud83d\ude01\": \"literal non-BMP\", " +
+				"\"\\uffee\": \"high BMP\", " +
+				"\"\ue000\": \"private use\", " +
+				"\"\\u00e9\": \"escaped latin\", " +
+				"\"\u00e8\": \"literal latin\", " +
+				"\"\\u0041b\": \"escaped ascii\", " +
+				"\"a\\\"q\": \"quote\", " +
+				"\"a\\\\b\": \"backslash\", " +
+				"\"tab\\t\": \"tab\", " +
+				"\"nul\\u0000\": \"control\", " +
+				"\"a/b\": \"solidus \\u00e9\\ud83d\\ude00\\n\", " +
+				"\"B\": \"B\", " +
+				"\"\": \"empty\"" +
+				"}}";
+		
+		TempFilesManager tfm = new TempFilesManager(
+				new File(WorkspaceTestCommon.getTempDir()));
+		tfm.cleanup();
+		TypedObjectValidationReport inmem = validateNoIDMap(json);
+		inmem.sort(SORT_FAC);
+		String expected = toJson(inmem.createJsonWritable());
+		
+		for (int mem: Arrays.asList(1, 100, 10000)) {
+			TypedObjectValidationReport ext = validateNoIDMap(json);
+			ext.externalSort(tfm, mem);
+			assertThat("external sort with memory " + mem +
+					" matches in memory sort",
+					toJson(ext.createJsonWritable()), is(expected));
+		}
+		assertThat("Temp files manager is empty", tfm.isEmpty(), is(true));
+	}
+	
+	private TypedObjectValidationReport validateNoIDMap(final String json)
+			throws Exception {
+		IdReferenceHandlerSet<String> handlers =
+				new IdReferenceHandlerSetFactory(100)
+				.createHandlers(String.class).associateObject("foo");
+		TypedObjectValidationReport tovr = validator.validate(json,
+				new TypeDefId("TestIDMap.NoIDMap"), handlers);
+		handlers.processIDs();
+		return tovr;
+	}
+	
+	private String toJson(final Writable w) throws Exception {
+		try {
+			ByteArrayOutputStream o = new ByteArrayOutputStream();
+			w.write(o);
+			return o.toString("UTF-8");
+		} finally {
+			w.releaseResources();
+		}
+	}
+	
+	@Test
+	public void externalSortDuplicateKeys() throws Exception {
+		String json = "{\"m\": {\"z\": \"a\", \"b\": \"d\"}}";
+		Map<String, String> refmap = new HashMap<String, String>();
+		refmap.put("z", "b");
+		refmap.put("d", "whoop");
+		refmap.put("b", "b");
+		refmap.put("a", "a");
+		
+		IdReferenceHandlerSetFactory fac = new IdReferenceHandlerSetFactory(100);
+		fac.addFactory(new DummyIdHandlerFactory(new IdReferenceType("ws"), refmap));
+		IdReferenceHandlerSet<String> handlers =
+				fac.createHandlers(String.class).associateObject("foo");
+		
+		TypedObjectValidationReport tovr = validator.validate(json,
+				new TypeDefId("TestIDMap.IDMap"), handlers);
+		handlers.processIDs();
+		TempFilesManager tfm = new TempFilesManager(
+				new File(WorkspaceTestCommon.getTempDir()));
+		tfm.cleanup();
+		for (int mem: Arrays.asList(1, 10000)) {
+			try {
+				tovr.externalSort(tfm, mem);
+				fail("sorting didn't detect duplicate keys");
+			} catch (KeyDuplicationException kde){
+				assertThat("correct exception message", kde.getLocalizedMessage(),
+						is("Duplicated key 'b' was found at /m"));
+			}
+		}
+		assertThat("Temp files manager is empty", tfm.isEmpty(), is(true));
+	}
 }
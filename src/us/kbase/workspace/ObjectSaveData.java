@@ -20,7 +20,7 @@ import us.kbase.common.service.UObject;
  *         Required arguments:
  *         type_string type - the type of the object. Omit the version information
  *                 to use the latest version.
- *         UnspecifiedObject data - the object data.
+ *         UnspecifiedObject data - the object data. Omit if chksum is provided.
  *         
  *         Optional arguments:
  *         One of an object name or id. If no name or id is provided the name
@@ -37,6 +37,16 @@ import us.kbase.common.service.UObject;
  *         list<ProvenanceAction> provenance - provenance data for the object.
  *         boolean hidden - true if this object should not be listed when listing
  *                 workspace objects.
+ *         string chksum - the md5 checksum of the sorted object data, as
+ *                 returned in object_info. If provided instead of the data, the
+ *                 object is saved from data of the same type and checksum that is
+ *                 already stored in a workspace the user can read, so the data
+ *                 doesn't need to be sent. References and IDs in the stored data
+ *                 are checked exactly as for a normal save. If no such data is
+ *                 readable by the user, or the type specifies automatic metadata
+ *                 extraction, the save fails and no objects are saved. The server
+ *                 does not fall back to an upload - the client must resend the
+ *                 save with the data in place of the checksum.
  * </pre>
  * 
  */
@@ -49,7 +59,8 @@ import us.kbase.common.service.UObject;
     "objid",
     "meta",
     "provenance",
-    "hidden"
+    "hidden",
+    "chksum"
 })
 public class ObjectSaveData {
 
@@ -67,6 +78,8 @@ public class ObjectSaveData {
     private List<ProvenanceAction> provenance;
     @JsonProperty("hidden")
     private Long hidden;
+    @JsonProperty("chksum")
+    private java.lang.String chksum;
     private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
 
     @JsonProperty("type")
@@ -174,6 +187,21 @@ public class ObjectSaveData {
         return this;
     }
 
+    @JsonProperty("chksum")
+    public java.lang.String getChksum() {
+        return chksum;
+    }
+
+    @JsonProperty("chksum")
+    public void setChksum(java.lang.String chksum) {
+        this.chksum = chksum;
+    }
+
+    public ObjectSaveData withChksum(java.lang.String chksum) {
+        this.chksum = chksum;
+        return this;
+    }
+
     @JsonAnyGetter
     public Map<java.lang.String, Object> getAdditionalProperties() {
         return this.additionalProperties;
@@ -186,7 +214,7 @@ public class ObjectSaveData {
 
     @Override
     public java.lang.String toString() {
-        return ((((((((((((((((("ObjectSaveData"+" [type=")+ type)+", data=")+ data)+", name=")+ name)+", objid=")+ objid)+", meta=")+ meta)+", provenance=")+ provenance)+", hidden=")+ hidden)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((((((((((("ObjectSaveData"+" [type=")+ type)+", data=")+ data)+", name=")+ name)+", objid=")+ objid)+", meta=")+ meta)+", provenance=")+ provenance)+", hidden=")+ hidden)+", chksum=")+ chksum)+", additionalProperties=")+ additionalProperties)+"]");
     }
 
 }
@@ -140,7 +140,7 @@ public class ByteArrayFileCacheManager {
 				os.close();
 			} catch (Exception ignore) {}
 		if (tempFile != null)
-			tempFile.delete();
+			tfm.deleteTempFile(tempFile);
 	}
 
 	@SuppressWarnings("resource")
@@ -203,7 +203,7 @@ public class ByteArrayFileCacheManager {
 				os.close();
 			} catch (Exception ignore) {}
 			if (tempFile[0] != null) {
-				tempFile[0].delete();
+				tfm.deleteTempFile(tempFile[0]);
 			}
 			if (e instanceof TypedObjectExtractionException) {
 				throw (TypedObjectExtractionException)e;
@@ -312,7 +312,7 @@ public class ByteArrayFileCacheManager {
 				//nothing can be done
 			}
 			if (tempFile != null && tempFile.exists()) {
-				tempFile.delete();
+				tfm.deleteTempFile(tempFile);
 			}
 			if (parent != null) {
 				parent.destroy();
@@ -0,0 +1,105 @@
+package us.kbase.workspace.database;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** The statistics for a single call to the workspace, i.e. the phase timings,
+ * byte counts, other counts, and peak values recorded by OperationStatistics
+ * on the calling thread between startCall() and endCall().
+ *
+ * Not thread safe.
+ */
+public class CallStatistics {
+
+	private static final long NS_PER_MS = 1000000;
+
+	// phase -> {count, total nanos}
+	private final Map<String, long[]> phases = new TreeMap<String, long[]>();
+	private final Map<String, Long> bytes = new TreeMap<String, Long>();
+	private final Map<String, Long> counts = new TreeMap<String, Long>();
+	private final Map<String, Long> peaks = new TreeMap<String, Long>();
+
+	void addPhase(final String phase, final long nanos) {
+		long[] p = phases.get(phase);
+		if (p == null) {
+			p = new long[2];
+			phases.put(phase, p);
+		}
+		p[0]++;
+		p[1] += nanos;
+	}
+
+	void addBytes(final String counter, final long count) {
+		add(bytes, counter, count);
+	}
+
+	void addCount(final String counter, final long count) {
+		add(counts, counter, count);
+	}
+
+	void recordPeak(final String name, final long value) {
+		final Long p = peaks.get(name);
+		if (p == null || value > p) {
+			peaks.put(name, value);
+		}
+	}
+
+	private static void add(final Map<String, Long> m, final String key,
+			final long count) {
+		final Long c = m.get(key);
+		m.put(key, c == null ? count : c + count);
+	}
+
+	/** Returns the names of the phases timed during the call.
+	 * @return the phase names, in sorted order.
+	 */
+	public Iterable<String> getPhaseNames() {
+		return Collections.unmodifiableSet(phases.keySet());
+	}
+
+	/** Returns the number of times a phase was timed during the call.
+	 * @param phase the name of the phase.
+	 * @return the number of times the phase was timed.
+	 */
+	public long getPhaseCount(final String phase) {
+		final long[] p = phases.get(phase);
+		return p == null ? 0 : p[0];
+	}
+
+	/** Returns the total time spent in a phase during the call.
+	 * @param phase the name of the phase.
+	 * @return the time spent in ms.
+	 */
+	public double getPhaseMillis(final String phase) {
+		final long[] p = phases.get(phase);
+		return p == null ? 0 : p[1] / (double) NS_PER_MS;
+	}
+
+	/** Returns the value of a byte counter for the call.
+	 * @param counter the name of the counter.
+	 * @return the number of bytes counted.
+	 */
+	public long getBytes(final String counter) {
+		final Long c = bytes.get(counter);
+		return c == null ? 0 : c;
+	}
+
+	/** Returns the value of a counter for the call.
+	 * @param counter the name of the counter.
+	 * @return the count.
+	 */
+	public long getCount(final String counter) {
+		final Long c = counts.get(counter);
+		return c == null ? 0 : c;
+	}
+
+	/** Returns the peak value of a quantity during the call.
+	 * @param name the name of the quantity.
+	 * @return the peak value, or 0 if the quantity was not recorded.
+	 */
+	public long getPeak(final String name) {
+		final Long p = peaks.get(name);
+		return p == null ? 0 : p;
+	}
+}
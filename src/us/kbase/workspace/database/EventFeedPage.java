@@ -0,0 +1,39 @@
+package us.kbase.workspace.database;
+
+import java.util.Collections;
+import java.util.List;
+
+/** A page of events from the workspace change feed.
+ */
+public class EventFeedPage {
+
+	private final List<WorkspaceEvent> events;
+	private final long token;
+
+	/** Create a page of events.
+	 * @param events the events in the page.
+	 * @param token the token from which to start reading the next page. This
+	 * may be later than the token of the last event if some events were
+	 * filtered out of the page.
+	 */
+	public EventFeedPage(final List<WorkspaceEvent> events, final long token) {
+		if (events == null) {
+			throw new NullPointerException("events cannot be null");
+		}
+		this.events = Collections.unmodifiableList(events);
+		this.token = token;
+	}
+
+	public List<WorkspaceEvent> getEvents() {
+		return events;
+	}
+
+	public long getToken() {
+		return token;
+	}
+
+	@Override
+	public String toString() {
+		return "EventFeedPage [events=" + events + ", token=" + token + "]";
+	}
+}
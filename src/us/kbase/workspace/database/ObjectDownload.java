@@ -0,0 +1,76 @@
+package us.kbase.workspace.database;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import us.kbase.workspace.database.exceptions.CorruptWorkspaceDBException;
+import us.kbase.workspace.database.exceptions.WorkspaceCommunicationException;
+
+/** The stored data of an object version, i.e. the sorted JSON bytes saved
+ * when the version was created. The data for a version never changes, so
+ * the MD5 may be used as an entity tag and the data may be read in byte
+ * ranges by separate calls.
+ */
+public class ObjectDownload {
+
+	private final WorkspaceDatabase db;
+	private final ObjectInformation info;
+
+	ObjectDownload(final WorkspaceDatabase db, final ObjectInformation info) {
+		this.db = db;
+		this.info = info;
+	}
+
+	/** Returns information about the object version.
+	 * @return the object information.
+	 */
+	public ObjectInformation getObjectInformation() {
+		return info;
+	}
+
+	/** Returns the size of the stored data in bytes.
+	 * @return the data size.
+	 */
+	public long getSize() {
+		return info.getSize();
+	}
+
+	/** Returns the MD5 of the stored data.
+	 * @return the data MD5.
+	 */
+	public String getMD5() {
+		return info.getCheckSum();
+	}
+
+	/** Write a byte range of the stored data to an output stream.
+	 * @param offset the offset of the range.
+	 * @param length the length of the range.
+	 * @param out the output stream to which the range is written.
+	 * @throws WorkspaceCommunicationException if a communication error with
+	 * the storage system occurs.
+	 * @throws CorruptWorkspaceDBException if the data is missing.
+	 * @throws IOException if writing to the output stream fails.
+	 */
+	public void write(final long offset, final long length,
+			final OutputStream out)
+			throws WorkspaceCommunicationException,
+			CorruptWorkspaceDBException, IOException {
+		if (out == null) {
+			throw new NullPointerException("out cannot be null");
+		}
+		if (offset < 0 || length < 0 || offset + length > getSize()) {
+			throw new IllegalArgumentException(String.format(
+					"Range %s-%s is outside the object data of size %s",
+					offset, offset + length, getSize()));
+		}
+		if (length == 0) {
+			return;
+		}
+		db.getObjectDataRange(info, offset, length, out);
+	}
+
+	@Override
+	public String toString() {
+		return "ObjectDownload [info=" + info + "]";
+	}
+}
@@ -0,0 +1,40 @@
+package us.kbase.workspace.database;
+
+import java.util.Collections;
+import java.util.List;
+
+/** A page of an object's history, newest version first.
+ */
+public class ObjectHistoryPage {
+
+	private final List<ObjectInformation> history;
+	private final Integer next;
+
+	/** Create a page of an object's history.
+	 * @param history the versions in the page, newest first.
+	 * @param next the version before which to read the next page, or null if
+	 * there are no older versions.
+	 */
+	public ObjectHistoryPage(final List<ObjectInformation> history,
+			final Integer next) {
+		if (history == null) {
+			throw new NullPointerException("history cannot be null");
+		}
+		this.history = Collections.unmodifiableList(history);
+		this.next = next;
+	}
+
+	public List<ObjectInformation> getHistory() {
+		return history;
+	}
+
+	public Integer getNext() {
+		return next;
+	}
+
+	@Override
+	public String toString() {
+		return "ObjectHistoryPage [history=" + history + ", next=" + next
+				+ "]";
+	}
+}
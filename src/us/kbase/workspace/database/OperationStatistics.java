@@ -0,0 +1,453 @@
+package us.kbase.workspace.database;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/** Always on, low overhead timing of the phases of workspace operations
+ * (e.g. validation, blob writes, provenance fetches) and counts of the bytes
+ * moved by those operations.
+ *
+ * Usage:
+ * <pre>
+ * long t = stats.start();
+ * ...do stuff...
+ * t = stats.record(PHASE_ONE, t);
+ * ...do more stuff...
+ * stats.record(PHASE_TWO, t);
+ * </pre>
+ * Recording a phase costs a System.nanoTime() call and a few atomic
+ * increments, so it's safe to call in the request path. All methods are
+ * thread safe.
+ *
+ * To time the phases of an operation such that the phases are also recorded
+ * when the operation fails, use a PhaseTimer:
+ * <pre>
+ * final PhaseTimer pt = stats.startPhases(TOTAL, PHASE_ONE);
+ * try {
+ *     ...do stuff...
+ *     pt.next(PHASE_TWO);
+ *     ...do more stuff...
+ * } finally {
+ *     pt.end();
+ * }
+ * </pre>
+ *
+ * Between calls to startCall() and endCall() on a thread, everything
+ * recorded on that thread is also collected into a CallStatistics instance
+ * for the call.
+ */
+public class OperationStatistics implements OperationStatisticsMBean {
+
+	public static final String JMX_NAME =
+			"us.kbase.workspace:type=OperationStatistics";
+
+	/* names shared between the storage layers and the server */
+	/** Phase for queries to MongoDB. */
+	public static final String MONGO_QUERY = "mongo.query";
+	/** Phase for writing object data to the blob store. */
+	public static final String BLOB_WRITE = "save.blob_write";
+	/** Phase for reading object data from the blob store. */
+	public static final String BLOB_READ = "get.blob_fetch";
+	/** Byte counter for object data saved. */
+	public static final String BYTES_SAVED = "save.bytes";
+	/** Byte counter for object data read. */
+	public static final String BYTES_READ = "get.bytes";
+	/** Counter for objects saved. */
+	public static final String OBJECTS_SAVED = "save.objects";
+	/** Counter for objects read. */
+	public static final String OBJECTS_READ = "get.objects";
+	/** Peak memory used by the file cache when reading objects. */
+	public static final String FILE_CACHE_MEM = "get.filecache_mem";
+	/** Peak disk used by the file cache when reading objects. */
+	public static final String FILE_CACHE_DISK = "get.filecache_disk";
+	/** Bytes written to temporary files. */
+	public static final String TEMP_FILE_BYTES = "rpc.tempfile_bytes";
+
+	/* upper bounds of the latency histogram buckets in ms. The last bucket
+	 * catches everything larger.
+	 */
+	private static final long[] BUCKETS_MS =
+		{1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000};
+	private static final long NS_PER_MS = 1000000;
+
+	private final ConcurrentMap<String, PhaseStatistics> phases =
+			new ConcurrentHashMap<String, PhaseStatistics>();
+	private final ConcurrentMap<String, AtomicLong> bytes =
+			new ConcurrentHashMap<String, AtomicLong>();
+	private final ConcurrentMap<String, AtomicLong> counts =
+			new ConcurrentHashMap<String, AtomicLong>();
+	private final ConcurrentMap<String, AtomicLong> peaks =
+			new ConcurrentHashMap<String, AtomicLong>();
+	
+	private final ThreadLocal<CallStatistics> call =
+			new ThreadLocal<CallStatistics>();
+	
+	/** Start collecting statistics for a call on the current thread. Any
+	 * statistics for a previous call on the thread that was not ended are
+	 * discarded.
+	 */
+	public void startCall() {
+		call.set(new CallStatistics());
+	}
+	
+	/** Stop collecting statistics for a call on the current thread.
+	 * @return the statistics for the call, or null if startCall() was not
+	 * called on this thread.
+	 */
+	public CallStatistics endCall() {
+		final CallStatistics cs = call.get();
+		call.remove();
+		return cs;
+	}
+
+	/** Get the start time for a timed phase.
+	 * @return the current value of System.nanoTime().
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/** Record the completion of a phase.
+	 * @param phase the name of the phase.
+	 * @param start the start time of the phase as returned from start() or
+	 * a previous call to record().
+	 * @return the current time, which can be used as the start time for the
+	 * next phase.
+	 */
+	public long record(final String phase, final long start) {
+		final long now = System.nanoTime();
+		recordElapsed(phase, now - start);
+		return now;
+	}
+	
+	private void recordElapsed(final String phase, final long nanos) {
+		getPhase(phase).add(nanos);
+		final CallStatistics cs = call.get();
+		if (cs != null) {
+			cs.addPhase(phase, nanos);
+		}
+	}
+	
+	/** Start timing the phases of an operation.
+	 * @param total the name of the phase covering the whole operation, or
+	 * null to not record the whole operation.
+	 * @param first the name of the first phase.
+	 * @return a timer for the phases of the operation.
+	 */
+	public PhaseTimer startPhases(final String total, final String first) {
+		if (first == null) {
+			throw new NullPointerException("first");
+		}
+		return new PhaseTimer(total, first);
+	}
+	
+	/** Times the consecutive phases of a single operation. The time spent in
+	 * each phase is summed until end() is called and then recorded once, so
+	 * a loop may switch between phases for each item it processes. Call
+	 * end() in a finally block so that the phases of failed operations are
+	 * recorded. Instances are not thread safe.
+	 */
+	public class PhaseTimer {
+		
+		private final Map<String, Long> elapsed =
+				new LinkedHashMap<String, Long>();
+		private final String total;
+		private final long start;
+		private String phase;
+		private long t;
+		
+		private PhaseTimer(final String total, final String first) {
+			this.total = total;
+			phase = first;
+			start = System.nanoTime();
+			t = start;
+		}
+		
+		/** End the current phase and start another.
+		 * @param next the name of the next phase.
+		 */
+		public void next(final String next) {
+			if (next == null) {
+				throw new NullPointerException("next");
+			}
+			if (phase == null) {
+				throw new IllegalStateException("The timer has ended");
+			}
+			if (next.equals(phase)) {
+				return;
+			}
+			final long now = System.nanoTime();
+			addElapsed(phase, now - t);
+			phase = next;
+			t = now;
+		}
+		
+		private void addElapsed(final String phase, final long nanos) {
+			final Long e = elapsed.get(phase);
+			elapsed.put(phase, e == null ? nanos : e + nanos);
+		}
+		
+		/** End the current phase and record all the phases of the operation.
+		 * Subsequent calls have no effect.
+		 */
+		public void end() {
+			if (phase == null) {
+				return;
+			}
+			final long now = System.nanoTime();
+			addElapsed(phase, now - t);
+			phase = null;
+			for (final String p: elapsed.keySet()) {
+				recordElapsed(p, elapsed.get(p));
+			}
+			if (total != null) {
+				recordElapsed(total, now - start);
+			}
+		}
+	}
+
+	/** Add to a byte counter.
+	 * @param counter the name of the counter.
+	 * @param count the number of bytes to add.
+	 */
+	public void addBytes(final String counter, final long count) {
+		getCounter(bytes, counter).addAndGet(count);
+		final CallStatistics cs = call.get();
+		if (cs != null) {
+			cs.addBytes(counter, count);
+		}
+	}
+	
+	/** Add to a counter, e.g. the number of objects saved.
+	 * @param counter the name of the counter.
+	 * @param count the number to add.
+	 */
+	public void addCount(final String counter, final long count) {
+		getCounter(counts, counter).addAndGet(count);
+		final CallStatistics cs = call.get();
+		if (cs != null) {
+			cs.addCount(counter, count);
+		}
+	}
+	
+	/** Record a value of a quantity, e.g. memory use, for which the peak
+	 * value is of interest.
+	 * @param name the name of the quantity.
+	 * @param value the current value of the quantity.
+	 */
+	public void recordPeak(final String name, final long value) {
+		final AtomicLong p = getCounter(peaks, name);
+		long max = p.get();
+		while (value > max && !p.compareAndSet(max, value)) {
+			max = p.get();
+		}
+		final CallStatistics cs = call.get();
+		if (cs != null) {
+			cs.recordPeak(name, value);
+		}
+	}
+	
+	private static AtomicLong getCounter(
+			final ConcurrentMap<String, AtomicLong> counters,
+			final String counter) {
+		AtomicLong c = counters.get(counter);
+		if (c == null) {
+			final AtomicLong newc = new AtomicLong();
+			c = counters.putIfAbsent(counter, newc);
+			if (c == null) {
+				c = newc;
+			}
+		}
+		return c;
+	}
+
+	private PhaseStatistics getPhase(final String phase) {
+		PhaseStatistics ps = phases.get(phase);
+		if (ps == null) {
+			final PhaseStatistics newps = new PhaseStatistics();
+			ps = phases.putIfAbsent(phase, newps);
+			if (ps == null) {
+				ps = newps;
+			}
+		}
+		return ps;
+	}
+
+	/** Get a snapshot of the statistics as a map, suitable for serializing
+	 * to JSON. The map has four keys, "phases", "bytes", "counts", and
+	 * "peaks". "phases" maps each phase name to the call count, total, mean
+	 * and max time in ms, and the latency histogram, keyed by the upper bound
+	 * of each bucket in ms. "bytes" maps each counter name to the number of
+	 * bytes counted, "counts" maps each counter name to its count, and
+	 * "peaks" maps each quantity to the peak value recorded.
+	 * @return the statistics.
+	 */
+	public Map<String, Object> getStatistics() {
+		final Map<String, Object> p = new TreeMap<String, Object>();
+		for (final String phase: phases.keySet()) {
+			final PhaseStatistics ps = phases.get(phase);
+			final long count = ps.count.get();
+			final long total = ps.totalNanos.get();
+			final Map<String, Object> s = new LinkedHashMap<String, Object>();
+			s.put("count", count);
+			s.put("total_ms", toMillis(total));
+			s.put("mean_ms", count == 0 ? 0.0 : toMillis(total) / count);
+			s.put("max_ms", toMillis(ps.maxNanos.get()));
+			final Map<String, Long> hist = new LinkedHashMap<String, Long>();
+			for (int i = 0; i < BUCKETS_MS.length; i++) {
+				hist.put("" + BUCKETS_MS[i], ps.histogram.get(i));
+			}
+			hist.put("inf", ps.histogram.get(BUCKETS_MS.length));
+			s.put("histogram_ms", hist);
+			p.put(phase, s);
+		}
+		final Map<String, Object> ret = new LinkedHashMap<String, Object>();
+		ret.put("phases", p);
+		ret.put("bytes", snapshot(bytes));
+		ret.put("counts", snapshot(counts));
+		ret.put("peaks", snapshot(peaks));
+		return ret;
+	}
+	
+	private static Map<String, Long> snapshot(
+			final Map<String, AtomicLong> counters) {
+		final Map<String, Long> ret = new TreeMap<String, Long>();
+		for (final String counter: counters.keySet()) {
+			ret.put(counter, counters.get(counter).get());
+		}
+		return ret;
+	}
+
+	private static double toMillis(final long nanos) {
+		return nanos / (double) NS_PER_MS;
+	}
+
+	@Override
+	public String[] getPhaseNames() {
+		final List<String> names = new ArrayList<String>(phases.keySet());
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public String[] getByteCounterNames() {
+		final List<String> names = new ArrayList<String>(bytes.keySet());
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public String getSummary() {
+		final StringBuilder sb = new StringBuilder();
+		for (final String phase: new TreeMap<String, PhaseStatistics>(phases)
+				.keySet()) {
+			final PhaseStatistics ps = phases.get(phase);
+			final long count = ps.count.get();
+			sb.append(String.format("%-30s count %10d mean %12.3f ms max %12.3f ms\n",
+					phase, count,
+					count == 0 ? 0.0 : toMillis(ps.totalNanos.get()) / count,
+					toMillis(ps.maxNanos.get())));
+		}
+		for (final String counter: new TreeMap<String, AtomicLong>(bytes)
+				.keySet()) {
+			sb.append(String.format("%-30s bytes %15d\n", counter,
+					bytes.get(counter).get()));
+		}
+		for (final String counter: new TreeMap<String, AtomicLong>(counts)
+				.keySet()) {
+			sb.append(String.format("%-30s count %15d\n", counter,
+					counts.get(counter).get()));
+		}
+		for (final String name: new TreeMap<String, AtomicLong>(peaks)
+				.keySet()) {
+			sb.append(String.format("%-30s peak  %15d\n", name,
+					peaks.get(name).get()));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public long getCount(final String phase) {
+		final PhaseStatistics ps = phases.get(phase);
+		return ps == null ? 0 : ps.count.get();
+	}
+
+	@Override
+	public double getMeanMillis(final String phase) {
+		final PhaseStatistics ps = phases.get(phase);
+		if (ps == null) {
+			return 0;
+		}
+		final long count = ps.count.get();
+		return count == 0 ? 0 : toMillis(ps.totalNanos.get()) / count;
+	}
+
+	@Override
+	public double getMaxMillis(final String phase) {
+		final PhaseStatistics ps = phases.get(phase);
+		return ps == null ? 0 : toMillis(ps.maxNanos.get());
+	}
+
+	@Override
+	public long getBytes(final String counter) {
+		final AtomicLong c = bytes.get(counter);
+		return c == null ? 0 : c.get();
+	}
+
+	@Override
+	public void reset() {
+		phases.clear();
+		bytes.clear();
+		counts.clear();
+		peaks.clear();
+	}
+
+	/** Register this instance with the platform MBean server under
+	 * JMX_NAME. If another instance is already registered, it is replaced.
+	 * @throws JMException if the registration fails.
+	 */
+	public void registerMBean() throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName(JMX_NAME);
+		try {
+			server.registerMBean(this, name);
+		} catch (InstanceAlreadyExistsException e) {
+			server.unregisterMBean(name);
+			server.registerMBean(this, name);
+		}
+	}
+
+	private static class PhaseStatistics {
+
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLongArray histogram =
+				new AtomicLongArray(BUCKETS_MS.length + 1);
+
+		private void add(final long nanos) {
+			count.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			long max = maxNanos.get();
+			while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+				max = maxNanos.get();
+			}
+			int i = 0;
+			while (i < BUCKETS_MS.length && nanos > BUCKETS_MS[i] * NS_PER_MS) {
+				i++;
+			}
+			histogram.incrementAndGet(i);
+		}
+	}
+}
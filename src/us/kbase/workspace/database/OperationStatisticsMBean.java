@@ -0,0 +1,28 @@
+package us.kbase.workspace.database;
+
+/** JMX management interface for the workspace operation statistics.
+ */
+public interface OperationStatisticsMBean {
+
+	/** Returns the names of all the phases timed so far. */
+	public String[] getPhaseNames();
+
+	/** Returns the names of all the byte counters updated so far. */
+	public String[] getByteCounterNames();
+
+	/** Returns a human readable table of the statistics for every phase and
+	 * byte counter.
+	 */
+	public String getSummary();
+
+	public long getCount(String phase);
+
+	public double getMeanMillis(String phase);
+
+	public double getMaxMillis(String phase);
+
+	public long getBytes(String counter);
+
+	/** Clears all the statistics. */
+	public void reset();
+}
@@ -27,6 +27,11 @@ public class Provenance {
 		this.date = new Date();
 	}
 	
+	protected Provenance(final WorkspaceUser user, final Date date) {
+		this(user);
+		this.date = date;
+	}
+	
 	protected Provenance() {} //for subclasses using mongo
 	
 	public Provenance addAction(ProvenanceAction action) {
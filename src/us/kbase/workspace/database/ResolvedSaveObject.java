@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import us.kbase.typedobj.core.AbsoluteTypeDefId;
 import us.kbase.typedobj.core.TypedObjectValidationReport;
 import us.kbase.typedobj.idref.IdReferenceType;
 import us.kbase.typedobj.idref.RemappedId;
@@ -16,6 +17,7 @@ public class ResolvedSaveObject {
 	private final Provenance provenance;
 	private final boolean hidden;
 	private final TypedObjectValidationReport rep;
+	private final StoredData stored;
 	private final Set<Reference> refs;
 	private final List<Reference> provrefs;
 	final Map<IdReferenceType, Set<RemappedId>> extractedIDs;
@@ -39,6 +41,7 @@ public class ResolvedSaveObject {
 		this.provenance = provenance;
 		this.hidden = hidden;
 		this.rep = rep;
+		this.stored = null;
 		this.refs = refs;
 		this.provrefs = provenancerefs;
 		this.extractedIDs = extractedIDs;
@@ -62,6 +65,33 @@ public class ResolvedSaveObject {
 		this.provenance = provenance;
 		this.hidden = hidden;
 		this.rep = rep;
+		this.stored = null;
+		this.refs = refs;
+		this.provrefs = provenancerefs;
+		this.extractedIDs = extractedIDs;
+	}
+	
+	// for objects saved from stored data. id may be null.
+	ResolvedSaveObject(
+			final ObjectIDNoWSNoVer id,
+			final Map<String, String> userMeta,
+			final Provenance provenance,
+			final boolean hidden,
+			final StoredData stored,
+			final Set<Reference> refs,
+			final List<Reference> provenancerefs,
+			final Map<IdReferenceType, Set<RemappedId>> extractedIDs) {
+		if (stored == null || refs == null || provenancerefs == null ||
+				extractedIDs == null) {
+			throw new IllegalArgumentException(
+					"Neither stored, refs, extractedIDs nor provenancerefs may be null");
+		}
+		this.id = id;
+		this.userMeta = userMeta;
+		this.provenance = provenance;
+		this.hidden = hidden;
+		this.rep = null;
+		this.stored = stored;
 		this.refs = refs;
 		this.provrefs = provenancerefs;
 		this.extractedIDs = extractedIDs;
@@ -94,9 +124,20 @@ public class ResolvedSaveObject {
 		return hidden;
 	}
 
+	// null if the object is saved from stored data
 	public TypedObjectValidationReport getRep() {
 		return rep;
 	}
+	
+	// null unless the object is saved from stored data
+	public StoredData getStoredData() {
+		return stored;
+	}
+	
+	public AbsoluteTypeDefId getType() {
+		return rep == null ? stored.getType() :
+			rep.getValidationTypeDefId();
+	}
 
 	public Set<Reference> getRefs() {
 		return refs;
@@ -123,6 +164,8 @@ public class ResolvedSaveObject {
 		builder.append(hidden);
 		builder.append(", rep=");
 		builder.append(rep);
+		builder.append(", stored=");
+		builder.append(stored);
 		builder.append(", refs=");
 		builder.append(refs);
 		builder.append(", provrefs=");
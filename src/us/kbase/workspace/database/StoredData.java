@@ -0,0 +1,72 @@
+package us.kbase.workspace.database;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import us.kbase.typedobj.core.AbsoluteTypeDefId;
+
+/** Information about object data that is already stored in the workspace,
+ * i.e. the data of at least one saved object version. Since the references
+ * and IDs in the data are rewritten before the data is stored, every version
+ * with the same type and MD5 has the same references and extracted IDs.
+ */
+public class StoredData {
+
+	private final AbsoluteTypeDefId type;
+	private final String md5;
+	private final long size;
+	private final Set<String> refs;
+	private final Map<String, Set<String>> extractedIDs;
+
+	public StoredData(
+			final AbsoluteTypeDefId type,
+			final String md5,
+			final long size,
+			final Set<String> refs,
+			final Map<String, Set<String>> extractedIDs) {
+		if (type == null || md5 == null || refs == null ||
+				extractedIDs == null) {
+			throw new IllegalArgumentException(
+					"Neither type, md5, refs, nor extractedIDs may be null");
+		}
+		this.type = type;
+		this.md5 = md5;
+		this.size = size;
+		this.refs = Collections.unmodifiableSet(refs);
+		this.extractedIDs = Collections.unmodifiableMap(extractedIDs);
+	}
+
+	public AbsoluteTypeDefId getType() {
+		return type;
+	}
+
+	public String getMD5() {
+		return md5;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	/** Returns the references in the data as absolute reference strings.
+	 * @return the references.
+	 */
+	public Set<String> getRefs() {
+		return refs;
+	}
+
+	/** Returns the non-workspace IDs extracted from the data, mapped by the
+	 * ID type.
+	 * @return the extracted IDs.
+	 */
+	public Map<String, Set<String>> getExtractedIDs() {
+		return extractedIDs;
+	}
+
+	@Override
+	public String toString() {
+		return "StoredData [type=" + type + ", md5=" + md5 + ", size=" + size
+				+ ", refs=" + refs + ", extractedIDs=" + extractedIDs + "]";
+	}
+}
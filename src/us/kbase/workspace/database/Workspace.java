@@ -54,8 +54,10 @@ import us.kbase.typedobj.idref.IdReferenceHandlerSet.NoSuchIdException;
 import us.kbase.typedobj.idref.IdReferenceHandlerSet.TooManyIdsException;
 import us.kbase.typedobj.idref.IdReferenceHandlerSetFactory;
 import us.kbase.typedobj.idref.IdReferenceHandlerSetFactory.IdReferenceHandlerFactory;
+import us.kbase.typedobj.idref.IdReferenceIndex;
 import us.kbase.typedobj.idref.IdReferenceType;
 import us.kbase.typedobj.idref.RemappedId;
+import us.kbase.workspace.database.OperationStatistics.PhaseTimer;
 import us.kbase.workspace.database.ResourceUsageConfigurationBuilder.ResourceUsageConfiguration;
 import us.kbase.workspace.database.exceptions.CorruptWorkspaceDBException;
 import us.kbase.workspace.database.exceptions.InaccessibleObjectException;
@@ -90,9 +92,24 @@ public class Workspace {
 	
 	private final static IdReferenceType WS_ID_TYPE = new IdReferenceType("ws");
 	
+	//names of the timed phases in the operation statistics
+	private final static String STAT_SAVE_TOTAL = "save.total";
+	private final static String STAT_SAVE_PERMS = "save.check_permissions";
+	private final static String STAT_SAVE_VALIDATE = "save.validate";
+	private final static String STAT_SAVE_IDS = "save.process_ids";
+	private final static String STAT_SAVE_REFS = "save.resolve_references";
+	private final static String STAT_SAVE_RELABEL = "save.relabel";
+	private final static String STAT_SAVE_SORT = "save.sort";
+	private final static String STAT_SAVE_DB = "save.database";
+	private final static String STAT_GET_TOTAL = "get.total";
+	private final static String STAT_GET_RESOLVE = "get.resolve";
+	private final static String STAT_GET_DB = "get.database";
+	private final static String STAT_GET_COPYREFS = "get.check_copy_references";
+	
 	private final WorkspaceDatabase db;
 	private final TypeDefinitionDB typedb;
 	private final TempFilesManager tfm;
+	private final OperationStatistics stats;
 	private ResourceUsageConfiguration rescfg;
 	private final ReferenceParser parser;
 	
@@ -112,6 +129,7 @@ public class Workspace {
 		this.db = db;
 		typedb = db.getTypeValidator().getDB();
 		tfm = db.getTempFilesManager();
+		stats = db.getOperationStatistics();
 		rescfg = cfg;
 		this.parser = parser;
 		db.setResourceUsageConfiguration(rescfg);
@@ -133,6 +151,20 @@ public class Workspace {
 		return tfm;
 	}
 	
+	public OperationStatistics getOperationStatistics() {
+		return stats;
+	}
+	
+	/** Write any changes held by the database, e.g. coalesced workspace
+	 * modification dates, and stop any background writers. Call before the
+	 * server stops.
+	 * @throws WorkspaceCommunicationException if a communication error
+	 * occurs.
+	 */
+	public void shutdown() throws WorkspaceCommunicationException {
+		db.shutdown();
+	}
+	
 	private void comparePermission(final WorkspaceUser user,
 			final Permission required, final Permission available,
 			final ObjectIdentifier oi, final String operation) throws
@@ -448,7 +480,7 @@ public class Workspace {
 						user.getUser(), wsi.getIdentifierString()));
 			}
 		}
-		db.setPermissions(wsid, users, permission);
+		db.setPermissions(asAdmin ? null : user, wsid, users, permission);
 	}
 	
 	public void setGlobalPermission(final WorkspaceUser user,
@@ -462,7 +494,7 @@ public class Workspace {
 		final boolean ignoreLock = permission.equals(Permission.READ);
 		final ResolvedWorkspaceID wsid = checkPerms(user, wsi, Permission.ADMIN,
 				"set global permission on", false, ignoreLock);
-		db.setGlobalPermission(wsid, permission);
+		db.setGlobalPermission(user, wsid, permission);
 	}
 
 	public Map<User, Permission> getPermissions(final WorkspaceUser user,
@@ -564,14 +596,41 @@ public class Workspace {
 		if (objects.isEmpty()) {
 			throw new IllegalArgumentException("No data provided");
 		}
+		final PhaseTimer pt = stats.startPhases(
+				STAT_SAVE_TOTAL, STAT_SAVE_PERMS);
+		final List<ObjectInformation> ret;
+		try {
+			ret = saveObjects(user, wsi, objects, idHandlerFac, pt);
+		} finally {
+			pt.end();
+		}
+		stats.addCount(OperationStatistics.OBJECTS_SAVED, ret.size());
+		return ret;
+	}
+	
+	private List<ObjectInformation> saveObjects(
+			final WorkspaceUser user,
+			final WorkspaceIdentifier wsi, 
+			List<WorkspaceSaveObject> objects,
+			final IdReferenceHandlerSetFactory idHandlerFac,
+			final PhaseTimer pt) throws
+			WorkspaceCommunicationException, WorkspaceAuthorizationException,
+			NoSuchObjectException, CorruptWorkspaceDBException,
+			NoSuchWorkspaceException, TypedObjectValidationException,
+			TypeStorageException, IOException, TypedObjectSchemaException {
 		final ResolvedWorkspaceID rwsi = checkPerms(user, wsi, Permission.WRITE,
 				"write to");
+		pt.next(STAT_SAVE_VALIDATE);
 		idHandlerFac.addFactory(getHandlerFactory(user));
 		final IdReferenceHandlerSet<IDAssociation> idhandler =
 				idHandlerFac.createHandlers(IDAssociation.class);
 		
+		final Map<WorkspaceSaveObject, StoredData> stored =
+				new HashMap<WorkspaceSaveObject, StoredData>();
 		final Map<WorkspaceSaveObject, TypedObjectValidationReport> reports = 
-				validateObjectsAndExtractReferences(objects, idhandler);
+				validateObjectsAndExtractReferences(user, objects, idhandler,
+						stored);
+		pt.next(STAT_SAVE_IDS);
 		
 		processIds(objects, idhandler, reports);
 		
@@ -581,6 +640,7 @@ public class Workspace {
 		long ttlObjSize = 0;
 		int objcount = 1;
 		for (WorkspaceSaveObject wo: objects) {
+			pt.next(STAT_SAVE_REFS);
 			
 			//maintain ordering
 			final List<Reference> provrefs = new LinkedList<Reference>();
@@ -610,15 +670,24 @@ public class Workspace {
 				refs.add((Reference) id);
 			}
 			
+			pt.next(STAT_SAVE_RELABEL);
 			final TypedObjectValidationReport rep = reports.get(wo);
-			saveobjs.add(wo.resolve(rep, refs, provrefs, extractedIDs));
-			ttlObjSize += rep.getRelabeledSize();
+			if (rep == null) {
+				saveobjs.add(wo.resolve(stored.get(wo), refs, provrefs,
+						extractedIDs));
+			} else {
+				saveobjs.add(wo.resolve(rep, refs, provrefs, extractedIDs));
+				ttlObjSize += rep.getRelabeledSize();
+			}
 			objcount++;
 		}
 		objects = null;
 		reports.clear();
+		stored.clear();
+		pt.next(STAT_SAVE_SORT);
 		
 		sortObjects(saveobjs, ttlObjSize);
+		pt.next(STAT_SAVE_DB);
 		return db.saveObjects(user, rwsi, saveobjs);
 	}
 
@@ -636,9 +705,22 @@ public class Workspace {
 		final UTF8JsonSorterFactory fac = new UTF8JsonSorterFactory(
 				rescfg.getMaxRelabelAndSortMemoryUsage());
 		for (ResolvedSaveObject ro: saveobjs) {
+			if (ro.getRep() == null) {
+				//stored data is already sorted
+				objcount++;
+				continue;
+			}
 			try {
-				//modifies object in place
-				ro.getRep().sort(fac, tempTFM);
+				try {
+					//modifies object in place
+					ro.getRep().sort(fac, tempTFM);
+				} catch (TooManyKeysException tmke) {
+					/* the keys of a map don't fit in the sort memory, so
+					 * spill the map to temporary files and merge instead
+					 */
+					ro.getRep().externalSort(getTempFilesManager(),
+							rescfg.getMaxRelabelAndSortMemoryUsage());
+				}
 			} catch (KeyDuplicationException kde) {
 				/* this occurs when two references in the same hash resolve
 				 * to the same reference, so one value would be lost
@@ -647,31 +729,40 @@ public class Workspace {
 						"Object %s: Two references in a single hash are identical when resolved, resulting in a loss of data: ",
 						getObjectErrorId(ro.getObjectIdentifier(), objcount))
 						+ kde.getLocalizedMessage(), kde);
-			} catch (TooManyKeysException tmke) {
-				throw new TypedObjectValidationException(String.format(
-						"Object %s: ",
-						getObjectErrorId(ro.getObjectIdentifier(), objcount))
-						+ tmke.getLocalizedMessage(), tmke);
 			}
 			objcount++;
 		}
 	}
 
+	// objects that reuse stored data are added to the stored map rather
+	// than validated
 	private Map<WorkspaceSaveObject, TypedObjectValidationReport>
 			validateObjectsAndExtractReferences(
+			final WorkspaceUser user,
 			final List<WorkspaceSaveObject> objects,
-			final IdReferenceHandlerSet<IDAssociation> idhandler)
+			final IdReferenceHandlerSet<IDAssociation> idhandler,
+			final Map<WorkspaceSaveObject, StoredData> stored)
 			throws TypeStorageException, TypedObjectSchemaException,
-			TypedObjectValidationException {
+			TypedObjectValidationException,
+			WorkspaceCommunicationException, CorruptWorkspaceDBException {
 		final TypedObjectValidator val = db.getTypeValidator();
 		final Map<WorkspaceSaveObject, TypedObjectValidationReport> reports = 
 				new HashMap<WorkspaceSaveObject, TypedObjectValidationReport>();
+		// only fetched if needed, since it's all the user's workspaces
+		PermissionSet readable = null;
 		int objcount = 1;
 		for (final WorkspaceSaveObject wo: objects) {
 			idhandler.associateObject(new IDAssociation(objcount, false));
-			final TypedObjectValidationReport rep = validate(wo, val,
-					idhandler, objcount);
-			reports.put(wo, rep);
+			if (wo.getStoredDataMD5() == null) {
+				reports.put(wo, validate(wo, val, idhandler, objcount));
+			} else {
+				if (readable == null) {
+					readable = db.getPermissions(user, Permission.READ,
+							false);
+				}
+				stored.put(wo, getStoredData(readable, wo, val, idhandler,
+						objcount));
+			}
 			idhandler.associateObject(new IDAssociation(objcount, true));
 			try {
 				for (final Provenance.ProvenanceAction action:
@@ -748,6 +839,9 @@ public class Workspace {
 
 	private String getIDPath(TypedObjectValidationReport r,
 			IdReference<String> idReference) {
+		if (r == null) {
+			return "[a location in the stored data]";
+		}
 		try {
 			final JsonDocumentLocation loc = r.getIdReferenceLocation(
 					idReference);
@@ -806,6 +900,83 @@ public class Workspace {
 		return rep;
 	}
 	
+	/* Objects saved from stored data skip validation, since the data was
+	 * validated against the same type when it was first saved. The
+	 * references and IDs recorded for the data are passed through the ID
+	 * handlers so that they're checked against this user exactly as if the
+	 * data had been sent. Only data the user can read is used, so knowing
+	 * the MD5 of data isn't enough to copy it.
+	 */
+	private StoredData getStoredData(
+			final PermissionSet readable,
+			final WorkspaceSaveObject wo,
+			final TypedObjectValidator val,
+			final IdReferenceHandlerSet<IDAssociation> idhandler,
+			final int objcount)
+			throws TypeStorageException, TypedObjectSchemaException,
+			TypedObjectValidationException,
+			WorkspaceCommunicationException {
+		final AbsoluteTypeDefId type;
+		try {
+			type = val.getDB().resolveTypeDefId(wo.getType());
+			if (val.hasWsMetadata(type)) {
+				/* the metadata would need to be extracted from the data.
+				 * Could store extracted metadata with the type data if
+				 * this becomes an issue.
+				 */
+				throw new TypedObjectValidationException(String.format(
+						"Object %s: type %s extracts metadata from the " +
+						"object data, so the data must be provided",
+						getObjectErrorId(wo, objcount),
+						type.getTypeString()));
+			}
+		} catch (NoSuchTypeException nste) {
+			throw new TypedObjectValidationException(String.format(
+					"Object %s failed type checking:\n",
+					getObjectErrorId(wo, objcount))
+					+ nste.getLocalizedMessage(), nste);
+		} catch (NoSuchModuleException nsme) {
+			throw new TypedObjectValidationException(String.format(
+					"Object %s failed type checking:\n",
+					getObjectErrorId(wo, objcount))
+					+ nsme.getLocalizedMessage(), nsme);
+		}
+		final StoredData sd = db.getStoredData(readable, type,
+				wo.getStoredDataMD5().getMD5());
+		if (sd == null) {
+			throw new TypedObjectValidationException(String.format(
+					"Object %s: no data of type %s with MD5 %s is stored " +
+					"in a workspace readable by the user, so the data " +
+					"must be provided",
+					getObjectErrorId(wo, objcount), type.getTypeString(),
+					wo.getStoredDataMD5().getMD5()));
+		}
+		try {
+			for (final String ref: sd.getRefs()) {
+				idhandler.addStringId(new IdReference<String>(
+						WS_ID_TYPE, ref, null));
+			}
+			for (final String t: sd.getExtractedIDs().keySet()) {
+				final IdReferenceType irt = new IdReferenceType(t);
+				// as for validation, IDs without a handler are ignored
+				if (idhandler.hasHandler(irt)) {
+					for (final String id: sd.getExtractedIDs().get(t)) {
+						idhandler.addStringId(new IdReference<String>(
+								irt, id, null));
+					}
+				}
+			}
+		} catch (IdReferenceHandlerException ihre) {
+			throw new TypedObjectValidationException(String.format(
+					"Object %s has an invalid id in the stored data: ",
+					getObjectErrorId(wo, objcount)) +
+					ihre.getMessage(), ihre);
+		} catch (TooManyIdsException tmie) {
+			throw wrapTooManyIDsException(objcount, idhandler, tmie);
+		}
+		return sd;
+	}
+	
 	private TypedObjectValidationException wrapTooManyIDsException(
 			final int objcount,
 			final IdReferenceHandlerSet<IDAssociation> idhandler,
@@ -904,19 +1075,29 @@ public class Workspace {
 			final List<ObjectIdentifier> loi) throws
 			CorruptWorkspaceDBException, WorkspaceCommunicationException,
 			InaccessibleObjectException {
-		final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = 
-				checkPerms(user, loi, Permission.READ, "read");
-		//this is pretty gross, think about a better api here
-		final Map<ObjectIDResolvedWS,
-				Map<ObjectPaths, WorkspaceObjectData>> data = 
-				db.getObjects(new HashSet<ObjectIDResolvedWS>(ws.values()));
+		final PhaseTimer pt = stats.startPhases(
+				STAT_GET_TOTAL, STAT_GET_RESOLVE);
 		final List<WorkspaceObjectData> ret =
 				new ArrayList<WorkspaceObjectData>();
-		
-		for (final ObjectIdentifier o: loi) {
-			ret.add(data.get(ws.get(o)).get(null));
+		try {
+			final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = 
+					checkPerms(user, loi, Permission.READ, "read");
+			pt.next(STAT_GET_DB);
+			//this is pretty gross, think about a better api here
+			final Map<ObjectIDResolvedWS,
+					Map<ObjectPaths, WorkspaceObjectData>> data = 
+					db.getObjects(new HashSet<ObjectIDResolvedWS>(
+							ws.values()));
+			pt.next(STAT_GET_COPYREFS);
+			
+			for (final ObjectIdentifier o: loi) {
+				ret.add(data.get(ws.get(o)).get(null));
+			}
+			removeInaccessibleDataCopyReferences(user, ret);
+		} finally {
+			pt.end();
 		}
-		removeInaccessibleDataCopyReferences(user, ret);
+		stats.addCount(OperationStatistics.OBJECTS_READ, ret.size());
 		return ret;
 	}
 	
@@ -929,30 +1110,39 @@ public class Workspace {
 			objs.add(soi.getObjectIdentifer());
 		}
 		
-		final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = 
-				checkPerms(user, objs, Permission.READ, "read");
-		final Map<ObjectIDResolvedWS, Set<ObjectPaths>> objpaths =
-				new HashMap<ObjectIDResolvedWS, Set<ObjectPaths>>();
-		for (final SubObjectIdentifier soi: loi) {
-			final ObjectIDResolvedWS o = ws.get(soi.getObjectIdentifer());
-			if (!objpaths.containsKey(o)) {
-				objpaths.put(o, new HashSet<ObjectPaths>());
-			}
-			objpaths.get(o).add(soi.getPaths());
-		}
-		
-		//this is kind of disgusting, think about the api here
-		final Map<ObjectIDResolvedWS,
-				Map<ObjectPaths, WorkspaceObjectData>> data = 
-				db.getObjects(objpaths);
-		
+		final PhaseTimer pt = stats.startPhases(
+				STAT_GET_TOTAL, STAT_GET_RESOLVE);
 		final List<WorkspaceObjectData> ret =
 				new ArrayList<WorkspaceObjectData>();
-		for (final SubObjectIdentifier soi: loi) {
-			ret.add(data.get(ws.get(soi.getObjectIdentifer()))
-					.get(soi.getPaths()));
+		try {
+			final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = 
+					checkPerms(user, objs, Permission.READ, "read");
+			final Map<ObjectIDResolvedWS, Set<ObjectPaths>> objpaths =
+					new HashMap<ObjectIDResolvedWS, Set<ObjectPaths>>();
+			for (final SubObjectIdentifier soi: loi) {
+				final ObjectIDResolvedWS o = ws.get(soi.getObjectIdentifer());
+				if (!objpaths.containsKey(o)) {
+					objpaths.put(o, new HashSet<ObjectPaths>());
+				}
+				objpaths.get(o).add(soi.getPaths());
+			}
+			pt.next(STAT_GET_DB);
+			
+			//this is kind of disgusting, think about the api here
+			final Map<ObjectIDResolvedWS,
+					Map<ObjectPaths, WorkspaceObjectData>> data = 
+					db.getObjects(objpaths);
+			pt.next(STAT_GET_COPYREFS);
+			
+			for (final SubObjectIdentifier soi: loi) {
+				ret.add(data.get(ws.get(soi.getObjectIdentifer()))
+						.get(soi.getPaths()));
+			}
+			removeInaccessibleDataCopyReferences(user, ret);
+		} finally {
+			pt.end();
 		}
-		removeInaccessibleDataCopyReferences(user, ret);
+		stats.addCount(OperationStatistics.OBJECTS_READ, ret.size());
 		return ret;
 	}
 
@@ -1122,6 +1312,11 @@ public class Workspace {
 		return ret;
 	}
 	
+	public long migrateReferenceCounts()
+			throws WorkspaceCommunicationException {
+		return db.migrateReferenceCounts();
+	}
+	
 	public List<ObjectInformation> getObjectHistory(final WorkspaceUser user,
 			final ObjectIdentifier oi) throws WorkspaceCommunicationException,
 			InaccessibleObjectException, CorruptWorkspaceDBException {
@@ -1130,6 +1325,49 @@ public class Workspace {
 		return db.getObjectHistory(ws.get(oi));
 	}
 	
+	/** Get an object's history a page at a time, newest version first.
+	 * @param user the user requesting the history.
+	 * @param oi the object. Any version in the identifier is ignored.
+	 * @param before return versions older than this version, or null to
+	 * start with the newest version.
+	 * @param limit the maximum number of versions to return, or null for the
+	 * maximum. Limits greater than the maximum are reduced to the maximum.
+	 * @return the page of history.
+	 */
+	public ObjectHistoryPage getObjectHistory(final WorkspaceUser user,
+			ObjectIdentifier oi, final Integer before, Integer limit)
+			throws WorkspaceCommunicationException,
+			InaccessibleObjectException, CorruptWorkspaceDBException {
+		if (before != null && before < 1) {
+			throw new IllegalArgumentException(
+					"History token must be greater than 0");
+		}
+		if (limit == null || limit > MAX_INFO_COUNT) {
+			limit = MAX_INFO_COUNT;
+		}
+		if (limit < 1) {
+			throw new IllegalArgumentException(
+					"Limit must be greater than 0");
+		}
+		//the version must not be resolved, as it may not exist
+		if (oi.getVersion() != null) {
+			oi = oi.getId() == null ?
+					new ObjectIdentifier(oi.getWorkspaceIdentifier(),
+							oi.getName()) :
+					new ObjectIdentifier(oi.getWorkspaceIdentifier(),
+							oi.getId());
+		}
+		final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = 
+				checkPerms(user, Arrays.asList(oi), Permission.READ, "read");
+		final List<ObjectInformation> history =
+				db.getObjectHistory(ws.get(oi), before, limit);
+		if (history.size() < limit) {
+			return new ObjectHistoryPage(history, null);
+		}
+		final int last = history.get(history.size() - 1).getVersion();
+		return new ObjectHistoryPage(history, last > 1 ? last : null);
+	}
+	
 	public List<ObjectInformation> getObjectInformation(
 			final WorkspaceUser user, final List<ObjectIdentifier> loi,
 			final boolean includeMetadata, final boolean nullIfInaccessible)
@@ -1156,6 +1394,19 @@ public class Workspace {
 		return ret;
 	}
 	
+	/* Returns a handle on the stored data of an object version. The
+	 * permission check happens here, and the handle can then be used to read
+	 * the data in byte ranges.
+	 */
+	public ObjectDownload getObjectDownload(final WorkspaceUser user,
+			final ObjectIdentifier oi)
+			throws WorkspaceCommunicationException, CorruptWorkspaceDBException,
+			InaccessibleObjectException {
+		final ObjectInformation info = getObjectInformation(user,
+				Arrays.asList(oi), false, false).get(0);
+		return new ObjectDownload(db, info);
+	}
+	
 	public WorkspaceInformation renameWorkspace(final WorkspaceUser user,
 			final WorkspaceIdentifier wsi, final String newname)
 			throws CorruptWorkspaceDBException, NoSuchWorkspaceException,
@@ -1173,7 +1424,7 @@ public class Workspace {
 		final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = checkPerms(user,
 				Arrays.asList(oi), Permission.WRITE, "rename objects in");
 		ObjectIDNoWSNoVer.checkObjectName(newname);
-		return db.renameObject(ws.get(oi), newname);
+		return db.renameObject(user, ws.get(oi), newname);
 	}
 	
 	public ObjectInformation copyObject(final WorkspaceUser user,
@@ -1203,7 +1454,7 @@ public class Workspace {
 		final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = 
 				checkPerms(user, loi, Permission.WRITE,
 						(hide ? "" : "un") + "hide objects from");
-		db.setObjectsHidden(new HashSet<ObjectIDResolvedWS>(ws.values()),
+		db.setObjectsHidden(user, new HashSet<ObjectIDResolvedWS>(ws.values()),
 				hide);
 	}
 	
@@ -1214,8 +1465,8 @@ public class Workspace {
 		final Map<ObjectIdentifier, ObjectIDResolvedWS> ws = 
 				checkPerms(user, loi, Permission.WRITE,
 						(delete ? "" : "un") + "delete objects from");
-		db.setObjectsDeleted(new HashSet<ObjectIDResolvedWS>(ws.values()),
-				delete);
+		db.setObjectsDeleted(user,
+				new HashSet<ObjectIDResolvedWS>(ws.values()), delete);
 	}
 
 	public void setWorkspaceDeleted(final WorkspaceUser user,
@@ -1224,7 +1475,61 @@ public class Workspace {
 			WorkspaceCommunicationException, WorkspaceAuthorizationException {
 		final ResolvedWorkspaceID wsid = checkPerms(user, wsi, Permission.OWNER,
 				(delete ? "" : "un") + "delete", !delete, false);
-		db.setWorkspaceDeleted(wsid, delete);
+		db.setWorkspaceDeleted(user, wsid, delete);
+	}
+
+	/* returns events in workspaces the user can read, or all events if
+	 * asAdmin is true
+	 */
+	public EventFeedPage getEvents(final WorkspaceUser user, final long after,
+			int limit, final boolean asAdmin)
+			throws WorkspaceCommunicationException,
+			CorruptWorkspaceDBException {
+		if (after < 0) {
+			throw new IllegalArgumentException(
+					"Event token cannot be negative");
+		}
+		if (limit < 1 || limit > MAX_INFO_COUNT) {
+			limit = MAX_INFO_COUNT;
+		}
+		final List<WorkspaceEvent> events = db.getEvents(after, limit);
+		// the token is the last event read, even if it's filtered out, so
+		// the next page doesn't reread events
+		final long token = events.isEmpty() ? after :
+				events.get(events.size() - 1).getToken();
+		if (asAdmin || events.isEmpty()) {
+			return new EventFeedPage(events, token);
+		}
+		// only check the workspaces in the page rather than every
+		// workspace the user can read
+		final Set<WorkspaceIdentifier> wsis =
+				new HashSet<WorkspaceIdentifier>();
+		for (final WorkspaceEvent e: events) {
+			wsis.add(new WorkspaceIdentifier(e.getWorkspaceId()));
+		}
+		final Set<ResolvedWorkspaceID> rwsis;
+		try {
+			rwsis = new HashSet<ResolvedWorkspaceID>(
+					db.resolveWorkspaces(wsis, true, true).values());
+		} catch (NoSuchWorkspaceException nswe) {
+			throw new RuntimeException(
+					"Threw exception when explicitly told not to", nswe);
+		}
+		final Set<Long> readable = new HashSet<Long>();
+		// an empty set would check every workspace
+		if (!rwsis.isEmpty()) {
+			for (final ResolvedWorkspaceID rwsi: db.getPermissions(user,
+					rwsis, Permission.READ, false).getWorkspaces()) {
+				readable.add(rwsi.getID());
+			}
+		}
+		final List<WorkspaceEvent> ret = new LinkedList<WorkspaceEvent>();
+		for (final WorkspaceEvent e: events) {
+			if (readable.contains(e.getWorkspaceId())) {
+				ret.add(e);
+			}
+		}
+		return new EventFeedPage(ret, token);
 	}
 
 	private String getUser(WorkspaceUser user) {
@@ -1506,11 +1811,13 @@ public class Workspace {
 
 		private final WorkspaceUser user;
 		
-		// associatedObject -> id -> list of attributes
-		private final Map<T, Map<String, Set<List<String>>>> ids =
-				new HashMap<T, Map<String, Set<List<String>>>>();
-		private final Map<String, RemappedId> remapped =
-				new HashMap<String, RemappedId>();
+		private final IdReferenceIndex<T> ids = new IdReferenceIndex<T>();
+		// id index -> associatedObject -> list of attributes. Only IDs with
+		// attributes are stored.
+		private final Map<Integer, Map<T, Set<List<String>>>> attributes =
+				new HashMap<Integer, Map<T, Set<List<String>>>>();
+		// id index -> parsed id
+		private ObjectIdentifier[] parsed;
 		
 		private WorkspaceIDHandler(final WorkspaceUser user) {
 			super();
@@ -1535,19 +1842,20 @@ public class Workspace {
 				final String id,
 				final List<String> attributes)
 				throws IdParseException {
-			boolean unique = true;
-			if (!ids.containsKey(associatedObject)) {
-				ids.put(associatedObject,
-						new HashMap<String, Set<List<String>>>());
-			}
-			if (!ids.get(associatedObject).containsKey(id)) {
-				ids.get(associatedObject).put(id,
-						new HashSet<List<String>>());
-			} else {
-				unique = false;
-			}
+			final boolean unique = ids.add(associatedObject, id);
 			if (attributes != null && !attributes.isEmpty()) {
-				ids.get(associatedObject).get(id).add(attributes);
+				final int idx = ids.getIndex(id);
+				if (!this.attributes.containsKey(idx)) {
+					this.attributes.put(idx,
+							new HashMap<T, Set<List<String>>>());
+				}
+				final Map<T, Set<List<String>>> objattribs =
+						this.attributes.get(idx);
+				if (!objattribs.containsKey(associatedObject)) {
+					objattribs.put(associatedObject,
+							new HashSet<List<String>>());
+				}
+				objattribs.get(associatedObject).add(attributes);
 			}
 			return unique;
 		}
@@ -1555,78 +1863,70 @@ public class Workspace {
 		@Override
 		protected void processIdsImpl()
 				throws IdReferenceHandlerException {
-			final Set<ObjectIdentifier> idset =
-					new HashSet<ObjectIdentifier>();
-			for (final T assObj: ids.keySet()) {
-				for (final String id: ids.get(assObj).keySet()) {
-					final ObjectIdentifier oi;
-					try {
-						oi = parser.parse(id);
-						//Illegal arg is probably not the right exception
-					} catch (IllegalArgumentException iae) {
-						final List<String> attribs =
-								getAnyAttributeSet(assObj, id);
-						throw new IdParseException(iae.getMessage(),
-								getIdType(), assObj, id, attribs, iae);
-					}
-					idset.add(oi);
+			parsed = new ObjectIdentifier[ids.size()];
+			for (int i = 0; i < ids.size(); i++) {
+				final String id = ids.getId(i);
+				try {
+					parsed[i] = parser.parse(id);
+					//Illegal arg is probably not the right exception
+				} catch (IllegalArgumentException iae) {
+					final T assObj = ids.getFirstAssociatedObject(i);
+					throw new IdParseException(iae.getMessage(),
+							getIdType(), assObj, id,
+							getAnyAttributeSet(i, assObj), iae);
 				}
 			}
 			final Map<ObjectIdentifier, ObjectIDResolvedWS> wsresolvedids =
-					resolveIDs(idset);
+					resolveIDs(new HashSet<ObjectIdentifier>(
+							Arrays.asList(parsed)));
 			
 			final Map<ObjectIDResolvedWS, TypeAndReference> objtypes =
 					getObjectTypes(wsresolvedids);
 
-			for (final T assObj: ids.keySet()) {
-				for (final String id: ids.get(assObj).keySet()) {
-					final ObjectIdentifier oi = parser.parse(id);
-					final TypeAndReference tnr =
-							objtypes.get(wsresolvedids.get(oi));
-					typeCheckReference(id, tnr.getType(), assObj);
-					remapped.put(id, tnr.getReference());
-				}
+			for (int i = 0; i < ids.size(); i++) {
+				final TypeAndReference tnr =
+						objtypes.get(wsresolvedids.get(parsed[i]));
+				typeCheckReference(i, tnr.getType());
+				ids.setRemappedId(i, tnr.getReference());
 			}
 		}
 
 		//use this method when an ID is bad regardless of the attribute set
 		//parse error, deleted object, etc.
-		private List<String> getAnyAttributeSet(final T assObj, final String id) {
-			final List<String> attribs;
-			final Set<List<String>> attribset =
-					ids.get(assObj).get(id);
-			if (attribset.isEmpty()) {
-				attribs = null;
-			} else {
-				//doesn't matter which attribute set we pick -
-				//if the id is bad it's bad everywhere
-				attribs = attribset.iterator().next();
+		private List<String> getAnyAttributeSet(final int idx, final T assObj) {
+			final Map<T, Set<List<String>>> objattribs = attributes.get(idx);
+			if (objattribs == null || !objattribs.containsKey(assObj)) {
+				return null;
 			}
-			return attribs;
+			//doesn't matter which attribute set we pick -
+			//if the id is bad it's bad everywhere
+			return objattribs.get(assObj).iterator().next();
 		}
 
 		private void typeCheckReference(
-				final String id,
-				final AbsoluteTypeDefId type,
-				final T assObj)
+				final int idx,
+				final AbsoluteTypeDefId type)
 				throws IdReferenceException {
-			final Set<List<String>> typeSets = ids.get(assObj).get(id);
-			if (typeSets.isEmpty()) {
+			final Map<T, Set<List<String>>> objattribs = attributes.get(idx);
+			if (objattribs == null) {
 				return;
 			}
-			for (final List<String> allowed: typeSets) {
-				final List<TypeDefName> allowedTypes =
-						new ArrayList<TypeDefName>();
-				for (final String t: allowed) {
-					allowedTypes.add(new TypeDefName(t));
-				}
-				if (!allowedTypes.contains(type.getType())) {
-					throw new IdReferenceException(String.format(
-							"The type %s of reference %s " + 
-							"in this object is not " +
-							"allowed - allowed types are %s",
-							type.getTypeString(), id, allowed),
-							getIdType(), assObj, id, allowed, null);
+			for (final Entry<T, Set<List<String>>> e: objattribs.entrySet()) {
+				for (final List<String> allowed: e.getValue()) {
+					final List<TypeDefName> allowedTypes =
+							new ArrayList<TypeDefName>();
+					for (final String t: allowed) {
+						allowedTypes.add(new TypeDefName(t));
+					}
+					if (!allowedTypes.contains(type.getType())) {
+						final String id = ids.getId(idx);
+						throw new IdReferenceException(String.format(
+								"The type %s of reference %s " + 
+								"in this object is not " +
+								"allowed - allowed types are %s",
+								type.getTypeString(), id, allowed),
+								getIdType(), e.getKey(), id, allowed, null);
+					}
 				}
 			}
 		}
@@ -1707,17 +2007,14 @@ public class Workspace {
 				final InaccessibleObjectException ioe,
 				final ObjectIdentifier originalObject,
 				final String exception) {
-			for (final T assObj: ids.keySet()) {
-				for (final String id: ids.get(assObj).keySet()) {
-					final ObjectIdentifier oi = parser.parse(id);
-					if (oi.equals(originalObject)) {
-						final List<String> attribs =
-								getAnyAttributeSet(assObj, id);
-						return new IdReferenceException(
-								exception + id + ": " + ioe.getMessage(),
-								getIdType(), assObj,
-								id, attribs, ioe);
-					}
+			for (int i = 0; i < parsed.length; i++) {
+				if (parsed[i].equals(originalObject)) {
+					final String id = ids.getId(i);
+					final T assObj = ids.getFirstAssociatedObject(i);
+					return new IdReferenceException(
+							exception + id + ": " + ioe.getMessage(),
+							getIdType(), assObj,
+							id, getAnyAttributeSet(i, assObj), ioe);
 				}
 			}
 			return null;
@@ -1726,23 +2023,17 @@ public class Workspace {
 		@Override
 		protected RemappedId getRemappedIdImpl(final String oldId)
 				throws NoSuchIdException {
-			if (!remapped.containsKey(oldId)) {
+			final RemappedId id = ids.getRemappedId(oldId);
+			if (id == null) {
 				throw new NoSuchIdException(
 						"No such ID contained in this mapper: " + oldId);
 			}
-			return remapped.get(oldId);
+			return id;
 		}
 
 		@Override
 		protected Set<RemappedId> getRemappedIdsImpl(T associatedObject) {
-			Set<RemappedId> newids = new HashSet<RemappedId>();
-			if (!ids.containsKey(associatedObject)) {
-				return newids;
-			}
-			for (final String id: ids.get(associatedObject).keySet()) {
-				newids.add(remapped.get(id));
-			}
-			return newids;
+			return ids.getRemappedIds(associatedObject);
 		}
 
 		@Override
@@ -1,10 +1,13 @@
 package us.kbase.workspace.database;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import us.kbase.typedobj.core.AbsoluteTypeDefId;
 import us.kbase.typedobj.core.ObjectPaths;
 import us.kbase.typedobj.core.TempFilesManager;
 import us.kbase.typedobj.core.TypeDefId;
@@ -63,7 +66,7 @@ public interface WorkspaceDatabase {
 			ResolvedWorkspaceID wsid)
 			throws WorkspaceCommunicationException, CorruptWorkspaceDBException;
 	
-	public void setPermissions(ResolvedWorkspaceID rwsi,
+	public void setPermissions(WorkspaceUser user, ResolvedWorkspaceID rwsi,
 			List<WorkspaceUser> users, Permission perm) throws
 			WorkspaceCommunicationException, CorruptWorkspaceDBException;
 
@@ -71,7 +74,8 @@ public interface WorkspaceDatabase {
 			WorkspaceUser user, WorkspaceUser newUser, String newName)
 			throws WorkspaceCommunicationException, CorruptWorkspaceDBException;
 	
-	public void setGlobalPermission(ResolvedWorkspaceID rwsi, Permission perm)
+	public void setGlobalPermission(WorkspaceUser user,
+			ResolvedWorkspaceID rwsi, Permission perm)
 			throws 	WorkspaceCommunicationException, CorruptWorkspaceDBException;
 	
 	public Permission getPermission(WorkspaceUser user,
@@ -110,6 +114,12 @@ public interface WorkspaceDatabase {
 			NoSuchWorkspaceException, WorkspaceCommunicationException,
 			NoSuchObjectException;
 	
+	// returns null if no data with the type and MD5 is stored in an
+	// undeleted object in an undeleted workspace in the permission set
+	public StoredData getStoredData(PermissionSet perms,
+			AbsoluteTypeDefId type, String md5)
+			throws WorkspaceCommunicationException;
+	
 	public Map<ObjectIDResolvedWS, WorkspaceObjectInformation>
 			getObjectProvenance(Set<ObjectIDResolvedWS> objectIDs)
 			throws NoSuchObjectException, WorkspaceCommunicationException;
@@ -124,6 +134,11 @@ public interface WorkspaceDatabase {
 			throws NoSuchObjectException, WorkspaceCommunicationException,
 			CorruptWorkspaceDBException, TypedObjectExtractionException;
 	
+	public void getObjectDataRange(ObjectInformation info, long offset,
+			long length, OutputStream out)
+			throws WorkspaceCommunicationException,
+			CorruptWorkspaceDBException, IOException;
+	
 	public Map<ObjectChainResolvedWS, WorkspaceObjectData> getReferencedObjects(
 			Set<ObjectChainResolvedWS> values)
 			throws NoSuchObjectException, WorkspaceCommunicationException,
@@ -138,6 +153,9 @@ public interface WorkspaceDatabase {
 			Set<ObjectIDResolvedWS> objects)
 			throws WorkspaceCommunicationException, NoSuchObjectException;
 	
+	public long migrateReferenceCounts()
+			throws WorkspaceCommunicationException;
+	
 	public Map<ObjectIDResolvedWS, ObjectInformation> getObjectInformation(
 			Set<ObjectIDResolvedWS> objectIDs, boolean includeMetadata,
 			boolean ignoreMissingAndDeleted)
@@ -159,19 +177,20 @@ public interface WorkspaceDatabase {
 			ResolvedWorkspaceID wsid, String newname)
 			throws WorkspaceCommunicationException, CorruptWorkspaceDBException;
 	
-	public ObjectInformation renameObject(
+	public ObjectInformation renameObject(WorkspaceUser user,
 			ObjectIDResolvedWS object, String newname)
 			throws NoSuchObjectException, WorkspaceCommunicationException;
 	
-	public void setObjectsHidden(Set<ObjectIDResolvedWS> objectIDs,
-			boolean hide) throws NoSuchObjectException,
+	public void setObjectsHidden(WorkspaceUser user,
+			Set<ObjectIDResolvedWS> objectIDs, boolean hide) throws NoSuchObjectException,
 			WorkspaceCommunicationException;
 	
-	public void setObjectsDeleted(Set<ObjectIDResolvedWS> objectIDs,
-			boolean delete) throws NoSuchObjectException,
+	public void setObjectsDeleted(WorkspaceUser user,
+			Set<ObjectIDResolvedWS> objectIDs, boolean delete) throws NoSuchObjectException,
 			WorkspaceCommunicationException;
 
-	public void setWorkspaceDeleted(ResolvedWorkspaceID wsid, boolean delete)
+	public void setWorkspaceDeleted(WorkspaceUser user,
+			ResolvedWorkspaceID wsid, boolean delete)
 			throws WorkspaceCommunicationException;
 
 	public PermissionSet getPermissions(WorkspaceUser user,
@@ -201,6 +220,10 @@ public interface WorkspaceDatabase {
 	public List<ObjectInformation> getObjectHistory(
 			ObjectIDResolvedWS objectIDResolvedWS)
 			throws NoSuchObjectException, WorkspaceCommunicationException;
+	
+	public List<ObjectInformation> getObjectHistory(
+			ObjectIDResolvedWS objectIDResolvedWS, Integer before, int limit)
+			throws NoSuchObjectException, WorkspaceCommunicationException;
 
 	public Set<WorkspaceUser> getAllWorkspaceOwners()
 			throws WorkspaceCommunicationException;
@@ -217,7 +240,15 @@ public interface WorkspaceDatabase {
 	public void addAdmin(WorkspaceUser user)
 			throws WorkspaceCommunicationException;
 	
+	public List<WorkspaceEvent> getEvents(long after, int limit)
+			throws WorkspaceCommunicationException;
+	
 	public TempFilesManager getTempFilesManager();
+	
+	public OperationStatistics getOperationStatistics();
 
 	public void setResourceUsageConfiguration(ResourceUsageConfiguration rescfg);
+	
+	// writes any held changes, e.g. coalesced modification dates
+	public void shutdown() throws WorkspaceCommunicationException;
 }
@@ -0,0 +1,168 @@
+package us.kbase.workspace.database;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** An event in the workspace change feed, i.e. a record of a change to a
+ * workspace or an object in a workspace.
+ */
+public class WorkspaceEvent {
+
+	/** The type of change recorded by an event. */
+	public static enum EventType {
+		SAVE_OBJECT			("save_object"),
+		COPY_OBJECT			("copy_object"),
+		REVERT_OBJECT		("revert_object"),
+		RENAME_OBJECT		("rename_object"),
+		HIDE_OBJECT			("hide_object"),
+		UNHIDE_OBJECT		("unhide_object"),
+		DELETE_OBJECT		("delete_object"),
+		UNDELETE_OBJECT		("undelete_object"),
+		CLONE_WORKSPACE		("clone_workspace"),
+		RENAME_WORKSPACE	("rename_workspace"),
+		DELETE_WORKSPACE	("delete_workspace"),
+		UNDELETE_WORKSPACE	("undelete_workspace"),
+		SET_PERMISSIONS		("set_permissions"),
+		SET_GLOBAL_PERMISSION	("set_global_permission"),
+		SET_OWNER			("set_owner");
+
+		private static final Map<String, EventType> NAME_TO_TYPE =
+				new HashMap<String, EventType>();
+		static {
+			for (final EventType t: values()) {
+				NAME_TO_TYPE.put(t.getName(), t);
+			}
+		}
+
+		private final String name;
+
+		private EventType(final String name) {
+			this.name = name;
+		}
+
+		/** Returns the name of the event type.
+		 * @return the event type name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/** Returns the event type with the given name.
+		 * @param name the event type name.
+		 * @return the event type.
+		 */
+		public static EventType fromName(final String name) {
+			if (!NAME_TO_TYPE.containsKey(name)) {
+				throw new IllegalArgumentException("No such event type: " +
+						name);
+			}
+			return NAME_TO_TYPE.get(name);
+		}
+	}
+
+	private final long token;
+	private final EventType type;
+	private final Date date;
+	private final WorkspaceUser user;
+	private final long workspaceId;
+	private final Long objectId;
+	private final Integer version;
+	private final String name;
+	private final Permission permission;
+	private final List<WorkspaceUser> users;
+
+	/** Create an event.
+	 * @param token the position of the event in the change feed.
+	 * @param type the type of the change.
+	 * @param date the date of the change.
+	 * @param user the user that made the change, or null if unknown.
+	 * @param workspaceId the ID of the workspace that changed.
+	 * @param objectId the ID of the object that changed, or null for
+	 * workspace events.
+	 * @param version the version of the object created by the change, or
+	 * null if no version was created.
+	 * @param name the new name of the object or workspace, or null if the
+	 * name didn't change.
+	 * @param permission the permission set by the change, or null for events
+	 * that don't change permissions.
+	 * @param users the users whose permissions changed, or null.
+	 */
+	public WorkspaceEvent(
+			final long token,
+			final EventType type,
+			final Date date,
+			final WorkspaceUser user,
+			final long workspaceId,
+			final Long objectId,
+			final Integer version,
+			final String name,
+			final Permission permission,
+			final List<WorkspaceUser> users) {
+		if (type == null || date == null) {
+			throw new NullPointerException("type and date cannot be null");
+		}
+		this.token = token;
+		this.type = type;
+		this.date = date;
+		this.user = user;
+		this.workspaceId = workspaceId;
+		this.objectId = objectId;
+		this.version = version;
+		this.name = name;
+		this.permission = permission;
+		this.users = users == null ? null :
+			Collections.unmodifiableList(users);
+	}
+
+	public long getToken() {
+		return token;
+	}
+
+	public EventType getType() {
+		return type;
+	}
+
+	public Date getDate() {
+		return date;
+	}
+
+	public WorkspaceUser getUser() {
+		return user;
+	}
+
+	public long getWorkspaceId() {
+		return workspaceId;
+	}
+
+	public Long getObjectId() {
+		return objectId;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Permission getPermission() {
+		return permission;
+	}
+
+	public List<WorkspaceUser> getUsers() {
+		return users;
+	}
+
+	@Override
+	public String toString() {
+		return "WorkspaceEvent [token=" + token + ", type=" + type +
+				", date=" + date + ", user=" + user + ", workspaceId=" +
+				workspaceId + ", objectId=" + objectId + ", version=" +
+				version + ", name=" + name + ", permission=" + permission +
+				", users=" + users + "]";
+	}
+}
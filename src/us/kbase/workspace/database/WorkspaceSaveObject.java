@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.Set;
 
 import us.kbase.common.service.UObject;
+import us.kbase.typedobj.core.MD5;
 import us.kbase.typedobj.core.TypeDefId;
 import us.kbase.typedobj.core.TypedObjectValidationReport;
 import us.kbase.typedobj.idref.IdReferenceType;
@@ -18,6 +19,7 @@ public class WorkspaceSaveObject {
 	
 	private final ObjectIDNoWSNoVer id;
 	private final UObject data;
+	private final MD5 storedDataMD5;
 	private final TypeDefId type;
 	private final Map<String, String> userMeta;
 	private final Provenance provenance;
@@ -32,6 +34,7 @@ public class WorkspaceSaveObject {
 		}
 		this.id = id;
 		this.data = transformData(data);
+		this.storedDataMD5 = null;
 		this.type = type;
 		this.userMeta = userMeta;
 		this.provenance = provenance;
@@ -48,6 +51,49 @@ public class WorkspaceSaveObject {
 		}
 		this.id = null;
 		this.data = transformData(data);
+		this.storedDataMD5 = null;
+		this.type = type;
+		this.userMeta = userMeta;
+		this.provenance = provenance;
+		this.hidden = hidden;
+		checkSize(userMeta, "Metadata", MAX_USER_META_SIZE);
+	}
+
+	/* The next two constructors create objects that reuse data already
+	 * stored in the workspace, identified by the type and the MD5 of the
+	 * sorted data, rather than providing the data. If the saving user can't
+	 * read such data the save fails, and the caller must save the object
+	 * with its data instead.
+	 */
+	public WorkspaceSaveObject(final ObjectIDNoWSNoVer id,
+			final TypeDefId type, final MD5 storedDataMD5,
+			final Map<String, String> userMeta, final Provenance provenance,
+			final boolean hidden) {
+		if (id == null || storedDataMD5 == null || type == null ||
+				provenance == null) {
+			throw new IllegalArgumentException(
+					"Neither id, provenance, MD5 nor type may be null");
+		}
+		this.id = id;
+		this.data = null;
+		this.storedDataMD5 = storedDataMD5;
+		this.type = type;
+		this.userMeta = userMeta;
+		this.provenance = provenance;
+		this.hidden = hidden;
+		checkSize(userMeta, "Metadata", MAX_USER_META_SIZE);
+	}
+	
+	public WorkspaceSaveObject(final TypeDefId type, final MD5 storedDataMD5,
+			final Map<String, String> userMeta, final Provenance provenance,
+			final boolean hidden) {
+		if (storedDataMD5 == null || type == null || provenance == null) {
+			throw new IllegalArgumentException(
+					"Neither provenance, MD5, nor type may be null");
+		}
+		this.id = null;
+		this.data = null;
+		this.storedDataMD5 = storedDataMD5;
 		this.type = type;
 		this.userMeta = userMeta;
 		this.provenance = provenance;
@@ -63,10 +109,15 @@ public class WorkspaceSaveObject {
 		return id;
 	}
 
-	//mutable!
+	//mutable! null if the object uses stored data
 	public UObject getData() {
 		return data;
 	}
+	
+	// null if the data was provided
+	public MD5 getStoredDataMD5() {
+		return storedDataMD5;
+	}
 
 	public TypeDefId getType() {
 		return type;
@@ -104,9 +155,19 @@ public class WorkspaceSaveObject {
 		}
 	}
 	
+	public ResolvedSaveObject resolve(final StoredData stored,
+			final Set<Reference> references,
+			final List<Reference> provenancerefs,
+			final Map<IdReferenceType, Set<RemappedId>> extractedIDs) {
+		return new ResolvedSaveObject(this.id, this.userMeta,
+				this.provenance, this.hidden, stored, references,
+				provenancerefs, extractedIDs);
+	}
+	
 	@Override
 	public String toString() {
-		return "WorkspaceSaveObject [id=" + id + ", data=" + data + ", type="
+		return "WorkspaceSaveObject [id=" + id + ", data=" + data
+				+ ", storedDataMD5=" + storedDataMD5 + ", type="
 				+ type + ", userMeta=" + userMeta + ", provenance="
 				+ provenance + ", hidden=" + hidden + "]";
 	}
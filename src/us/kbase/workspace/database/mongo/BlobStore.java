@@ -1,5 +1,8 @@
 package us.kbase.workspace.database.mongo;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import us.kbase.typedobj.core.MD5;
 import us.kbase.typedobj.core.Writable;
 import us.kbase.workspace.database.ByteArrayFileCacheManager;
@@ -32,6 +35,26 @@ public interface BlobStore {
 			BlobStoreCommunicationException, NoSuchBlobException,
 			FileCacheLimitExceededException, FileCacheIOException;
 	
+	/** Write a byte range of a blob to an output stream. The blob is
+	 * streamed from the backend and is not cached.
+	 * @param md5 the md5 of the blob.
+	 * @param offset the offset of the range.
+	 * @param length the length of the range. The range must be within the
+	 * blob.
+	 * @param out the output stream to which the range is written.
+	 * @throws BlobStoreAuthorizationException if the blobstore is not
+	 * authorized to read from the blob store backend.
+	 * @throws BlobStoreCommunicationException if a communication error with
+	 * the blob store backend occurs.
+	 * @throws NoSuchBlobException if there is no blob with the md5.
+	 * @throws IOException if writing to the output stream fails.
+	 */
+	public void getBlobRange(MD5 md5, long offset, long length,
+			OutputStream out)
+			throws BlobStoreAuthorizationException,
+			BlobStoreCommunicationException, NoSuchBlobException,
+			IOException;
+	
 	/**
 	 * Do not call removeBlob when saveBlob could be run by other threads or
 	 * applications. Doing so could result in an inconsistent state in the
@@ -16,6 +16,7 @@ public class Fields {
 	public static final String CNT_ID = "id";
 	public static final String CNT_ID_VAL = "wscounter";
 	public static final String CNT_NUM = "num";
+	public static final String CNT_EVENT_VAL = "eventcounter";
 
 	// workspace fields
 	public static final String WS_OWNER = "owner";
@@ -41,6 +42,8 @@ public class Fields {
 	public static final String OBJ_VCNT = "numver";
 	public static final String OBJ_DEL = "del";
 	public static final String OBJ_HIDE = "hide";
+	//legacy, reference counts are now kept in the version documents. Old
+	//object documents may still have an array of counts by version.
 	public static final String OBJ_REFCOUNTS = "refcnt";
 	public static final String OBJ_LATEST = "latest";
 
@@ -52,6 +55,8 @@ public class Fields {
 	public static final String VER_CHKSUM = "chksum";
 	public static final String VER_SAVEDATE = "savedate";
 	public static final String VER_PROV = "provenance";
+	//if missing use the date in the provenance document
+	public static final String VER_PROVDATE = "provdate";
 	public static final String VER_REF = "refs";
 	public static final String VER_PROVREF = "provrefs";
 	public static final String VER_TYPE = "type";
@@ -61,6 +66,15 @@ public class Fields {
 	public static final String VER_COPIED = "copied";
 	//in 0.3.0, if missing assume no external IDs
 	public static final String VER_EXT_IDS = "extids";
+	//if missing assume a count of 0. Older versions may also have a count in
+	//the legacy OBJ_REFCOUNTS array of the object document.
+	public static final String VER_REFCOUNT = "refcnt";
+	//true if the legacy count for the version in the OBJ_REFCOUNTS array has
+	//been added to VER_REFCOUNT, in which case the legacy count is ignored.
+	public static final String VER_REFCOUNT_MIGRATED = "refcntmig";
+	
+	// provenance fields
+	public static final String PROV_HASH = "hash";
 	
 	// meta document key & value
 	public static final String META_KEY = "k";
@@ -86,4 +100,16 @@ public class Fields {
 	
 	// admin fields
 	public static final String ADMIN_NAME = "user";
+	
+	// event fields
+	public static final String EV_SEQ = "seq";
+	public static final String EV_DATE = "date";
+	public static final String EV_TYPE = "type";
+	public static final String EV_USER = "user";
+	public static final String EV_WS_ID = "ws";
+	public static final String EV_OBJ_ID = "id";
+	public static final String EV_VER = "ver";
+	public static final String EV_NAME = "name";
+	public static final String EV_PERM = "perm";
+	public static final String EV_USERS = "users";
 }
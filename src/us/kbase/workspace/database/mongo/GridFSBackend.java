@@ -2,6 +2,7 @@ package us.kbase.workspace.database.mongo;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import us.kbase.typedobj.core.MD5;
 import us.kbase.typedobj.core.Writable;
@@ -109,6 +110,61 @@ public class GridFSBackend implements BlobStore {
 		}
 	}
 
+	@Override
+	public void getBlobRange(final MD5 md5, final long offset,
+			final long length, final OutputStream out)
+			throws NoSuchBlobException, BlobStoreCommunicationException,
+			IOException {
+		if (md5 == null || out == null) {
+			throw new NullPointerException("Arguments cannot be null");
+		}
+		try {
+			final GridFSDBFile file = getFile(md5);
+			if (file == null) {
+				throw new NoSuchBlobException(
+						"Attempt to retrieve non-existant blob with chksum " + 
+								md5.getMD5());
+			}
+			if (offset < 0 || length < 0 ||
+					offset + length > file.getLength()) {
+				throw new IllegalArgumentException(String.format(
+						"Range %s-%s is outside blob %s of size %s",
+						offset, offset + length, md5.getMD5(),
+						file.getLength()));
+			}
+			final InputStream is = file.getInputStream();
+			try {
+				//GridFS skips to the chunk containing the offset
+				long toSkip = offset;
+				while (toSkip > 0) {
+					final long skipped = is.skip(toSkip);
+					if (skipped < 1) {
+						throw new BlobStoreCommunicationException(
+								"Unexpected end of blob " + md5.getMD5());
+					}
+					toSkip -= skipped;
+				}
+				final byte[] buf = new byte[100000];
+				long remaining = length;
+				while (remaining > 0) {
+					final int read = is.read(buf, 0,
+							(int) Math.min(buf.length, remaining));
+					if (read < 0) {
+						throw new BlobStoreCommunicationException(
+								"Unexpected end of blob " + md5.getMD5());
+					}
+					out.write(buf, 0, read);
+					remaining -= read;
+				}
+			} finally {
+				is.close();
+			}
+		} catch (MongoException me) {
+			throw new BlobStoreCommunicationException(
+					"Could not read from the mongo database", me);
+		}
+	}
+
 	private GridFSDBFile getFile(final MD5 md5) {
 		final GridFSDBFile out;
 		final DBObject query = new BasicDBObject();
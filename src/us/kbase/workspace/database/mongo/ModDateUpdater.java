@@ -0,0 +1,184 @@
+package us.kbase.workspace.database.mongo;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import us.kbase.workspace.database.exceptions.WorkspaceCommunicationException;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/** Updates the modification dates of workspaces, coalescing the updates for
+ * each workspace to at most one write per interval.
+ *
+ * The first update for a workspace in an interval is written immediately.
+ * Later updates in the interval are held and the latest date is written by
+ * a background thread at the end of the interval. Dates are only ever moved
+ * forward, so writes from several servers, or a held write arriving after
+ * an immediate write, can't make a date go backwards. Until a held date is
+ * written, other servers see a modification date up to one interval old.
+ *
+ * With an interval of 0 every update is written immediately.
+ */
+public class ModDateUpdater {
+
+	private static final Logger LOG =
+			LoggerFactory.getLogger(ModDateUpdater.class);
+
+	private final DBCollection workspaces;
+	private final long intervalMS;
+	private final Timer timer;
+
+	// the last time a date was written for each workspace
+	private final Map<Long, Long> lastWrite = new HashMap<Long, Long>();
+	// dates waiting to be written
+	private final Map<Long, Date> pending = new HashMap<Long, Date>();
+
+	/** Create a modification date updater.
+	 * @param workspaces the workspace collection.
+	 * @param intervalMS the minimum time between writes for a workspace.
+	 */
+	public ModDateUpdater(final DBCollection workspaces,
+			final long intervalMS) {
+		if (workspaces == null) {
+			throw new NullPointerException("workspaces cannot be null");
+		}
+		if (intervalMS < 0) {
+			throw new IllegalArgumentException(
+					"The update interval cannot be negative");
+		}
+		this.workspaces = workspaces;
+		this.intervalMS = intervalMS;
+		if (intervalMS > 0) {
+			timer = new Timer("workspace moddate updater", true);
+			timer.schedule(new TimerTask() {
+
+				@Override
+				public void run() {
+					try {
+						flush();
+					} catch (WorkspaceCommunicationException e) {
+						LOG.error("Couldn't write workspace modification " +
+								"dates, will retry", e);
+					}
+				}
+			}, intervalMS, intervalMS);
+		} else {
+			timer = null;
+		}
+	}
+
+	/** Returns the minimum time between writes for a workspace.
+	 * @return the update interval in milliseconds.
+	 */
+	public long getInterval() {
+		return intervalMS;
+	}
+
+	/** Set the modification date of a workspace to now.
+	 * @param workspaceID the ID of the workspace.
+	 * @throws WorkspaceCommunicationException if a communication error
+	 * occurs.
+	 */
+	public void update(final long workspaceID)
+			throws WorkspaceCommunicationException {
+		final Date now = new Date();
+		if (intervalMS == 0) {
+			write(workspaceID, now);
+			return;
+		}
+		synchronized (this) {
+			final Long last = lastWrite.get(workspaceID);
+			if (last != null && now.getTime() - last < intervalMS) {
+				pending.put(workspaceID, now);
+				return;
+			}
+			lastWrite.put(workspaceID, now.getTime());
+			pending.remove(workspaceID);
+		}
+		write(workspaceID, now);
+	}
+
+	/** Returns the modification date of a workspace that is waiting to be
+	 * written, if any, so that this server can report the date before it is
+	 * written.
+	 * @param workspaceID the ID of the workspace.
+	 * @return the pending modification date or null.
+	 */
+	public synchronized Date getPendingDate(final long workspaceID) {
+		return pending.get(workspaceID);
+	}
+
+	/** Write all pending modification dates.
+	 * @throws WorkspaceCommunicationException if a communication error
+	 * occurs. Dates that were not written remain pending.
+	 */
+	public void flush() throws WorkspaceCommunicationException {
+		final Map<Long, Date> towrite;
+		synchronized (this) {
+			towrite = new HashMap<Long, Date>(pending);
+			pending.clear();
+			// forget workspaces that haven't been written for an interval
+			final long now = System.currentTimeMillis();
+			final Iterator<Long> iter = lastWrite.values().iterator();
+			while (iter.hasNext()) {
+				if (now - iter.next() >= intervalMS) {
+					iter.remove();
+				}
+			}
+			for (final Entry<Long, Date> e: towrite.entrySet()) {
+				lastWrite.put(e.getKey(), now);
+			}
+		}
+		for (final Entry<Long, Date> e: towrite.entrySet()) {
+			try {
+				write(e.getKey(), e.getValue());
+			} catch (WorkspaceCommunicationException wce) {
+				synchronized (this) {
+					for (final Entry<Long, Date> p: towrite.entrySet()) {
+						final Date d = pending.get(p.getKey());
+						if (d == null || d.before(p.getValue())) {
+							pending.put(p.getKey(), p.getValue());
+						}
+					}
+				}
+				throw wce;
+			}
+		}
+	}
+
+	/** Write all pending dates and stop the background thread. Must be
+	 * called before the server stops, or the pending dates are lost.
+	 * @throws WorkspaceCommunicationException if a communication error
+	 * occurs.
+	 */
+	public void stop() throws WorkspaceCommunicationException {
+		if (timer != null) {
+			timer.cancel();
+		}
+		flush();
+	}
+
+	private void write(final long workspaceID, final Date date)
+			throws WorkspaceCommunicationException {
+		final DBObject query = new BasicDBObject(Fields.WS_ID, workspaceID);
+		query.put(Fields.WS_MODDATE, new BasicDBObject("$lt", date));
+		try {
+			workspaces.update(query, new BasicDBObject("$set",
+					new BasicDBObject(Fields.WS_MODDATE, date)));
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		}
+	}
+}
@@ -1,41 +1,89 @@
 package us.kbase.workspace.database.mongo;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
 import org.bson.types.ObjectId;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import us.kbase.workspace.database.Provenance;
 
+/* Provenance documents are shared by all the versions with the same
+ * provenance and are cached, so they are never modified once saved. The
+ * resolved references and the provenance date are stored per version, and
+ * resolve() returns a copy of the provenance for a particular version.
+ */
 public class MongoProvenance extends Provenance {
 	
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.setVisibility(PropertyAccessor.ALL, Visibility.NONE)
+			.setVisibility(PropertyAccessor.FIELD, Visibility.ANY)
+			.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+	
 	private ObjectId _id;
+	//the MD5 of the provenance without the date. Missing in documents saved
+	//before provenance was shared between versions.
+	private String hash;
 	
 	MongoProvenance(final Provenance p) {
 		super(p.getUser());
 		for (final Provenance.ProvenanceAction pa: p.getActions()) {
 			addAction(pa);
 		}
+		hash = digest().getMD5().getMD5();
+	}
+	
+	private MongoProvenance(final MongoProvenance p, final Date date) {
+		super(p.getUser(), date);
+		_id = p._id;
+		hash = p.hash;
+	}
+	
+	private MD5DigestOutputStream digest() {
+		final MD5DigestOutputStream md5 = new MD5DigestOutputStream();
+		try {
+			MAPPER.writeValue(md5, Arrays.asList(getUser().getUser(),
+					actions));
+		} catch (IOException ioe) {
+			throw new RuntimeException(
+					"Couldn't serialize provenance: " + ioe.getMessage(), ioe);
+		}
+		return md5;
 	}
 	
-	void resolveReferences(final List<String> resolvedRefs) {
+	/** Returns a copy of this provenance with the references resolved for
+	 * a particular version.
+	 * @param resolvedRefs the resolved references for the version, in the
+	 * order of the references in the provenance actions.
+	 * @param date the provenance date for the version, or null to use the
+	 * date in this provenance.
+	 * @return the provenance for the version.
+	 */
+	MongoProvenance resolve(final List<String> resolvedRefs,
+			final Date date) {
+		final MongoProvenance mp = new MongoProvenance(this,
+				date == null ? getDate() : date);
 		final List<String> refs = new LinkedList<String>();
 		for (final String s: resolvedRefs) {//stupid LazyBSONLists
 			refs.add(s);
 		}
-		final List<ProvenanceAction> actions =
-				new LinkedList<ProvenanceAction>();
 		for (Provenance.ProvenanceAction pa: this.actions) {
 			final int refcnt = pa.getWorkspaceObjects().size();
 			final List<String> actionRefs = new LinkedList<String>(
 					refs.subList(0, refcnt));
 			refs.subList(0, refcnt).clear();
-			actions.add(new MongoProvenanceAction(pa)
+			mp.actions.add(new MongoProvenanceAction(pa)
 					.withResolvedObjects(actionRefs));
 		}
-		this.actions = actions;
+		return mp;
 	}
 	
 	@SuppressWarnings("unused")
@@ -45,6 +93,17 @@ public class MongoProvenance extends Provenance {
 		return _id;
 	}
 	
+	String getHash() {
+		return hash;
+	}
+	
+	/** Returns the approximate size of the provenance in bytes.
+	 * @return the size of the provenance.
+	 */
+	long getSize() {
+		return digest().getSize();
+	}
+	
 	static class MongoProvenanceAction extends Provenance.ProvenanceAction {
 
 		MongoProvenanceAction(final ProvenanceAction pa) {
@@ -4,12 +4,14 @@ import static us.kbase.workspace.database.Util.checkSize;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -20,6 +22,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bson.types.ObjectId;
@@ -27,6 +35,8 @@ import org.jongo.FindAndModify;
 import org.jongo.Jongo;
 import org.jongo.MongoCollection;
 import org.jongo.marshall.MarshallingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import us.kbase.common.mongo.GetMongoDB;
 import us.kbase.common.mongo.exceptions.InvalidHostException;
@@ -39,6 +49,7 @@ import us.kbase.typedobj.core.ObjectPaths;
 import us.kbase.typedobj.core.TempFilesManager;
 import us.kbase.typedobj.core.TypeDefId;
 import us.kbase.typedobj.core.TypedObjectValidator;
+import us.kbase.typedobj.db.CachingTypeStorage;
 import us.kbase.typedobj.db.MongoTypeStorage;
 import us.kbase.typedobj.db.TypeDefinitionDB;
 import us.kbase.typedobj.exceptions.ExceededMaxMetadataSizeException;
@@ -55,15 +66,20 @@ import us.kbase.workspace.database.ObjectChainResolvedWS;
 import us.kbase.workspace.database.ObjectIDNoWSNoVer;
 import us.kbase.workspace.database.ObjectIDResolvedWS;
 import us.kbase.workspace.database.ObjectInformation;
+import us.kbase.workspace.database.OperationStatistics;
+import us.kbase.workspace.database.OperationStatistics.PhaseTimer;
 import us.kbase.workspace.database.Permission;
 import us.kbase.workspace.database.PermissionSet;
 import us.kbase.workspace.database.Reference;
 import us.kbase.workspace.database.ResolvedSaveObject;
 import us.kbase.workspace.database.ResolvedWorkspaceID;
 import us.kbase.workspace.database.ResourceUsageConfigurationBuilder;
+import us.kbase.workspace.database.StoredData;
 import us.kbase.workspace.database.TypeAndReference;
 import us.kbase.workspace.database.User;
 import us.kbase.workspace.database.WorkspaceDatabase;
+import us.kbase.workspace.database.WorkspaceEvent;
+import us.kbase.workspace.database.WorkspaceEvent.EventType;
 import us.kbase.workspace.database.WorkspaceIdentifier;
 import us.kbase.workspace.database.WorkspaceInformation;
 import us.kbase.workspace.database.WorkspaceObjectData;
@@ -88,8 +104,13 @@ import us.kbase.workspace.database.mongo.exceptions.NoSuchBlobException;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
+import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.MongoException;
@@ -97,8 +118,6 @@ import com.mongodb.WriteResult;
 
 public class MongoWorkspaceDB implements WorkspaceDatabase {
 
-	//TODO save set of objects with same provenance if they were generated by same fn
-	
 	private static final String COL_ADMINS = "admins";
 	private static final String COL_SETTINGS = "settings";
 	private static final String COL_WS_CNT = "workspaceCounter";
@@ -108,13 +127,46 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	private static final String COL_WORKSPACE_VERS = "workspaceObjVersions";
 	private static final String COL_PROVENANCE = "provenance";
 	private static final String COL_SHOCK_PREFIX = "shock_";
+	private static final String COL_EVENTS = "events";
 	private static final User ALL_USERS = new AllUsers('*');
 	
 	private ResourceUsageConfiguration rescfg;
 
 	private static final long MAX_SUBDATA_SIZE = 15000000;
 	private static final long MAX_PROV_SIZE = 1000000;
+	//provenance documents never change, so they're cached until evicted
+	private static final long PROV_CACHE_SIZE = 50000000;
+	//version documents never change other than the reference count
+	private static final long VERSION_CACHE_SIZE = 100000000;
+	//verified references are small, so this is ~100-200k references
+	private static final long REF_CACHE_SIZE = 20000000;
+	//rough estimate of the memory used by a cached reference apart from the
+	//characters of the key
+	private static final int REF_CACHE_ENTRY_OVERHEAD = 100;
 	private static final int MAX_WS_META_SIZE = 16000;
+	// events are removed from the change feed after this time
+	private static final int EVENT_TTL_SEC = 30 * 24 * 60 * 60;
+	// a gap in the event sequence followed by an event younger than this may
+	// be an event that has been assigned a sequence number but not yet
+	// written
+	private static final long EVENT_SETTLE_MS = 10000;
+	// the number of versions with the same data whose objects are checked
+	// for deletion in one query when saving from stored data
+	private static final int STORED_DATA_BATCH = 100;
+	// names of the timed phases and byte counters in the operation statistics
+	private static final String STAT_SAVE_EXTRACT = "save.extract_subdata";
+	private static final String STAT_SAVE_MD5 = "save.md5";
+	private static final String STAT_SAVE_DATA = OperationStatistics.BLOB_WRITE;
+	private static final String STAT_SAVE_PROV = "save.provenance_write";
+	private static final String STAT_SAVE_REFCOUNTS = "save.refcounts";
+	private static final String STAT_SAVE_OBJECTS = "save.object_write";
+	private static final String STAT_SAVE_AUTONAME = "save.autoname";
+	private static final String STAT_GET_VERSIONS = "get.version_query";
+	private static final String STAT_GET_PROV = "get.provenance";
+	private static final String STAT_GET_BLOB = OperationStatistics.BLOB_READ;
+	private static final String STAT_GET_SUBSET = "get.subset";
+	private static final String STAT_BYTES_SAVED = OperationStatistics.BYTES_SAVED;
+	private static final String STAT_BYTES_READ = OperationStatistics.BYTES_READ;
 	
 	private final DB wsmongo;
 	private final Jongo wsjongo;
@@ -122,11 +174,51 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	private final QueryMethods query;
 	private final FindAndModify updateWScounter;
 	private final TypedObjectValidator typeValidator;
-	
-	private final Set<String> typeIndexEnsured = new HashSet<String>();
+	private final CachingTypeStorage typeStorage;
+	private volatile ObjectIDLeaser idLeaser;
+	private volatile ModDateUpdater modDates;
+	
+	//type collections are checked on the save path, so this must be
+	//thread safe
+	private final Set<String> typeIndexEnsured = Collections.newSetFromMap(
+			new ConcurrentHashMap<String, Boolean>());
+	private final ExecutorService typeIndexVerifier;
 	private final TempFilesManager tfm;
+	private final OperationStatistics stats = new OperationStatistics();
+	private final VersionCache versionCache =
+			new VersionCache(VERSION_CACHE_SIZE);
+	//references from one version to another that have been verified. A
+	//version's references never change.
+	private final Cache<String, Boolean> verifiedRefs =
+			CacheBuilder.newBuilder()
+			.maximumWeight(REF_CACHE_SIZE)
+			.weigher(new Weigher<String, Boolean>() {
+
+				@Override
+				public int weigh(final String edge, final Boolean verified) {
+					return REF_CACHE_ENTRY_OVERHEAD + 2 * edge.length();
+				}
+			})
+			.build();
+	private final Cache<ObjectId, MongoProvenance> provCache =
+			CacheBuilder.newBuilder()
+			.maximumWeight(PROV_CACHE_SIZE)
+			.weigher(new Weigher<ObjectId, MongoProvenance>() {
+
+				@Override
+				public int weigh(final ObjectId id,
+						final MongoProvenance prov) {
+					return (int) prov.getSize();
+				}
+			})
+			.build();
 	
 	//TODO constants class
+	
+	private static final Logger LOG =
+			LoggerFactory.getLogger(MongoWorkspaceDB.class);
+	
+	private static final int TYPE_INDEX_THREADS = 4;
 
 	private static final Map<String, Map<List<String>, List<String>>> INDEXES;
 	private static final String IDX_UNIQ = "unique";
@@ -163,8 +255,6 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		wsObj.put(Arrays.asList(Fields.OBJ_WS_ID, Fields.OBJ_ID), Arrays.asList(IDX_UNIQ));
 		//find recently modified objects
 		wsObj.put(Arrays.asList(Fields.OBJ_MODDATE), Arrays.asList(""));
-		//find object to garbage collect
-		wsObj.put(Arrays.asList(Fields.OBJ_DEL, Fields.OBJ_REFCOUNTS), Arrays.asList(""));
 		INDEXES.put(COL_WORKSPACE_OBJS, wsObj);
 
 		//workspace object version indexes
@@ -186,13 +276,24 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		wsVer.put(Arrays.asList(Fields.VER_META), Arrays.asList(IDX_SPARSE));
 		INDEXES.put(COL_WORKSPACE_VERS, wsVer);
 		
-		//no indexes needed for provenance since all lookups are by _id
+		//provenance indexes
+		Map<List<String>, List<String>> prov = new HashMap<List<String>, List<String>>();
+		//find shared provenance by content. Sparse since provenance saved
+		//before provenance was shared has no hash
+		prov.put(Arrays.asList(Fields.PROV_HASH), Arrays.asList(IDX_UNIQ, IDX_SPARSE));
+		INDEXES.put(COL_PROVENANCE, prov);
 		
 		//admin indexes
 		Map<List<String>, List<String>> admin = new HashMap<List<String>, List<String>>();
 		//find admins by name
 		admin.put(Arrays.asList(Fields.ADMIN_NAME), Arrays.asList(IDX_UNIQ));
 		INDEXES.put(COL_ADMINS, admin);
+		
+		//event indexes
+		Map<List<String>, List<String>> events = new HashMap<List<String>, List<String>>();
+		//read the change feed in order
+		events.put(Arrays.asList(Fields.EV_SEQ), Arrays.asList(IDX_UNIQ));
+		INDEXES.put(COL_EVENTS, events);
 	}
 
 	public MongoWorkspaceDB(final String host, final String database,
@@ -204,18 +305,23 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		this.tfm = tfm;
 		wsmongo = GetMongoDB.getDB(host, database, mongoRetryCount, 10);
 		wsjongo = new Jongo(wsmongo);
-		query = new QueryMethods(wsmongo, (AllUsers) ALL_USERS, COL_WORKSPACES,
-				COL_WORKSPACE_OBJS, COL_WORKSPACE_VERS, COL_WS_ACLS);
+		query = new QueryMethods(wsmongo, stats, (AllUsers) ALL_USERS, COL_WORKSPACES,
+				COL_WORKSPACE_OBJS, COL_WORKSPACE_VERS, COL_WS_ACLS,
+				versionCache);
 		final Settings settings = getSettings();
 		blob = setupBlobStore(settings, backendSecret);
 		updateWScounter = buildCounterQuery(wsjongo);
+		idLeaser = new ObjectIDLeaser(
+				wsmongo.getCollection(COL_WORKSPACES), 1);
+		modDates = new ModDateUpdater(
+				wsmongo.getCollection(COL_WORKSPACES), 0);
 		//TODO check a few random types and make sure they exist
+		typeStorage = new CachingTypeStorage(new MongoTypeStorage(
+				GetMongoDB.getDB(host, settings.getTypeDatabase())));
 		this.typeValidator = new TypedObjectValidator(
-				new TypeDefinitionDB(
-						new MongoTypeStorage(
-								GetMongoDB.getDB(host, settings.getTypeDatabase()))));
+				new TypeDefinitionDB(typeStorage));
 		ensureIndexes();
-		ensureTypeIndexes();
+		typeIndexVerifier = ensureTypeIndexesInBackground();
 	}
 	
 	public MongoWorkspaceDB(final String host, final String database,
@@ -230,18 +336,23 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		wsmongo = GetMongoDB.getDB(host, database, user, password,
 				mongoRetryCount, 10);
 		wsjongo = new Jongo(wsmongo);
-		query = new QueryMethods(wsmongo, (AllUsers) ALL_USERS, COL_WORKSPACES,
-				COL_WORKSPACE_OBJS, COL_WORKSPACE_VERS, COL_WS_ACLS);
+		query = new QueryMethods(wsmongo, stats, (AllUsers) ALL_USERS, COL_WORKSPACES,
+				COL_WORKSPACE_OBJS, COL_WORKSPACE_VERS, COL_WS_ACLS,
+				versionCache);
 		final Settings settings = getSettings();
 		blob = setupBlobStore(settings, backendSecret);
 		updateWScounter = buildCounterQuery(wsjongo);
+		idLeaser = new ObjectIDLeaser(
+				wsmongo.getCollection(COL_WORKSPACES), 1);
+		modDates = new ModDateUpdater(
+				wsmongo.getCollection(COL_WORKSPACES), 0);
+		typeStorage = new CachingTypeStorage(new MongoTypeStorage(
+				GetMongoDB.getDB(host, settings.getTypeDatabase(),
+						user, password)));
 		this.typeValidator = new TypedObjectValidator(
-				new TypeDefinitionDB(
-						new MongoTypeStorage(
-								GetMongoDB.getDB(host, settings.getTypeDatabase(),
-										user, password))));
+				new TypeDefinitionDB(typeStorage));
 		ensureIndexes();
-		ensureTypeIndexes();
+		typeIndexVerifier = ensureTypeIndexesInBackground();
 	}
 	
 	//test constructor - runs both the java and perl type compilers
@@ -256,20 +367,25 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		this.tfm = tfm;
 		wsmongo = GetMongoDB.getDB(host, database, user, password, 0, 0);
 		wsjongo = new Jongo(wsmongo);
-		query = new QueryMethods(wsmongo, (AllUsers) ALL_USERS, COL_WORKSPACES,
-				COL_WORKSPACE_OBJS, COL_WORKSPACE_VERS, COL_WS_ACLS);
+		query = new QueryMethods(wsmongo, stats, (AllUsers) ALL_USERS, COL_WORKSPACES,
+				COL_WORKSPACE_OBJS, COL_WORKSPACE_VERS, COL_WS_ACLS,
+				versionCache);
 		final Settings settings = getSettings();
 		//TODO 2 factor blob store creation out, BlobStore should be passed into the constructor
 		blob = setupBlobStore(settings, backendSecret);
 		updateWScounter = buildCounterQuery(wsjongo);
+		idLeaser = new ObjectIDLeaser(
+				wsmongo.getCollection(COL_WORKSPACES), 1);
+		modDates = new ModDateUpdater(
+				wsmongo.getCollection(COL_WORKSPACES), 0);
+		typeStorage = new CachingTypeStorage(new MongoTypeStorage(
+				GetMongoDB.getDB(host, settings.getTypeDatabase(),
+						user, password)));
 		this.typeValidator = new TypedObjectValidator(
-				new TypeDefinitionDB(
-						new MongoTypeStorage(
-								GetMongoDB.getDB(host, settings.getTypeDatabase(),
-										user, password)),
-								typeDBdir == null ? null : new File(typeDBdir), kidlpath, "both"));
+				new TypeDefinitionDB(typeStorage,
+						typeDBdir == null ? null : new File(typeDBdir), kidlpath, "both"));
 		ensureIndexes();
-		ensureTypeIndexes();
+		typeIndexVerifier = ensureTypeIndexesInBackground();
 	}
 	
 	@Override
@@ -277,11 +393,47 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		this.rescfg = rescfg;
 	}
 	
+	/** Set the maximum number of object IDs this server leases at once from
+	 * the counter in a workspace. See {@link ObjectIDLeaser}. The default
+	 * is 1, which means the object counter is always the highest object ID
+	 * in the workspace.
+	 * @param maxBlockSize the maximum number of IDs to lease at once.
+	 */
+	public void setObjectIDLeaseLimit(final int maxBlockSize) {
+		idLeaser = new ObjectIDLeaser(
+				wsmongo.getCollection(COL_WORKSPACES), maxBlockSize);
+	}
+	
+	/** Set the minimum time between writes of the modification date of a
+	 * workspace by this server. See {@link ModDateUpdater}. The default is 0,
+	 * which means every modification is written immediately.
+	 * @param intervalMS the update interval in milliseconds.
+	 * @throws WorkspaceCommunicationException if writing the dates pending
+	 * under the previous interval fails.
+	 */
+	public void setModDateUpdateInterval(final long intervalMS)
+			throws WorkspaceCommunicationException {
+		final ModDateUpdater old = modDates;
+		modDates = new ModDateUpdater(
+				wsmongo.getCollection(COL_WORKSPACES), intervalMS);
+		old.stop();
+	}
+	
+	@Override
+	public void shutdown() throws WorkspaceCommunicationException {
+		modDates.stop();
+	}
+	
 	@Override
 	public TempFilesManager getTempFilesManager() {
 		return tfm;
 	}
 	
+	@Override
+	public OperationStatistics getOperationStatistics() {
+		return stats;
+	}
+	
 	private void ensureIndexes() {
 		for (String col: INDEXES.keySet()) {
 			wsmongo.getCollection(col).resetIndexCache();
@@ -299,14 +451,120 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				wsmongo.getCollection(col).ensureIndex(index, opts);
 			}
 		}
+		//expire old events. The option takes a value, so this index can't
+		//go in INDEXES
+		wsmongo.getCollection(COL_EVENTS).ensureIndex(
+				new BasicDBObject(Fields.EV_DATE, 1),
+				new BasicDBObject("expireAfterSeconds", EVENT_TTL_SEC));
 	}
 	
-	private void ensureTypeIndexes() {
+	/* Checking the type collection indexes takes a round trip per
+	 * collection, so with many types it slows startup considerably. The
+	 * checks are done in the background with a few threads. Until a
+	 * collection has been checked, the save path checks it before writing
+	 * to it, so the background checks are only an optimization.
+	 */
+	private ExecutorService ensureTypeIndexesInBackground() {
+		final ExecutorService exe = Executors.newFixedThreadPool(
+				TYPE_INDEX_THREADS, new ThreadFactoryBuilder()
+						.setDaemon(true)
+						.setNameFormat("type index verifier %d").build());
 		for (final String col: wsmongo.getCollectionNames()) {
 			if (col.startsWith(TypeData.TYPE_COL_PREFIX)) {
-				ensureTypeIndex(col);
+				exe.execute(new Runnable() {
+					
+					@Override
+					public void run() {
+						try {
+							ensureTypeIndex(col);
+						} catch (MongoException me) {
+							//will be retried when the type is next saved
+							LOG.error("Couldn't verify the indexes for " +
+									"collection " + col, me);
+						}
+					}
+				});
+			}
+		}
+		exe.shutdown();
+		return exe;
+	}
+	
+	/** Wait for the background verification of the type collection indexes
+	 * started at startup to complete.
+	 * @param timeoutMS the maximum time to wait in milliseconds.
+	 * @return true if the verification is complete.
+	 * @throws InterruptedException if the thread is interrupted while
+	 * waiting.
+	 */
+	public boolean awaitTypeIndexVerification(final long timeoutMS)
+			throws InterruptedException {
+		return typeIndexVerifier.awaitTermination(
+				timeoutMS, TimeUnit.MILLISECONDS);
+	}
+	
+	/** Prepare for serving requests by loading the parsed schemas of the
+	 * types most recently saved to the workspace, and the type records of
+	 * their modules, so the first requests after startup don't pay for it.
+	 * The type collection indexes are not checked here, that is left to the
+	 * background verification started by the constructor.
+	 * 
+	 * The warmup is only an optimization, so errors are logged and the
+	 * warmup continues or stops early rather than failing startup.
+	 * @param recentVersions the number of most recently saved object
+	 * versions from which to take the types.
+	 * @return the number of types loaded.
+	 */
+	public int warmUp(final int recentVersions) {
+		if (recentVersions < 1) {
+			return 0;
+		}
+		final Set<String> types = new HashSet<String>();
+		DBCursor cur = null;
+		try {
+			cur = wsmongo.getCollection(COL_WORKSPACE_VERS)
+					.find(new BasicDBObject(),
+							new BasicDBObject(Fields.VER_TYPE, 1))
+					.sort(new BasicDBObject(Fields.VER_SAVEDATE, -1))
+					.limit(recentVersions);
+			for (final DBObject v: cur) {
+				types.add((String) v.get(Fields.VER_TYPE));
+			}
+		} catch (MongoException me) {
+			LOG.error("Couldn't read the recently saved types for the " +
+					"warmup, skipping it", me);
+			return 0;
+		} finally {
+			if (cur != null) {
+				cur.close();
+			}
+		}
+		int loaded = 0;
+		final Set<String> modules = new HashSet<String>();
+		for (final String t: types) {
+			final AbsoluteTypeDefId type;
+			try {
+				type = AbsoluteTypeDefId.fromAbsoluteTypeString(t);
+				typeValidator.preloadSchema(type);
+				loaded++;
+			} catch (Exception e) {
+				//a broken type or a database hiccup shouldn't stop the
+				//server starting
+				LOG.error("Couldn't load the schema for type " + t, e);
+				continue;
+			}
+			final String module = type.getType().getModule();
+			if (modules.add(module)) {
+				try {
+					typeStorage.preloadModule(module);
+				} catch (Exception e) {
+					//the module records are read through the cache on demand
+					LOG.error("Couldn't preload the type records for module " +
+							module, e);
+				}
 			}
 		}
+		return loaded;
 	}
 	
 	private void ensureTypeIndex(final TypeDefId type) {
@@ -416,19 +674,9 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		return blob.getStoreType();
 	}
 
-	private final static String M_WS_DATE_WTH = String.format(
-			"{$set: {%s: #}}", Fields.WS_MODDATE);
-	
 	private void updateWorkspaceModifiedDate(final ResolvedMongoWSID rwsi)
 			throws WorkspaceCommunicationException {
-		try {
-			wsjongo.getCollection(COL_WORKSPACES)
-				.update(M_WS_ID_QRY, rwsi.getID())
-				.with(M_WS_DATE_WTH, new Date());
-		} catch (MongoException me) {
-			throw new WorkspaceCommunicationException(
-					"There was a problem communicating with the database", me);
-		}
+		modDates.update(rwsi.getID());
 	}
 
 	private static final Set<String> FLDS_CREATE_WS =
@@ -605,9 +853,12 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		}
 	}
 	
-	private static final Set<String> FLDS_CLONE_WS =
-			newHashSet(Fields.OBJ_ID, Fields.OBJ_NAME, Fields.OBJ_DEL,
-					Fields.OBJ_HIDE);
+	/* the number of objects to copy per batch when cloning a workspace. Each
+	 * batch costs one version query, one ID range reservation, one object
+	 * insert, one version insert, and one reference count update per
+	 * version/count combination.
+	 */
+	private static final int CLONE_BATCH_SIZE = 1000;
 	
 	@Override
 	public WorkspaceInformation cloneWorkspace(final WorkspaceUser user,
@@ -628,24 +879,57 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		//or worse the db went down post version increment pre version save
 		//need to move to transactional backend or relationless schema
 		q.put(Fields.OBJ_VCNT, new BasicDBObject("$gt", 0));
-		final List<Map<String, Object>> wsobjects =
-				query.queryCollection(COL_WORKSPACE_OBJS, q, FLDS_CLONE_WS);
-		for (Map<String, Object> o: wsobjects) {
-			if ((Boolean) o.get(Fields.OBJ_DEL)) {
-				continue;
+		q.put(Fields.OBJ_DEL, false);
+		final DBObject proj = new BasicDBObject(Fields.OBJ_ID, 1);
+		proj.put(Fields.OBJ_NAME, 1);
+		proj.put(Fields.OBJ_HIDE, 1);
+		proj.put(Fields.MONGO_ID, 0);
+		// stream the objects rather than pulling the entire workspace into
+		// memory
+		DBCursor cur = null;
+		try {
+			cur = wsmongo.getCollection(COL_WORKSPACE_OBJS).find(q, proj)
+					.sort(new BasicDBObject(Fields.OBJ_ID, 1))
+					.batchSize(CLONE_BATCH_SIZE);
+			final List<DBObject> batch = new ArrayList<DBObject>();
+			for (final DBObject o: cur) {
+				batch.add(o);
+				if (batch.size() >= CLONE_BATCH_SIZE) {
+					cloneObjects(user, fromWS, toWS, batch);
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) {
+				cloneObjects(user, fromWS, toWS, batch);
 			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		} finally {
+			if (cur != null) {
+				cur.close();
+			}
+		}
+		final DBObject event = newEvent(EventType.CLONE_WORKSPACE, user,
+				toWS.getID());
+		event.put(Fields.EV_NAME, toWS.getName());
+		writeEvents(Arrays.asList(event));
+		return getWorkspaceInformation(user, toWS);
+	}
+	
+	private void cloneObjects(final WorkspaceUser user,
+			final ResolvedMongoWSID fromWS, final ResolvedMongoWSID toWS,
+			final List<DBObject> objects)
+			throws WorkspaceCommunicationException {
+		final Map<Long, List<Map<String, Object>>> versions =
+				queryVersionsForClone(fromWS, objects);
+		final List<DBObject> toClone = new LinkedList<DBObject>();
+		final List<Map<String, Object>> allVersions =
+				new LinkedList<Map<String, Object>>();
+		for (final DBObject o: objects) {
 			final long oldid = (Long) o.get(Fields.OBJ_ID);
-			final String name = (String) o.get(Fields.OBJ_NAME);
-			final boolean hidden = (Boolean) o.get(Fields.OBJ_HIDE);
-			final ResolvedMongoObjectIDNoVer roi = 
-					new ResolvedMongoObjectIDNoVer(fromWS, name, oldid);
-			final List<Map<String, Object>> versions;
-			try {
-				versions = queryAllVersions(
-						new HashSet<ResolvedMongoObjectIDNoVer>(
-								Arrays.asList(roi)),
-						FLDS_VER_COPYOBJ).get(roi);
-			} catch (NoSuchObjectException nsoe) {
+			final List<Map<String, Object>> vers = versions.get(oldid);
+			if (vers.isEmpty()) {
 				//The object was saved to the objects collections and the
 				//version was incremented at least once. However, no versions
 				//exist in the version collection. So either a race condition
@@ -654,20 +938,155 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				//or simplify the schema so it's relationless.
 				continue;
 			}
-			for (final Map<String, Object> v: versions) {
+			for (final Map<String, Object> v: vers) {
 				final int ver = (Integer) v.get(Fields.VER_VER);
-				v.remove(Fields.MONGO_ID);
 				v.put(Fields.VER_SAVEDBY, user.getUser());
 				v.put(Fields.VER_RVRT, null);
 				v.put(Fields.VER_COPIED, new MongoReference(
 						fromWS.getID(), oldid, ver).toString());
 			}
-			updateReferenceCountsForVersions(versions);
-			final long newid = incrementWorkspaceCounter(toWS, 1);
-			final long objid = saveWorkspaceObject(toWS, newid, name).id;
-			saveObjectVersions(user, toWS, objid, versions, hidden);
+			toClone.add(o);
+			allVersions.addAll(vers);
+		}
+		if (toClone.isEmpty()) {
+			return;
+		}
+		updateReferenceCountsForVersions(allVersions);
+		final long firstid = incrementWorkspaceCounter(toWS, toClone.size());
+		final Date saved = new Date();
+		final Map<Long, DBObject> newIDToSource =
+				new LinkedHashMap<Long, DBObject>();
+		final List<DBObject> objdocs = new LinkedList<DBObject>();
+		long newid = firstid;
+		for (final DBObject o: toClone) {
+			final long oldid = (Long) o.get(Fields.OBJ_ID);
+			final int vercount = versions.get(oldid).size();
+			final DBObject dbo = new BasicDBObject();
+			dbo.put(Fields.OBJ_WS_ID, toWS.getID());
+			dbo.put(Fields.OBJ_ID, newid);
+			dbo.put(Fields.OBJ_VCNT, vercount); //Integer
+			dbo.put(Fields.OBJ_NAME, o.get(Fields.OBJ_NAME));
+			dbo.put(Fields.OBJ_LATEST, null);
+			dbo.put(Fields.OBJ_DEL, false);
+			dbo.put(Fields.OBJ_HIDE, o.get(Fields.OBJ_HIDE));
+			dbo.put(Fields.OBJ_MODDATE, saved);
+			objdocs.add(dbo);
+			newIDToSource.put(newid, o);
+			newid++;
+		}
+		Set<Long> inserted = newIDToSource.keySet();
+		try {
+			wsmongo.getCollection(COL_WORKSPACE_OBJS).insert(objdocs);
+		} catch (MongoException.DuplicateKey dk) {
+			//someone saved an object with one of our names to the new
+			//workspace while we were cloning. Since the IDs are reserved
+			//the clash must be on the name. Find out which objects made it
+			//in before the failure and save the rest one at a time.
+			inserted = getObjectIDsInRange(toWS, firstid, newid);
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		}
+		//TODO look into why saving array of maps via List.ToArray() /w Jongo makes Lazy?Objects return, which screw up everything
+		final List<DBObject> verdocs = new LinkedList<DBObject>();
+		for (final Entry<Long, DBObject> e: newIDToSource.entrySet()) {
+			final DBObject o = e.getValue();
+			final List<Map<String, Object>> vers =
+					versions.get((Long) o.get(Fields.OBJ_ID));
+			if (!inserted.contains(e.getKey())) {
+				final long objid = saveWorkspaceObject(toWS, e.getKey(),
+						(String) o.get(Fields.OBJ_NAME)).id;
+				saveObjectVersions(user, toWS, objid, vers,
+						(Boolean) o.get(Fields.OBJ_HIDE));
+				continue;
+			}
+			int ver = 1;
+			for (final Map<String, Object> v: vers) {
+				v.put(Fields.VER_SAVEDATE, saved);
+				v.put(Fields.VER_WS_ID, toWS.getID());
+				v.put(Fields.VER_ID, e.getKey());
+				v.put(Fields.VER_VER, ver++);
+				final DBObject d = new BasicDBObject();
+				for (final Entry<String, Object> ve: v.entrySet()) {
+					d.put(ve.getKey(), ve.getValue());
+				}
+				verdocs.add(d);
+			}
+		}
+		if (verdocs.isEmpty()) {
+			return;
+		}
+		try {
+			wsmongo.getCollection(COL_WORKSPACE_VERS).insert(verdocs);
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
 		}
-		return getWorkspaceInformation(user, toWS);
+	}
+	
+	//returns a map of object id -> versions sorted by version, with an
+	//empty list for any object with no versions
+	private Map<Long, List<Map<String, Object>>> queryVersionsForClone(
+			final ResolvedMongoWSID wsid, final List<DBObject> objects)
+			throws WorkspaceCommunicationException {
+		final Map<Long, List<Map<String, Object>>> ret =
+				new HashMap<Long, List<Map<String, Object>>>();
+		for (final DBObject o: objects) {
+			ret.put((Long) o.get(Fields.OBJ_ID),
+					new LinkedList<Map<String, Object>>());
+		}
+		final DBObject q = new BasicDBObject(Fields.VER_WS_ID, wsid.getID());
+		q.put(Fields.VER_ID, new BasicDBObject("$in",
+				new ArrayList<Long>(ret.keySet())));
+		final DBObject proj = new BasicDBObject();
+		for (final String field: FLDS_VER_COPYOBJ) {
+			proj.put(field, 1);
+		}
+		proj.put(Fields.MONGO_ID, 0);
+		final DBObject sort = new BasicDBObject(Fields.VER_ID, 1);
+		sort.put(Fields.VER_VER, 1);
+		DBCursor cur = null;
+		try {
+			cur = wsmongo.getCollection(COL_WORKSPACE_VERS).find(q, proj)
+					.sort(sort);
+			for (final DBObject v: cur) {
+				@SuppressWarnings("unchecked")
+				final Map<String, Object> m = v.toMap();
+				ret.get((Long) v.get(Fields.VER_ID)).add(m);
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		} finally {
+			if (cur != null) {
+				cur.close();
+			}
+		}
+		return ret;
+	}
+	
+	//returns the ids of the objects in the workspace in the range
+	//[start, end)
+	private Set<Long> getObjectIDsInRange(final ResolvedMongoWSID wsid,
+			final long start, final long end)
+			throws WorkspaceCommunicationException {
+		final DBObject q = new BasicDBObject(Fields.OBJ_WS_ID, wsid.getID());
+		final DBObject range = new BasicDBObject("$gte", start);
+		range.put("$lt", end);
+		q.put(Fields.OBJ_ID, range);
+		final DBObject proj = new BasicDBObject(Fields.OBJ_ID, 1);
+		proj.put(Fields.MONGO_ID, 0);
+		final Set<Long> ret = new HashSet<Long>();
+		try {
+			for (final DBObject o: wsmongo.getCollection(COL_WORKSPACE_OBJS)
+					.find(q, proj)) {
+				ret.add((Long) o.get(Fields.OBJ_ID));
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		}
+		return ret;
 	}
 	
 	private final static String M_LOCK_WS_WTH = String.format("{$set: {%s: #}}",
@@ -692,8 +1111,9 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	private static final Set<String> FLDS_VER_COPYOBJ = newHashSet(
 			Fields.VER_WS_ID, Fields.VER_ID, Fields.VER_VER,
 			Fields.VER_TYPE, Fields.VER_CHKSUM, Fields.VER_SIZE,
-			Fields.VER_PROV, Fields.VER_REF, Fields.VER_PROVREF,
-			Fields.VER_COPIED, Fields.VER_META, Fields.VER_EXT_IDS);
+			Fields.VER_PROV, Fields.VER_PROVDATE, Fields.VER_REF,
+			Fields.VER_PROVREF, Fields.VER_COPIED, Fields.VER_META,
+			Fields.VER_EXT_IDS);
 	
 	@Override
 	public ObjectInformation copyObject(final WorkspaceUser user,
@@ -759,7 +1179,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				to.getWorkspaceIdentifier());
 		final long objid;
 		if (rto == null) { //need to make a new object
-			final long id = incrementWorkspaceCounter(toWS, 1);
+			final long id = idLeaser.getIDs(toWS.getID(), 1).get(0);
 			objid = saveWorkspaceObject(toWS, id, to.getName()).id;
 		} else {
 			objid = rto.getId();
@@ -767,8 +1187,12 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		saveObjectVersions(user, toWS, objid, versions, null);
 		final Map<String, Object> info = versions.get(versions.size() - 1);
 		updateWorkspaceModifiedDate(toWS);
-		return generateObjectInfo(toWS, objid, rto == null ? to.getName() :
-				rto.getName(), info);
+		final ObjectInformation oi = generateObjectInfo(toWS, objid,
+				rto == null ? to.getName() : rto.getName(), info);
+		writeEvents(Arrays.asList(newEvent(revert ? EventType.REVERT_OBJECT :
+				EventType.COPY_OBJECT, user, toWS.getID(), objid,
+				oi.getVersion())));
+		return oi;
 	}
 	
 	final private static String M_RENAME_WS_WTH = String.format(
@@ -794,6 +1218,10 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			throw new WorkspaceCommunicationException(
 					"There was a problem communicating with the database", me);
 		}
+		final DBObject event = newEvent(EventType.RENAME_WORKSPACE, user,
+				rwsi.getID());
+		event.put(Fields.EV_NAME, newname);
+		writeEvents(Arrays.asList(event));
 		return getWorkspaceInformation(user, rwsi);
 	}
 	
@@ -803,8 +1231,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			"{$set: {%s: #, %s: #}}", Fields.OBJ_NAME, Fields.OBJ_MODDATE);
 	
 	@Override
-	public ObjectInformation renameObject(final ObjectIDResolvedWS oi,
-			final String newname)
+	public ObjectInformation renameObject(final WorkspaceUser user,
+			final ObjectIDResolvedWS oi, final String newname)
 			throws NoSuchObjectException, WorkspaceCommunicationException {
 		Set<ObjectIDResolvedWS> input = new HashSet<ObjectIDResolvedWS>(
 				Arrays.asList(oi));
@@ -833,6 +1261,11 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		final ObjectInformation oinf =
 				getObjectInformation(input, false, false).get(oid);
 		updateWorkspaceModifiedDate(roi.getWorkspaceIdentifier());
+		final DBObject event = newEvent(EventType.RENAME_OBJECT, user,
+				roi.getWorkspaceIdentifier().getID());
+		event.put(Fields.EV_OBJ_ID, roi.getId());
+		event.put(Fields.EV_NAME, newname);
+		writeEvents(Arrays.asList(event));
 		return oinf;
 	}
 	
@@ -1057,24 +1490,44 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				Permission.OWNER, false);
 		setPermissionsForWorkspaceUsers(newRwsi, Arrays.asList(owner),
 				Permission.ADMIN, false);
+		final DBObject event = newEvent(EventType.SET_OWNER, owner,
+				rwsi.getID());
+		event.put(Fields.EV_USERS, Arrays.asList(newUser.getUser()));
+		event.put(Fields.EV_PERM, Permission.OWNER.getPermission());
+		event.put(Fields.EV_NAME, newname);
+		writeEvents(Arrays.asList(event));
 		return getWorkspaceInformation(newUser, rwsi);
 	}
 	
 	@Override
-	public void setPermissions(final ResolvedWorkspaceID rwsi,
+	public void setPermissions(final WorkspaceUser user,
+			final ResolvedWorkspaceID rwsi,
 			final List<WorkspaceUser> users, final Permission perm) throws
 			WorkspaceCommunicationException, CorruptWorkspaceDBException {
 		setPermissionsForWorkspaceUsers(query.convertResolvedWSID(rwsi),
 				users, perm, true);
+		final List<String> names = new LinkedList<String>();
+		for (final WorkspaceUser u: users) {
+			names.add(u.getUser());
+		}
+		final DBObject event = newEvent(EventType.SET_PERMISSIONS, user,
+				rwsi.getID());
+		event.put(Fields.EV_USERS, names);
+		event.put(Fields.EV_PERM, perm.getPermission());
+		writeEvents(Arrays.asList(event));
 	}
 	
 	@Override
-	public void setGlobalPermission(final ResolvedWorkspaceID rwsi,
-			final Permission perm)
+	public void setGlobalPermission(final WorkspaceUser user,
+			final ResolvedWorkspaceID rwsi, final Permission perm)
 			throws WorkspaceCommunicationException,
 			CorruptWorkspaceDBException {
 		setPermissions(query.convertResolvedWSID(rwsi),
 				Arrays.asList(ALL_USERS), perm, false);
+		final DBObject event = newEvent(EventType.SET_GLOBAL_PERMISSION,
+				user, rwsi.getID());
+		event.put(Fields.EV_PERM, perm.getPermission());
+		writeEvents(Arrays.asList(event));
 	}
 	
 	//wsid must exist as a workspace
@@ -1269,10 +1722,17 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		@SuppressWarnings("unchecked")
 		final List<Map<String, String>> meta =
 				(List<Map<String, String>>) wsdata.get(Fields.WS_META);
+		//show this server's modifications that haven't been written yet
+		Date moddate = (Date) wsdata.get(Fields.WS_MODDATE);
+		final Date pending = modDates.getPendingDate(
+				(Long) wsdata.get(Fields.WS_ID));
+		if (pending != null && pending.after(moddate)) {
+			moddate = pending;
+		}
 		return new MongoWSInfo((Long) wsdata.get(Fields.WS_ID),
 				(String) wsdata.get(Fields.WS_NAME),
 				new WorkspaceUser((String) wsdata.get(Fields.WS_OWNER)),
-				(Date) wsdata.get(Fields.WS_MODDATE),
+				moddate,
 				(Long) wsdata.get(Fields.WS_NUMOBJ),
 				perms.getUserPermission(rwsi),
 				perms.isWorldReadable(rwsi),
@@ -1322,8 +1782,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		version.put(Fields.VER_REF, pkg.refs);
 		version.put(Fields.VER_PROVREF, pkg.provrefs);
 		version.put(Fields.VER_PROV, pkg.mprov.getMongoId());
-		version.put(Fields.VER_TYPE, pkg.wo.getRep().getValidationTypeDefId()
-				.getTypeString());
+		version.put(Fields.VER_PROVDATE, pkg.provdate);
+		version.put(Fields.VER_TYPE, pkg.wo.getType().getTypeString());
 		version.put(Fields.VER_SIZE, pkg.td.getSize());
 		version.put(Fields.VER_RVRT, null);
 		version.put(Fields.VER_COPIED, null);
@@ -1334,7 +1794,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				pkg.wo.isHidden());
 		
 		return new MongoObjectInfo(objectid, pkg.name,
-				pkg.wo.getRep().getValidationTypeDefId().getTypeString(),
+				pkg.wo.getType().getTypeString(),
 				(Date) version.get(Fields.VER_SAVEDATE),
 				(Integer) version.get(Fields.VER_VER),
 				user, wsid, pkg.td.getChksum(), pkg.td.getSize(),
@@ -1375,13 +1835,13 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	private static final String M_SAVEINS_PROJ = String.format("{%s: 1, %s: 0}",
 			Fields.OBJ_VCNT, Fields.MONGO_ID);
 	private static final String M_SAVEINS_WTH = String.format(
-			"{$inc: {%s: #}, $set: {%s: false, %s: #, %s: null, %s: #}, $push: {%s: {$each: #}}}",
+			"{$inc: {%s: #}, $set: {%s: false, %s: #, %s: null, %s: #}}",
 			Fields.OBJ_VCNT, Fields.OBJ_DEL, Fields.OBJ_MODDATE,
-			Fields.OBJ_LATEST, Fields.OBJ_HIDE, Fields.OBJ_REFCOUNTS);
+			Fields.OBJ_LATEST, Fields.OBJ_HIDE);
 	private static final String M_SAVEINS_NO_HIDE_WTH = String.format(
-			"{$inc: {%s: #}, $set: {%s: false, %s: #, %s: null}, $push: {%s: {$each: #}}}",
+			"{$inc: {%s: #}, $set: {%s: false, %s: #, %s: null}}",
 			Fields.OBJ_VCNT, Fields.OBJ_DEL, Fields.OBJ_MODDATE,
-			Fields.OBJ_LATEST, Fields.OBJ_REFCOUNTS);
+			Fields.OBJ_LATEST);
 	
 	private void saveObjectVersions(final WorkspaceUser user,
 			final ResolvedMongoWSID wsid, final long objectid,
@@ -1401,21 +1861,15 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		 * 
 		*/
 		int ver;
-		final List<Integer> zeros = new LinkedList<Integer>();
-		for (int i = 0; i < versions.size(); i++) {
-			zeros.add(0);
-		}
 		final Date saved = new Date();
 		try {
 			FindAndModify q = wsjongo.getCollection(COL_WORKSPACE_OBJS)
 					.findAndModify(M_SAVEINS_QRY, wsid.getID(), objectid)
 					.returnNew();
 			if (hidden == null) {
-				q = q.with(M_SAVEINS_NO_HIDE_WTH, versions.size(),
-						saved, zeros);
+				q = q.with(M_SAVEINS_NO_HIDE_WTH, versions.size(), saved);
 			} else {
-				q = q.with(M_SAVEINS_WTH, versions.size(), saved,
-						hidden, zeros);
+				q = q.with(M_SAVEINS_WTH, versions.size(), saved, hidden);
 			}
 			ver = (Integer) q
 					.projection(M_SAVEINS_PROJ).as(DBObject.class)
@@ -1445,6 +1899,11 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			throw new WorkspaceCommunicationException(
 					"There was a problem communicating with the database", me);
 		}
+		for (final DBObject d: dbo) {
+			@SuppressWarnings("unchecked")
+			final Map<String, Object> m = d.toMap();
+			query.cacheVersion(m);
+		}
 	}
 	
 	//TODO make all projections not include _id unless specified
@@ -1457,7 +1916,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	
 	private String generateUniqueNameForObject(final ResolvedWorkspaceID wsid,
 			final long objectid) throws WorkspaceCommunicationException {
-		final String prefix = "auto" + objectid;
+		final String prefix = AUTO_NAME_PREFIX + objectid;
 		@SuppressWarnings("rawtypes")
 		final Iterable<Map> ids;
 		boolean exact = false;
@@ -1492,6 +1951,184 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		return prefix + "-" + counter;
 	}
 	
+	private static final String AUTO_NAME_PREFIX = "auto";
+	
+	/* Creates containers with autogenerated names for a block of new object
+	 * ids, which is much cheaper than generating the names one at a time
+	 * for large saves. Auto names can only clash with names a user chose
+	 * that look like an auto name, so the existing names are found with
+	 * one range query per digit count over the (ws, name) index rather than
+	 * a regex query per object. The containers are inserted in one batch,
+	 * and any that clash with a name added in the meantime are retried one
+	 * at a time. The containers for new names in the same save are created
+	 * afterwards, so those names are reserved here.
+	 * Returns a mapping of object id to name.
+	 */
+	private Map<Long, String> saveAutoNamedWorkspaceObjects(
+			final ResolvedMongoWSID wsid, final List<Long> objectids,
+			final Set<String> reservedNames)
+			throws WorkspaceCommunicationException {
+		final Map<Long, String> ret = new HashMap<Long, String>();
+		if (objectids.isEmpty()) {
+			return ret;
+		}
+		final Map<Long, Set<Long>> suffixes = getAutoNameSuffixes(wsid,
+				objectids, reservedNames);
+		final List<DBObject> dbos = new LinkedList<DBObject>();
+		for (final Long id: objectids) {
+			final String name = getAutoName(id, suffixes.get(id));
+			ret.put(id, name);
+			dbos.add(newObjectContainer(wsid, id, name));
+		}
+		final DBCollection col = wsmongo.getCollection(COL_WORKSPACE_OBJS);
+		try {
+			//keep going after a clash so only the clashes need a retry
+			col.insert(dbos, col.getWriteConcern().continueOnError(true));
+		} catch (MongoException.DuplicateKey dk) {
+			final Map<Long, String> saved = getObjectNames(wsid, objectids);
+			for (final Long id: objectids) {
+				if (!ret.get(id).equals(saved.get(id))) {
+					ret.put(id, saveWorkspaceObject(wsid, id, null).name);
+				}
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		}
+		return ret;
+	}
+	
+	private DBObject newObjectContainer(final ResolvedMongoWSID wsid,
+			final long objectid, final String name) {
+		final DBObject dbo = new BasicDBObject();
+		dbo.put(Fields.OBJ_WS_ID, wsid.getID());
+		dbo.put(Fields.OBJ_ID, objectid);
+		dbo.put(Fields.OBJ_VCNT, 0); //Integer
+		dbo.put(Fields.OBJ_NAME, name);
+		dbo.put(Fields.OBJ_LATEST, null);
+		dbo.put(Fields.OBJ_DEL, false);
+		dbo.put(Fields.OBJ_HIDE, false);
+		return dbo;
+	}
+	
+	// suffixes is null if the unsuffixed name is not taken
+	private static String getAutoName(final long objectid,
+			final Set<Long> suffixes) {
+		final String prefix = AUTO_NAME_PREFIX + objectid;
+		if (suffixes == null) {
+			return prefix;
+		}
+		long counter = 1;
+		while (suffixes.contains(counter)) {
+			counter++;
+		}
+		return prefix + "-" + counter;
+	}
+	
+	/* Returns the suffixes in use for the auto names of each object id that
+	 * has the unsuffixed name in use. In lexical order, every name autoN or
+	 * autoN-M for N between lo and hi with the same number of digits falls
+	 * between "autolo" and "autohi.", since '-' sorts before '.' and '.'
+	 * before the digits. Other names in the range are discarded.
+	 */
+	private Map<Long, Set<Long>> getAutoNameSuffixes(
+			final ResolvedMongoWSID wsid, final List<Long> objectids,
+			final Set<String> reservedNames)
+			throws WorkspaceCommunicationException {
+		final long min = Collections.min(objectids);
+		final long max = Collections.max(objectids);
+		final List<DBObject> ranges = new LinkedList<DBObject>();
+		long lo = min;
+		while (lo <= max) {
+			long digitmax = 9;
+			while (digitmax < lo) {
+				digitmax = digitmax * 10 + 9;
+			}
+			final long hi = Math.min(max, digitmax);
+			final DBObject range = new BasicDBObject(
+					"$gte", AUTO_NAME_PREFIX + lo);
+			range.put("$lt", AUTO_NAME_PREFIX + hi + ".");
+			ranges.add(new BasicDBObject(Fields.OBJ_NAME, range));
+			lo = hi + 1;
+		}
+		final DBObject query = new BasicDBObject(Fields.OBJ_WS_ID,
+				wsid.getID());
+		query.put("$or", ranges);
+		final DBObject proj = new BasicDBObject(Fields.OBJ_NAME, 1);
+		proj.put(Fields.MONGO_ID, 0);
+		final List<String> names = new LinkedList<String>(reservedNames);
+		try {
+			for (final DBObject dbo: wsmongo.getCollection(COL_WORKSPACE_OBJS)
+					.find(query, proj)) {
+				names.add((String) dbo.get(Fields.OBJ_NAME));
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		}
+		final Set<Long> ids = new HashSet<Long>(objectids);
+		final Map<Long, Set<Long>> ret = new HashMap<Long, Set<Long>>();
+		final Map<Long, Set<Long>> suffixes = new HashMap<Long, Set<Long>>();
+		for (final String name: names) {
+			final Matcher m = AUTO_NAME_PATTERN.matcher(name);
+			if (!m.matches()) {
+				continue;
+			}
+			final long id;
+			try {
+				id = Long.parseLong(m.group(1));
+			} catch (NumberFormatException nfe) {
+				continue; //too big to be an object id
+			}
+			if (!ids.contains(id)) {
+				continue;
+			}
+			if (m.group(2) == null) {
+				ret.put(id, null);
+			} else {
+				if (!suffixes.containsKey(id)) {
+					suffixes.put(id, new HashSet<Long>());
+				}
+				try {
+					suffixes.get(id).add(Long.parseLong(m.group(2)));
+				} catch (NumberFormatException nfe) {
+					//can't clash with a generated suffix
+				}
+			}
+		}
+		for (final Long id: ret.keySet()) {
+			ret.put(id, suffixes.containsKey(id) ? suffixes.get(id) :
+				new HashSet<Long>());
+		}
+		return ret;
+	}
+	
+	private static final Pattern AUTO_NAME_PATTERN = Pattern.compile(
+			"^" + AUTO_NAME_PREFIX + "([1-9]\\d*)(?:-([1-9]\\d*))?$");
+	
+	private Map<Long, String> getObjectNames(final ResolvedMongoWSID wsid,
+			final List<Long> objectids)
+			throws WorkspaceCommunicationException {
+		final DBObject query = new BasicDBObject(Fields.OBJ_WS_ID,
+				wsid.getID());
+		query.put(Fields.OBJ_ID, new BasicDBObject("$in", objectids));
+		final DBObject proj = new BasicDBObject(Fields.OBJ_ID, 1);
+		proj.put(Fields.OBJ_NAME, 1);
+		proj.put(Fields.MONGO_ID, 0);
+		final Map<Long, String> ret = new HashMap<Long, String>();
+		try {
+			for (final DBObject dbo: wsmongo.getCollection(COL_WORKSPACE_OBJS)
+					.find(query, proj)) {
+				ret.put(((Number) dbo.get(Fields.OBJ_ID)).longValue(),
+						(String) dbo.get(Fields.OBJ_NAME));
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		}
+		return ret;
+	}
+	
 	//save brand new object - create container
 	//objectid *must not exist* in the workspace otherwise this method will recurse indefinitely
 	//the workspace must exist
@@ -1503,15 +2140,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		if (name == null) {
 			newName = generateUniqueNameForObject(wsid, objectid);
 		}
-		final DBObject dbo = new BasicDBObject();
-		dbo.put(Fields.OBJ_WS_ID, wsid.getID());
-		dbo.put(Fields.OBJ_ID, objectid);
-		dbo.put(Fields.OBJ_VCNT, 0); //Integer
-		dbo.put(Fields.OBJ_REFCOUNTS, new LinkedList<Integer>());
-		dbo.put(Fields.OBJ_NAME, newName);
-		dbo.put(Fields.OBJ_LATEST, null);
-		dbo.put(Fields.OBJ_DEL, false);
-		dbo.put(Fields.OBJ_HIDE, false);
+		final DBObject dbo = newObjectContainer(wsid, objectid, newName);
 		try {
 			//maybe could speed things up with batch inserts but dealing with
 			//errors would really suck
@@ -1560,7 +2189,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		int objnum = 1;
 		final List<ObjectSavePackage> ret = new LinkedList<ObjectSavePackage>();
 		for (ResolvedSaveObject o: objects) {
-			if (o.getRep().getValidationTypeDefId().getMd5() != null) {
+			if (o.getType().getMd5() != null) {
 				throw new RuntimeException("MD5 types are not accepted");
 			}
 			final ObjectSavePackage pkg = new ObjectSavePackage();
@@ -1572,43 +2201,57 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			pkg.wo = o;
 			checkObjectLength(o.getProvenance(), MAX_PROV_SIZE,
 					o.getObjectIdentifier(), objnum, "provenance");
+			if (o.getStoredData() != null) {
+				//the data, subdata and blob already exist
+				pkg.td = new TypeData(o.getType(),
+						o.getStoredData().getMD5(),
+						o.getStoredData().getSize());
+				ret.add(pkg);
+				objnum++;
+				continue;
+			}
 			
-			final Map<String, Object> subdata;
+			final PhaseTimer pt = stats.startPhases(null, STAT_SAVE_EXTRACT);
 			try {
-				// TODO: 2 improved handling of new exceptions ExceededMaxSubsetSizeException and ExceededMaxMetadataException
-				ExtractedSubsetAndMetadata extract = o.getRep().extractSearchableWsSubsetAndMetadata(MAX_SUBDATA_SIZE, MAX_WS_META_SIZE);
-				@SuppressWarnings("unchecked")
-				final Map<String, Object> subdata2 = (Map<String, Object>)
-						MAPPER.treeToValue(
-								extract.getWsSearchableSubset(),
-								Map.class);
-				subdata = subdata2;
-				pkg.wo.addUserMeta(extract.getMetadataAsMap());
-			} catch (JsonProcessingException jpe) {
-				throw new RuntimeException(
-						"Should never get a JSON exception here", jpe);
-			} catch (ExceededMaxMetadataSizeException e) {
-				throw new IllegalArgumentException(String.format(
-						"Object %s : %s",
-						getObjectErrorId(o.getObjectIdentifier(), objnum),
-						e.getMessage()), e);
-			} catch (IllegalArgumentException e) {
-				if (e.getMessage().contains("" + MAX_SUBDATA_SIZE))
+				final Map<String, Object> subdata;
+				try {
+					// TODO: 2 improved handling of new exceptions ExceededMaxSubsetSizeException and ExceededMaxMetadataException
+					ExtractedSubsetAndMetadata extract = o.getRep().extractSearchableWsSubsetAndMetadata(MAX_SUBDATA_SIZE, MAX_WS_META_SIZE);
+					@SuppressWarnings("unchecked")
+					final Map<String, Object> subdata2 = (Map<String, Object>)
+							MAPPER.treeToValue(
+									extract.getWsSearchableSubset(),
+									Map.class);
+					subdata = subdata2;
+					pkg.wo.addUserMeta(extract.getMetadataAsMap());
+				} catch (JsonProcessingException jpe) {
+					throw new RuntimeException(
+							"Should never get a JSON exception here", jpe);
+				} catch (ExceededMaxMetadataSizeException e) {
 					throw new IllegalArgumentException(String.format(
-							"Object %s %s size exceeds limit of %s",
+							"Object %s : %s",
 							getObjectErrorId(o.getObjectIdentifier(), objnum),
-							"subdata", MAX_SUBDATA_SIZE));
-				throw e;
-			} 
-			
-			
-			escapeSubdata(subdata);
-//			checkObjectLength(subdata, MAX_SUBDATA_SIZE,
-//					o.getObjectIdentifier(), objnum, "subdata");
-			//could save time by making type->data->TypeData map and reusing
-			//already calced TDs, but hardly seems worth it - unlikely event
-			pkg.td = new TypeData(o.getRep().createJsonWritable(),
-					o.getRep().getValidationTypeDefId(), subdata);
+							e.getMessage()), e);
+				} catch (IllegalArgumentException e) {
+					if (e.getMessage().contains("" + MAX_SUBDATA_SIZE))
+						throw new IllegalArgumentException(String.format(
+								"Object %s %s size exceeds limit of %s",
+								getObjectErrorId(o.getObjectIdentifier(), objnum),
+								"subdata", MAX_SUBDATA_SIZE));
+					throw e;
+				}
+				
+				escapeSubdata(subdata);
+//				checkObjectLength(subdata, MAX_SUBDATA_SIZE,
+//						o.getObjectIdentifier(), objnum, "subdata");
+				pt.next(STAT_SAVE_MD5);
+				//could save time by making type->data->TypeData map and reusing
+				//already calced TDs, but hardly seems worth it - unlikely event
+				pkg.td = new TypeData(o.getRep().createJsonWritable(),
+						o.getRep().getValidationTypeDefId(), subdata);
+			} finally {
+				pt.end();
+			}
 			if (pkg.td.getSize() > rescfg.getMaxObjectSize()) {
 				throw new IllegalArgumentException(String.format(
 						"Object %s data size %s exceeds limit of %s",
@@ -1809,51 +2452,84 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		}
 		//at this point everything should be ready to save, only comm errors
 		//can stop us now, the world is doomed
-		saveData(wsidmongo, packages);
-		saveProvenance(packages);
-		updateReferenceCounts(packages);
-		long newid = incrementWorkspaceCounter(wsidmongo, newobjects);
-		/*  alternate impl: 1) make all save objects 2) increment all version
-		 *  counters 3) batch save versions
-		 *  This probably won't help much. Firstly, saving the same object
-		 *  multiple times (e.g. save over the same object in the same
-		 *  saveObjects call) is going to be a rare op - who wants to do that?
-		 *  Hence batching up the version increments is probably not going to
-		 *  help much.
-		 *  Secondly, the write lock is on a per document basis, so batching
-		 *  writes has no effect on write locking.
-		 *  That means that the gain from batching writes is removal of the 
-		 *  flight time to/from the server between each object. This may
-		 *  be significant for many small objects, but is probably
-		 *  insignificant for a few objects, or many large objects.
-		 *  Summary: probably not worth the trouble and increase in code
-		 *  complexity.
-		 */
-		final List<ObjectInformation> ret = new ArrayList<ObjectInformation>();
-		final Map<String, Long> seenNames = new HashMap<String, Long>();
-		for (final ObjectSavePackage p: packages) {
-			final ObjectIDNoWSNoVer oi = p.wo.getObjectIdentifier();
-			if (oi == null) { //no name given, need to generate one
-				final IDName obj = saveWorkspaceObject(wsidmongo, newid++,
-						null);
-				p.name = obj.name;
-				ret.add(saveObjectVersion(user, wsidmongo, obj.id, p));
-			} else if (oi.getId() != null) { //confirmed ok id
-				ret.add(saveObjectVersion(user, wsidmongo, oi.getId(), p));
-			} else if (objIDs.get(oi) != null) {//given name translated to id
-				ret.add(saveObjectVersion(user, wsidmongo, objIDs.get(oi).getId(), p));
-			} else if (seenNames.containsKey(oi.getName())) {
-				//we've already generated an id for this name
-				ret.add(saveObjectVersion(user, wsidmongo, seenNames.get(oi.getName()), p));
-			} else {//new name, need to generate new id
-				final IDName obj = saveWorkspaceObject(wsidmongo, newid++,
-						oi.getName());
-				p.name = obj.name;
-				seenNames.put(obj.name, obj.id);
-				ret.add(saveObjectVersion(user, wsidmongo, obj.id, p));
-			}
-		}
-		updateWorkspaceModifiedDate(wsidmongo);
+		final PhaseTimer pt = stats.startPhases(null, STAT_SAVE_DATA);
+		final List<ObjectInformation> ret;
+		try {
+			saveData(wsidmongo, packages);
+			pt.next(STAT_SAVE_PROV);
+			saveProvenance(packages);
+			pt.next(STAT_SAVE_REFCOUNTS);
+			updateReferenceCounts(packages);
+			pt.next(STAT_SAVE_AUTONAME);
+			final Iterator<Long> newids = idLeaser.getIDs(wsidmongo.getID(),
+					newobjects).iterator();
+			/*  alternate impl: 1) make all save objects 2) increment all version
+			 *  counters 3) batch save versions
+			 *  This probably won't help much. Firstly, saving the same object
+			 *  multiple times (e.g. save over the same object in the same
+			 *  saveObjects call) is going to be a rare op - who wants to do that?
+			 *  Hence batching up the version increments is probably not going to
+			 *  help much.
+			 *  Secondly, the write lock is on a per document basis, so batching
+			 *  writes has no effect on write locking.
+			 *  That means that the gain from batching writes is removal of the 
+			 *  flight time to/from the server between each object. This may
+			 *  be significant for many small objects, but is probably
+			 *  insignificant for a few objects, or many large objects.
+			 *  Summary: probably not worth the trouble and increase in code
+			 *  complexity.
+			 */
+			// ids are assigned in save order, as if the objects were created one
+			// at a time
+			final Map<ObjectSavePackage, Long> autoIDs =
+					new HashMap<ObjectSavePackage, Long>();
+			final Map<String, Long> newNameIDs = new HashMap<String, Long>();
+			for (final ObjectSavePackage p: packages) {
+				final ObjectIDNoWSNoVer oi = p.wo.getObjectIdentifier();
+				if (oi == null) {
+					autoIDs.put(p, newids.next());
+				} else if (oi.getId() == null && objIDs.get(oi) == null &&
+						!newNameIDs.containsKey(oi.getName())) {
+					newNameIDs.put(oi.getName(), newids.next());
+				}
+			}
+			final Map<Long, String> autoNames = saveAutoNamedWorkspaceObjects(
+					wsidmongo, new ArrayList<Long>(autoIDs.values()),
+					newNameIDs.keySet());
+			pt.next(STAT_SAVE_OBJECTS);
+			ret = new ArrayList<ObjectInformation>();
+			final Map<String, Long> seenNames = new HashMap<String, Long>();
+			for (final ObjectSavePackage p: packages) {
+				final ObjectIDNoWSNoVer oi = p.wo.getObjectIdentifier();
+				if (oi == null) { //no name given, already generated
+					final long id = autoIDs.get(p);
+					p.name = autoNames.get(id);
+					ret.add(saveObjectVersion(user, wsidmongo, id, p));
+				} else if (oi.getId() != null) { //confirmed ok id
+					ret.add(saveObjectVersion(user, wsidmongo, oi.getId(), p));
+				} else if (objIDs.get(oi) != null) {//given name translated to id
+					ret.add(saveObjectVersion(user, wsidmongo, objIDs.get(oi).getId(), p));
+				} else if (seenNames.containsKey(oi.getName())) {
+					//we've already generated an id for this name
+					ret.add(saveObjectVersion(user, wsidmongo, seenNames.get(oi.getName()), p));
+				} else {//new name, need to make a new object
+					final IDName obj = saveWorkspaceObject(wsidmongo,
+							newNameIDs.get(oi.getName()), oi.getName());
+					p.name = obj.name;
+					seenNames.put(obj.name, obj.id);
+					ret.add(saveObjectVersion(user, wsidmongo, obj.id, p));
+				}
+			}
+			updateWorkspaceModifiedDate(wsidmongo);
+		} finally {
+			pt.end();
+		}
+		final List<DBObject> events = new LinkedList<DBObject>();
+		for (final ObjectInformation oi: ret) {
+			events.add(newEvent(EventType.SAVE_OBJECT, user,
+					wsidmongo.getID(), oi.getObjectId(), oi.getVersion()));
+		}
+		writeEvents(events);
 		return ret;
 	}
 
@@ -1875,22 +2551,74 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		return newid;
 	}
 	
+	/* Versions with the same provenance share a provenance document, so a
+	 * bulk save of objects with identical provenance inserts one document.
+	 * The resolved references and the provenance date differ per version and
+	 * are stored in the version documents.
+	 */
 	private void saveProvenance(final List<ObjectSavePackage> packages)
 			throws WorkspaceCommunicationException {
-		final List<MongoProvenance> prov = new LinkedList<MongoProvenance>();
+		final Date now = new Date();
+		final Map<String, MongoProvenance> prov =
+				new HashMap<String, MongoProvenance>();
+		final List<String> hashes = new LinkedList<String>();
 		for (final ObjectSavePackage p: packages) {
 			final MongoProvenance mp = new MongoProvenance(
 					p.wo.getProvenance());
-			prov.add(mp);
-			p.mprov = mp;
+			if (!prov.containsKey(mp.getHash())) {
+				prov.put(mp.getHash(), mp);
+			}
+			hashes.add(mp.getHash());
 		}
-		try {
-			wsjongo.getCollection(COL_PROVENANCE).insert((Object[])
-					prov.toArray(new MongoProvenance[prov.size()]));
-		} catch (MongoException me) {
-			throw new WorkspaceCommunicationException(
-					"There was a problem communicating with the database", me);
+		final Map<String, MongoProvenance> saved = saveProvenance(prov);
+		final Iterator<String> hashIter = hashes.iterator();
+		for (final ObjectSavePackage p: packages) {
+			p.mprov = saved.get(hashIter.next());
+			p.provdate = now;
+		}
+	}
+	
+	private Map<String, MongoProvenance> saveProvenance(
+			final Map<String, MongoProvenance> prov)
+			throws WorkspaceCommunicationException {
+		final Map<String, MongoProvenance> ret =
+				new HashMap<String, MongoProvenance>();
+		while (ret.size() < prov.size()) {
+			final Set<String> unsaved = new HashSet<String>(prov.keySet());
+			unsaved.removeAll(ret.keySet());
+			try {
+				for (final MongoProvenance mp: wsjongo
+						.getCollection(COL_PROVENANCE)
+						.find(String.format("{%s: {$in: #}}",
+								Fields.PROV_HASH), unsaved)
+						.projection(String.format("{%s: 1}",
+								Fields.PROV_HASH))
+						.as(MongoProvenance.class)) {
+					ret.put(mp.getHash(), mp);
+					unsaved.remove(mp.getHash());
+				}
+				final List<MongoProvenance> toSave =
+						new LinkedList<MongoProvenance>();
+				for (final String hash: unsaved) {
+					toSave.add(prov.get(hash));
+				}
+				if (!toSave.isEmpty()) {
+					wsjongo.getCollection(COL_PROVENANCE).insert((Object[])
+							toSave.toArray(new MongoProvenance[toSave.size()]));
+				}
+				for (final MongoProvenance mp: toSave) {
+					ret.put(mp.getHash(), mp);
+				}
+			} catch (MongoException.DuplicateKey dk) {
+				//another save inserted some of the same provenance, so look
+				//up the provenance again. Each pass saves at least one
+				//provenance document, so this terminates.
+			} catch (MongoException me) {
+				throw new WorkspaceCommunicationException(
+						"There was a problem communicating with the database", me);
+			}
 		}
+		return ret;
 	}
 
 	private static class VerCount {
@@ -1989,17 +2717,17 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			final Map<Long, List<Long>> wsToObjs)
 			throws WorkspaceCommunicationException {
 		final DBObject update = new BasicDBObject("$inc",
-				new BasicDBObject(Fields.OBJ_REFCOUNTS + "." + (vc.ver - 1),
-						vc.count));
+				new BasicDBObject(Fields.VER_REFCOUNT, vc.count));
 		final List<DBObject> orquery = new LinkedList<DBObject>();
 		for (final Long ws: wsToObjs.keySet()) {
-			final DBObject query = new BasicDBObject(Fields.OBJ_WS_ID, ws);
-			query.put(Fields.OBJ_ID, new BasicDBObject("$in",
+			final DBObject query = new BasicDBObject(Fields.VER_WS_ID, ws);
+			query.put(Fields.VER_ID, new BasicDBObject("$in",
 					wsToObjs.get(ws)));
+			query.put(Fields.VER_VER, vc.ver);
 			orquery.add(query);
 		}
 		try {
-			wsmongo.getCollection(COL_WORKSPACE_OBJS).update(
+			wsmongo.getCollection(COL_WORKSPACE_VERS).update(
 					new BasicDBObject("$or", orquery), update, false, true);
 		} catch (MongoException me) {
 			throw new WorkspaceCommunicationException(
@@ -2075,6 +2803,10 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		final Map<TypeDefId, List<ObjectSavePackage>> pkgByType =
 				new HashMap<TypeDefId, List<ObjectSavePackage>>();
 		for (final ObjectSavePackage p: data) {
+			if (p.td.getData() == null) {
+				continue; //saved from stored data
+			}
+			stats.addBytes(STAT_BYTES_SAVED, p.td.getSize());
 			if (pkgByType.get(p.td.getType()) == null) {
 				pkgByType.put(p.td.getType(),
 						new ArrayList<ObjectSavePackage>());
@@ -2127,6 +2859,9 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			}
 		} finally {
 			for (ObjectSavePackage wo: data) {
+				if (wo.td.getData() == null) {
+					continue;
+				}
 				try {
 					wo.td.getData().releaseResources();
 				} catch (IOException ioe) {
@@ -2159,6 +2894,129 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		return existChksum;
 	}
 
+	@Override
+	public StoredData getStoredData(final PermissionSet perms,
+			final AbsoluteTypeDefId type, final String md5)
+			throws WorkspaceCommunicationException {
+		if (perms == null || type == null || md5 == null) {
+			throw new NullPointerException(
+					"perms, type and md5 cannot be null");
+		}
+		final Set<Long> wsids = new HashSet<Long>();
+		for (final ResolvedWorkspaceID ws: perms.getWorkspaces()) {
+			if (!ws.isDeleted()) {
+				wsids.add(ws.getID());
+			}
+		}
+		if (wsids.isEmpty()) {
+			return null;
+		}
+		/* Any readable version with the same type and data will do, since
+		 * the references and IDs are embedded in the data. Uses the
+		 * type/chksum index. The workspaces are filtered here rather than
+		 * in the query, since the readable set includes every public
+		 * workspace and there are usually few versions with the same data.
+		 */
+		final DBObject query = new BasicDBObject(Fields.VER_TYPE,
+				type.getTypeString());
+		query.put(Fields.VER_CHKSUM, md5);
+		final DBObject proj = new BasicDBObject(Fields.VER_WS_ID, 1);
+		proj.put(Fields.VER_ID, 1);
+		proj.put(Fields.VER_SIZE, 1);
+		proj.put(Fields.VER_REF, 1);
+		proj.put(Fields.VER_EXT_IDS, 1);
+		proj.put(Fields.MONGO_ID, 0);
+		DBObject ver = null;
+		DBCursor cur = null;
+		try {
+			cur = wsmongo.getCollection(COL_WORKSPACE_VERS).find(query, proj);
+			final List<DBObject> candidates = new LinkedList<DBObject>();
+			while (ver == null && cur.hasNext()) {
+				final DBObject v = cur.next();
+				// versions saved before IDs were recorded can't be checked
+				// for IDs, so they're treated as absent
+				if (v.get(Fields.VER_EXT_IDS) != null && wsids.contains(
+						((Number) v.get(Fields.VER_WS_ID)).longValue())) {
+					candidates.add(v);
+				}
+				if (candidates.size() >= STORED_DATA_BATCH ||
+						(!cur.hasNext() && !candidates.isEmpty())) {
+					ver = getUndeletedVersion(candidates);
+					candidates.clear();
+				}
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database",
+					me);
+		} finally {
+			if (cur != null) {
+				cur.close();
+			}
+		}
+		if (ver == null) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		final List<String> refs = (List<String>) ver.get(Fields.VER_REF);
+		@SuppressWarnings("unchecked")
+		final Map<String, List<String>> extids =
+				(Map<String, List<String>>) ver.get(Fields.VER_EXT_IDS);
+		final Map<String, Set<String>> ids =
+				new HashMap<String, Set<String>>();
+		for (final String idtype: extids.keySet()) {
+			ids.put(idtype, new HashSet<String>(extids.get(idtype)));
+		}
+		return new StoredData(type, md5,
+				((Number) ver.get(Fields.VER_SIZE)).longValue(),
+				new HashSet<String>(refs), ids);
+	}
+	
+	/* Returns the first version whose object isn't deleted, or null.
+	 * Checks all the versions' objects in one query.
+	 */
+	private DBObject getUndeletedVersion(final List<DBObject> versions) {
+		final Map<Long, Set<Long>> objids = new HashMap<Long, Set<Long>>();
+		for (final DBObject v: versions) {
+			final long wsid = ((Number) v.get(Fields.VER_WS_ID)).longValue();
+			if (!objids.containsKey(wsid)) {
+				objids.put(wsid, new HashSet<Long>());
+			}
+			objids.get(wsid).add(((Number) v.get(Fields.VER_ID)).longValue());
+		}
+		final List<DBObject> orquery = new LinkedList<DBObject>();
+		for (final Long wsid: objids.keySet()) {
+			final DBObject q = new BasicDBObject(Fields.OBJ_WS_ID, wsid);
+			q.put(Fields.OBJ_ID, new BasicDBObject("$in", objids.get(wsid)));
+			orquery.add(q);
+		}
+		final DBObject q = new BasicDBObject("$or", orquery);
+		q.put(Fields.OBJ_DEL, false);
+		final DBObject proj = new BasicDBObject(Fields.OBJ_WS_ID, 1);
+		proj.put(Fields.OBJ_ID, 1);
+		proj.put(Fields.MONGO_ID, 0);
+		final Set<List<Long>> undeleted = new HashSet<List<Long>>();
+		final DBCursor cur = wsmongo.getCollection(COL_WORKSPACE_OBJS)
+				.find(q, proj);
+		try {
+			for (final DBObject o: cur) {
+				undeleted.add(Arrays.asList(
+						((Number) o.get(Fields.OBJ_WS_ID)).longValue(),
+						((Number) o.get(Fields.OBJ_ID)).longValue()));
+			}
+		} finally {
+			cur.close();
+		}
+		for (final DBObject v: versions) {
+			if (undeleted.contains(Arrays.asList(
+					((Number) v.get(Fields.VER_WS_ID)).longValue(),
+					((Number) v.get(Fields.VER_ID)).longValue()))) {
+				return v;
+			}
+		}
+		return null;
+	}
+
 	private static final Set<String> FLDS_VER_GET_OBJECT_SUBDATA = newHashSet(
 			Fields.VER_VER, Fields.VER_TYPE, Fields.VER_CHKSUM);
 	
@@ -2225,8 +3083,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			Fields.VER_VER, Fields.VER_META, Fields.VER_TYPE,
 			Fields.VER_SAVEDATE, Fields.VER_SAVEDBY,
 			Fields.VER_CHKSUM, Fields.VER_SIZE, Fields.VER_PROV,
-			Fields.VER_PROVREF, Fields.VER_REF, Fields.VER_EXT_IDS,
-			Fields.VER_COPIED);
+			Fields.VER_PROVDATE, Fields.VER_PROVREF, Fields.VER_REF,
+			Fields.VER_EXT_IDS, Fields.VER_COPIED);
 	
 	@Override
 	public Map<ObjectIDResolvedWS, WorkspaceObjectInformation>
@@ -2240,13 +3098,13 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				queryVersions(
 						new HashSet<ResolvedMongoObjectID>(resobjs.values()),
 						FLDS_VER_GET_OBJECT, false);
-		final Map<ObjectId, MongoProvenance> provs = getProvenance(vers);
+		final Map<ResolvedMongoObjectID, MongoProvenance> provs =
+				getProvenance(vers);
 		final Map<ObjectIDResolvedWS, WorkspaceObjectInformation> ret =
 				new HashMap<ObjectIDResolvedWS, WorkspaceObjectInformation>();
 		for (final ObjectIDResolvedWS o: objectIDs) {
 			final ResolvedMongoObjectID roi = resobjs.get(o);
-			final MongoProvenance prov = provs.get((ObjectId) vers.get(roi)
-					.get(Fields.VER_PROV));
+			final MongoProvenance prov = provs.get(roi);
 			@SuppressWarnings("unchecked")
 			final List<String> refs =
 					(List<String>) vers.get(roi).get(Fields.VER_REF);
@@ -2313,12 +3171,19 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			throws WorkspaceCommunicationException, NoSuchObjectException,
 			TypedObjectExtractionException, CorruptWorkspaceDBException {
 		
-		final Map<ResolvedMongoObjectID, Map<String, Object>> vers = 
-				queryVersions(
-						new HashSet<ResolvedMongoObjectID>(resobjs.values()),
-						FLDS_VER_GET_OBJECT, false);
-		checkTotalFileSize(paths, resobjs, vers);
-		final Map<ObjectId, MongoProvenance> provs = getProvenance(vers);
+		final PhaseTimer pt = stats.startPhases(null, STAT_GET_VERSIONS);
+		final Map<ResolvedMongoObjectID, Map<String, Object>> vers;
+		final Map<ResolvedMongoObjectID, MongoProvenance> provs;
+		try {
+			vers = queryVersions(
+					new HashSet<ResolvedMongoObjectID>(resobjs.values()),
+					FLDS_VER_GET_OBJECT, false);
+			pt.next(STAT_GET_PROV);
+			checkTotalFileSize(paths, resobjs, vers);
+			provs = getProvenance(vers);
+		} finally {
+			pt.end();
+		}
 		final Map<String, ByteArrayFileCache> chksumToData =
 				new HashMap<String, ByteArrayFileCache>();
 		final Map<ObjectIDResolvedWS, Map<ObjectPaths, WorkspaceObjectData>> ret =
@@ -2331,8 +3196,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				tfm);
 		for (final ObjectIDResolvedWS o: paths.keySet()) {
 			final ResolvedMongoObjectID roi = resobjs.get(o);
-			final MongoProvenance prov = provs.get((ObjectId) vers.get(roi)
-					.get(Fields.VER_PROV));
+			final MongoProvenance prov = provs.get(roi);
 			final String copyref =
 					(String) vers.get(roi).get(Fields.VER_COPIED);
 			final Reference copied = copyref == null ? null :
@@ -2376,6 +3240,11 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 				throw e;
 			}
 		}
+		// the cache only grows, so the final sizes are the peak sizes
+		stats.recordPeak(OperationStatistics.FILE_CACHE_MEM,
+				bafcMan.getSizeInMem());
+		stats.recordPeak(OperationStatistics.FILE_CACHE_DISK,
+				bafcMan.getSizeOnDisk());
 		return ret;
 	}
 
@@ -2441,6 +3310,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 					chksumToData.get(info.getCheckSum()), op, bafcMan),
 					info, prov, refs, copied, extIDs));
 		} else {
+			final long t = stats.start();
 			final ByteArrayFileCache data;
 			try {
 				data = blob.getBlob(new MD5(info.getCheckSum()), bafcMan);
@@ -2464,7 +3334,10 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 						"No data present for valid object %s.%s.%s",
 						info.getWorkspaceId(), info.getObjectId(),
 						info.getVersion()), e);
+			} finally {
+				stats.record(STAT_GET_BLOB, t);
 			}
+			stats.addBytes(STAT_BYTES_READ, info.getSize());
 			chksumToData.put(info.getCheckSum(), data);
 			ret.get(o).put(op, new WorkspaceObjectData(
 					getDataSubSet(data, op, bafcMan),
@@ -2479,6 +3352,7 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		if (paths == null || paths.isEmpty()) {
 			return data;
 		}
+		final long t = stats.start();
 		try {
 			return bafcMan.getSubdataExtraction(data, paths);
 		} catch (FileCacheIOException e) {
@@ -2489,9 +3363,38 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 					"Too much data requested from the workspace at once; " +
 					"data requested including subsets exceeds maximum of "
 					+ bafcMan.getMaxSizeOnDisk());
+		} finally {
+			stats.record(STAT_GET_SUBSET, t);
 		}
 	}
 
+	@Override
+	public void getObjectDataRange(final ObjectInformation info,
+			final long offset, final long length, final OutputStream out)
+			throws WorkspaceCommunicationException,
+			CorruptWorkspaceDBException, IOException {
+		final long t = stats.start();
+		try {
+			blob.getBlobRange(new MD5(info.getCheckSum()), offset, length,
+					out);
+		} catch (BlobStoreCommunicationException e) {
+			throw new WorkspaceCommunicationException(
+					e.getLocalizedMessage(), e);
+		} catch (BlobStoreAuthorizationException e) {
+			throw new WorkspaceCommunicationException(
+					"Authorization error communicating with the backend storage system",
+					e);
+		} catch (NoSuchBlobException e) {
+			throw new CorruptWorkspaceDBException(String.format(
+					"No data present for valid object %s.%s.%s",
+					info.getWorkspaceId(), info.getObjectId(),
+					info.getVersion()), e);
+		} finally {
+			stats.record(STAT_GET_BLOB, t);
+		}
+		stats.addBytes(STAT_BYTES_READ, length);
+	}
+
 	private static final Set<String> FLDS_GETOBJREF = newHashSet(
 			Fields.VER_WS_ID, Fields.VER_PROVREF, Fields.VER_REF);
 
@@ -2500,6 +3403,39 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			final Set<ObjectChainResolvedWS> chains)
 			throws NoSuchObjectException, WorkspaceCommunicationException,
 			NoSuchReferenceException, CorruptWorkspaceDBException {
+		final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> resall =
+				verifyReferenceChains(chains);
+		final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> toGet =
+				new HashMap<ObjectIDResolvedWS, ResolvedMongoObjectID>();
+		for (final ObjectChainResolvedWS chain: chains) {
+			toGet.put(chain.getLast(), resall.get(chain.getLast()));
+		}
+		final Map<ObjectIDResolvedWS, Map<ObjectPaths, WorkspaceObjectData>> res;
+		try {
+			res = getObjectsPreResolved(toGet);
+		} catch (TypedObjectExtractionException toee) {
+			throw new RuntimeException(
+					"No extraction done, so something's very wrong here", toee);
+		}
+		final Map<ObjectChainResolvedWS, WorkspaceObjectData> ret =
+				new HashMap<ObjectChainResolvedWS, WorkspaceObjectData>();
+		for (final ObjectChainResolvedWS chain: chains) {
+			ret.put(chain, res.get(chain.getLast()).get(null));
+		}
+		return ret;
+	}
+	
+	/* Checks that each object in each chain is referenced by the object
+	 * before it and returns the resolved IDs of all the objects in the
+	 * chains. The references of a version never change, so verified
+	 * references are cached and only the objects with references that
+	 * haven't been verified are read. References shared between chains are
+	 * only checked once.
+	 */
+	private Map<ObjectIDResolvedWS, ResolvedMongoObjectID>
+			verifyReferenceChains(final Set<ObjectChainResolvedWS> chains)
+			throws NoSuchObjectException, WorkspaceCommunicationException,
+			NoSuchReferenceException {
 		final Set<ObjectIDResolvedWS> heads = new HashSet<ObjectIDResolvedWS>();
 		final Set<ObjectIDResolvedWS> ch = new HashSet<ObjectIDResolvedWS>();
 		for (final ObjectChainResolvedWS chain: chains) {
@@ -2513,61 +3449,75 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> resall =
 				new HashMap<ObjectIDResolvedWS, ResolvedMongoObjectID>(resheads);
 		resall.putAll(reschains);
-		final Map<ResolvedMongoObjectID, Map<String, Object>> foo =
-				queryVersions(
-						new HashSet<ResolvedMongoObjectID>(resall.values()),
-						FLDS_GETOBJREF, false);
-		final Map<ObjectIDResolvedWS, Set<String>> refs =
-				setUpRefs(resall, foo);
-		final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> toGet =
-				new HashMap<ObjectIDResolvedWS, ResolvedMongoObjectID>();
+		
+		final Set<String> unverified = new HashSet<String>();
+		final Set<ResolvedMongoObjectID> sources =
+				new HashSet<ResolvedMongoObjectID>();
+		final Set<ResolvedMongoObjectID> objs =
+				new HashSet<ResolvedMongoObjectID>();
 		for (final ObjectChainResolvedWS chain: chains) {
 			ObjectIDResolvedWS pos = chain.getHead();
-			final List<ObjectIDResolvedWS> lch = chain.getChain();
-			for (final ObjectIDResolvedWS oi: lch) {
-				final String ref = resall.get(oi).getReference().toString();
-				if (!refs.get(pos).contains(ref)) {
-					throw new NoSuchReferenceException(String.format(
-							"The object %s in workspace %s does not contain the reference %s",
-							pos.getIdentifierString(),
-							pos.getWorkspaceIdentifier().getName(), ref),
-							pos, oi);
+			for (final ObjectIDResolvedWS oi: chain.getChain()) {
+				final String edge = refEdge(resall.get(pos), resall.get(oi));
+				if (verifiedRefs.getIfPresent(edge) == null) {
+					unverified.add(edge);
+					sources.add(resall.get(pos));
+					objs.add(resall.get(pos));
+					objs.add(resall.get(oi));
 				}
 				pos = oi;
 			}
-			toGet.put(chain.getLast(), resall.get(chain.getLast()));
 		}
-		final Map<ObjectIDResolvedWS, Map<ObjectPaths, WorkspaceObjectData>> res;
-		try {
-			res = getObjectsPreResolved(toGet);
-		} catch (TypedObjectExtractionException toee) {
-			throw new RuntimeException(
-					"No extraction done, so something's very wrong here", toee);
+		if (unverified.isEmpty()) {
+			return resall;
 		}
-		final Map<ObjectChainResolvedWS, WorkspaceObjectData> ret =
-				new HashMap<ObjectChainResolvedWS, WorkspaceObjectData>();
+		//check the versions exist before checking the references
+		queryVersions(objs, new HashSet<String>(), false);
+		final Map<ResolvedMongoObjectID, Set<String>> refs =
+				getReferences(sources);
 		for (final ObjectChainResolvedWS chain: chains) {
-			ret.put(chain, res.get(chain.getLast()).get(null));
+			ObjectIDResolvedWS pos = chain.getHead();
+			for (final ObjectIDResolvedWS oi: chain.getChain()) {
+				final ResolvedMongoObjectID from = resall.get(pos);
+				final String ref = resall.get(oi).getReference().toString();
+				final String edge = refEdge(from, resall.get(oi));
+				if (unverified.contains(edge)) {
+					if (!refs.get(from).contains(ref)) {
+						throw new NoSuchReferenceException(String.format(
+								"The object %s in workspace %s does not contain the reference %s",
+								pos.getIdentifierString(),
+								pos.getWorkspaceIdentifier().getName(), ref),
+								pos, oi);
+					}
+					verifiedRefs.put(edge, true);
+				}
+				pos = oi;
+			}
 		}
-		return ret;
+		return resall;
+	}
+	
+	private static String refEdge(final ResolvedMongoObjectID from,
+			final ResolvedMongoObjectID to) {
+		return from.getReference() + ">" + to.getReference();
 	}
 
-	private Map<ObjectIDResolvedWS, Set<String>> setUpRefs(
-			final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> objs,
-			final Map<ResolvedMongoObjectID, Map<String, Object>> refs)
-			throws NoSuchObjectException {
-		
-		final Map<ObjectIDResolvedWS, Set<String>> ret =
-				new HashMap<ObjectIDResolvedWS, Set<String>>();
-		for (final ObjectIDResolvedWS oi: objs.keySet()) {
-			final Map<String, Object> m = refs.get(objs.get(oi));
+	private Map<ResolvedMongoObjectID, Set<String>> getReferences(
+			final Set<ResolvedMongoObjectID> objs)
+			throws NoSuchObjectException, WorkspaceCommunicationException {
+		final Map<ResolvedMongoObjectID, Map<String, Object>> vers =
+				queryVersions(objs, FLDS_GETOBJREF, false);
+		final Map<ResolvedMongoObjectID, Set<String>> ret =
+				new HashMap<ResolvedMongoObjectID, Set<String>>();
+		for (final ResolvedMongoObjectID roi: objs) {
+			final Map<String, Object> m = vers.get(roi);
 			@SuppressWarnings("unchecked")
 			final List<String> r = (List<String>) m.get(Fields.VER_REF);
 			@SuppressWarnings("unchecked")
 			final List<String> pr = (List<String>) m.get(Fields.VER_PROVREF);
 			final Set<String> s = new HashSet<String>(r);
 			s.addAll(pr);
-			ret.put(oi, s);
+			ret.put(roi, s);
 		}
 		return ret;
 	}
@@ -2641,6 +3591,9 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			Fields.OBJ_ID, Fields.OBJ_NAME, Fields.OBJ_DEL,
 			Fields.OBJ_LATEST, Fields.OBJ_VCNT, Fields.OBJ_REFCOUNTS);
 	
+	private static final Set<String> FLDS_VER_REF_CNT = newHashSet(
+			Fields.VER_VER, Fields.VER_REFCOUNT, Fields.VER_REFCOUNT_MIGRATED);
+	
 	@Override
 	public Map<ObjectIDResolvedWS, Integer> getReferencingObjectCounts(
 			final Set<ObjectIDResolvedWS> objects)
@@ -2648,6 +3601,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		//TODO test w/ garbage collection
 		final Map<ObjectIDResolvedWS, Map<String, Object>> objdata =
 				queryObjects(objects, FLDS_REF_CNT, true, true);
+		final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> resolved =
+				new HashMap<ObjectIDResolvedWS, ResolvedMongoObjectID>();
 		final Map<ObjectIDResolvedWS, Integer> ret =
 				new HashMap<ObjectIDResolvedWS, Integer>();
 		for (final ObjectIDResolvedWS o: objects) {
@@ -2670,42 +3625,160 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 							o.getWorkspaceIdentifier().getID()), o);
 				}
 			}
+			final Map<String, Object> obj = objdata.get(o);
+			resolved.put(o, new ResolvedMongoObjectID(
+					query.convertResolvedWSID(o.getWorkspaceIdentifier()),
+					(String) obj.get(Fields.OBJ_NAME),
+					(Long) obj.get(Fields.OBJ_ID), ver, false));
+			//objects that haven't been migrated have counts for their older
+			//versions in the object document
 			@SuppressWarnings("unchecked")
-			final List<Integer> refs = (List<Integer>) objdata.get(o).get(
+			final List<Integer> refs = (List<Integer>) obj.get(
 					Fields.OBJ_REFCOUNTS);
-			//TODO when GC enabled handle the case where the version is deleted
-			ret.put(o, refs.get(ver - 1));
+			ret.put(o, refs != null && refs.size() >= ver ?
+					refs.get(ver - 1) : 0);
+		}
+		//TODO when GC enabled handle the case where the version is deleted
+		final Map<ResolvedMongoObjectID, Map<String, Object>> vers =
+				queryVersions(new HashSet<ResolvedMongoObjectID>(
+						resolved.values()), FLDS_VER_REF_CNT, false);
+		for (final ObjectIDResolvedWS o: objects) {
+			final Map<String, Object> v = vers.get(resolved.get(o));
+			// the legacy count has already been added to the version count
+			if (Boolean.TRUE.equals(v.get(Fields.VER_REFCOUNT_MIGRATED))) {
+				ret.put(o, 0);
+			}
+			final Integer count = (Integer) v.get(Fields.VER_REFCOUNT);
+			if (count != null) {
+				ret.put(o, ret.get(o) + count);
+			}
 		}
 		return ret;
 	}
 	
-	private Map<ObjectId, MongoProvenance> getProvenance(
-			final Map<ResolvedMongoObjectID, Map<String, Object>> vers)
+	/** Moves the reference counts of object versions saved before the
+	 * counts were kept in the version documents from the object documents
+	 * to the version documents. Objects saved since then have no counts in
+	 * the object document and are not touched.
+	 *
+	 * Each version's legacy count is added to the version count and the
+	 * version is marked as migrated in a single update, and versions that
+	 * are already marked are skipped. Once all the versions of an object
+	 * are migrated, the counts are removed from the object document if
+	 * they haven't changed. The migration can therefore be stopped at any
+	 * point and rerun without losing or double counting references, and
+	 * counts read during the migration are correct.
+	 * @return the number of objects migrated.
+	 * @throws WorkspaceCommunicationException if a communication error
+	 * occurs.
+	 */
+	@Override
+	public long migrateReferenceCounts()
 			throws WorkspaceCommunicationException {
-		final Map<ObjectId, Map<String, Object>> provIDs =
-				new HashMap<ObjectId, Map<String,Object>>();
-		for (final ResolvedMongoObjectID id: vers.keySet()) {
-			provIDs.put((ObjectId) vers.get(id).get(Fields.VER_PROV),
-					vers.get(id));
-		}
-		final Map<ObjectId, MongoProvenance> ret =
-				new HashMap<ObjectId, MongoProvenance>();
+		final DBCollection objs =
+				wsmongo.getCollection(COL_WORKSPACE_OBJS);
+		final DBCollection vers =
+				wsmongo.getCollection(COL_WORKSPACE_VERS);
+		final DBObject query = new BasicDBObject(Fields.OBJ_REFCOUNTS,
+				new BasicDBObject("$exists", true));
+		final DBObject fields = new BasicDBObject(Fields.OBJ_WS_ID, 1);
+		fields.put(Fields.OBJ_ID, 1);
+		fields.put(Fields.OBJ_REFCOUNTS, 1);
+		final DBObject unset = new BasicDBObject("$unset",
+				new BasicDBObject(Fields.OBJ_REFCOUNTS, ""));
+		long migrated = 0;
 		try {
-			final Iterable<MongoProvenance> provs =
-					wsjongo.getCollection(COL_PROVENANCE)
-					.find("{_id: {$in: #}}", provIDs.keySet())
-					.as(MongoProvenance.class);
-			for (MongoProvenance p: provs) {
+			DBObject o = objs.findOne(query, fields);
+			while (o != null) {
 				@SuppressWarnings("unchecked")
-				final List<String> resolvedRefs = (List<String>) provIDs
-						.get(p.getMongoId()).get(Fields.VER_PROVREF);
-				ret.put(p.getMongoId(), p);
-				p.resolveReferences(resolvedRefs); //this is a gross hack. I'm rather proud of it actually
+				final List<Integer> refs =
+						(List<Integer>) o.get(Fields.OBJ_REFCOUNTS);
+				int ver = 1;
+				for (final Integer count: refs) {
+					if (count != null && count != 0) {
+						final DBObject v = new BasicDBObject(
+								Fields.VER_WS_ID, o.get(Fields.OBJ_WS_ID));
+						v.put(Fields.VER_ID, o.get(Fields.OBJ_ID));
+						v.put(Fields.VER_VER, ver);
+						v.put(Fields.VER_REFCOUNT_MIGRATED,
+								new BasicDBObject("$exists", false));
+						final DBObject u = new BasicDBObject("$inc",
+								new BasicDBObject(Fields.VER_REFCOUNT, count));
+						u.put("$set", new BasicDBObject(
+								Fields.VER_REFCOUNT_MIGRATED, true));
+						vers.update(v, u);
+					}
+					ver++;
+				}
+				final DBObject unchanged = new BasicDBObject(Fields.MONGO_ID,
+						o.get(Fields.MONGO_ID));
+				unchanged.put(Fields.OBJ_REFCOUNTS, refs);
+				// if the counts changed the object is found and migrated
+				// again, and the versions already migrated are skipped
+				if (objs.update(unchanged, unset).getN() == 1) {
+					migrated++;
+					if (migrated % 10000 == 0) {
+						LOG.info("Migrated reference counts for " + migrated +
+								" objects");
+					}
+				}
+				o = objs.findOne(query, fields);
+			}
+			//the garbage collection index on the object counts is no
+			//longer needed
+			for (final DBObject idx: objs.getIndexInfo()) {
+				final DBObject key = (DBObject) idx.get("key");
+				if (key.containsField(Fields.OBJ_REFCOUNTS)) {
+					objs.dropIndex((String) idx.get("name"));
+				}
 			}
 		} catch (MongoException me) {
 			throw new WorkspaceCommunicationException(
 					"There was a problem communicating with the database", me);
 		}
+		return migrated;
+	}
+	
+	private Map<ResolvedMongoObjectID, MongoProvenance> getProvenance(
+			final Map<ResolvedMongoObjectID, Map<String, Object>> vers)
+			throws WorkspaceCommunicationException {
+		final Set<ObjectId> provIDs = new HashSet<ObjectId>();
+		for (final Map<String, Object> v: vers.values()) {
+			provIDs.add((ObjectId) v.get(Fields.VER_PROV));
+		}
+		final Map<ObjectId, MongoProvenance> provs =
+				new HashMap<ObjectId, MongoProvenance>(
+						provCache.getAllPresent(provIDs));
+		provIDs.removeAll(provs.keySet());
+		if (!provIDs.isEmpty()) {
+			try {
+				final Iterable<MongoProvenance> found =
+						wsjongo.getCollection(COL_PROVENANCE)
+						.find("{_id: {$in: #}}", provIDs)
+						.as(MongoProvenance.class);
+				for (final MongoProvenance p: found) {
+					provs.put(p.getMongoId(), p);
+					provCache.put(p.getMongoId(), p);
+				}
+			} catch (MongoException me) {
+				throw new WorkspaceCommunicationException(
+						"There was a problem communicating with the database", me);
+			}
+		}
+		final Map<ResolvedMongoObjectID, MongoProvenance> ret =
+				new HashMap<ResolvedMongoObjectID, MongoProvenance>();
+		for (final ResolvedMongoObjectID id: vers.keySet()) {
+			final Map<String, Object> v = vers.get(id);
+			final MongoProvenance p = provs.get(
+					(ObjectId) v.get(Fields.VER_PROV));
+			if (p != null) {
+				@SuppressWarnings("unchecked")
+				final List<String> resolvedRefs =
+						(List<String>) v.get(Fields.VER_PROVREF);
+				ret.put(id, p.resolve(resolvedRefs,
+						(Date) v.get(Fields.VER_PROVDATE)));
+			}
+		}
 		return ret;
 	}
 	
@@ -2947,6 +4020,54 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		return ret;
 	}
 	
+	/* Reads the history newest first straight off the (ws, id, ver) index,
+	 * so the cost of a page doesn't depend on the number of versions.
+	 */
+	@Override
+	public List<ObjectInformation> getObjectHistory(
+			final ObjectIDResolvedWS oi, final Integer before, final int limit)
+		throws NoSuchObjectException, WorkspaceCommunicationException {
+		if (limit < 1) {
+			throw new IllegalArgumentException("limit must be at least 1");
+		}
+		final ResolvedMongoObjectID roi = resolveObjectIDs(
+				new HashSet<ObjectIDResolvedWS>(Arrays.asList(oi))).get(oi);
+		final DBObject q = new BasicDBObject(Fields.VER_WS_ID,
+				roi.getWorkspaceIdentifier().getID());
+		q.put(Fields.VER_ID, roi.getId());
+		if (before != null) {
+			q.put(Fields.VER_VER, new BasicDBObject("$lt", before));
+		}
+		final DBObject proj = new BasicDBObject();
+		for (final String field: FLDS_VER_OBJ_HIST) {
+			proj.put(field, 1);
+		}
+		proj.put(Fields.MONGO_ID, 0);
+		final DBObject sort = new BasicDBObject(Fields.VER_WS_ID, -1);
+		sort.put(Fields.VER_ID, -1);
+		sort.put(Fields.VER_VER, -1);
+		final List<ObjectInformation> ret =
+				new LinkedList<ObjectInformation>();
+		DBCursor cur = null;
+		try {
+			cur = wsmongo.getCollection(COL_WORKSPACE_VERS).find(q, proj)
+					.sort(sort).limit(limit);
+			for (final DBObject v: cur) {
+				@SuppressWarnings("unchecked")
+				final Map<String, Object> m = v.toMap();
+				ret.add(generateObjectInfo(roi, m));
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		} finally {
+			if (cur != null) {
+				cur.close();
+			}
+		}
+		return ret;
+	}
+	
 	private Map<Long, Map<Long, Map<String, Object>>> organizeObjData(
 			final List<Map<String, Object>> objs) {
 		final Map<Long, Map<Long, Map<String, Object>>> ret =
@@ -3270,8 +4391,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	}
 
 	@Override
-	public void setObjectsHidden(final Set<ObjectIDResolvedWS> objectIDs,
-			final boolean hide)
+	public void setObjectsHidden(final WorkspaceUser user,
+			final Set<ObjectIDResolvedWS> objectIDs, final boolean hide)
 			throws NoSuchObjectException, WorkspaceCommunicationException {
 		//TODO nearly identical to delete objects, generalize
 		final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> ids =
@@ -3290,6 +4411,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 		for (final ResolvedMongoWSID ws: toModify.keySet()) {
 			setObjectsHidden(ws, toModify.get(ws), hide);
 		}
+		writeEvents(newObjectEvents(hide ? EventType.HIDE_OBJECT :
+			EventType.UNHIDE_OBJECT, user, toModify));
 	}
 	
 	private static final String M_HIDOBJ_WTH = String.format(
@@ -3315,8 +4438,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	}
 	
 	@Override
-	public void setObjectsDeleted(final Set<ObjectIDResolvedWS> objectIDs,
-			final boolean delete)
+	public void setObjectsDeleted(final WorkspaceUser user,
+			final Set<ObjectIDResolvedWS> objectIDs, final boolean delete)
 			throws NoSuchObjectException, WorkspaceCommunicationException {
 		final Map<ObjectIDResolvedWS, ResolvedMongoObjectID> ids =
 				resolveObjectIDs(objectIDs, delete, true);
@@ -3335,6 +4458,8 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 			setObjectsDeleted(ws, toModify.get(ws), delete);
 			updateWorkspaceModifiedDate(ws);
 		}
+		writeEvents(newObjectEvents(delete ? EventType.DELETE_OBJECT :
+			EventType.UNDELETE_OBJECT, user, toModify));
 	}
 	
 	private static final String M_DELOBJ_WTH = String.format(
@@ -3368,8 +4493,9 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 	private static final String M_DELWS_WTH = String.format(
 			"{$set: {%s: #, %s: #}}", Fields.WS_DEL, Fields.WS_MODDATE);
 	
-	public void setWorkspaceDeleted(final ResolvedWorkspaceID rwsi,
-			final boolean delete) throws WorkspaceCommunicationException {
+	public void setWorkspaceDeleted(final WorkspaceUser user,
+			final ResolvedWorkspaceID rwsi, final boolean delete)
+			throws WorkspaceCommunicationException {
 		//there's a possibility of a race condition here if a workspace is
 		//deleted and undeleted or vice versa in a very short amount of time,
 		//but that seems so unlikely it's not worth the code
@@ -3383,6 +4509,144 @@ public class MongoWorkspaceDB implements WorkspaceDatabase {
 					"There was a problem communicating with the database", me);
 		}
 		setObjectsDeleted(mrwsi, new ArrayList<Long>(), delete);
+		writeEvents(Arrays.asList(newEvent(delete ?
+				EventType.DELETE_WORKSPACE : EventType.UNDELETE_WORKSPACE,
+				user, mrwsi.getID())));
+	}
+	
+	private static DBObject newEvent(final EventType type,
+			final WorkspaceUser user, final long wsid) {
+		final DBObject event = new BasicDBObject(Fields.EV_TYPE,
+				type.getName());
+		event.put(Fields.EV_USER, user == null ? null : user.getUser());
+		event.put(Fields.EV_WS_ID, wsid);
+		return event;
+	}
+	
+	private static DBObject newEvent(final EventType type,
+			final WorkspaceUser user, final long wsid, final long objid,
+			final int ver) {
+		final DBObject event = newEvent(type, user, wsid);
+		event.put(Fields.EV_OBJ_ID, objid);
+		event.put(Fields.EV_VER, ver);
+		return event;
+	}
+	
+	private static List<DBObject> newObjectEvents(final EventType type,
+			final WorkspaceUser user,
+			final Map<ResolvedMongoWSID, List<Long>> objects) {
+		final List<DBObject> events = new LinkedList<DBObject>();
+		for (final ResolvedMongoWSID ws: objects.keySet()) {
+			for (final Long id: objects.get(ws)) {
+				final DBObject event = newEvent(type, user, ws.getID());
+				event.put(Fields.EV_OBJ_ID, id);
+				events.add(event);
+			}
+		}
+		return events;
+	}
+	
+	private static final String M_EVENT_CNT_QRY = String.format("{%s: #}",
+			Fields.CNT_ID);
+	private static final String M_EVENT_CNT_WTH = String.format(
+			"{$inc: {%s: #}}", Fields.CNT_NUM);
+	private static final String M_EVENT_CNT_PROJ = String.format(
+			"{%s: 1, %s: 0}", Fields.CNT_NUM, Fields.MONGO_ID);
+	
+	/* Appends events to the change feed. The change has already been made
+	 * at this point, so a failure is logged rather than thrown - throwing
+	 * would report a successful change as failed and a client retrying the
+	 * call would, for example, save a duplicate version. The event is lost
+	 * and readers skip the gap once it's older than EVENT_SETTLE_MS, so the
+	 * feed delivers each change at most once.
+	 */
+	private void writeEvents(final List<DBObject> events) {
+		if (events.isEmpty()) {
+			return;
+		}
+		try {
+			final long last = ((Number) wsjongo.getCollection(COL_WS_CNT)
+					.findAndModify(M_EVENT_CNT_QRY, Fields.CNT_EVENT_VAL)
+					.upsert().returnNew()
+					.with(M_EVENT_CNT_WTH, (long) events.size())
+					.projection(M_EVENT_CNT_PROJ)
+					.as(DBObject.class).get(Fields.CNT_NUM)).longValue();
+			// date the events after reserving the sequence numbers, so that
+			// an event is never dated earlier than a preceding event that
+			// hasn't been written yet
+			final Date now = new Date();
+			long seq = last - events.size() + 1;
+			for (final DBObject e: events) {
+				e.put(Fields.EV_SEQ, seq++);
+				e.put(Fields.EV_DATE, now);
+			}
+			wsmongo.getCollection(COL_EVENTS).insert(events);
+		} catch (MongoException me) {
+			LOG.error("Couldn't write " + events.size() +
+					" event(s) to the change feed, starting with " +
+					events.get(0), me);
+		}
+	}
+	
+	@Override
+	public List<WorkspaceEvent> getEvents(final long after, final int limit)
+			throws WorkspaceCommunicationException {
+		final DBObject q = new BasicDBObject(Fields.EV_SEQ,
+				new BasicDBObject("$gt", after));
+		final long settled = new Date().getTime() - EVENT_SETTLE_MS;
+		final List<WorkspaceEvent> ret = new LinkedList<WorkspaceEvent>();
+		long expected = after + 1;
+		DBCursor cur = null;
+		try {
+			cur = wsmongo.getCollection(COL_EVENTS).find(q)
+					.sort(new BasicDBObject(Fields.EV_SEQ, 1)).limit(limit);
+			for (final DBObject e: cur) {
+				final WorkspaceEvent event = toEvent(e);
+				if (event.getToken() != expected &&
+						event.getDate().getTime() > settled) {
+					// the missing events may still be being written, stop
+					// here so they aren't skipped. Older gaps are events that
+					// expired or were never written.
+					break;
+				}
+				ret.add(event);
+				expected = event.getToken() + 1;
+			}
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		} finally {
+			if (cur != null) {
+				cur.close();
+			}
+		}
+		return ret;
+	}
+	
+	private static WorkspaceEvent toEvent(final DBObject e) {
+		final String user = (String) e.get(Fields.EV_USER);
+		final Number objid = (Number) e.get(Fields.EV_OBJ_ID);
+		final Number ver = (Number) e.get(Fields.EV_VER);
+		final Number perm = (Number) e.get(Fields.EV_PERM);
+		final List<?> users = (List<?>) e.get(Fields.EV_USERS);
+		List<WorkspaceUser> wsusers = null;
+		if (users != null) {
+			wsusers = new LinkedList<WorkspaceUser>();
+			for (final Object u: users) {
+				wsusers.add(new WorkspaceUser((String) u));
+			}
+		}
+		return new WorkspaceEvent(
+				((Number) e.get(Fields.EV_SEQ)).longValue(),
+				EventType.fromName((String) e.get(Fields.EV_TYPE)),
+				(Date) e.get(Fields.EV_DATE),
+				user == null ? null : new WorkspaceUser(user),
+				((Number) e.get(Fields.EV_WS_ID)).longValue(),
+				objid == null ? null : objid.longValue(),
+				ver == null ? null : ver.intValue(),
+				(String) e.get(Fields.EV_NAME),
+				perm == null ? null : Permission.fromInt(perm.intValue()),
+				wsusers);
 	}
 	
 	@Override
@@ -0,0 +1,155 @@
+package us.kbase.workspace.database.mongo;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import us.kbase.workspace.database.exceptions.WorkspaceCommunicationException;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/** Hands out new object IDs for workspaces from blocks of IDs leased from
+ * the object counter in each workspace document.
+ *
+ * Incrementing the counter for every save makes the workspace document a
+ * write hotspot when many clients save to the same workspace. Instead, each
+ * server leases a block of IDs per workspace and hands them out until the
+ * block is used up. The block size adapts to the save rate - it doubles, up
+ * to the maximum, when a block is used up quickly, and halves when a block
+ * lasts a long time. With a maximum block size of 1 exactly the IDs needed
+ * are leased, and the counter is the highest ID in use.
+ *
+ * IDs are handed out in increasing order per server, but when several
+ * servers save to the same workspace the IDs are interleaved, and leased IDs
+ * that are never used (e.g. when the server stops) leave gaps. The object
+ * counter in the workspace document is the highest leased ID.
+ */
+public class ObjectIDLeaser {
+
+	//blocks used up faster than this grow
+	private static final long GROW_MS = 1000;
+	//blocks that last longer than this shrink
+	private static final long SHRINK_MS = 60 * 1000;
+	//unused IDs for the least recently used workspaces are discarded
+	private static final int MAX_WORKSPACES = 10000;
+
+	private static class Lease {
+		private long next = 1;
+		private long last = 0; // inclusive
+		private int blockSize = 1;
+		private long leasedAt = 0;
+
+		private long remaining() {
+			return last - next + 1;
+		}
+	}
+
+	private final DBCollection workspaces;
+	private final int maxBlockSize;
+	private final Map<Long, Lease> leases;
+
+	/** Create an ID leaser.
+	 * @param workspaces the workspace collection.
+	 * @param maxBlockSize the maximum number of IDs to lease at once.
+	 */
+	public ObjectIDLeaser(final DBCollection workspaces,
+			final int maxBlockSize) {
+		if (workspaces == null) {
+			throw new NullPointerException("workspaces cannot be null");
+		}
+		if (maxBlockSize < 1) {
+			throw new IllegalArgumentException(
+					"The maximum block size must be at least 1");
+		}
+		this.workspaces = workspaces;
+		this.maxBlockSize = maxBlockSize;
+		this.leases = new LinkedHashMap<Long, Lease>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<Long, Lease> eldest) {
+				return size() > MAX_WORKSPACES;
+			}
+		};
+	}
+
+	/** Returns the maximum number of IDs leased at once.
+	 * @return the maximum block size.
+	 */
+	public int getMaxBlockSize() {
+		return maxBlockSize;
+	}
+
+	/** Get new object IDs for a workspace.
+	 * @param workspaceID the ID of the workspace.
+	 * @param count the number of IDs required.
+	 * @return the IDs in increasing order.
+	 * @throws WorkspaceCommunicationException if a communication error
+	 * occurs while leasing IDs.
+	 */
+	public List<Long> getIDs(final long workspaceID, final int count)
+			throws WorkspaceCommunicationException {
+		final List<Long> ids = new LinkedList<Long>();
+		if (count < 1) {
+			return ids;
+		}
+		final Lease l = getLease(workspaceID);
+		synchronized (l) {
+			while (ids.size() < count && l.remaining() > 0) {
+				ids.add(l.next++);
+			}
+			final int needed = count - ids.size();
+			if (needed > 0) {
+				final long now = System.currentTimeMillis();
+				final long age = now - l.leasedAt;
+				if (age < GROW_MS) {
+					l.blockSize = Math.min(l.blockSize * 2, maxBlockSize);
+				} else if (age > SHRINK_MS) {
+					l.blockSize = Math.max(l.blockSize / 2, 1);
+				}
+				final int block = Math.max(needed, l.blockSize);
+				l.last = lease(workspaceID, block);
+				l.next = l.last - block + 1;
+				l.leasedAt = now;
+				while (ids.size() < count) {
+					ids.add(l.next++);
+				}
+			}
+		}
+		return ids;
+	}
+
+	private Lease getLease(final long workspaceID) {
+		synchronized (leases) {
+			Lease l = leases.get(workspaceID);
+			if (l == null) {
+				l = new Lease();
+				leases.put(workspaceID, l);
+			}
+			return l;
+		}
+	}
+
+	//returns the last id in the lease
+	private long lease(final long workspaceID, final int count)
+			throws WorkspaceCommunicationException {
+		final DBObject query = new BasicDBObject(Fields.WS_ID, workspaceID);
+		final DBObject fields = new BasicDBObject(Fields.WS_NUMOBJ, 1);
+		fields.put(Fields.MONGO_ID, 0);
+		final DBObject update = new BasicDBObject("$inc",
+				new BasicDBObject(Fields.WS_NUMOBJ, (long) count));
+		try {
+			return ((Number) workspaces.findAndModify(query, fields, null,
+					false, update, true, false).get(Fields.WS_NUMOBJ))
+					.longValue();
+		} catch (MongoException me) {
+			throw new WorkspaceCommunicationException(
+					"There was a problem communicating with the database", me);
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package us.kbase.workspace.database.mongo;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -15,6 +16,7 @@ public class ObjectSavePackage {
 	Set<String> refs;
 	List<String> provrefs;
 	MongoProvenance mprov;
+	Date provdate;
 	
 	@Override
 	public String toString() {
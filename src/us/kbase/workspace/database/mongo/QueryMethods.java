@@ -14,6 +14,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.jongo.Jongo;
 
 import us.kbase.workspace.database.AllUsers;
+import us.kbase.workspace.database.OperationStatistics;
 import us.kbase.workspace.database.Permission;
 import us.kbase.workspace.database.ResolvedWorkspaceID;
 import us.kbase.workspace.database.User;
@@ -32,24 +33,30 @@ public class QueryMethods {
 	
 	private final DB wsmongo;
 	private final Jongo wsjongo;
+	private final OperationStatistics stats;
 	private final AllUsers allUsers;
 	private final String workspaceCollection;
 	private final String pointerCollection;
 	private final String versionCollection;
 	private final String workspaceACLCollection;
+	private final VersionCache versionCache;
 	
 	
-	QueryMethods(final DB wsmongo, final AllUsers allUsers,
+	QueryMethods(final DB wsmongo, final OperationStatistics stats,
+			final AllUsers allUsers,
 			final String workspaceCollection, final String pointerCollection,
 			final String versionCollection,
-			final String workspaceACLCollection) {
+			final String workspaceACLCollection,
+			final VersionCache versionCache) {
 		this.wsmongo = wsmongo;
 		wsjongo = new Jongo(wsmongo);
+		this.stats = stats;
 		this.allUsers = allUsers;
 		this.workspaceCollection = workspaceCollection;
 		this.pointerCollection = pointerCollection;
 		this.versionCollection = versionCollection;
 		this.workspaceACLCollection = workspaceACLCollection;
+		this.versionCache = versionCache;
 	}
 	
 	
@@ -247,6 +254,46 @@ public class QueryMethods {
 	Map<ResolvedMongoObjectID, Map<String, Object>> queryVersions(
 			final Set<ResolvedMongoObjectID> objectIDs, final Set<String> fields)
 			throws WorkspaceCommunicationException {
+		if (!VersionCache.isCached(fields)) {
+			return queryVersionsFromDB(objectIDs, fields);
+		}
+		final Map<ResolvedMongoObjectID, Map<String, Object>> ret =
+				new HashMap<ResolvedMongoObjectID, Map<String,Object>>();
+		final Set<ResolvedMongoObjectID> missing =
+				new HashSet<ResolvedMongoObjectID>();
+		for (final ResolvedMongoObjectID roi: objectIDs) {
+			final Map<String, Object> v = versionCache.get(
+					roi.getWorkspaceIdentifier().getID(), roi.getId(),
+					roi.getVersion(), fields);
+			if (v == null) {
+				missing.add(roi);
+			} else {
+				ret.put(roi, v);
+			}
+		}
+		if (missing.isEmpty()) {
+			return ret;
+		}
+		final Map<ResolvedMongoObjectID, Map<String, Object>> found =
+				queryVersionsFromDB(missing,
+						new HashSet<String>(VersionCache.CACHED_FIELDS));
+		for (final ResolvedMongoObjectID roi: found.keySet()) {
+			versionCache.put(found.get(roi));
+			ret.put(roi, VersionCache.project(found.get(roi), fields));
+		}
+		return ret;
+	}
+	
+	/** Add a saved version document to the version cache.
+	 * @param version the version document.
+	 */
+	void cacheVersion(final Map<String, Object> version) {
+		versionCache.put(version);
+	}
+	
+	private Map<ResolvedMongoObjectID, Map<String, Object>> queryVersionsFromDB(
+			final Set<ResolvedMongoObjectID> objectIDs, final Set<String> fields)
+			throws WorkspaceCommunicationException {
 
 		final Map<ResolvedMongoWSID, Map<Long, List<Integer>>> ids = 
 			new HashMap<ResolvedMongoWSID, Map<Long, List<Integer>>>();
@@ -369,6 +416,7 @@ public class QueryMethods {
 		}
 		final List<Map<String, Object>> result =
 				new ArrayList<Map<String,Object>>();
+		final long t = stats.start();
 		try {
 			@SuppressWarnings({ "rawtypes" })
 			final Iterable<Map> res = wsjongo.getCollection(collection)
@@ -382,6 +430,8 @@ public class QueryMethods {
 		} catch (MongoException me) {
 			throw new WorkspaceCommunicationException(
 					"There was a problem communicating with the database", me);
+		} finally {
+			stats.record(OperationStatistics.MONGO_QUERY, t);
 		}
 		return result;
 	}
@@ -402,6 +452,7 @@ public class QueryMethods {
 		}
 		final List<Map<String, Object>> result =
 				new ArrayList<Map<String,Object>>();
+		final long t = stats.start();
 		try {
 			final DBCursor im = wsmongo.getCollection(collection)
 					.find(query, projection);
@@ -417,6 +468,8 @@ public class QueryMethods {
 		} catch (MongoException me) {
 			throw new WorkspaceCommunicationException(
 					"There was a problem communicating with the database", me);
+		} finally {
+			stats.record(OperationStatistics.MONGO_QUERY, t);
 		}
 		return result;
 	}
@@ -496,6 +549,7 @@ public class QueryMethods {
 				new HashMap<ResolvedMongoWSID, Map<User, Permission>>();
 		final Map<Long, List<DBObject>> noWS =
 				new HashMap<Long, List<DBObject>>();
+		final long t = stats.start();
 		try {
 			final DBCursor res = wsmongo.getCollection(workspaceACLCollection)
 					.find(query, proj);
@@ -514,6 +568,8 @@ public class QueryMethods {
 		} catch (MongoException me) {
 			throw new WorkspaceCommunicationException(
 					"There was a problem communicating with the database", me);
+		} finally {
+			stats.record(OperationStatistics.MONGO_QUERY, t);
 		}
 		if (rwsis != null) {
 			for (ResolvedMongoWSID rwsi: rwsis) {
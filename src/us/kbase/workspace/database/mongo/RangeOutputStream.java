@@ -0,0 +1,91 @@
+package us.kbase.workspace.database.mongo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** An output stream that passes a byte range of the data written to it to
+ * another output stream and discards the rest. Once the range has been
+ * written, further writes throw a RangeCompleteException so that the writer
+ * can stop early.
+ */
+public class RangeOutputStream extends OutputStream {
+
+	/** Thrown when data is written after the end of the range. */
+	@SuppressWarnings("serial")
+	public static class RangeCompleteException extends IOException {
+
+		public RangeCompleteException() {
+			super("The requested range has been written");
+		}
+	}
+
+	private final OutputStream out;
+	private final long start;
+	private final long end;
+	private long position = 0;
+	private IOException outputError = null;
+
+	/** Create a range output stream.
+	 * @param out the output stream to which the range is written.
+	 * @param offset the offset of the range.
+	 * @param length the length of the range.
+	 */
+	public RangeOutputStream(final OutputStream out, final long offset,
+			final long length) {
+		if (out == null) {
+			throw new NullPointerException("out cannot be null");
+		}
+		if (offset < 0 || length < 0) {
+			throw new IllegalArgumentException(
+					"offset and length must be non-negative");
+		}
+		this.out = out;
+		this.start = offset;
+		this.end = offset + length;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] {(byte) b}, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+		if (position >= end) {
+			throw new RangeCompleteException();
+		}
+		final long from = Math.max(position, start);
+		final long to = Math.min(position + len, end);
+		if (from < to) {
+			try {
+				out.write(b, off + (int) (from - position), (int) (to - from));
+			} catch (IOException ioe) {
+				outputError = ioe;
+				throw ioe;
+			}
+		}
+		position += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/** Returns true if the entire range has been written.
+	 * @return true if the range is complete.
+	 */
+	public boolean isComplete() {
+		return position >= end;
+	}
+
+	/** Returns the error thrown by the wrapped output stream, if any. This
+	 * allows writers that wrap IOExceptions to distinguish errors writing the
+	 * range from other errors.
+	 * @return the output error, or null.
+	 */
+	public IOException getOutputError() {
+		return outputError;
+	}
+}
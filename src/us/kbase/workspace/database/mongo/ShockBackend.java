@@ -2,6 +2,7 @@ package us.kbase.workspace.database.mongo;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.concurrent.ExecutionException;
 
@@ -21,6 +22,7 @@ import us.kbase.workspace.database.ByteArrayFileCacheManager;
 import us.kbase.workspace.database.ByteArrayFileCacheManager.ByteArrayFileCache;
 import us.kbase.workspace.database.exceptions.FileCacheIOException;
 import us.kbase.workspace.database.exceptions.FileCacheLimitExceededException;
+import us.kbase.workspace.database.mongo.RangeOutputStream.RangeCompleteException;
 import us.kbase.workspace.database.mongo.exceptions.BlobStoreAuthorizationException;
 import us.kbase.workspace.database.mongo.exceptions.BlobStoreCommunicationException;
 import us.kbase.workspace.database.mongo.exceptions.BlobStoreException;
@@ -313,6 +315,55 @@ public class ShockBackend implements BlobStore {
 		}
 	}
 
+	/** Writes a range of a blob to an output stream.
+	 * 
+	 * Note that this is not a server side ranged read. The shock client can
+	 * only stream a node's file from the first byte, so all the bytes before
+	 * the range are downloaded from shock and discarded, and the download is
+	 * abandoned once the range has been written. A range near the end of a
+	 * large blob therefore costs nearly as much shock traffic as fetching the
+	 * whole blob, although only the range is buffered or returned.
+	 */
+	@Override
+	public void getBlobRange(final MD5 md5, final long offset,
+			final long length, final OutputStream out)
+			throws BlobStoreAuthorizationException,
+			BlobStoreCommunicationException, NoSuchBlobException,
+			IOException {
+		if (md5 == null || out == null) {
+			throw new NullPointerException("Arguments cannot be null");
+		}
+		updateAuth();
+		final String node = getNode(md5);
+		final RangeOutputStream ros = new RangeOutputStream(out, offset,
+				length);
+		try {
+			client.getFile(new ShockNodeId(node), ros);
+		} catch (TokenExpiredException ete) {
+			//this should be impossible
+			throw new RuntimeException("Things are broke", ete);
+		} catch (IOException ioe) {
+			if (ros.getOutputError() != null) {
+				throw ros.getOutputError();
+			}
+			if (!(ioe instanceof RangeCompleteException) &&
+					!(ioe.getCause() instanceof RangeCompleteException)) {
+				throw new BlobStoreCommunicationException(
+						"Could not connect to the shock backend: " +
+						ioe.getLocalizedMessage(), ioe);
+			}
+		} catch (ShockHttpException she) {
+			throw new BlobStoreCommunicationException(
+					"Failed to retrieve shock node: " +
+					she.getLocalizedMessage(), she);
+		}
+		if (!ros.isComplete()) {
+			throw new IllegalArgumentException(String.format(
+					"Range %s-%s is outside blob %s", offset, offset + length,
+					md5.getMD5()));
+		}
+	}
+
 	@Override
 	public void removeBlob(final MD5 md5)
 			throws BlobStoreAuthorizationException,
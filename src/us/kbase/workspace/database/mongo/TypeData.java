@@ -73,6 +73,23 @@ public class TypeData {
 		this.chksum = md5.getMD5().getMD5();
 	}
 	
+	/* For data that is already stored. There's no data or subdata, so this
+	 * must never be saved.
+	 */
+	public TypeData(final AbsoluteTypeDefId type, final String chksum,
+			final long size) {
+		if (type == null) {
+			throw new IllegalArgumentException("type may not be null");
+		}
+		if (type.getMd5() != null) {
+			throw new RuntimeException("MD5 types are not accepted");
+		}
+		this.type = type.getType().getTypeString() +
+				AbsoluteTypeDefId.TYPE_VER_SEP + type.getMajorVersion();
+		this.chksum = chksum;
+		this.size = size;
+	}
+	
 	public String getTypeCollection() {
 		return TYPE_COL_PREFIX + DigestUtils.md5Hex(this.type);
 	}
@@ -0,0 +1,188 @@
+package us.kbase.workspace.database.mongo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/** A cache of object version documents.
+ *
+ * Other than the reference count, a version document never changes once
+ * it's saved, so a cached document never needs to be invalidated. The
+ * mutable state of an object - the name, whether it's hidden or deleted,
+ * and the latest version - is in the object document, which is not cached.
+ *
+ * Documents are cached with all the fields in {@link #CACHED_FIELDS}, so
+ * only queries for a subset of those fields can be answered from the cache.
+ * The cache returns copies of the documents so callers may modify them.
+ */
+public class VersionCache {
+
+	/** The fields of a version document that are cached. */
+	public static final Set<String> CACHED_FIELDS;
+	static {
+		final Set<String> f = new HashSet<String>();
+		f.add(Fields.VER_WS_ID);
+		f.add(Fields.VER_ID);
+		f.add(Fields.VER_VER);
+		f.add(Fields.VER_SAVEDBY);
+		f.add(Fields.VER_CHKSUM);
+		f.add(Fields.VER_SAVEDATE);
+		f.add(Fields.VER_PROV);
+		f.add(Fields.VER_PROVDATE);
+		f.add(Fields.VER_REF);
+		f.add(Fields.VER_PROVREF);
+		f.add(Fields.VER_TYPE);
+		f.add(Fields.VER_SIZE);
+		f.add(Fields.VER_RVRT);
+		f.add(Fields.VER_META);
+		f.add(Fields.VER_COPIED);
+		f.add(Fields.VER_EXT_IDS);
+		CACHED_FIELDS = Collections.unmodifiableSet(f);
+	}
+
+	private final Cache<String, Map<String, Object>> cache;
+
+	/** Create a version cache.
+	 * @param maxSize the approximate maximum size of the cache in bytes.
+	 */
+	public VersionCache(final long maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException(
+					"The maximum cache size must be at least 1");
+		}
+		cache = CacheBuilder.newBuilder()
+				.maximumWeight(maxSize)
+				.weigher(new Weigher<String, Map<String, Object>>() {
+
+					@Override
+					public int weigh(final String key,
+							final Map<String, Object> version) {
+						return (int) Math.min(Integer.MAX_VALUE,
+								estimateSize(version));
+					}
+				})
+				.build();
+	}
+
+	/** Returns whether a query for a set of version fields can be answered
+	 * from the cache.
+	 * @param fields the fields to query.
+	 * @return true if the fields are cached.
+	 */
+	public static boolean isCached(final Set<String> fields) {
+		return CACHED_FIELDS.containsAll(fields);
+	}
+
+	/** Get a version document from the cache.
+	 * @param workspaceID the workspace ID of the object.
+	 * @param objectID the ID of the object.
+	 * @param version the version of the object.
+	 * @param fields the fields to return. The object ID, version, and
+	 * Mongo ID are always returned, as they are from a query.
+	 * @return a copy of the document containing the requested fields, or
+	 * null if the version is not cached.
+	 */
+	public Map<String, Object> get(final long workspaceID,
+			final long objectID, final int version, final Set<String> fields) {
+		final Map<String, Object> v = cache.getIfPresent(
+				key(workspaceID, objectID, version));
+		if (v == null) {
+			return null;
+		}
+		return project(v, fields);
+	}
+	
+	/** Copy the requested fields from a version document.
+	 * @param version the version document.
+	 * @param fields the fields to copy. The object ID, version, and Mongo ID
+	 * are always copied.
+	 * @return the copy.
+	 */
+	static Map<String, Object> project(final Map<String, Object> version,
+			final Set<String> fields) {
+		final Map<String, Object> ret = new LinkedHashMap<String, Object>();
+		for (final Entry<String, Object> e: version.entrySet()) {
+			final String f = e.getKey();
+			if (fields.contains(f) || f.equals(Fields.VER_ID) ||
+					f.equals(Fields.VER_VER) || f.equals(Fields.MONGO_ID)) {
+				ret.put(f, copy(e.getValue()));
+			}
+		}
+		return ret;
+	}
+
+	/** Add a version document to the cache. The document must contain the
+	 * workspace ID, object ID and version, and must contain all of the
+	 * cached fields that exist in the database.
+	 * @param version the version document.
+	 */
+	public void put(final Map<String, Object> version) {
+		final Map<String, Object> v = new LinkedHashMap<String, Object>();
+		for (final Entry<String, Object> e: version.entrySet()) {
+			if (CACHED_FIELDS.contains(e.getKey()) ||
+					e.getKey().equals(Fields.MONGO_ID)) {
+				v.put(e.getKey(), copy(e.getValue()));
+			}
+		}
+		cache.put(key(((Number) v.get(Fields.VER_WS_ID)).longValue(),
+				((Number) v.get(Fields.VER_ID)).longValue(),
+				((Number) v.get(Fields.VER_VER)).intValue()), v);
+	}
+
+	private static String key(final long workspaceID, final long objectID,
+			final int version) {
+		return workspaceID + "/" + objectID + "/" + version;
+	}
+
+	// copies maps and collections, converting collections to lists as they
+	// would be when read from the database
+	@SuppressWarnings("unchecked")
+	private static Object copy(final Object o) {
+		if (o instanceof Map) {
+			final Map<Object, Object> ret = new LinkedHashMap<Object, Object>();
+			for (final Entry<Object, Object> e:
+					((Map<Object, Object>) o).entrySet()) {
+				ret.put(e.getKey(), copy(e.getValue()));
+			}
+			return ret;
+		}
+		if (o instanceof Collection) {
+			final List<Object> ret = new ArrayList<Object>();
+			for (final Object e: (Collection<Object>) o) {
+				ret.add(copy(e));
+			}
+			return ret;
+		}
+		if (o instanceof Date) {
+			return new Date(((Date) o).getTime());
+		}
+		return o;
+	}
+
+	private static long estimateSize(final Object o) {
+		long size = 16;
+		if (o instanceof Map) {
+			for (final Entry<?, ?> e: ((Map<?, ?>) o).entrySet()) {
+				size += estimateSize(e.getKey()) + estimateSize(e.getValue());
+			}
+		} else if (o instanceof Collection) {
+			for (final Object e: (Collection<?>) o) {
+				size += estimateSize(e);
+			}
+		} else if (o instanceof String) {
+			size += 2 * ((String) o).length();
+		}
+		return size;
+	}
+}
@@ -0,0 +1,26 @@
+package us.kbase.workspace.exceptions;
+
+/**
+ * Thrown when the server is too busy to accept a request. The client should
+ * retry after the number of seconds given by getRetryAfter().
+ */
+public class RequestRejectedException extends WorkspaceException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int retryAfter;
+
+	public RequestRejectedException(final String message,
+			final int retryAfterSec) {
+		super(message + ". Please retry after " + retryAfterSec + " seconds");
+		retryAfter = retryAfterSec;
+	}
+
+	/** Returns the number of seconds the client should wait before retrying
+	 * the request.
+	 * @return the number of seconds to wait.
+	 */
+	public int getRetryAfter() {
+		return retryAfter;
+	}
+}
@@ -0,0 +1,251 @@
+package us.kbase.workspace.kbase;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import us.kbase.workspace.exceptions.RequestRejectedException;
+
+/** Admission control for heavy requests, e.g. saving or fetching large
+ * objects.
+ *
+ * A request is heavy if it calls a method that moves object data or if its
+ * declared size is over a threshold. The caller decides which methods are
+ * heavy and calls admit() for them. Heavy requests are limited to a fixed
+ * number running concurrently, a fixed number waiting for a slot, and a
+ * fixed number running concurrently per user. A heavy request that can't
+ * run or wait is rejected immediately with a RequestRejectedException.
+ *
+ * Light requests (e.g. get_object_info, ver) are never limited or queued.
+ * Since heavy requests can occupy at most the maximum running plus the
+ * maximum waiting number of server threads, the remaining server threads are
+ * always available for light requests.
+ *
+ * Admission is per thread and reentrant, so a request admitted on the basis
+ * of its size before the method is known, or a method that calls another
+ * heavy method, only takes one slot.
+ *
+ * This class is thread safe.
+ */
+public class AdmissionController {
+
+	private final int maxRunning;
+	private final int maxWaiting;
+	private final int maxPerUser;
+	private final long waitTimeoutMS;
+	private final long heavyRequestSize;
+	private final int retryAfterSec;
+
+	private final Semaphore running;
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final ConcurrentMap<String, AtomicInteger> userRunning =
+			new ConcurrentHashMap<String, AtomicInteger>();
+	private final AtomicLong rejected = new AtomicLong();
+
+	private final ThreadLocal<Ticket> current = new ThreadLocal<Ticket>();
+
+	/** Create an admission controller.
+	 * @param maxRunning the maximum number of heavy requests that may run
+	 * concurrently.
+	 * @param maxWaiting the maximum number of heavy requests that may wait
+	 * for a free slot.
+	 * @param maxPerUser the maximum number of heavy requests a single user may
+	 * run concurrently.
+	 * @param waitTimeoutMS the maximum time a heavy request will wait for a
+	 * free slot before it is rejected.
+	 * @param heavyRequestSize requests with a declared size larger than this
+	 * number of bytes are treated as heavy regardless of the method.
+	 * @param retryAfterSec the number of seconds a rejected client should wait
+	 * before retrying.
+	 */
+	public AdmissionController(
+			final int maxRunning,
+			final int maxWaiting,
+			final int maxPerUser,
+			final long waitTimeoutMS,
+			final long heavyRequestSize,
+			final int retryAfterSec) {
+		if (maxRunning < 1 || maxPerUser < 1) {
+			throw new IllegalArgumentException(
+					"The maximum running requests must be at least 1");
+		}
+		if (maxWaiting < 0 || waitTimeoutMS < 0 || heavyRequestSize < 0 ||
+				retryAfterSec < 0) {
+			throw new IllegalArgumentException(
+					"Admission control values cannot be negative");
+		}
+		this.maxRunning = maxRunning;
+		this.maxWaiting = maxWaiting;
+		this.maxPerUser = maxPerUser;
+		this.waitTimeoutMS = waitTimeoutMS;
+		this.heavyRequestSize = heavyRequestSize;
+		this.retryAfterSec = retryAfterSec;
+		running = new Semaphore(maxRunning, true);
+	}
+
+	/** Returns true if a request of the declared size is heavy.
+	 * @param declaredSize the declared size of the request in bytes, or a
+	 * negative number if the size is unknown.
+	 * @return true if the request is heavy.
+	 */
+	public boolean isHeavyRequest(final long declaredSize) {
+		return declaredSize > heavyRequestSize;
+	}
+
+	/** Admit a heavy request on the current thread. The ticket returned
+	 * must be released when the request is complete, even if the request
+	 * fails.
+	 *
+	 * If the current thread has already been admitted and not released, no
+	 * further slot is taken. In that case, if the user was unknown at first
+	 * admission, the user limit is applied now.
+	 * @param user the user making the request, or null if the user is
+	 * unknown or anonymous. No per user limit is applied to null users.
+	 * @return a ticket for the request.
+	 * @throws RequestRejectedException if the server is too busy to run the
+	 * request.
+	 */
+	public Ticket admit(final String user)
+			throws RequestRejectedException {
+		final Ticket held = current.get();
+		if (held != null) {
+			if (held.user == null && user != null) {
+				acquireUser(user);
+				held.user = user;
+			}
+			held.depth++;
+			return held;
+		}
+		if (user != null) {
+			acquireUser(user);
+		}
+		try {
+			acquireSlot();
+		} catch (RequestRejectedException e) {
+			if (user != null) {
+				releaseUser(user);
+			}
+			throw e;
+		}
+		final Ticket t = new Ticket(user);
+		current.set(t);
+		return t;
+	}
+
+	private void acquireUser(final String user)
+			throws RequestRejectedException {
+		AtomicInteger count = userRunning.get(user);
+		if (count == null) {
+			final AtomicInteger newcount = new AtomicInteger();
+			count = userRunning.putIfAbsent(user, newcount);
+			if (count == null) {
+				count = newcount;
+			}
+		}
+		if (count.incrementAndGet() > maxPerUser) {
+			count.decrementAndGet();
+			rejected.incrementAndGet();
+			throw new RequestRejectedException(String.format(
+					"User %s already has the maximum of %s large requests running",
+					user, maxPerUser), retryAfterSec);
+		}
+	}
+
+	private void releaseUser(final String user) {
+		final AtomicInteger count = userRunning.get(user);
+		if (count != null) {
+			// leave the counter in the map, users are few enough that it
+			// isn't worth the race conditions involved in removing it
+			count.decrementAndGet();
+		}
+	}
+
+	private void acquireSlot() throws RequestRejectedException {
+		if (running.tryAcquire()) {
+			return;
+		}
+		if (waiting.incrementAndGet() > maxWaiting) {
+			waiting.decrementAndGet();
+			rejected.incrementAndGet();
+			throw new RequestRejectedException(
+					"The server is busy processing large requests",
+					retryAfterSec);
+		}
+		boolean acquired = false;
+		try {
+			acquired = running.tryAcquire(waitTimeoutMS,
+					TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} finally {
+			waiting.decrementAndGet();
+		}
+		if (!acquired) {
+			rejected.incrementAndGet();
+			throw new RequestRejectedException(
+					"Timed out waiting for the server to process other large requests",
+					retryAfterSec);
+		}
+	}
+
+	/** Returns the number of heavy requests currently running.
+	 * @return the number of running heavy requests.
+	 */
+	public int getRunning() {
+		return maxRunning - running.availablePermits();
+	}
+
+	/** Returns the number of heavy requests currently waiting for a slot.
+	 * @return the number of waiting heavy requests.
+	 */
+	public int getWaiting() {
+		return waiting.get();
+	}
+
+	/** Returns the number of heavy requests rejected since the controller was
+	 * created.
+	 * @return the number of rejected requests.
+	 */
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	/** Returns the number of seconds a rejected client is told to wait before
+	 * retrying.
+	 * @return the retry wait in seconds.
+	 */
+	public int getRetryAfter() {
+		return retryAfterSec;
+	}
+
+	/** A slot for a heavy request, held by a single thread. */
+	public class Ticket {
+
+		private String user;
+		private int depth = 1;
+
+		private Ticket(final String user) {
+			this.user = user;
+		}
+
+		/** Release the slot. If the thread was admitted more than once, the
+		 * slot is released when the outermost admission is released.
+		 */
+		public void release() {
+			if (depth < 1) {
+				return;
+			}
+			depth--;
+			if (depth == 0) {
+				if (user != null) {
+					releaseUser(user);
+				}
+				running.release();
+				current.remove();
+			}
+		}
+	}
+}
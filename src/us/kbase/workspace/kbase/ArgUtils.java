@@ -9,11 +9,15 @@ import java.io.IOException;
 import java.net.URL;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.joda.time.DateTime;
@@ -23,6 +27,9 @@ import org.joda.time.format.DateTimeFormatterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import us.kbase.common.service.JsonClientException;
 import us.kbase.common.service.ServerException;
 import us.kbase.common.service.Tuple11;
@@ -38,19 +45,23 @@ import us.kbase.auth.AuthToken;
 import us.kbase.auth.RefreshingToken;
 import us.kbase.auth.TokenExpiredException;
 import us.kbase.auth.TokenFormatException;
+import us.kbase.workspace.Event;
 import us.kbase.workspace.ExternalDataUnit;
 import us.kbase.workspace.ObjectData;
 import us.kbase.workspace.ObjectProvenanceInfo;
 import us.kbase.workspace.ProvenanceAction;
+import us.kbase.workspace.UploadInfo;
 import us.kbase.workspace.database.ByteArrayFileCacheManager.ByteArrayFileCache;
 import us.kbase.workspace.database.ObjectInformation;
 import us.kbase.workspace.database.Permission;
 import us.kbase.workspace.database.Provenance;
 import us.kbase.workspace.database.Provenance.ExternalData;
+import us.kbase.workspace.database.WorkspaceEvent;
 import us.kbase.workspace.database.WorkspaceInformation;
 import us.kbase.workspace.database.WorkspaceObjectData;
 import us.kbase.workspace.database.WorkspaceObjectInformation;
 import us.kbase.workspace.database.WorkspaceUser;
+import us.kbase.workspace.kbase.UploadManager.StagedUpload;
 
 /**
  * not thread safe
@@ -72,6 +83,21 @@ public class ArgUtils {
 	private final static DateTimeFormatter DATE_FORMATTER =
 			DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ssZ").withZoneUTC();
 	
+	private final static int HANDLE_ACL_CACHE_TIME_SEC = 60;
+	private final static int HANDLE_ACL_CACHE_SIZE = 100000;
+	
+	/* (Handle Manager URL, user, handle) triples the Handle Manager has
+	 * recently made readable, so repeated reads of the same objects skip the
+	 * Handle Manager call. The URL is part of the key since the cache is
+	 * shared by every server in the JVM. Entries are short lived since the
+	 * ACLs can be changed outside the workspace.
+	 */
+	private final static Cache<List<String>, Boolean> HANDLE_ACLS =
+			CacheBuilder.newBuilder()
+			.expireAfterWrite(HANDLE_ACL_CACHE_TIME_SEC, TimeUnit.SECONDS)
+			.maximumSize(HANDLE_ACL_CACHE_SIZE)
+			.build();
+	
 	public static Provenance processProvenance(final WorkspaceUser user,
 			final List<ProvenanceAction> actions) throws ParseException {
 		
@@ -356,6 +382,73 @@ public class ArgUtils {
 		return new WorkspaceUser(token.getUserName());
 	}
 	
+	public static long parseEventToken(final String token) {
+		if (token == null || token.isEmpty()) {
+			return 0;
+		}
+		try {
+			final long t = Long.parseLong(token);
+			if (t >= 0) {
+				return t;
+			}
+		} catch (NumberFormatException nfe) {
+			//fall through
+		}
+		throw new IllegalArgumentException("Invalid event token: " + token);
+	}
+	
+	public static Integer parseHistoryToken(final String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		try {
+			final int t = Integer.parseInt(token);
+			if (t > 0) {
+				return t;
+			}
+		} catch (NumberFormatException nfe) {
+			//fall through
+		}
+		throw new IllegalArgumentException("Invalid history token: " + token);
+	}
+	
+	public static List<Event> translateEvents(
+			final List<WorkspaceEvent> events) {
+		final List<Event> ret = new LinkedList<Event>();
+		for (final WorkspaceEvent e: events) {
+			List<String> users = null;
+			if (e.getUsers() != null) {
+				users = new LinkedList<String>();
+				for (final WorkspaceUser u: e.getUsers()) {
+					users.add(u.getUser());
+				}
+			}
+			ret.add(new Event()
+					.withToken("" + e.getToken())
+					.withType(e.getType().getName())
+					.withDate(formatDate(e.getDate()))
+					.withUser(e.getUser() == null ? null :
+						e.getUser().getUser())
+					.withWsid(e.getWorkspaceId())
+					.withObjid(e.getObjectId())
+					.withVer(e.getVersion() == null ? null :
+						(long) e.getVersion())
+					.withName(e.getName())
+					.withPerm(e.getPermission() == null ? null :
+						translatePermission(e.getPermission()))
+					.withUsers(users));
+		}
+		return ret;
+	}
+	
+	public static UploadInfo translateUpload(final StagedUpload upload) {
+		return new UploadInfo()
+				.withId(upload.getId())
+				.withSize(upload.getSize())
+				.withChksum(upload.getMD5())
+				.withExpires(formatDate(upload.getExpires()));
+	}
+	
 	public static List<WorkspaceUser> convertUsers(final List<String> users) {
 		final List<WorkspaceUser> wsusers = new ArrayList<WorkspaceUser>();
 		if (users == null) {
@@ -375,9 +468,11 @@ public class ArgUtils {
 			final RefreshingToken handleManagertoken,
 			final boolean logObjects) {
 		final List<ObjectData> ret = new ArrayList<ObjectData>();
+		final List<HandleError> errors = makeHandlesReadable(
+				objects, user, handleManagerURl, handleManagertoken);
+		int i = 0;
 		for (final WorkspaceObjectData o: objects) {
-			final HandleError error = makeHandlesReadable(
-					o, user, handleManagerURl, handleManagertoken);
+			final HandleError error = errors.get(i++);
 			final ByteArrayFileCache resource = o.getDataAsTokens();
 			ret.add(new ObjectData()
 					.withData(resource.getUObject())
@@ -408,9 +503,11 @@ public class ArgUtils {
 			final boolean logObjects) {
 		final List<ObjectProvenanceInfo> ret =
 				new ArrayList<ObjectProvenanceInfo>();
+		final List<HandleError> errors = makeHandlesReadable(
+				objects, user, handleManagerURl, handleManagertoken);
+		int i = 0;
 		for (final WorkspaceObjectInformation o: objects) {
-			final HandleError error = makeHandlesReadable(
-					o, user, handleManagerURl, handleManagertoken);
+			final HandleError error = errors.get(i++);
 			ret.add(new ObjectProvenanceInfo()
 					.withInfo(objInfoToTuple(o.getObjectInfo(), logObjects))
 					.withProvenance(translateProvenanceActions(
@@ -434,11 +531,20 @@ public class ArgUtils {
 		
 		public String error;
 		public String stackTrace;
+		// true if the Handle Manager itself rejected the call, e.g. because
+		// of a bad handle
+		public boolean serverError;
 
 		public HandleError(String error, String stackTrace) {
+			this(error, stackTrace, false);
+		}
+		
+		public HandleError(String error, String stackTrace,
+				boolean serverError) {
 			super();
 			this.error = error;
 			this.stackTrace = stackTrace;
+			this.serverError = serverError;
 		}
 
 		@Override
@@ -448,22 +554,102 @@ public class ArgUtils {
 			builder.append(error);
 			builder.append(", stackTrace=");
 			builder.append(stackTrace);
+			builder.append(", serverError=");
+			builder.append(serverError);
 			builder.append("]");
 			return builder.toString();
 		}
 		
 	}
 
-	private static HandleError makeHandlesReadable(
-			final WorkspaceObjectInformation o,
+	/** Clears the cache of handles that have been made readable. Any
+	 * further reads will contact the Handle Manager again.
+	 */
+	public static void clearHandleACLCache() {
+		HANDLE_ACLS.invalidateAll();
+	}
+	
+	/* Makes all the handles in a set of objects readable with one call to
+	 * the Handle Manager, skipping handles that were recently made readable
+	 * for the user. Returns the errors in the same order as the objects.
+	 */
+	private static List<HandleError> makeHandlesReadable(
+			final List<? extends WorkspaceObjectInformation> objects,
 			final WorkspaceUser user,
 			final URL handleManagerURL,
 			final RefreshingToken handleManagertoken) {
-		final List<String> handles = o.getExtractedIds().get(
-				HandleIdHandlerFactory.type.getType());
-		if (handles == null || handles.isEmpty()) {
-			return new HandleError(null, null);
+		final String username = user == null ? null : user.getUser();
+		final String hmurl = handleManagerURL == null ? null :
+			handleManagerURL.toString();
+		final List<List<String>> needACLs = new ArrayList<List<String>>();
+		final Set<String> allHandles = new LinkedHashSet<String>();
+		for (final WorkspaceObjectInformation o: objects) {
+			final List<String> handles = o.getExtractedIds().get(
+					HandleIdHandlerFactory.type.getType());
+			final List<String> need = new LinkedList<String>();
+			if (handles != null) {
+				for (final String h: handles) {
+					if (HANDLE_ACLS.getIfPresent(
+							Arrays.asList(hmurl, username, h)) == null) {
+						need.add(h);
+					}
+				}
+			}
+			needACLs.add(need);
+			allHandles.addAll(need);
+		}
+		final List<HandleError> ret = new ArrayList<HandleError>();
+		if (allHandles.isEmpty()) {
+			for (int i = 0; i < objects.size(); i++) {
+				ret.add(new HandleError(null, null));
+			}
+			return ret;
+		}
+		final HandleError error = addReadACLs(
+				new ArrayList<String>(allHandles), user, handleManagerURL,
+				handleManagertoken);
+		if (error.error == null) {
+			cacheHandleACLs(hmurl, username, allHandles);
+		}
+		int needCount = 0;
+		for (final List<String> need: needACLs) {
+			needCount += need.isEmpty() ? 0 : 1;
+		}
+		for (final List<String> need: needACLs) {
+			if (need.isEmpty()) {
+				ret.add(new HandleError(null, null));
+			} else if (error.error == null || needCount == 1 ||
+					!error.serverError) {
+				// other errors, e.g. the HM being down or rejecting the
+				// workspace credentials, would fail every object again
+				ret.add(error);
+			} else {
+				/* the HM fails the entire call if any handle is bad, so go
+				 * object by object to find out which objects are affected
+				 */
+				final HandleError objerr = addReadACLs(need, user,
+						handleManagerURL, handleManagertoken);
+				if (objerr.error == null) {
+					cacheHandleACLs(hmurl, username, need);
+				}
+				ret.add(objerr);
+			}
+		}
+		return ret;
+	}
+	
+	private static void cacheHandleACLs(final String handleManagerURL,
+			final String user, final Collection<String> handles) {
+		for (final String h: handles) {
+			HANDLE_ACLS.put(Arrays.asList(handleManagerURL, user, h), true);
 		}
+	}
+
+	private static HandleError addReadACLs(
+			final List<String> handles,
+			final WorkspaceUser user,
+			final URL handleManagerURL,
+			final RefreshingToken handleManagertoken) {
 		final AuthToken token;
 		try {
 			token = handleManagertoken.getToken();
@@ -518,7 +704,7 @@ public class ArgUtils {
 			return new HandleError(
 					"The Handle Manager reported a problem while attempting " +
 							"to set Handle ACLs: " + e.getMessage(),
-					ExceptionUtils.getStackTrace(e));
+					ExceptionUtils.getStackTrace(e), true);
 		} catch (JsonClientException e) {
 			return new HandleError(
 					"There was an unexpected problem while contacting the " +
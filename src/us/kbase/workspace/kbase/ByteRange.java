@@ -0,0 +1,129 @@
+package us.kbase.workspace.kbase;
+
+/** A single byte range from an HTTP Range header.
+ */
+public class ByteRange {
+
+	private static final String BYTES_UNIT = "bytes=";
+
+	/** Thrown when a range does not overlap the entity. */
+	@SuppressWarnings("serial")
+	public static class UnsatisfiableRangeException extends Exception {
+
+		public UnsatisfiableRangeException(final String message) {
+			super(message);
+		}
+	}
+
+	private final long start;
+	private final long length;
+
+	private ByteRange(final long start, final long length) {
+		this.start = start;
+		this.length = length;
+	}
+
+	/** Parse an HTTP Range header.
+	 *
+	 * Only a single range in bytes is supported. Headers with other units,
+	 * with multiple ranges, or with invalid syntax are ignored, which the
+	 * HTTP specification allows, and the whole entity should be returned.
+	 * @param header the Range header.
+	 * @param size the size of the entity.
+	 * @return the range, or null if the header is absent or ignored.
+	 * @throws UnsatisfiableRangeException if the range does not overlap the
+	 * entity.
+	 */
+	public static ByteRange parse(final String header, final long size)
+			throws UnsatisfiableRangeException {
+		if (header == null) {
+			return null;
+		}
+		final String h = header.trim();
+		if (!h.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+			return null;
+		}
+		final String spec = h.substring(BYTES_UNIT.length()).trim();
+		final int dash = spec.indexOf('-');
+		if (dash < 0 || spec.indexOf(',') >= 0) {
+			return null;
+		}
+		final Long first;
+		final Long last;
+		try {
+			first = parseLong(spec.substring(0, dash));
+			last = parseLong(spec.substring(dash + 1));
+		} catch (NumberFormatException nfe) {
+			return null;
+		}
+		if (first == null) {
+			// suffix range - the last n bytes
+			if (last == null) {
+				return null;
+			}
+			if (last == 0 || size == 0) {
+				throw new UnsatisfiableRangeException(
+						"Range " + spec + " is empty");
+			}
+			final long start = Math.max(0, size - last);
+			return new ByteRange(start, size - start);
+		}
+		if (last != null && last < first) {
+			return null;
+		}
+		if (first >= size) {
+			throw new UnsatisfiableRangeException(String.format(
+					"Range %s starts after the end of the data, %s", spec,
+					size));
+		}
+		final long end = last == null ? size - 1 : Math.min(last, size - 1);
+		return new ByteRange(first, end - first + 1);
+	}
+
+	private static Long parseLong(final String s) {
+		final String t = s.trim();
+		if (t.isEmpty()) {
+			return null;
+		}
+		for (int i = 0; i < t.length(); i++) {
+			if (!Character.isDigit(t.charAt(i))) {
+				throw new NumberFormatException();
+			}
+		}
+		return Long.parseLong(t);
+	}
+
+	/** Returns the offset of the first byte in the range.
+	 * @return the range start.
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/** Returns the offset of the last byte in the range.
+	 * @return the range end.
+	 */
+	public long getEnd() {
+		return start + length - 1;
+	}
+
+	/** Returns the number of bytes in the range.
+	 * @return the range length.
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/** Returns the value of a Content-Range header for this range.
+	 * @param size the size of the entity.
+	 * @return the Content-Range header.
+	 */
+	public String toContentRange(final long size) {
+		return "bytes " + start + "-" + getEnd() + "/" + size;
+	}
+
+	@Override
+	public String toString() {
+		return "ByteRange [start=" + start + ", length=" + length + "]";
+	}
+}
@@ -0,0 +1,221 @@
+package us.kbase.workspace.kbase;
+
+import static us.kbase.workspace.kbase.KBaseIdentifierFactory.processObjectIdentifier;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import us.kbase.auth.AuthException;
+import us.kbase.auth.TokenExpiredException;
+import us.kbase.auth.TokenFormatException;
+import us.kbase.workspace.ObjectIdentity;
+import us.kbase.workspace.database.ObjectDownload;
+import us.kbase.workspace.database.Workspace;
+import us.kbase.workspace.database.WorkspaceUser;
+import us.kbase.workspace.database.exceptions.InaccessibleObjectException;
+import us.kbase.workspace.database.exceptions.NoSuchObjectException;
+import us.kbase.workspace.exceptions.RequestRejectedException;
+import us.kbase.workspace.kbase.AdmissionController.Ticket;
+import us.kbase.workspace.kbase.ByteRange.UnsatisfiableRangeException;
+
+/** Serves the stored data of object versions over plain HTTP, so that large
+ * objects can be downloaded in byte ranges, resumed, and fetched in parallel
+ * without going through the JSON-RPC layer.
+ *
+ * A request is a GET or HEAD with a ref query parameter, e.g.
+ * download?ref=12/3/4, and an optional Authorization header containing a
+ * token. The response body is the sorted JSON saved for the object version,
+ * streamed from the blob store. The MD5 of the data is the entity tag, and
+ * the Range, If-Range, If-Match, and If-None-Match headers are supported.
+ * HEAD requests return the size and MD5 without reading the data.
+ */
+public class DownloadHandler {
+
+	/** The path, relative to the service root, of download requests. */
+	public static final String DOWNLOAD_PATH = "/download";
+
+	private static final String REF_PARAM = "ref";
+	private static final String AUTH_HEADER = "Authorization";
+
+	private static final Logger LOG =
+			LoggerFactory.getLogger(DownloadHandler.class);
+
+	private final Workspace ws;
+	private final AdmissionController admission;
+
+	/** Create a download handler.
+	 * @param ws the workspace from which to get object data.
+	 * @param admission the admission controller that limits concurrent
+	 * downloads.
+	 */
+	public DownloadHandler(
+			final Workspace ws,
+			final AdmissionController admission) {
+		if (ws == null || admission == null) {
+			throw new NullPointerException(
+					"ws and admission cannot be null");
+		}
+		this.ws = ws;
+		this.admission = admission;
+	}
+
+	/** Returns true if the request is a download request.
+	 * @param request the request.
+	 * @return true if the request should be handled by this handler.
+	 */
+	public static boolean isDownloadRequest(final HttpServletRequest request) {
+		return DOWNLOAD_PATH.equals(request.getPathInfo());
+	}
+
+	/** Handle a download request.
+	 * @param request the request.
+	 * @param response the response.
+	 * @param headOnly true for a HEAD request, in which case only the
+	 * headers are written.
+	 * @throws IOException if writing the response fails.
+	 */
+	public void handle(
+			final HttpServletRequest request,
+			final HttpServletResponse response,
+			final boolean headOnly)
+			throws IOException {
+		final String ref = request.getParameter(REF_PARAM);
+		try {
+			if (ref == null || ref.trim().isEmpty()) {
+				throw new IllegalArgumentException(
+						"The " + REF_PARAM + " parameter is required");
+			}
+			final WorkspaceUser user = ArgUtils.getUser(
+					emptyToNull(request.getHeader(AUTH_HEADER)), null);
+			final ObjectDownload dl = ws.getObjectDownload(user,
+					processObjectIdentifier(new ObjectIdentity()
+							.withRef(ref.trim())));
+			if (headOnly) {
+				writeResponse(request, response, dl, true);
+			} else {
+				final Ticket t = admission.admit(
+						user == null ? null : user.getUser());
+				try {
+					writeResponse(request, response, dl, false);
+				} finally {
+					t.release();
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			sendError(response, HttpServletResponse.SC_BAD_REQUEST, e);
+		} catch (AuthException e) {
+			sendError(response, HttpServletResponse.SC_UNAUTHORIZED, e);
+		} catch (TokenFormatException e) {
+			sendError(response, HttpServletResponse.SC_UNAUTHORIZED, e);
+		} catch (TokenExpiredException e) {
+			sendError(response, HttpServletResponse.SC_UNAUTHORIZED, e);
+		} catch (NoSuchObjectException e) {
+			sendError(response, HttpServletResponse.SC_NOT_FOUND, e);
+		} catch (InaccessibleObjectException e) {
+			sendError(response, HttpServletResponse.SC_FORBIDDEN, e);
+		} catch (RequestRejectedException e) {
+			response.setHeader("Retry-After", "" + e.getRetryAfter());
+			sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+					e);
+		} catch (IOException e) {
+			// most likely the client went away
+			throw e;
+		} catch (Exception e) {
+			LOG.error("Error downloading object " + ref, e);
+			sendError(response,
+					HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e);
+		}
+	}
+
+	private void writeResponse(
+			final HttpServletRequest request,
+			final HttpServletResponse response,
+			final ObjectDownload dl,
+			final boolean headOnly)
+			throws Exception {
+		final long size = dl.getSize();
+		final String etag = "\"" + dl.getMD5() + "\"";
+		response.setHeader("ETag", etag);
+		response.setHeader("Accept-Ranges", "bytes");
+		response.setDateHeader("Last-Modified",
+				dl.getObjectInformation().getSavedDate().getTime());
+		final String ifMatch = request.getHeader("If-Match");
+		if (ifMatch != null && !matchesETag(ifMatch, etag)) {
+			response.setStatus(HttpServletResponse.SC_PRECONDITION_FAILED);
+			return;
+		}
+		if (matchesETag(request.getHeader("If-None-Match"), etag)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+		// only entity tags are supported for If-Range, so a date means the
+		// client gets the whole object
+		final String ifRange = request.getHeader("If-Range");
+		ByteRange range = null;
+		if (ifRange == null || ifRange.trim().equals(etag)) {
+			try {
+				range = ByteRange.parse(request.getHeader("Range"), size);
+			} catch (UnsatisfiableRangeException e) {
+				response.setHeader("Content-Range", "bytes */" + size);
+				response.sendError(
+						HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE,
+						e.getLocalizedMessage());
+				return;
+			}
+		}
+		response.setContentType("application/json");
+		final long start;
+		final long length;
+		if (range == null) {
+			response.setStatus(HttpServletResponse.SC_OK);
+			start = 0;
+			length = size;
+		} else {
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setHeader("Content-Range", range.toContentRange(size));
+			start = range.getStart();
+			length = range.getLength();
+		}
+		// setContentLength() only takes an int
+		response.setHeader("Content-Length", "" + length);
+		if (!headOnly) {
+			dl.write(start, length, response.getOutputStream());
+		}
+	}
+
+	private static boolean matchesETag(final String header,
+			final String etag) {
+		if (header == null) {
+			return false;
+		}
+		for (String tag: header.split(",")) {
+			tag = tag.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals("*") || tag.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String emptyToNull(final String s) {
+		return s == null || s.trim().isEmpty() ? null : s;
+	}
+
+	private static void sendError(final HttpServletResponse response,
+			final int status, final Exception e) throws IOException {
+		if (response.isCommitted()) {
+			// nothing to be done, the client will see a short response
+			LOG.error("Error after the download response was committed", e);
+			return;
+		}
+		response.sendError(status, e.getLocalizedMessage());
+	}
+}
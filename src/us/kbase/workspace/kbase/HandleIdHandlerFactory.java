@@ -2,11 +2,7 @@ package us.kbase.workspace.kbase;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import us.kbase.abstracthandle.AbstractHandleClient;
@@ -18,6 +14,7 @@ import us.kbase.typedobj.idref.IdReferenceHandlerSet.HandlerLockedException;
 import us.kbase.typedobj.idref.IdReferenceHandlerSet.IdReferenceException;
 import us.kbase.typedobj.idref.IdReferenceHandlerSet.IdReferenceHandlerException;
 import us.kbase.typedobj.idref.IdReferenceHandlerSet.NoSuchIdException;
+import us.kbase.typedobj.idref.IdReferenceIndex;
 import us.kbase.typedobj.idref.IdReferenceType;
 import us.kbase.typedobj.idref.SimpleRemappedId;
 import us.kbase.typedobj.idref.IdReferenceHandlerSet.IdReferenceHandler;
@@ -61,7 +58,7 @@ public class HandleIdHandlerFactory implements IdReferenceHandlerFactory {
 	public class HandleIdHandler<T> extends IdReferenceHandler<T> {
 		// seems like this might be a candidate for an abstract class, lock/processed/null checking common code
 
-		private final Map<T, Set<String>> ids = new HashMap<T, Set<String>>();
+		private final IdReferenceIndex<T> ids = new IdReferenceIndex<T>();
 		
 		private HandleIdHandler() {}
 		
@@ -77,16 +74,7 @@ public class HandleIdHandlerFactory implements IdReferenceHandlerFactory {
 						type, associatedObject, "" + id,
 						attributes, null);
 			}
-			boolean unique = true;
-			if (!ids.containsKey(associatedObject)) {
-				ids.put(associatedObject, new HashSet<String>());
-			}
-			if (ids.get(associatedObject).contains(id)) {
-				unique = false;
-			} else {
-				ids.get(associatedObject).add(id);
-			}
-			return unique;
+			return ids.add(associatedObject, id);
 		}
 		
 //		@Override
@@ -101,10 +89,7 @@ public class HandleIdHandlerFactory implements IdReferenceHandlerFactory {
 
 		@Override
 		protected void processIdsImpl() throws IdReferenceHandlerException {
-			final Set<String> handles = new HashSet<String>();
-			for (final Set<String> idset: ids.values()) {
-				handles.addAll(idset);
-			}
+			final List<String> handles = ids.getIds();
 			if (handles.isEmpty()) {
 				return;
 			}
@@ -120,7 +105,7 @@ public class HandleIdHandlerFactory implements IdReferenceHandlerFactory {
 				if (handleService.getProtocol().equals("http")) {
 					ahc.setIsInsecureHttpConnectionAllowed(true);
 				}
-				allreadable = ahc.areReadable(new LinkedList<String>(handles));
+				allreadable = ahc.areReadable(handles);
 			} catch (UnauthorizedException e) {
 				throw new IdReferenceHandlerException(
 						"Authorization for Handle Service failed. The server said: "
@@ -142,30 +127,26 @@ public class HandleIdHandlerFactory implements IdReferenceHandlerFactory {
 						"was not accessible with your credentials. The call " +
 						"cannot complete.", type, null);
 			}
+			//handle IDs aren't remapped
+			for (int i = 0; i < ids.size(); i++) {
+				ids.setRemappedId(i, new SimpleRemappedId(ids.getId(i)));
+			}
 		}
 
 		@Override
 		protected RemappedId getRemappedIdImpl(String oldId)
 				throws NoSuchIdException {
-			for (final T assobj: ids.keySet()) {
-				if (ids.get(assobj).contains(oldId)) {
-					return new SimpleRemappedId(oldId);
-				}
+			final RemappedId id = ids.getRemappedId(oldId);
+			if (id == null) {
+				throw new NoSuchIdException(
+						"No such ID contained in this mapper: " + oldId);
 			}
-			throw new NoSuchIdException("No such ID contained in this mapper: "
-					+ oldId);
+			return id;
 		}
 
 		@Override
 		protected Set<RemappedId> getRemappedIdsImpl(T associatedObject) {
-			final Set<RemappedId> newids = new HashSet<RemappedId>();
-			if (!ids.containsKey(associatedObject)) {
-				return newids;
-			}
-			for (final String id: ids.get(associatedObject)) {
-				newids.add(new SimpleRemappedId(id));
-			}
-			return newids;
+			return ids.getRemappedIds(associatedObject);
 		}
 
 		@Override
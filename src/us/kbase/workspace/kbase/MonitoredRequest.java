@@ -0,0 +1,159 @@
+package us.kbase.workspace.kbase;
+
+import java.io.IOException;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/** Wraps an HTTP request containing a JSON-RPC call, counting the bytes
+ * read from the request body and finding the name of the called method as
+ * the body is read.
+ *
+ * The method name is found by a minimal streaming scan of the JSON that only
+ * tracks strings and nesting depth, so the body is not parsed twice and the
+ * method is found wherever it appears in the top level object.
+ */
+public class MonitoredRequest extends HttpServletRequestWrapper {
+
+	private static final String METHOD_KEY = "method";
+	private static final int MAX_METHOD_LENGTH = 200;
+
+	private ServletInputStream input = null;
+	private long bytesRead = 0;
+
+	// JSON scanning state
+	private String method = null;
+	private int depth = 0;
+	private boolean inString = false;
+	private boolean escape = false;
+	private boolean expectKey = false;
+	private boolean wantValue = false;
+	private boolean capturing = false;
+	private final StringBuilder capture = new StringBuilder();
+
+	public MonitoredRequest(final HttpServletRequest request) {
+		super(request);
+	}
+
+	@Override
+	public ServletInputStream getInputStream() throws IOException {
+		if (input == null) {
+			final ServletInputStream is = super.getInputStream();
+			input = new ServletInputStream() {
+
+				@Override
+				public int read() throws IOException {
+					final int b = is.read();
+					if (b >= 0) {
+						bytesRead++;
+						scan(b);
+					}
+					return b;
+				}
+
+				@Override
+				public int read(final byte[] b, final int off, final int len)
+						throws IOException {
+					final int count = is.read(b, off, len);
+					if (count > 0) {
+						bytesRead += count;
+						if (method == null) {
+							for (int i = off; i < off + count; i++) {
+								scan(b[i]);
+							}
+						}
+					}
+					return count;
+				}
+
+				@Override
+				public void close() throws IOException {
+					is.close();
+				}
+			};
+		}
+		return input;
+	}
+
+	private void scan(final int b) {
+		if (method != null) {
+			return;
+		}
+		if (inString) {
+			if (escape) {
+				escape = false;
+			} else if (b == '\\') {
+				escape = true;
+			} else if (b == '"') {
+				inString = false;
+				endString();
+				return;
+			}
+			if (capturing && capture.length() < MAX_METHOD_LENGTH) {
+				capture.append((char) (b & 0xff));
+			}
+			return;
+		}
+		switch (b) {
+			case '"':
+				inString = true;
+				capturing = depth == 1 && (expectKey || wantValue);
+				capture.setLength(0);
+				break;
+			case '{':
+			case '[':
+				depth++;
+				if (depth == 1) {
+					expectKey = b == '{';
+				}
+				wantValue = false;
+				break;
+			case '}':
+			case ']':
+				depth--;
+				break;
+			case ':':
+				if (depth == 1) {
+					expectKey = false;
+				}
+				break;
+			case ',':
+				if (depth == 1) {
+					expectKey = true;
+					wantValue = false;
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void endString() {
+		if (!capturing) {
+			return;
+		}
+		capturing = false;
+		if (expectKey) {
+			wantValue = METHOD_KEY.contentEquals(capture);
+		} else if (wantValue) {
+			method = capture.toString();
+			wantValue = false;
+		}
+	}
+
+	/** Returns the name of the JSON-RPC method called by the request.
+	 * @return the method name, or null if the method has not been read from
+	 * the request yet or the request is not a JSON-RPC call.
+	 */
+	public String getRpcMethod() {
+		return method;
+	}
+
+	/** Returns the number of bytes read from the request body.
+	 * @return the number of bytes read.
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+}
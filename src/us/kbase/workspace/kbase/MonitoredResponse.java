@@ -0,0 +1,79 @@
+package us.kbase.workspace.kbase;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/** Wraps an HTTP response, counting the bytes written to the response body.
+ */
+public class MonitoredResponse extends HttpServletResponseWrapper {
+
+	private ServletOutputStream output = null;
+	private PrintWriter writer = null;
+	private long bytesWritten = 0;
+
+	public MonitoredResponse(final HttpServletResponse response) {
+		super(response);
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (output == null) {
+			final ServletOutputStream os = super.getOutputStream();
+			output = new ServletOutputStream() {
+
+				@Override
+				public void write(final int b) throws IOException {
+					os.write(b);
+					bytesWritten++;
+				}
+
+				@Override
+				public void write(final byte[] b, final int off, final int len)
+						throws IOException {
+					os.write(b, off, len);
+					bytesWritten += len;
+				}
+
+				@Override
+				public void flush() throws IOException {
+					os.flush();
+				}
+
+				@Override
+				public void close() throws IOException {
+					os.close();
+				}
+			};
+		}
+		return output;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			writer = new PrintWriter(new OutputStreamWriter(
+					getOutputStream(), getCharacterEncoding()));
+		}
+		return writer;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+		super.flushBuffer();
+	}
+
+	/** Returns the number of bytes written to the response body.
+	 * @return the number of bytes written.
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+}
@@ -0,0 +1,421 @@
+package us.kbase.workspace.kbase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import us.kbase.workspace.database.WorkspaceUser;
+
+/** Manages staged uploads of object data that are too large to send
+ * reliably in a single request.
+ *
+ * A user opens an upload, appends chunks of data to the upload in order,
+ * and then commits the upload, at which point the staged file is handed to
+ * the save pipeline. Each chunk is checked against its MD5 before it is
+ * written, and a chunk that fails to arrive or to be written can be resent
+ * from the current size of the upload, so a failed transfer only costs one
+ * chunk.
+ *
+ * Upload state is kept in memory, and so uploads do not survive a server
+ * restart. Uploads that are not used for longer than the expiry time are
+ * deleted.
+ *
+ * This class is thread safe.
+ */
+public class UploadManager {
+
+	private static final String UPLOAD_PREFIX = "upload.";
+
+	private final File uploadDir;
+	private final long expiryMS;
+	private final int maxPerUser;
+	private final int maxChunkSize;
+
+	// guarded by this
+	private final Map<String, Upload> uploads = new HashMap<String, Upload>();
+
+	private static class Upload {
+
+		private final String id;
+		private final WorkspaceUser user;
+		private final File file;
+		private final MessageDigest digest;
+		private long size = 0;
+		private long lastUsed;
+		private boolean busy = false;
+
+		private Upload(final String id, final WorkspaceUser user,
+				final File file) {
+			this.id = id;
+			this.user = user;
+			this.file = file;
+			try {
+				digest = MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException nsae) {
+				throw new RuntimeException(
+						"There definitely should be an MD5 digest");
+			}
+			lastUsed = System.currentTimeMillis();
+		}
+	}
+
+	/** Information about a staged upload. */
+	public static class StagedUpload {
+
+		private final String id;
+		private final long size;
+		private final String md5;
+		private final Date expires;
+
+		private StagedUpload(final String id, final long size,
+				final String md5, final Date expires) {
+			this.id = id;
+			this.size = size;
+			this.md5 = md5;
+			this.expires = expires;
+		}
+
+		/** Returns the ID of the upload.
+		 * @return the upload ID.
+		 */
+		public String getId() {
+			return id;
+		}
+
+		/** Returns the number of bytes uploaded so far, which is also the
+		 * offset of the next chunk.
+		 * @return the size of the upload.
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/** Returns the MD5 of the bytes uploaded so far.
+		 * @return the MD5 of the upload.
+		 */
+		public String getMD5() {
+			return md5;
+		}
+
+		/** Returns the time at which the upload will be deleted if it is not
+		 * used.
+		 * @return the expiry time.
+		 */
+		public Date getExpires() {
+			return expires;
+		}
+
+		@Override
+		public String toString() {
+			return "StagedUpload [id=" + id + ", size=" + size + ", md5=" +
+					md5 + ", expires=" + expires + "]";
+		}
+	}
+
+	/** Create an upload manager. Any files left in the upload directory by
+	 * a previous instance are deleted, since their state is lost.
+	 * @param uploadDir the directory in which to stage uploads.
+	 * @param expiryMS the time after which an unused upload is deleted.
+	 * @param maxPerUser the maximum number of uploads a user may have open.
+	 * @param maxChunkSize the maximum size of a chunk in bytes.
+	 * @throws IOException if the upload directory could not be created.
+	 */
+	public UploadManager(
+			final File uploadDir,
+			final long expiryMS,
+			final int maxPerUser,
+			final int maxChunkSize)
+			throws IOException {
+		if (uploadDir == null) {
+			throw new NullPointerException("uploadDir cannot be null");
+		}
+		if (expiryMS < 1 || maxPerUser < 1 || maxChunkSize < 1) {
+			throw new IllegalArgumentException(
+					"Upload limits must be positive");
+		}
+		if (!uploadDir.isDirectory() && !uploadDir.mkdirs()) {
+			throw new IOException("Could not create upload directory " +
+					uploadDir);
+		}
+		for (final File f: uploadDir.listFiles()) {
+			if (f.getName().startsWith(UPLOAD_PREFIX)) {
+				f.delete();
+			}
+		}
+		this.uploadDir = uploadDir;
+		this.expiryMS = expiryMS;
+		this.maxPerUser = maxPerUser;
+		this.maxChunkSize = maxChunkSize;
+	}
+
+	/** Returns the maximum chunk size.
+	 * @return the maximum chunk size in bytes.
+	 */
+	public int getMaxChunkSize() {
+		return maxChunkSize;
+	}
+
+	/** Open a new upload.
+	 * @param user the user opening the upload.
+	 * @return the new upload.
+	 * @throws IOException if the staging file could not be created.
+	 */
+	public StagedUpload open(final WorkspaceUser user) throws IOException {
+		checkUser(user);
+		final String id = UUID.randomUUID().toString();
+		final File f = new File(uploadDir, UPLOAD_PREFIX + id);
+		final Upload up = new Upload(id, user, f);
+		synchronized (this) {
+			expire();
+			int count = 0;
+			for (final Upload u: uploads.values()) {
+				if (u.user.equals(user)) {
+					count++;
+				}
+			}
+			if (count >= maxPerUser) {
+				throw new IllegalArgumentException(String.format(
+						"User %s already has the maximum of %s open uploads",
+						user.getUser(), maxPerUser));
+			}
+			if (!f.createNewFile()) {
+				throw new IOException("Upload file already exists: " + f);
+			}
+			uploads.put(id, up);
+			return toStagedUpload(up);
+		}
+	}
+
+	/** Get information about an upload.
+	 * @param user the user that owns the upload.
+	 * @param id the ID of the upload.
+	 * @return the upload.
+	 */
+	public synchronized StagedUpload getUpload(
+			final WorkspaceUser user,
+			final String id) {
+		return toStagedUpload(getUploadInternal(user, id));
+	}
+
+	/** Append a chunk of data to an upload. The offset must be the current
+	 * size of the upload.
+	 * @param user the user that owns the upload.
+	 * @param id the ID of the upload.
+	 * @param offset the offset of the chunk.
+	 * @param data the chunk data.
+	 * @param md5 the MD5 of the chunk data.
+	 * @return the upload after the chunk has been appended.
+	 * @throws IOException if the chunk could not be written. The upload is
+	 * unchanged and the chunk may be resent.
+	 */
+	public StagedUpload append(
+			final WorkspaceUser user,
+			final String id,
+			final long offset,
+			final byte[] data,
+			final String md5)
+			throws IOException {
+		if (data == null || data.length < 1) {
+			throw new IllegalArgumentException("Chunk has no data");
+		}
+		if (data.length > maxChunkSize) {
+			throw new IllegalArgumentException(String.format(
+					"Chunk size %s exceeds the maximum of %s",
+					data.length, maxChunkSize));
+		}
+		if (md5 == null || !md5.equalsIgnoreCase(DigestUtils.md5Hex(data))) {
+			throw new IllegalArgumentException(
+					"Chunk checksum does not match the chunk data");
+		}
+		final Upload up = checkOut(user, id);
+		try {
+			if (offset != up.size) {
+				throw new IllegalArgumentException(String.format(
+						"Chunk offset %s does not match the size of upload %s, %s",
+						offset, id, up.size));
+			}
+			final RandomAccessFile raf = new RandomAccessFile(up.file, "rw");
+			try {
+				// discard any partial write from a failed append
+				raf.setLength(up.size);
+				raf.seek(up.size);
+				raf.write(data);
+			} finally {
+				raf.close();
+			}
+			synchronized (this) {
+				up.digest.update(data);
+				up.size += data.length;
+			}
+		} finally {
+			checkIn(up);
+		}
+		synchronized (this) {
+			return toStagedUpload(up);
+		}
+	}
+
+	/** Start committing an upload. The upload can't be modified until the
+	 * commit is finished with finishCommit().
+	 * @param user the user that owns the upload.
+	 * @param id the ID of the upload.
+	 * @param md5 the expected MD5 of the complete upload, or null to skip
+	 * the check.
+	 * @return the file containing the uploaded data.
+	 */
+	public File startCommit(
+			final WorkspaceUser user,
+			final String id,
+			final String md5) {
+		final Upload up = checkOut(user, id);
+		if (md5 != null && !md5.equalsIgnoreCase(getMD5(up))) {
+			checkIn(up);
+			throw new IllegalArgumentException(
+					"Upload checksum does not match the uploaded data");
+		}
+		if (up.size < 1) {
+			checkIn(up);
+			throw new IllegalArgumentException("Upload " + id +
+					" has no data");
+		}
+		// trim any partial write from a failed append
+		try {
+			final RandomAccessFile raf = new RandomAccessFile(up.file, "rw");
+			try {
+				raf.setLength(up.size);
+			} finally {
+				raf.close();
+			}
+		} catch (IOException ioe) {
+			checkIn(up);
+			throw new IllegalStateException("Could not read upload " + id +
+					": " + ioe.getLocalizedMessage(), ioe);
+		}
+		return up.file;
+	}
+
+	/** Finish committing an upload.
+	 * @param user the user that owns the upload.
+	 * @param id the ID of the upload.
+	 * @param saved true if the upload was saved, in which case it is
+	 * deleted. Otherwise the upload is kept so the commit can be retried.
+	 */
+	public void finishCommit(
+			final WorkspaceUser user,
+			final String id,
+			final boolean saved) {
+		final Upload up;
+		synchronized (this) {
+			up = getUploadInternal(user, id);
+		}
+		if (saved) {
+			remove(up);
+		} else {
+			checkIn(up);
+		}
+	}
+
+	/** Delete an upload.
+	 * @param user the user that owns the upload.
+	 * @param id the ID of the upload.
+	 */
+	public void abort(final WorkspaceUser user, final String id) {
+		remove(checkOut(user, id));
+	}
+
+	/** Returns the number of open uploads.
+	 * @return the number of uploads.
+	 */
+	public synchronized int getUploadCount() {
+		expire();
+		return uploads.size();
+	}
+
+	private void remove(final Upload up) {
+		synchronized (this) {
+			uploads.remove(up.id);
+		}
+		up.file.delete();
+	}
+
+	private synchronized Upload checkOut(
+			final WorkspaceUser user,
+			final String id) {
+		final Upload up = getUploadInternal(user, id);
+		if (up.busy) {
+			throw new IllegalArgumentException("Upload " + id +
+					" is in use by another request");
+		}
+		up.busy = true;
+		return up;
+	}
+
+	private synchronized void checkIn(final Upload up) {
+		up.busy = false;
+		up.lastUsed = System.currentTimeMillis();
+	}
+
+	// must hold lock
+	private Upload getUploadInternal(
+			final WorkspaceUser user,
+			final String id) {
+		checkUser(user);
+		if (id == null || id.isEmpty()) {
+			throw new IllegalArgumentException(
+					"An upload id must be provided");
+		}
+		expire();
+		final Upload up = uploads.get(id);
+		// don't tell other users that the upload exists
+		if (up == null || !up.user.equals(user)) {
+			throw new IllegalArgumentException("No upload with id " + id);
+		}
+		return up;
+	}
+
+	// must hold lock
+	private void expire() {
+		final long now = System.currentTimeMillis();
+		final Iterator<Upload> i = uploads.values().iterator();
+		while (i.hasNext()) {
+			final Upload up = i.next();
+			if (!up.busy && up.lastUsed + expiryMS <= now) {
+				i.remove();
+				up.file.delete();
+			}
+		}
+	}
+
+	// must hold lock
+	private StagedUpload toStagedUpload(final Upload up) {
+		return new StagedUpload(up.id, up.size, getMD5(up),
+				new Date(up.lastUsed + expiryMS));
+	}
+
+	private static String getMD5(final Upload up) {
+		try {
+			// clone so the digest can keep accumulating
+			return Hex.encodeHexString(
+					((MessageDigest) up.digest.clone()).digest());
+		} catch (CloneNotSupportedException cnse) {
+			throw new RuntimeException("The MD5 digest should be cloneable",
+					cnse);
+		}
+	}
+
+	private static void checkUser(final WorkspaceUser user) {
+		if (user == null) {
+			throw new NullPointerException("user cannot be null");
+		}
+	}
+}
@@ -64,6 +64,12 @@ public class WorkspaceAdministration {
 		}
 	}
 
+	public boolean isAdmin(final WorkspaceUser putativeAdmin)
+			throws WorkspaceCommunicationException {
+		return internaladmins.contains(putativeAdmin.getUser()) ||
+				ws.isAdmin(putativeAdmin);
+	}
+
 	public Object runCommand(AuthToken token, UObject command)
 			throws TypeStorageException, IOException, AuthException,
 			WorkspaceCommunicationException, PreExistingWorkspaceException,
@@ -72,8 +78,7 @@ public class WorkspaceAdministration {
 			ParseException, NoSuchPrivilegeException,
 			TypedObjectValidationException, TypedObjectSchemaException {
 		final String putativeAdmin = token.getUserName();
-		if (!(internaladmins.contains(putativeAdmin) ||
-				ws.isAdmin(new WorkspaceUser(putativeAdmin)))) {
+		if (!isAdmin(new WorkspaceUser(putativeAdmin))) {
 			throw new IllegalArgumentException("User " + putativeAdmin
 					+ " is not an admin");
 		}
@@ -163,6 +168,16 @@ public class WorkspaceAdministration {
 			wsmeth.grantModuleOwnership(params, null, true);
 			return null;
 		}
+		if ("getOperationStatistics".equals(fn)) {
+			return ws.getOperationStatistics().getStatistics();
+		}
+		if ("resetOperationStatistics".equals(fn)) {
+			ws.getOperationStatistics().reset();
+			return null;
+		}
+		if ("migrateReferenceCounts".equals(fn)) {
+			return ws.migrateReferenceCounts();
+		}
 		if ("removeModuleOwnership".equals(fn)) {
 			final RemoveModuleOwnershipParams params = getParams(cmd, RemoveModuleOwnershipParams.class);
 			wsmeth.removeModuleOwnership(params, null, true);
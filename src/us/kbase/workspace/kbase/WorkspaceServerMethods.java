@@ -10,11 +10,13 @@ import static us.kbase.workspace.kbase.ArgUtils.parseDate;
 import static us.kbase.workspace.kbase.KBaseIdentifierFactory.processWorkspaceIdentifier;
 import static us.kbase.workspace.kbase.KBasePermissions.translatePermission;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.net.UnknownHostException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,14 +24,18 @@ import java.util.Map;
 import us.kbase.auth.AuthException;
 import us.kbase.auth.AuthToken;
 import us.kbase.auth.ConfigurableAuthService;
+import us.kbase.common.service.JsonTokenStream;
 import us.kbase.common.service.Tuple11;
 import us.kbase.common.service.Tuple9;
+import us.kbase.common.service.UObject;
+import us.kbase.typedobj.core.MD5;
 import us.kbase.typedobj.core.TypeDefId;
 import us.kbase.typedobj.exceptions.NoSuchPrivilegeException;
 import us.kbase.typedobj.exceptions.TypeStorageException;
 import us.kbase.typedobj.exceptions.TypedObjectSchemaException;
 import us.kbase.typedobj.exceptions.TypedObjectValidationException;
 import us.kbase.typedobj.idref.IdReferenceHandlerSetFactory;
+import us.kbase.workspace.CommitUploadParams;
 import us.kbase.workspace.CreateWorkspaceParams;
 import us.kbase.workspace.GrantModuleOwnershipParams;
 import us.kbase.workspace.ListWorkspaceInfoParams;
@@ -187,9 +193,23 @@ public class WorkspaceServerMethods {
 			} else {
 				errprefix += count + ", " + oi.getIdentifierString() + ",";
 			}
-			if (d.getData() == null) {
+			if (d.getData() == null && d.getChksum() == null) {
 				throw new IllegalArgumentException(errprefix + " has no data");
 			}
+			if (d.getData() != null && d.getChksum() != null) {
+				throw new IllegalArgumentException(errprefix +
+						" may not have both data and a checksum");
+			}
+			MD5 md5 = null;
+			if (d.getChksum() != null) {
+				try {
+					md5 = new MD5(d.getChksum());
+				} catch (IllegalArgumentException iae) {
+					throw new IllegalArgumentException(errprefix +
+							" checksum error: " + iae.getLocalizedMessage(),
+							iae);
+				}
+			}
 			TypeDefId t;
 			try {
 				t = TypeDefId.fromTypeString(d.getType());
@@ -201,7 +221,13 @@ public class WorkspaceServerMethods {
 					d.getProvenance());
 			final boolean hidden = longToBoolean(d.getHidden());
 			try {
-				if (oi == null) {
+				if (md5 != null) {
+					woc.add(oi == null ?
+							new WorkspaceSaveObject(t, md5, d.getMeta(), p,
+									hidden) :
+							new WorkspaceSaveObject(oi, t, md5, d.getMeta(),
+									p, hidden));
+				} else if (oi == null) {
 					woc.add(new WorkspaceSaveObject(d.getData(),
 							t, d.getMeta(), p, hidden));
 				} else {
@@ -225,6 +251,37 @@ public class WorkspaceServerMethods {
 		return objInfoToTuple(meta, true);
 	}
 	
+	public Tuple11<Long, String, String, String, Long, String, Long, String, String, Long, Map<String, String>> saveUploadedObject(
+			final CommitUploadParams params,
+			final File data,
+			final WorkspaceUser user,
+			final AuthToken token)
+			throws ParseException, WorkspaceCommunicationException,
+			WorkspaceAuthorizationException, NoSuchObjectException,
+			CorruptWorkspaceDBException, NoSuchWorkspaceException,
+			TypedObjectValidationException, TypeStorageException,
+			IOException, TypedObjectSchemaException {
+		//the staged file goes through the same pipeline as an RPC body
+		//that was cached on disk, so it's never read into memory
+		final JsonTokenStream jts = new JsonTokenStream(data);
+		try {
+			final ObjectSaveData osd = new ObjectSaveData()
+					.withData(new UObject(jts))
+					.withType(params.getType())
+					.withName(params.getName())
+					.withObjid(params.getObjid())
+					.withMeta(params.getMeta())
+					.withProvenance(params.getProvenance())
+					.withHidden(params.getHidden());
+			return saveObjects(new SaveObjectsParams()
+					.withWorkspace(params.getWorkspace())
+					.withId(params.getId())
+					.withObjects(Arrays.asList(osd)), user, token).get(0);
+		} finally {
+			jts.close();
+		}
+	}
+	
 	public void grantModuleOwnership(final GrantModuleOwnershipParams params,
 			final WorkspaceUser user, boolean asAdmin)
 			throws TypeStorageException, NoSuchPrivilegeException {
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -143,6 +144,62 @@ public class GridFSBackendTest {
 		}
 	}
 	
+	@Test
+	public void getBlobRange() throws Exception {
+		// larger than the GridFS chunk size so ranges can cross chunks
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 60000; i++) {
+			sb.append(String.format("%09d ", i));
+		}
+		final String data = sb.toString();
+		final int chunk = GridFS.DEFAULT_CHUNKSIZE;
+		assertTrue("blob spans several chunks", data.length() > 2 * chunk);
+		final MD5 md = new MD5("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa3");
+		gfsb.saveBlob(md, stringToWriteable(data), true);
+		
+		checkRange(md, data, 0, 10);
+		checkRange(md, data, 1000, 20000);
+		checkRange(md, data, chunk - 5, 10);
+		checkRange(md, data, chunk, chunk);
+		checkRange(md, data, chunk - 1, chunk + 2);
+		checkRange(md, data, data.length() - 1, 1);
+		checkRange(md, data, data.length(), 0);
+		checkRange(md, data, 0, data.length());
+		
+		failGetRange(md, data.length() - 1, 2, new IllegalArgumentException(
+				String.format("Range %s-%s is outside blob %s of size %s",
+						data.length() - 1, data.length() + 1, md.getMD5(),
+						data.length())));
+		failGetRange(md, -1, 2, new IllegalArgumentException(
+				String.format("Range -1-1 is outside blob %s of size %s",
+						md.getMD5(), data.length())));
+		failGetRange(new MD5(a32), 0, 1, new BlobStoreException(
+				"Attempt to retrieve non-existant blob with chksum " + a32));
+		gfsb.removeBlob(md);
+	}
+	
+	private void checkRange(final MD5 md, final String data, final int offset,
+			final int length) throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		gfsb.getBlobRange(md, offset, length, out);
+		assertThat("incorrect range " + offset + "+" + length,
+				out.toString("UTF-8"),
+				is(data.substring(offset, offset + length)));
+	}
+	
+	private void failGetRange(final MD5 md, final long offset,
+			final long length, final Exception exp) throws Exception {
+		try {
+			gfsb.getBlobRange(md, offset, length, new ByteArrayOutputStream());
+			fail("got bad range");
+		} catch (Exception e) {
+			assertThat("incorrect exception message", e.getLocalizedMessage(),
+					is(exp.getLocalizedMessage()));
+			assertTrue("incorrect exception type " + e.getClass(),
+					exp.getClass().isAssignableFrom(e.getClass()));
+		}
+	}
+	
 	@Test
 	public void removeNonExistantBlob() throws Exception {
 		gfsb.removeBlob(new MD5(a32)); //should silently not remove anything
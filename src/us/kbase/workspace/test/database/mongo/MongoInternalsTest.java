@@ -41,6 +41,7 @@ import us.kbase.workspace.database.ObjectIDNoWSNoVer;
 import us.kbase.workspace.database.ObjectIDResolvedWS;
 import us.kbase.workspace.database.ObjectIdentifier;
 import us.kbase.workspace.database.ObjectInformation;
+import us.kbase.workspace.database.Permission;
 import us.kbase.workspace.database.Provenance;
 import us.kbase.workspace.database.Reference;
 import us.kbase.workspace.database.ResolvedSaveObject;
@@ -52,14 +53,18 @@ import us.kbase.workspace.database.WorkspaceSaveObject;
 import us.kbase.workspace.database.WorkspaceUser;
 import us.kbase.workspace.database.exceptions.NoSuchObjectException;
 import us.kbase.workspace.database.mongo.IDName;
+import us.kbase.workspace.database.mongo.ModDateUpdater;
 import us.kbase.workspace.database.mongo.MongoWorkspaceDB;
+import us.kbase.workspace.database.mongo.ObjectIDLeaser;
 import us.kbase.workspace.database.mongo.ObjectSavePackage;
 import us.kbase.workspace.database.mongo.ResolvedMongoWSID;
 import us.kbase.workspace.database.mongo.TypeData;
 import us.kbase.workspace.kbase.Util;
 import us.kbase.workspace.test.WorkspaceTestCommon;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
+import com.mongodb.DBCollection;
 import com.mongodb.MongoClient;
 
 public class MongoInternalsTest {
@@ -475,17 +480,22 @@ public class MongoInternalsTest {
 
 	private void checkRefCounts(long wsid, int[][] expected, int factor) {
 		for (int i = 1; i < 5; i++) {
-			@SuppressWarnings("unchecked")
-			Map<String, Object> obj = jdb.getCollection("workspaceObjects")
-					.findOne("{ws: #, id: #}", wsid, i).as(Map.class);
-			@SuppressWarnings("unchecked")
-			List<Integer> refcnts = (List<Integer>) obj.get("refcnt");
-			for (int j = 0; j < 4; j++) {
-				assertThat("correct ref count", refcnts.get(j), is(expected[i][j + 1] * factor));
+			for (int j = 1; j < 5; j++) {
+				assertThat("correct ref count", getVerRefCount(wsid, i, j),
+						is(expected[i][j] * factor));
 			}
 		}
 	}
 	
+	private int getVerRefCount(long wsid, int id, int ver) {
+		@SuppressWarnings("unchecked")
+		Map<String, Object> v = jdb.getCollection("workspaceObjVersions")
+				.findOne("{ws: #, id: #, ver: #}", wsid, id, ver)
+				.as(Map.class);
+		Integer count = (Integer) v.get("refcnt");
+		return count == null ? 0 : count;
+	}
+	
 	private Map<String, Object> withRef(Map<String, Object> map, long wsid,
 			int name, int ver) {
 		return withRef(map, wsid, "" + name, ver);
@@ -781,13 +791,12 @@ public class MongoInternalsTest {
 		List<Map> objlist = iterToList(jdb.getCollection("workspaceObjects")
 				.find("{ws: #, id: #}", wsid, objid).as(Map.class));
 		assertThat("Only one object per id", objlist.size(), is(1));
-		@SuppressWarnings("unchecked")
-		List<Integer> refcnts = (List<Integer>) objlist.get(0).get("refcnt");
-		List<Integer> expected = new LinkedList<Integer>();
-		for (int i = 0; i < vers; i++) {
-			expected.add(0);
+		assertThat("no refcnt array in object", objlist.get(0)
+				.containsKey("refcnt"), is(false));
+		for (int i = 1; i <= vers; i++) {
+			assertThat("refcnt init correctly",
+					getVerRefCount(wsid, objid, i), is(0));
 		}
-		assertThat("refcnt array init correctly", refcnts, is(expected));
 	}
 	
 	private <T> List<T> iterToList(Iterable<T> iter) {
@@ -837,6 +846,411 @@ public class MongoInternalsTest {
 		assertDateisRecent(undelete);
 	}
 
+	@Test
+	public void leaseObjectIDs() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		long wsid = ws.createWorkspace(user, "leases", false, null, null)
+				.getId();
+		DBCollection wscol = jdb.getDatabase().getCollection("workspaces");
+		ObjectIDLeaser l1 = new ObjectIDLeaser(wscol, 4);
+		ObjectIDLeaser l2 = new ObjectIDLeaser(wscol, 4);
+		
+		//blocks double in size when used up quickly
+		assertThat("correct ids", l1.getIDs(wsid, 1), is(Arrays.asList(1L)));
+		assertThat("correct counter", getObjCount(wsid), is(1L));
+		assertThat("correct ids", l1.getIDs(wsid, 1), is(Arrays.asList(2L)));
+		assertThat("correct counter", getObjCount(wsid), is(3L));
+		assertThat("correct ids", l1.getIDs(wsid, 3),
+				is(Arrays.asList(3L, 4L, 5L)));
+		assertThat("correct counter", getObjCount(wsid), is(7L));
+		//other servers get their own blocks
+		assertThat("correct ids", l2.getIDs(wsid, 2),
+				is(Arrays.asList(8L, 9L)));
+		assertThat("correct counter", getObjCount(wsid), is(9L));
+		//blocks never exceed the maximum, but requests larger than the
+		//maximum are filled
+		assertThat("correct ids", l1.getIDs(wsid, 7),
+				is(Arrays.asList(6L, 7L, 10L, 11L, 12L, 13L, 14L)));
+		assertThat("correct counter", getObjCount(wsid), is(14L));
+		assertThat("correct ids", l1.getIDs(wsid, 0),
+				is((List<Long>) new LinkedList<Long>()));
+	}
+	
+	@Test
+	public void cloneNameClash() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		WorkspaceIdentifier source = new WorkspaceIdentifier("clonesource");
+		ws.createWorkspace(user, source.getName(), false, null, null);
+		for (String name: Arrays.asList("a", "b", "b", "c")) {
+			Map<String, Object> data = new HashMap<String, Object>();
+			data.put("thing", name);
+			ws.saveObjects(user, source, Arrays.asList(
+					new WorkspaceSaveObject(new ObjectIDNoWSNoVer(name),
+							new UObject(data), SAFE_TYPE, null,
+							new Provenance(user), false)),
+					fac);
+		}
+		
+		//simulate another user saving an object named b to the new
+		//workspace while the clone is in progress, which makes the bulk
+		//insert of the cloned objects fail
+		@SuppressWarnings("rawtypes")
+		Map cnt = jdb.getCollection("workspaceCounter")
+				.findOne("{id: 'wscounter'}").as(Map.class);
+		long cloneid = ((Number) cnt.get("num")).longValue() + 1;
+		DBCollection objcol = jdb.getDatabase()
+				.getCollection("workspaceObjects");
+		BasicDBObject clash = new BasicDBObject("ws", cloneid);
+		clash.put("id", 100L);
+		clash.put("numver", 0);
+		clash.put("name", "b");
+		clash.put("latest", null);
+		clash.put("del", false);
+		clash.put("hide", false);
+		objcol.insert(clash);
+		
+		WorkspaceIdentifier clone = new WorkspaceIdentifier("clonedest");
+		assertThat("predicted clone id", ws.cloneWorkspace(user, source,
+				clone.getName(), false, null, null).getId(), is(cloneid));
+		
+		//objects before the clash are inserted in bulk, the clashing object
+		//is saved as versions of the existing object, and the objects after
+		//the clash are saved one at a time
+		List<ObjectInformation> info = ws.getObjectInformation(user,
+				Arrays.asList(new ObjectIdentifier(clone, "a"),
+						new ObjectIdentifier(clone, "b"),
+						new ObjectIdentifier(clone, "c"),
+						new ObjectIdentifier(clone, 2)),
+				false, true);
+		assertThat("correct id", info.get(0).getObjectId(), is(1L));
+		assertThat("correct version", info.get(0).getVersion(), is(1));
+		assertThat("correct id", info.get(1).getObjectId(), is(100L));
+		assertThat("correct version", info.get(1).getVersion(), is(2));
+		assertThat("correct id", info.get(2).getObjectId(), is(3L));
+		assertThat("correct version", info.get(2).getVersion(), is(1));
+		assertNull("reserved id unused", info.get(3));
+		
+		for (String name: Arrays.asList("a", "b", "c")) {
+			@SuppressWarnings("unchecked")
+			Map<String, Object> data = (Map<String, Object>)
+					ws.getObjects(user, Arrays.asList(
+							new ObjectIdentifier(clone, name))).get(0)
+					.getData();
+			assertThat("correct data", data.get("thing"), is((Object) name));
+		}
+		assertThat("all versions cloned", ws.getObjectHistory(user,
+				new ObjectIdentifier(clone, "b")).size(), is(2));
+	}
+	
+	@Test
+	public void coalesceModDates() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		long wsid = ws.createWorkspace(user, "moddates", false, null, null)
+				.getId();
+		DBCollection wscol = jdb.getDatabase().getCollection("workspaces");
+		ModDateUpdater mdu = new ModDateUpdater(wscol, 500);
+		
+		//the first update in an interval is written immediately
+		Date created = getWsModDate(wsid);
+		Thread.sleep(10);
+		mdu.update(wsid);
+		Date first = getWsModDate(wsid);
+		assertTrue("date written", first.after(created));
+		assertNull("no pending date", mdu.getPendingDate(wsid));
+		
+		//later updates are held and the latest date wins
+		Thread.sleep(10);
+		mdu.update(wsid);
+		Date second = mdu.getPendingDate(wsid);
+		Thread.sleep(10);
+		mdu.update(wsid);
+		Date third = mdu.getPendingDate(wsid);
+		assertTrue("later date pending", third.after(second));
+		assertThat("date not written", getWsModDate(wsid), is(first));
+		
+		//held dates are written at the end of the interval
+		Thread.sleep(1200);
+		assertThat("latest date written", getWsModDate(wsid), is(third));
+		assertNull("no pending date", mdu.getPendingDate(wsid));
+		
+		mdu.stop();
+		
+		//held dates are written on stop
+		ModDateUpdater slow = new ModDateUpdater(wscol, 60000);
+		Thread.sleep(10);
+		slow.update(wsid);
+		Thread.sleep(10);
+		slow.update(wsid);
+		Date last = slow.getPendingDate(wsid);
+		assertTrue("later date pending", last.after(getWsModDate(wsid)));
+		slow.stop();
+		assertThat("latest date written", getWsModDate(wsid), is(last));
+		assertNull("no pending date", slow.getPendingDate(wsid));
+		
+		//dates never move backwards
+		ModDateUpdater immediate = new ModDateUpdater(wscol, 0);
+		wscol.update(new BasicDBObject("ws", wsid), new BasicDBObject("$set",
+				new BasicDBObject("moddate", new Date(last.getTime() + 60000))));
+		immediate.update(wsid);
+		assertThat("date not moved back", getWsModDate(wsid),
+				is(new Date(last.getTime() + 60000)));
+	}
+	
+	private Date getWsModDate(long wsid) {
+		@SuppressWarnings("rawtypes")
+		Map ws = jdb.getCollection("workspaces")
+				.findOne("{ws: #}", wsid).as(Map.class);
+		return (Date) ws.get("moddate");
+	}
+	
+	@Test
+	public void migrateReferenceCounts() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("refcntmigrate");
+		long wsid = ws.createWorkspace(user, wsi.getName(), false, null, null)
+				.getId();
+		for (int i = 0; i < 3; i++) {
+			ws.saveObjects(user, wsi, Arrays.asList(
+					new WorkspaceSaveObject(new ObjectIDNoWSNoVer("obj"),
+							new UObject(new HashMap<String, Object>()),
+							SAFE_TYPE, null, new Provenance(user), false)),
+					fac);
+		}
+		//counts saved by older versions of the workspace are in the object
+		//document, newer counts are in the version documents
+		jdb.getCollection("workspaceObjects").update("{ws: #, id: 1}", wsid)
+				.with("{$set: {refcnt: [2, 0, 1]}}");
+		jdb.getCollection("workspaceObjVersions")
+				.update("{ws: #, id: 1, ver: 1}", wsid)
+				.with("{$inc: {refcnt: 1}}");
+		List<ObjectIdentifier> objs = Arrays.asList(
+				new ObjectIdentifier(wsi, 1, 1),
+				new ObjectIdentifier(wsi, 1, 2),
+				new ObjectIdentifier(wsi, 1, 3));
+		assertThat("correct counts", ws.getReferencingObjectCounts(user, objs),
+				is(Arrays.asList(3, 0, 1)));
+		
+		assertThat("correct migrated count", ws.migrateReferenceCounts(),
+				is(1L));
+		assertThat("correct counts", ws.getReferencingObjectCounts(user, objs),
+				is(Arrays.asList(3, 0, 1)));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 1), is(3));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 2), is(0));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 3), is(1));
+		checkRefCntInit(wsid, 1, 0);
+		
+		assertThat("correct migrated count", ws.migrateReferenceCounts(),
+				is(0L));
+		assertThat("correct counts", ws.getReferencingObjectCounts(user, objs),
+				is(Arrays.asList(3, 0, 1)));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 1), is(3));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 2), is(0));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 3), is(1));
+	}
+	
+	@Test
+	public void migrateReferenceCountsPartial() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("refcntmigratepart");
+		long wsid = ws.createWorkspace(user, wsi.getName(), false, null, null)
+				.getId();
+		for (int i = 0; i < 3; i++) {
+			ws.saveObjects(user, wsi, Arrays.asList(
+					new WorkspaceSaveObject(new ObjectIDNoWSNoVer("obj"),
+							new UObject(new HashMap<String, Object>()),
+							SAFE_TYPE, null, new Provenance(user), false)),
+					fac);
+		}
+		jdb.getCollection("workspaceObjects").update("{ws: #, id: 1}", wsid)
+				.with("{$set: {refcnt: [2, 4, 1]}}");
+		jdb.getCollection("workspaceObjVersions")
+				.update("{ws: #, id: 1, ver: 3}", wsid)
+				.with("{$inc: {refcnt: 1}}");
+		//simulate a migration that stopped after migrating the first two
+		//versions, but before the counts were removed from the object
+		jdb.getCollection("workspaceObjVersions")
+				.update("{ws: #, id: 1, ver: 1}", wsid)
+				.with("{$inc: {refcnt: 2}, $set: {refcntmig: true}}");
+		jdb.getCollection("workspaceObjVersions")
+				.update("{ws: #, id: 1, ver: 2}", wsid)
+				.with("{$inc: {refcnt: 4}, $set: {refcntmig: true}}");
+		List<ObjectIdentifier> objs = Arrays.asList(
+				new ObjectIdentifier(wsi, 1, 1),
+				new ObjectIdentifier(wsi, 1, 2),
+				new ObjectIdentifier(wsi, 1, 3));
+		assertThat("correct counts", ws.getReferencingObjectCounts(user, objs),
+				is(Arrays.asList(2, 4, 2)));
+		
+		assertThat("correct migrated count", ws.migrateReferenceCounts(),
+				is(1L));
+		assertThat("correct counts", ws.getReferencingObjectCounts(user, objs),
+				is(Arrays.asList(2, 4, 2)));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 1), is(2));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 2), is(4));
+		assertThat("correct ref count", getVerRefCount(wsid, 1, 3), is(2));
+		checkRefCntInit(wsid, 1, 0);
+		
+		//rerunning the migration changes nothing
+		assertThat("correct migrated count", ws.migrateReferenceCounts(),
+				is(0L));
+		assertThat("correct counts", ws.getReferencingObjectCounts(user, objs),
+				is(Arrays.asList(2, 4, 2)));
+	}
+	
+	@Test
+	public void sharedProvenance() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("sharedprov");
+		long wsid = ws.createWorkspace(user, wsi.getName(), false, null, null)
+				.getId();
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("ref"),
+						new UObject(new HashMap<String, Object>()),
+						SAFE_TYPE, null, new Provenance(user), false)), fac);
+		long provcount = jdb.getCollection("provenance").count();
+		
+		//identical provenance in a bulk save is saved once
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("o1"),
+						new UObject(new HashMap<String, Object>()),
+						SAFE_TYPE, null, makeProvenance(user, "m"), false),
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("o2"),
+						new UObject(new HashMap<String, Object>()),
+						SAFE_TYPE, null, makeProvenance(user, "m"), false)),
+				fac);
+		assertThat("correct provenance count",
+				jdb.getCollection("provenance").count(), is(provcount + 1));
+		
+		//the provenance is shared with earlier saves, but the references
+		//are resolved per version
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("ref"),
+						new UObject(new HashMap<String, Object>()),
+						SAFE_TYPE, null, new Provenance(user), false)), fac);
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("o3"),
+						new UObject(new HashMap<String, Object>()),
+						SAFE_TYPE, null, makeProvenance(user, "m"), false),
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("o4"),
+						new UObject(new HashMap<String, Object>()),
+						SAFE_TYPE, null, makeProvenance(user, "m2"), false)),
+				fac);
+		assertThat("correct provenance count",
+				jdb.getCollection("provenance").count(), is(provcount + 2));
+		
+		List<Provenance> provs = new LinkedList<Provenance>();
+		for (String name: Arrays.asList("o1", "o2", "o3", "o4")) {
+			provs.add(ws.getObjectProvenance(user, Arrays.asList(
+					new ObjectIdentifier(wsi, name))).get(0).getProvenance());
+		}
+		String ref1 = wsid + "/1/1";
+		String ref2 = wsid + "/1/2";
+		List<List<String>> expected = Arrays.asList(Arrays.asList(ref1),
+				Arrays.asList(ref1), Arrays.asList(ref2), Arrays.asList(ref2));
+		for (int i = 0; i < 4; i++) {
+			assertThat("correct resolved refs", provs.get(i).getActions().get(0)
+					.getResolvedObjects(), is(expected.get(i)));
+			assertThat("correct refs", provs.get(i).getActions().get(0)
+					.getWorkspaceObjects(), is(Arrays.asList("sharedprov/ref")));
+		}
+		assertThat("correct method", provs.get(2).getActions().get(0)
+				.getMethod(), is("m"));
+		assertThat("correct method", provs.get(3).getActions().get(0)
+				.getMethod(), is("m2"));
+		assertThat("same dates in bulk save", provs.get(0).getDate(),
+				is(provs.get(1).getDate()));
+		assertTrue("later save has later date",
+				!provs.get(2).getDate().before(provs.get(1).getDate()));
+		
+		//read from the cache
+		assertThat("correct resolved refs", ws.getObjectProvenance(user,
+				Arrays.asList(new ObjectIdentifier(wsi, "o1"))).get(0)
+				.getProvenance().getActions().get(0).getResolvedObjects(),
+				is(Arrays.asList(ref1)));
+	}
+	
+	private Provenance makeProvenance(WorkspaceUser user, String method) {
+		Provenance p = new Provenance(user);
+		p.addAction(new Provenance.ProvenanceAction()
+				.withTime(new Date(1000000))
+				.withMethod(method)
+				.withWorkspaceObjects(Arrays.asList("sharedprov/ref")));
+		return p;
+	}
+	
+	@Test
+	public void versionCache() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("versioncache");
+		long wsid = ws.createWorkspace(user, wsi.getName(), false, null, null)
+				.getId();
+		Map<String, String> meta = new HashMap<String, String>();
+		meta.put("a", "b");
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("obj"),
+						new UObject(new HashMap<String, Object>()),
+						SAFE_TYPE, meta, new Provenance(user), false)), fac);
+		ObjectIdentifier oi = new ObjectIdentifier(wsi, "obj");
+		
+		//versions are cached on save, so changes to the immutable fields of
+		//the version document aren't seen
+		jdb.getCollection("workspaceObjVersions")
+				.update("{ws: #, id: 1, ver: 1}", wsid)
+				.with("{$set: {savedby: 'bar'}}");
+		ObjectInformation info = ws.getObjectInformation(user,
+				Arrays.asList(oi), true, false).get(0);
+		assertThat("correct saved by", info.getSavedBy(), is(user));
+		assertThat("correct meta", info.getUserMetaData(), is(meta));
+		
+		//the object state is read from the database
+		ws.renameObject(user, oi, "obj2");
+		info = ws.getObjectInformation(user, Arrays.asList(
+				new ObjectIdentifier(wsi, 1)), true, false).get(0);
+		assertThat("correct name", info.getObjectName(), is("obj2"));
+		
+		//copies of cached versions are saved correctly
+		WorkspaceUser user2 = new WorkspaceUser("foo2");
+		ws.setPermissions(user, wsi, Arrays.asList(user2), Permission.WRITE);
+		ObjectInformation copied = ws.copyObject(user2,
+				new ObjectIdentifier(wsi, "obj2", 1),
+				new ObjectIdentifier(wsi, "copy"));
+		info = ws.getObjectInformation(user, Arrays.asList(
+				new ObjectIdentifier(wsi, "copy")), true, false).get(0);
+		assertThat("correct info", info, is(copied));
+		assertThat("correct saved by", info.getSavedBy(), is(user2));
+		assertThat("correct meta", info.getUserMetaData(), is(meta));
+		assertThat("correct copy ref", ws.getObjectProvenance(user,
+				Arrays.asList(new ObjectIdentifier(wsi, "copy"))).get(0)
+				.getCopyReference().getId(), is(wsid + "/1/1"));
+		
+		ws.setObjectsDeleted(user, Arrays.asList(
+				new ObjectIdentifier(wsi, "obj2")), true);
+		assertNull("deleted object", ws.getObjectInformation(user,
+				Arrays.asList(new ObjectIdentifier(wsi, "obj2")), true, true)
+				.get(0));
+	}
+	
+	@Test
+	public void warmUp() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("foo");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("warmup");
+		ws.createWorkspace(user, wsi.getName(), false, null, null);
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(new HashMap<String, Object>(),
+						SAFE_TYPE, null, new Provenance(user), false)), fac);
+		assertTrue("type index verification finished",
+				mwdb.awaitTypeIndexVerification(60000));
+		assertThat("correct types loaded", mwdb.warmUp(1), is(1));
+		assertThat("correct types loaded", mwdb.warmUp(0), is(0));
+	}
+	
+	private long getObjCount(long wsid) {
+		@SuppressWarnings("rawtypes")
+		Map ws = jdb.getCollection("workspaces")
+				.findOne("{ws: #}", wsid).as(Map.class);
+		return ((Number) ws.get("numObj")).longValue();
+	}
+	
 	private Date getDate(long wsid, int id) {
 		@SuppressWarnings("rawtypes")
 		Map obj = jdb.getCollection("workspaceObjects")
@@ -0,0 +1,147 @@
+package us.kbase.workspace.test.database.mongo;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import us.kbase.workspace.database.mongo.RangeOutputStream;
+import us.kbase.workspace.database.mongo.RangeOutputStream.RangeCompleteException;
+
+public class RangeOutputStreamTest {
+
+	private static byte[] makeData(final int size) {
+		final byte[] b = new byte[size];
+		for (int i = 0; i < size; i++) {
+			b[i] = (byte) i;
+		}
+		return b;
+	}
+
+	// writes the data in chunks until the range is complete
+	private static byte[] writeInChunks(final byte[] data, final int chunk,
+			final long offset, final long length) throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final RangeOutputStream ros = new RangeOutputStream(out, offset,
+				length);
+		try {
+			for (int i = 0; i < data.length; i += chunk) {
+				ros.write(data, i, Math.min(chunk, data.length - i));
+			}
+		} catch (RangeCompleteException e) {
+			// expected when the range ends before the data
+		}
+		assertThat("range complete", ros.isComplete(), is(true));
+		return out.toByteArray();
+	}
+
+	@Test
+	public void ranges() throws Exception {
+		final byte[] data = makeData(100);
+		// chunk boundaries before, at, within, and after the range
+		for (final int chunk: Arrays.asList(1, 7, 10, 15, 100)) {
+			for (final int[] r: Arrays.asList(new int[] {0, 100},
+					new int[] {0, 10}, new int[] {10, 10}, new int[] {15, 12},
+					new int[] {99, 1}, new int[] {3, 0}, new int[] {20, 80})) {
+				assertThat("correct range " + r[0] + "+" + r[1] +
+						" in chunks of " + chunk,
+						writeInChunks(data, chunk, r[0], r[1]),
+						is(Arrays.copyOfRange(data, r[0], r[0] + r[1])));
+			}
+		}
+	}
+
+	@Test
+	public void singleBytes() throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final RangeOutputStream ros = new RangeOutputStream(out, 2, 3);
+		for (int i = 0; i < 5; i++) {
+			assertThat("not complete", ros.isComplete(), is(false));
+			ros.write(i);
+		}
+		assertThat("complete", ros.isComplete(), is(true));
+		assertThat("correct data", out.toByteArray(),
+				is(new byte[] {2, 3, 4}));
+		failWrite(ros);
+	}
+
+	@Test
+	public void writeAfterComplete() throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final RangeOutputStream ros = new RangeOutputStream(out, 0, 0);
+		assertThat("complete", ros.isComplete(), is(true));
+		failWrite(ros);
+		assertThat("nothing written", out.size(), is(0));
+	}
+
+	private void failWrite(final RangeOutputStream ros) throws IOException {
+		try {
+			ros.write(new byte[5], 0, 5);
+			fail("wrote past the end of the range");
+		} catch (RangeCompleteException e) {
+			assertThat("correct exception", e.getLocalizedMessage(),
+					is("The requested range has been written"));
+		}
+		assertThat("no output error", ros.getOutputError() == null,
+				is(true));
+	}
+
+	@Test
+	public void outputError() throws Exception {
+		final IOException err = new IOException("client went away");
+		final RangeOutputStream ros = new RangeOutputStream(
+				new OutputStream() {
+
+					@Override
+					public void write(final int b) throws IOException {
+						throw err;
+					}
+
+					@Override
+					public void write(final byte[] b, final int off,
+							final int len) throws IOException {
+						throw err;
+					}
+				}, 5, 10);
+		// nothing is written to the output before the range
+		ros.write(new byte[5], 0, 5);
+		try {
+			ros.write(new byte[5], 0, 5);
+			fail("expected exception");
+		} catch (IOException e) {
+			assertThat("correct exception", e, is(err));
+		}
+		assertThat("output error recorded", ros.getOutputError(), is(err));
+	}
+
+	@Test
+	public void badArgs() throws Exception {
+		failConstruct(null, 0, 1, new NullPointerException(
+				"out cannot be null"));
+		failConstruct(new ByteArrayOutputStream(), -1, 1,
+				new IllegalArgumentException(
+						"offset and length must be non-negative"));
+		failConstruct(new ByteArrayOutputStream(), 0, -1,
+				new IllegalArgumentException(
+						"offset and length must be non-negative"));
+	}
+
+	private void failConstruct(final OutputStream out, final long offset,
+			final long length, final Exception exp) {
+		try {
+			new RangeOutputStream(out, offset, length);
+			fail("created bad stream");
+		} catch (Exception e) {
+			assertThat("correct exception", e.getLocalizedMessage(),
+					is(exp.getLocalizedMessage()));
+			assertThat("correct exception type", e.getClass().getName(),
+					is(exp.getClass().getName()));
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package us.kbase.workspace.test.kbase;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import us.kbase.workspace.exceptions.RequestRejectedException;
+import us.kbase.workspace.kbase.AdmissionController;
+import us.kbase.workspace.kbase.AdmissionController.Ticket;
+
+public class AdmissionControllerTest {
+
+	/* holds a ticket in another thread until released */
+	private static class Holder extends Thread {
+
+		private final AdmissionController ac;
+		private final String user;
+		private final CountDownLatch admitted = new CountDownLatch(1);
+		private final CountDownLatch done = new CountDownLatch(1);
+		private Exception error = null;
+
+		private Holder(final AdmissionController ac, final String user) {
+			this.ac = ac;
+			this.user = user;
+		}
+
+		@Override
+		public void run() {
+			final Ticket t;
+			try {
+				t = ac.admit(user);
+			} catch (Exception e) {
+				error = e;
+				admitted.countDown();
+				return;
+			}
+			admitted.countDown();
+			try {
+				done.await();
+			} catch (InterruptedException ie) {
+				// just release
+			}
+			t.release();
+		}
+
+		private Holder hold() throws InterruptedException {
+			start();
+			admitted.await();
+			return this;
+		}
+
+		private void release() throws InterruptedException {
+			done.countDown();
+			join();
+		}
+	}
+
+	@Test
+	public void classify() throws Exception {
+		final AdmissionController ac = new AdmissionController(
+				1, 0, 1, 0, 1000, 5);
+		assertThat("large request", ac.isHeavyRequest(1001), is(true));
+		assertThat("small request", ac.isHeavyRequest(1000), is(false));
+		assertThat("unknown size", ac.isHeavyRequest(-1), is(false));
+	}
+
+	@Test
+	public void reentrant() throws Exception {
+		final AdmissionController ac = new AdmissionController(
+				1, 0, 1, 0, 1000, 5);
+		final Ticket t1 = ac.admit(null);
+		final Ticket t2 = ac.admit("foo");
+		assertThat("running count", ac.getRunning(), is(1));
+		t2.release();
+		assertThat("still running", ac.getRunning(), is(1));
+		t1.release();
+		assertThat("released", ac.getRunning(), is(0));
+		t1.release(); // no op
+		assertThat("released", ac.getRunning(), is(0));
+		ac.admit("foo").release();
+	}
+
+	@Test
+	public void rejectFull() throws Exception {
+		final AdmissionController ac = new AdmissionController(
+				1, 0, 2, 0, 1000, 5);
+		final Holder h = new Holder(ac, "foo").hold();
+		assertThat("running count", ac.getRunning(), is(1));
+		failAdmit(ac, "bar",
+				"The server is busy processing large requests. Please retry after 5 seconds");
+		assertThat("rejected count", ac.getRejected(), is(1L));
+		h.release();
+		ac.admit("bar").release();
+	}
+
+	@Test
+	public void rejectUser() throws Exception {
+		final AdmissionController ac = new AdmissionController(
+				3, 0, 1, 0, 1000, 7);
+		final Holder h = new Holder(ac, "foo").hold();
+		failAdmit(ac, "foo",
+				"User foo already has the maximum of 1 large requests running. Please retry after 7 seconds");
+		// other users and anonymous users aren't affected
+		ac.admit("bar").release();
+		ac.admit(null).release();
+		h.release();
+		ac.admit("foo").release();
+	}
+
+	@Test
+	public void timeout() throws Exception {
+		final AdmissionController ac = new AdmissionController(
+				1, 1, 2, 50, 1000, 5);
+		final Holder h = new Holder(ac, "foo").hold();
+		failAdmit(ac, "bar",
+				"Timed out waiting for the server to process other large requests. Please retry after 5 seconds");
+		assertThat("nothing waiting", ac.getWaiting(), is(0));
+		h.release();
+	}
+
+	@Test
+	public void waitForSlot() throws Exception {
+		final AdmissionController ac = new AdmissionController(
+				1, 1, 2, 10000, 1000, 5);
+		final Holder h = new Holder(ac, "foo").hold();
+		final Holder waiter = new Holder(ac, "bar");
+		waiter.start();
+		while (ac.getWaiting() < 1) {
+			Thread.sleep(5);
+		}
+		// queue is full
+		failAdmit(ac, "baz",
+				"The server is busy processing large requests. Please retry after 5 seconds");
+		h.release();
+		waiter.admitted.await();
+		assertThat("waiter admitted", waiter.error, is((Exception) null));
+		waiter.release();
+		assertThat("released", ac.getRunning(), is(0));
+	}
+
+	@Test
+	public void badArgs() throws Exception {
+		failConstruct(0, 0, 1, 0, 0, 0,
+				"The maximum running requests must be at least 1");
+		failConstruct(1, 0, 0, 0, 0, 0,
+				"The maximum running requests must be at least 1");
+		failConstruct(1, -1, 1, 0, 0, 0,
+				"Admission control values cannot be negative");
+		failConstruct(1, 0, 1, 0, 0, -1,
+				"Admission control values cannot be negative");
+	}
+
+	private void failAdmit(final AdmissionController ac, final String user,
+			final String exp) {
+		try {
+			ac.admit(user);
+			fail("admitted request when over limit");
+		} catch (RequestRejectedException e) {
+			assertThat("correct exception", e.getLocalizedMessage(),
+					is(exp));
+		}
+	}
+
+	private void failConstruct(final int running, final int waiting,
+			final int perUser, final long timeout, final long size,
+			final int retry, final String exp) {
+		try {
+			new AdmissionController(running, waiting, perUser, timeout, size,
+					retry);
+			fail("created bad admission controller");
+		} catch (IllegalArgumentException e) {
+			assertThat("correct exception", e.getLocalizedMessage(), is(exp));
+		}
+	}
+}
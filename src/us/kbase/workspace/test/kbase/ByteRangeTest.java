@@ -0,0 +1,111 @@
+package us.kbase.workspace.test.kbase;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import us.kbase.workspace.database.mongo.RangeOutputStream;
+import us.kbase.workspace.database.mongo.RangeOutputStream.RangeCompleteException;
+import us.kbase.workspace.kbase.ByteRange;
+import us.kbase.workspace.kbase.ByteRange.UnsatisfiableRangeException;
+
+public class ByteRangeTest {
+
+	private static void checkRange(final String header, final long size,
+			final long start, final long end) throws Exception {
+		final ByteRange r = ByteRange.parse(header, size);
+		assertThat("incorrect start", r.getStart(), is(start));
+		assertThat("incorrect end", r.getEnd(), is(end));
+		assertThat("incorrect length", r.getLength(), is(end - start + 1));
+	}
+
+	private static void checkIgnored(final String header) throws Exception {
+		assertThat("range not ignored for " + header,
+				ByteRange.parse(header, 100), is((ByteRange) null));
+	}
+
+	private static void checkUnsatisfiable(final String header,
+			final long size) throws Exception {
+		try {
+			ByteRange.parse(header, size);
+			fail("parsed unsatisfiable range " + header);
+		} catch (UnsatisfiableRangeException e) {
+			//pass
+		}
+	}
+
+	@Test
+	public void parse() throws Exception {
+		checkRange("bytes=0-0", 100, 0, 0);
+		checkRange("bytes=0-99", 100, 0, 99);
+		checkRange("bytes=10-19", 100, 10, 19);
+		checkRange("bytes=10-", 100, 10, 99);
+		checkRange("bytes=10-1000", 100, 10, 99);
+		checkRange("bytes=-10", 100, 90, 99);
+		checkRange("bytes=-1000", 100, 0, 99);
+		checkRange(" Bytes=5-6 ", 100, 5, 6);
+		assertThat("incorrect content range",
+				ByteRange.parse("bytes=10-19", 100).toContentRange(100),
+				is("bytes 10-19/100"));
+	}
+
+	@Test
+	public void ignored() throws Exception {
+		checkIgnored(null);
+		checkIgnored("");
+		checkIgnored("items=0-10");
+		checkIgnored("bytes=0-10,20-30");
+		checkIgnored("bytes=10");
+		checkIgnored("bytes=-");
+		checkIgnored("bytes=20-10");
+		checkIgnored("bytes=a-10");
+		checkIgnored("bytes=-1-10");
+	}
+
+	@Test
+	public void unsatisfiable() throws Exception {
+		checkUnsatisfiable("bytes=100-", 100);
+		checkUnsatisfiable("bytes=100-200", 100);
+		checkUnsatisfiable("bytes=0-", 0);
+		checkUnsatisfiable("bytes=-0", 100);
+		checkUnsatisfiable("bytes=-10", 0);
+	}
+
+	@Test
+	public void rangeOutputStream() throws Exception {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final RangeOutputStream ros = new RangeOutputStream(baos, 3, 5);
+		ros.write("ab".getBytes());
+		ros.write('c');
+		assertThat("incorrect complete", ros.isComplete(), is(false));
+		ros.write("defgh".getBytes());
+		assertThat("incorrect complete", ros.isComplete(), is(true));
+		assertThat("incorrect output", new String(baos.toByteArray()),
+				is("defgh"));
+		try {
+			ros.write("i".getBytes());
+			fail("wrote after range end");
+		} catch (RangeCompleteException e) {
+			//pass
+		}
+		assertThat("incorrect output", new String(baos.toByteArray()),
+				is("defgh"));
+		assertThat("incorrect error", ros.getOutputError(),
+				is((IOException) null));
+	}
+
+	@Test
+	public void rangeOutputStreamSingleWrite() throws Exception {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final RangeOutputStream ros = new RangeOutputStream(baos, 2, 3);
+		ros.write("abcdefg".getBytes());
+		assertThat("incorrect complete", ros.isComplete(), is(true));
+		assertThat("incorrect output", new String(baos.toByteArray()),
+				is("cde"));
+	}
+}
@@ -8,6 +8,7 @@ import static us.kbase.workspace.test.kbase.JSONRPCLayerTester.administerCommand
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URL;
 import java.net.UnknownHostException;
 import java.nio.file.Paths;
@@ -16,7 +17,9 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.ini4j.Ini;
 import org.ini4j.Profile.Section;
@@ -26,6 +29,9 @@ import org.junit.Test;
 
 import com.mongodb.DB;
 import com.mongodb.MongoClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 
 import us.kbase.abstracthandle.AbstractHandleClient;
 import us.kbase.abstracthandle.Handle;
@@ -58,6 +64,7 @@ import us.kbase.workspace.SetPermissionsParams;
 import us.kbase.workspace.SubObjectIdentity;
 import us.kbase.workspace.WorkspaceClient;
 import us.kbase.workspace.WorkspaceServer;
+import us.kbase.workspace.kbase.ArgUtils;
 import us.kbase.workspace.kbase.HandleIdHandlerFactory;
 import us.kbase.workspace.test.WorkspaceTestCommon;
 import us.kbase.workspace.test.controllers.handle.HandleServiceController;
@@ -69,6 +76,9 @@ public class HandleTest {
 	private static ShockController SHOCK;
 	private static HandleServiceController HANDLE;
 	private static WorkspaceServer SERVER;
+	private static String MONGO_HOST;
+	private static String HANDLE_USER;
+	private static String HANDLE_PWD;
 	
 	private static String USER1;
 	private static String USER2;
@@ -151,10 +161,14 @@ public class HandleTest {
 				HANDLE.getTempDir());
 		
 		
-		SERVER = startupWorkspaceServer(mongohost,
-				mongoClient.getDB("JSONRPCLayerHandleTester"), 
-				"JSONRPCLayerHandleTester_types",
-				u3, p3);
+		MONGO_HOST = mongohost;
+		HANDLE_USER = u3;
+		HANDLE_PWD = p3;
+		DB db = mongoClient.getDB("JSONRPCLayerHandleTester");
+		WorkspaceTestCommon.initializeGridFSWorkspaceDB(db,
+				"JSONRPCLayerHandleTester_types");
+		SERVER = startupWorkspaceServer(mongohost, db,
+				"http://localhost:" + HANDLE.getHandleManagerPort(), u3, p3);
 		int port = SERVER.getServerPort();
 		System.out.println("Started test workspace server on port " + port);
 		try {
@@ -210,15 +224,13 @@ public class HandleTest {
 	private static WorkspaceServer startupWorkspaceServer(
 			String mongohost,
 			DB db,
-			String typedb,
+			String handleManagerURL,
 			String handleUser,
 			String handlePwd)
 			throws InvalidHostException, UnknownHostException, IOException,
 			NoSuchFieldException, IllegalAccessException, Exception,
 			InterruptedException {
 		
-		WorkspaceTestCommon.initializeGridFSWorkspaceDB(db, typedb);
-
 		//write the server config file:
 		File iniFile = File.createTempFile("test", ".cfg",
 				new File(WorkspaceTestCommon.getTempDir()));
@@ -234,8 +246,7 @@ public class HandleTest {
 		ws.add("backend-secret", "foo");
 		ws.add("handle-service-url", "http://localhost:" +
 				HANDLE.getHandleServerPort());
-		ws.add("handle-manager-url", "http://localhost:" +
-				HANDLE.getHandleManagerPort());
+		ws.add("handle-manager-url", handleManagerURL);
 		ws.add("handle-manager-user", handleUser);
 		ws.add("handle-manager-pwd", handlePwd);
 		ws.add("ws-admin", USER2);
@@ -330,6 +341,7 @@ public class HandleTest {
 		
 		checkReadAcl(node, twouser);
 		node.removeFromNodeAcl(Arrays.asList(USER2), READ_ACL);
+		ArgUtils.clearHandleACLCache();
 		checkReadAcl(node, oneuser);
 
 		//object subset
@@ -338,6 +350,7 @@ public class HandleTest {
 		
 		checkReadAcl(node, twouser);
 		node.removeFromNodeAcl(Arrays.asList(USER2), READ_ACL);
+		ArgUtils.clearHandleACLCache();
 		checkReadAcl(node, oneuser);
 
 		//object provenance
@@ -346,6 +359,7 @@ public class HandleTest {
 		
 		checkReadAcl(node, twouser);
 		node.removeFromNodeAcl(Arrays.asList(USER2), READ_ACL);
+		ArgUtils.clearHandleACLCache();
 		checkReadAcl(node, oneuser);
 		
 		//object by ref chain
@@ -363,6 +377,7 @@ public class HandleTest {
 		
 		//test error message for deleted node
 		node.delete();
+		ArgUtils.clearHandleACLCache();
 		
 		ObjectData wod = CLIENT2.getObjects(Arrays.asList(new ObjectIdentity().withWorkspace(workspace)
 				.withObjid(1L))).get(0);
@@ -379,6 +394,129 @@ public class HandleTest {
 						+ h1.getHid()));
 	}
 	
+	@Test
+	public void handleACLCache() throws Exception {
+		String workspace = "handleaclcache";
+		CLIENT1.createWorkspace(new CreateWorkspaceParams().withWorkspace(workspace));
+		Handle h1 = HANDLE_CLIENT.newHandle();
+		Handle h2 = HANDLE_CLIENT.newHandle();
+		Map<String, Object> handleobj1 = new HashMap<String, Object>();
+		handleobj1.put("handles", Arrays.asList(h1.getHid()));
+		Map<String, Object> handleobj2 = new HashMap<String, Object>();
+		handleobj2.put("handles", Arrays.asList(h1.getHid(), h2.getHid()));
+		CLIENT1.saveObjects(new SaveObjectsParams().withWorkspace(workspace)
+				.withObjects(Arrays.asList(
+						new ObjectSaveData().withData(new UObject(handleobj1))
+						.withType(HANDLE_TYPE),
+						new ObjectSaveData().withData(new UObject(handleobj2))
+						.withType(HANDLE_TYPE))));
+		CLIENT1.setPermissions(new SetPermissionsParams().withWorkspace(workspace)
+				.withUsers(Arrays.asList(USER2)).withNewPermission("r"));
+		
+		BasicShockClient bsc = new BasicShockClient(
+				new URL("http://localhost:" + SHOCK.getServerPort()), CLIENT1.getToken());
+		List<ShockUserId> oneuser = Arrays.asList(SHOCK_USER1);
+		List<ShockUserId> twouser = Arrays.asList(SHOCK_USER1, SHOCK_USER2);
+		ShockNode node1 = bsc.getNode(new ShockNodeId(h1.getId()));
+		ShockNode node2 = bsc.getNode(new ShockNodeId(h2.getId()));
+		
+		List<ObjectData> objs = CLIENT2.getObjects(Arrays.asList(
+				new ObjectIdentity().withWorkspace(workspace).withObjid(1L),
+				new ObjectIdentity().withWorkspace(workspace).withObjid(2L)));
+		for (ObjectData od: objs) {
+			assertThat("no handle error", od.getHandleError(), is((String) null));
+		}
+		checkReadAcl(node1, twouser);
+		checkReadAcl(node2, twouser);
+		
+		//recently granted handles are not sent to the handle manager again
+		node1.removeFromNodeAcl(Arrays.asList(USER2), READ_ACL);
+		CLIENT2.getObjects(Arrays.asList(
+				new ObjectIdentity().withWorkspace(workspace).withObjid(2L)));
+		checkReadAcl(node1, oneuser);
+		
+		ArgUtils.clearHandleACLCache();
+		CLIENT2.getObjects(Arrays.asList(
+				new ObjectIdentity().withWorkspace(workspace).withObjid(2L)));
+		checkReadAcl(node1, twouser);
+		
+		//a bad handle only causes an error in the objects that contain it
+		node2.delete();
+		ArgUtils.clearHandleACLCache();
+		objs = CLIENT2.getObjects(Arrays.asList(
+				new ObjectIdentity().withWorkspace(workspace).withObjid(1L),
+				new ObjectIdentity().withWorkspace(workspace).withObjid(2L)));
+		assertThat("no handle error", objs.get(0).getHandleError(),
+				is((String) null));
+		assertTrue("got correct error message", objs.get(1).getHandleError()
+				.startsWith("The Handle Manager reported a problem while attempting to set Handle ACLs: Unable to set acl(s) on handles"));
+	}
+	
+	@Test
+	public void handleManagerFailure() throws Exception {
+		String workspace = "handlemanagerfailure";
+		CLIENT1.createWorkspace(new CreateWorkspaceParams().withWorkspace(workspace));
+		Handle h1 = HANDLE_CLIENT.newHandle();
+		Handle h2 = HANDLE_CLIENT.newHandle();
+		Map<String, Object> handleobj1 = new HashMap<String, Object>();
+		handleobj1.put("handles", Arrays.asList(h1.getHid()));
+		Map<String, Object> handleobj2 = new HashMap<String, Object>();
+		handleobj2.put("handles", Arrays.asList(h2.getHid()));
+		CLIENT1.saveObjects(new SaveObjectsParams().withWorkspace(workspace)
+				.withObjects(Arrays.asList(
+						new ObjectSaveData().withData(new UObject(handleobj1))
+						.withType(HANDLE_TYPE),
+						new ObjectSaveData().withData(new UObject(handleobj2))
+						.withType(HANDLE_TYPE))));
+		
+		// a Handle Manager that returns garbage for every call
+		final AtomicInteger calls = new AtomicInteger();
+		HttpServer hm = HttpServer.create(new InetSocketAddress(0), 0);
+		hm.createContext("/", new HttpHandler() {
+			
+			@Override
+			public void handle(HttpExchange ex) throws IOException {
+				calls.incrementAndGet();
+				IOUtils.toByteArray(ex.getRequestBody());
+				byte[] resp = "not json".getBytes("UTF-8");
+				ex.getResponseHeaders().add("Content-Type", "application/json");
+				ex.sendResponseHeaders(200, resp.length);
+				ex.getResponseBody().write(resp);
+				ex.close();
+			}
+		});
+		hm.start();
+		WorkspaceServer server = null;
+		try {
+			server = startupWorkspaceServer(MONGO_HOST,
+					new MongoClient(MONGO_HOST).getDB("JSONRPCLayerHandleTester"),
+					"http://localhost:" + hm.getAddress().getPort(),
+					HANDLE_USER, HANDLE_PWD);
+			WorkspaceClient cli = new WorkspaceClient(new URL("http://localhost:" +
+					server.getServerPort()), CLIENT1.getToken());
+			cli.setIsInsecureHttpConnectionAllowed(true);
+			ArgUtils.clearHandleACLCache();
+			List<ObjectData> objs = cli.getObjects(Arrays.asList(
+					new ObjectIdentity().withWorkspace(workspace).withObjid(1L),
+					new ObjectIdentity().withWorkspace(workspace).withObjid(2L)));
+			
+			// errors that aren't from a bad handle aren't retried per object
+			assertThat("one call to the handle manager", calls.get(), is(1));
+			String err = objs.get(0).getHandleError();
+			assertTrue("got an error", err != null);
+			assertTrue("not a bad handle error", !err.startsWith(
+					"The Handle Manager reported a problem"));
+			assertThat("same error for all objects",
+					objs.get(1).getHandleError(), is(err));
+		} finally {
+			if (server != null) {
+				server.stopServer();
+			}
+			hm.stop(0);
+			ArgUtils.clearHandleACLCache();
+		}
+	}
+	
 	private void checkReadAcl(ShockNode node, List<ShockUserId> uuids)
 			throws Exception {
 		assertThat("correct shock acls", node.getACLs(READ_ACL).getRead(),
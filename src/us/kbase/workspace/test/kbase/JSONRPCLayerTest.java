@@ -21,7 +21,9 @@ import java.util.Set;
 
 import junit.framework.Assert;
 
+import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 import org.junit.matchers.JUnitMatchers;
 
@@ -36,6 +38,7 @@ import us.kbase.common.service.UObject;
 import us.kbase.common.service.UnauthorizedException;
 import us.kbase.workspace.AlterWorkspaceMetadataParams;
 import us.kbase.workspace.CloneWorkspaceParams;
+import us.kbase.workspace.CommitUploadParams;
 import us.kbase.workspace.CopyObjectParams;
 import us.kbase.workspace.CreateWorkspaceParams;
 import us.kbase.workspace.ExternalDataUnit;
@@ -61,6 +64,8 @@ import us.kbase.workspace.SetGlobalPermissionsParams;
 import us.kbase.workspace.SetPermissionsParams;
 import us.kbase.workspace.SetWorkspaceDescriptionParams;
 import us.kbase.workspace.SubObjectIdentity;
+import us.kbase.workspace.UploadChunkParams;
+import us.kbase.workspace.UploadInfo;
 import us.kbase.workspace.WorkspaceClient;
 import us.kbase.workspace.WorkspaceIdentity;
 
@@ -941,6 +946,327 @@ public class JSONRPCLayerTest extends JSONRPCLayerTester {
 		}
 	}
 	
+	@Test
+	public void uploadAndCommit() throws Exception {
+		String wsname = "uploadcommit";
+		CLIENT1.createWorkspace(new CreateWorkspaceParams()
+				.withWorkspace(wsname));
+		byte[] data = "{\"thing\": \"some data uploaded in chunks\"}"
+				.getBytes("UTF-8");
+		UploadInfo ui = CLIENT1.openUpload();
+		assertThat("new upload is empty", ui.getSize(), is(0L));
+		
+		// stage the data in three chunks
+		int[] ends = {10, 20, data.length};
+		int start = 0;
+		for (int end: ends) {
+			byte[] chunk = Arrays.copyOfRange(data, start, end);
+			ui = CLIENT1.uploadChunk(new UploadChunkParams()
+					.withId(ui.getId()).withOffset((long) start)
+					.withData(Base64.encodeBase64String(chunk))
+					.withChksum(DigestUtils.md5Hex(chunk)));
+			assertThat("correct size", ui.getSize(), is((long) end));
+			start = end;
+		}
+		ui = CLIENT1.getUploadInfo(ui.getId());
+		assertThat("correct size", ui.getSize(), is((long) data.length));
+		assertThat("correct md5", ui.getChksum(), is(DigestUtils.md5Hex(data)));
+		
+		// a failed commit keeps the upload
+		CommitUploadParams cup = new CommitUploadParams()
+				.withWorkspace(wsname).withUpload(ui.getId())
+				.withType(SAFE_TYPE).withName("uploaded");
+		try {
+			CLIENT1.commitUpload(cup.withChksum(
+					"0123456789abcdef0123456789abcdef"));
+			fail("committed with bad checksum");
+		} catch (ServerException se) {
+			assertThat("correct exception", se.getLocalizedMessage(),
+					is("Upload checksum does not match the uploaded data"));
+		}
+		assertThat("upload kept", CLIENT1.getUploadInfo(ui.getId()).getSize(),
+				is((long) data.length));
+		
+		Tuple11<Long, String, String, String, Long, String, Long, String,
+				String, Long, Map<String, String>> info = CLIENT1.commitUpload(
+						cup.withChksum(DigestUtils.md5Hex(data)));
+		assertThat("correct name", info.getE2(), is("uploaded"));
+		assertThat("correct type", info.getE3(), is(SAFE_TYPE));
+		assertThat("correct workspace", info.getE8(), is(wsname));
+		
+		// the object reads back like any other
+		Map<String, Object> expected = new HashMap<String, Object>();
+		expected.put("thing", "some data uploaded in chunks");
+		ObjectData od = CLIENT1.getObjects(Arrays.asList(new ObjectIdentity()
+				.withRef(wsname + "/uploaded"))).get(0);
+		assertThat("correct data", od.getData().asClassInstance(Object.class),
+				is((Object) expected));
+		assertThat("correct id", od.getInfo().getE1(), is(info.getE1()));
+		assertThat("correct chksum", od.getInfo().getE9(), is(info.getE9()));
+		
+		// the upload is gone after a commit
+		try {
+			CLIENT1.getUploadInfo(ui.getId());
+			fail("got committed upload");
+		} catch (ServerException se) {
+			assertThat("correct exception", se.getLocalizedMessage(),
+					is("No upload with id " + ui.getId()));
+		}
+		
+		// another user can't commit the upload
+		ui = CLIENT1.openUpload();
+		CLIENT1.uploadChunk(new UploadChunkParams().withId(ui.getId())
+				.withOffset(0L).withData(Base64.encodeBase64String(data))
+				.withChksum(DigestUtils.md5Hex(data)));
+		try {
+			CLIENT2.commitUpload(new CommitUploadParams()
+					.withWorkspace(wsname).withUpload(ui.getId())
+					.withType(SAFE_TYPE).withName("stolen"));
+			fail("committed another user's upload");
+		} catch (ServerException se) {
+			assertThat("correct exception", se.getLocalizedMessage(),
+					is("No upload with id " + ui.getId()));
+		}
+		CLIENT1.abortUpload(ui.getId());
+	}
+	
+	@Test
+	public void download() throws Exception {
+		String wsname = "download";
+		CLIENT1.createWorkspace(new CreateWorkspaceParams()
+				.withWorkspace(wsname));
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("foo", "some data to download in ranges");
+		data.put("bar", Arrays.asList(1, 2, 3));
+		Tuple11<Long, String, String, String, Long, String, Long, String,
+				String, Long, Map<String, String>> info = CLIENT1.saveObjects(
+				new SaveObjectsParams().withWorkspace(wsname)
+				.withObjects(Arrays.asList(new ObjectSaveData()
+						.withData(new UObject(data)).withType(SAFE_TYPE)
+						.withName("dl")))).get(0);
+		String ref = wsname + "/dl/1";
+		String etag = "\"" + info.getE9() + "\"";
+		
+		// the whole object
+		HttpURLConnection conn = download(CLIENT1, "GET", ref);
+		assertThat("correct status", conn.getResponseCode(), is(200));
+		byte[] all = readBody(conn);
+		assertThat("correct size", (long) all.length, is(info.getE10()));
+		assertThat("correct md5", DigestUtils.md5Hex(all), is(info.getE9()));
+		assertThat("correct etag", conn.getHeaderField("ETag"), is(etag));
+		assertThat("ranges accepted", conn.getHeaderField("Accept-Ranges"),
+				is("bytes"));
+		assertThat("correct length", conn.getHeaderField("Content-Length"),
+				is("" + all.length));
+		
+		// HEAD only sends the headers
+		conn = download(CLIENT1, "HEAD", ref);
+		assertThat("correct status", conn.getResponseCode(), is(200));
+		assertThat("correct etag", conn.getHeaderField("ETag"), is(etag));
+		assertThat("correct length", conn.getHeaderField("Content-Length"),
+				is("" + all.length));
+		
+		// ranges
+		conn = download(CLIENT1, "GET", ref, "Range", "bytes=2-6");
+		checkPartial(conn, all, 2, 6);
+		conn = download(CLIENT1, "GET", ref, "Range", "bytes=-4");
+		checkPartial(conn, all, all.length - 4, all.length - 1);
+		conn = download(CLIENT1, "GET", ref, "Range", "bytes=5-");
+		checkPartial(conn, all, 5, all.length - 1);
+		conn = download(CLIENT1, "GET", ref, "Range",
+				"bytes=" + all.length + "-");
+		assertThat("correct status", conn.getResponseCode(), is(416));
+		assertThat("correct content range",
+				conn.getHeaderField("Content-Range"), is("bytes */" + all.length));
+		
+		// If-Range gets the range only if the data is unchanged
+		conn = download(CLIENT1, "GET", ref, "Range", "bytes=2-6",
+				"If-Range", etag);
+		checkPartial(conn, all, 2, 6);
+		conn = download(CLIENT1, "GET", ref, "Range", "bytes=2-6",
+				"If-Range", "\"0123456789abcdef0123456789abcdef\"");
+		assertThat("correct status", conn.getResponseCode(), is(200));
+		assertThat("correct data", readBody(conn), is(all));
+		
+		// conditional requests
+		conn = download(CLIENT1, "GET", ref, "If-None-Match", etag);
+		assertThat("correct status", conn.getResponseCode(), is(304));
+		conn = download(CLIENT1, "GET", ref, "If-None-Match",
+				"\"0123456789abcdef0123456789abcdef\"");
+		assertThat("correct status", conn.getResponseCode(), is(200));
+		assertThat("correct data", readBody(conn), is(all));
+		conn = download(CLIENT1, "GET", ref, "If-Match",
+				"\"0123456789abcdef0123456789abcdef\"");
+		assertThat("correct status", conn.getResponseCode(), is(412));
+		
+		// errors
+		assertThat("no access", download(CLIENT2, "GET", ref)
+				.getResponseCode(), is(403));
+		assertThat("anonymous", download(null, "GET", ref)
+				.getResponseCode(), is(403));
+		assertThat("no such object", download(CLIENT1, "GET",
+				wsname + "/dl/2").getResponseCode(), is(404));
+		assertThat("no ref", download(CLIENT1, "GET", null)
+				.getResponseCode(), is(400));
+	}
+	
+	@Test
+	public void downloadConditionsAndAccess() throws Exception {
+		String wsname = "downloadconditions";
+		CLIENT1.createWorkspace(new CreateWorkspaceParams()
+				.withWorkspace(wsname));
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("foo", "some data to download conditionally");
+		Tuple11<Long, String, String, String, Long, String, Long, String,
+				String, Long, Map<String, String>> info = CLIENT1.saveObjects(
+				new SaveObjectsParams().withWorkspace(wsname)
+				.withObjects(Arrays.asList(new ObjectSaveData()
+						.withData(new UObject(data)).withType(SAFE_TYPE)
+						.withName("dl")))).get(0);
+		String ref = wsname + "/dl/1";
+		String etag = "\"" + info.getE9() + "\"";
+		String otheretag = "\"0123456789abcdef0123456789abcdef\"";
+		HttpURLConnection conn = download(CLIENT1, "GET", ref);
+		byte[] all = readBody(conn);
+		String lastmod = conn.getHeaderField("Last-Modified");
+		assertThat("has last modified", lastmod != null, is(true));
+		
+		// If-Match
+		for (String m: Arrays.asList(etag, "*", otheretag + ", " + etag)) {
+			conn = download(CLIENT1, "GET", ref, "If-Match", m);
+			assertThat("correct status for " + m, conn.getResponseCode(),
+					is(200));
+			assertThat("correct data for " + m, readBody(conn), is(all));
+		}
+		conn = download(CLIENT1, "GET", ref, "If-Match", otheretag);
+		assertThat("correct status", conn.getResponseCode(), is(412));
+		assertThat("correct etag", conn.getHeaderField("ETag"), is(etag));
+		conn = download(CLIENT1, "HEAD", ref, "If-Match", otheretag);
+		assertThat("correct status", conn.getResponseCode(), is(412));
+		
+		// If-None-Match
+		for (String m: Arrays.asList(etag, "*", otheretag + ", " + etag,
+				"W/" + etag)) {
+			conn = download(CLIENT1, "GET", ref, "If-None-Match", m);
+			assertThat("correct status for " + m, conn.getResponseCode(),
+					is(304));
+			assertThat("correct etag for " + m, conn.getHeaderField("ETag"),
+					is(etag));
+		}
+		// If-Match is checked first
+		conn = download(CLIENT1, "GET", ref, "If-Match", otheretag,
+				"If-None-Match", etag);
+		assertThat("correct status", conn.getResponseCode(), is(412));
+		
+		// If-Range with a date always gets the whole object
+		conn = download(CLIENT1, "GET", ref, "Range", "bytes=2-6",
+				"If-Range", lastmod);
+		assertThat("correct status", conn.getResponseCode(), is(200));
+		assertThat("correct data", readBody(conn), is(all));
+		
+		// a mismatched If-Range ignores an unsatisfiable range
+		conn = download(CLIENT1, "GET", ref, "Range",
+				"bytes=" + all.length + "-", "If-Range", otheretag);
+		assertThat("correct status", conn.getResponseCode(), is(200));
+		assertThat("correct data", readBody(conn), is(all));
+		
+		// unsupported ranges are ignored
+		for (String r: Arrays.asList("bytes=1-2,4-5", "items=1-2",
+				"bytes=6-2", "bytes=foo")) {
+			conn = download(CLIENT1, "GET", ref, "Range", r);
+			assertThat("correct status for " + r, conn.getResponseCode(),
+					is(200));
+			assertThat("correct data for " + r, readBody(conn), is(all));
+		}
+		conn = download(CLIENT1, "GET", ref, "Range", "bytes=-0");
+		assertThat("correct status", conn.getResponseCode(), is(416));
+		
+		// HEAD with a range only sends the headers
+		conn = download(CLIENT1, "HEAD", ref, "Range", "bytes=2-6");
+		assertThat("correct status", conn.getResponseCode(), is(206));
+		assertThat("correct content range",
+				conn.getHeaderField("Content-Range"),
+				is("bytes 2-6/" + all.length));
+		assertThat("correct length", conn.getHeaderField("Content-Length"),
+				is("5"));
+		
+		// permissions on the ref
+		assertThat("no access", download(CLIENT2, "GET", ref)
+				.getResponseCode(), is(403));
+		CLIENT1.setPermissions(new SetPermissionsParams()
+				.withWorkspace(wsname).withUsers(Arrays.asList(USER2))
+				.withNewPermission("r"));
+		conn = download(CLIENT2, "GET", ref);
+		assertThat("shared", conn.getResponseCode(), is(200));
+		assertThat("correct data", readBody(conn), is(all));
+		assertThat("anonymous", download(null, "GET", ref)
+				.getResponseCode(), is(403));
+		CLIENT1.setGlobalPermission(new SetGlobalPermissionsParams()
+				.withWorkspace(wsname).withNewPermission("r"));
+		conn = download(null, "GET", ref);
+		assertThat("public", conn.getResponseCode(), is(200));
+		assertThat("correct data", readBody(conn), is(all));
+		CLIENT1.setGlobalPermission(new SetGlobalPermissionsParams()
+				.withWorkspace(wsname).withNewPermission("n"));
+		CLIENT1.setPermissions(new SetPermissionsParams()
+				.withWorkspace(wsname).withUsers(Arrays.asList(USER2))
+				.withNewPermission("n"));
+		assertThat("access removed", download(CLIENT2, "GET", ref)
+				.getResponseCode(), is(403));
+		
+		// bad requests
+		HttpURLConnection badtoken = (HttpURLConnection) new URL(
+				CLIENT1.getURL().toString() + "/download?ref=" + ref)
+				.openConnection();
+		badtoken.setRequestProperty("Authorization", "notatoken");
+		assertThat("bad token", badtoken.getResponseCode(), is(401));
+		assertThat("bad ref", download(CLIENT1, "GET", "foo/bar/baz/bat")
+				.getResponseCode(), is(400));
+		assertThat("no such workspace", download(CLIENT1, "GET",
+				"nosuchworkspacefordownload/1").getResponseCode(), is(403));
+	}
+	
+	private HttpURLConnection download(
+			final WorkspaceClient client,
+			final String method,
+			final String ref,
+			final String... headers)
+			throws Exception {
+		final String url = CLIENT1.getURL().toString() + "/download" +
+				(ref == null ? "" : "?ref=" + ref);
+		final HttpURLConnection conn = (HttpURLConnection) new URL(url)
+				.openConnection();
+		conn.setConnectTimeout(10000);
+		conn.setRequestMethod(method);
+		if (client != null) {
+			conn.setRequestProperty("Authorization",
+					client.getToken().toString());
+		}
+		for (int i = 0; i < headers.length; i += 2) {
+			conn.setRequestProperty(headers[i], headers[i + 1]);
+		}
+		return conn;
+	}
+	
+	private byte[] readBody(final HttpURLConnection conn) throws Exception {
+		final InputStream is = conn.getInputStream();
+		try {
+			return IOUtils.toByteArray(is);
+		} finally {
+			is.close();
+		}
+	}
+	
+	private void checkPartial(final HttpURLConnection conn, final byte[] all,
+			final int start, final int end) throws Exception {
+		assertThat("correct status", conn.getResponseCode(), is(206));
+		assertThat("correct content range",
+				conn.getHeaderField("Content-Range"),
+				is("bytes " + start + "-" + end + "/" + all.length));
+		assertThat("correct data", readBody(conn),
+				is(Arrays.copyOfRange(all, start, end + 1)));
+	}
+	
 	@SuppressWarnings("deprecation")
 	@Test
 	public void deprecatedMethods() throws Exception {
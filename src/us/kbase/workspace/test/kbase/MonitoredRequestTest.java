@@ -0,0 +1,98 @@
+package us.kbase.workspace.test.kbase;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import us.kbase.workspace.kbase.MonitoredRequest;
+
+public class MonitoredRequestTest {
+
+	private static MonitoredRequest makeRequest(final String body)
+			throws Exception {
+		final ByteArrayInputStream bais =
+				new ByteArrayInputStream(body.getBytes("UTF-8"));
+		final ServletInputStream sis = new ServletInputStream() {
+
+			@Override
+			public int read() throws IOException {
+				return bais.read();
+			}
+		};
+		final HttpServletRequest req = (HttpServletRequest)
+				Proxy.newProxyInstance(
+						HttpServletRequest.class.getClassLoader(),
+						new Class<?>[] {HttpServletRequest.class},
+						new InvocationHandler() {
+
+							@Override
+							public Object invoke(final Object proxy,
+									final Method method, final Object[] args) {
+								if (method.getName().equals("getInputStream")) {
+									return sis;
+								}
+								throw new UnsupportedOperationException(
+										method.getName());
+							}
+						});
+		return new MonitoredRequest(req);
+	}
+
+	@Test
+	public void findMethod() throws Exception {
+		// the method key may appear anywhere in the top level object, and
+		// method keys and strings in nested objects are ignored
+		final String body = "{\"params\": [{\"method\": \"fake\", " +
+				"\"s\": \"a\\\"method\\\": \\\"fake2\"}, [\"method\"]], " +
+				"\"version\": \"1.1\", \"method\": \"Workspace.save_objects\", " +
+				"\"id\": \"12345\"}";
+		MonitoredRequest mr = makeRequest(body);
+		assertThat("no method before read", mr.getRpcMethod(),
+				is((String) null));
+		final byte[] read = IOUtils.toByteArray(mr.getInputStream());
+		assertThat("correct body", new String(read, "UTF-8"), is(body));
+		assertThat("correct method", mr.getRpcMethod(),
+				is("Workspace.save_objects"));
+		assertThat("correct byte count", mr.getBytesRead(),
+				is((long) body.length()));
+		
+		// single byte reads
+		mr = makeRequest(body);
+		final ServletInputStream is = mr.getInputStream();
+		while (is.read() > -1) {
+			// read everything
+		}
+		assertThat("correct method", mr.getRpcMethod(),
+				is("Workspace.save_objects"));
+		assertThat("correct byte count", mr.getBytesRead(),
+				is((long) body.length()));
+	}
+
+	@Test
+	public void noMethod() throws Exception {
+		for (final String body: new String[] {
+				"[\"method\", \"foo\"]",
+				"{\"params\": {\"method\": \"foo\"}}",
+				"{\"method\": 1, \"foo\": \"bar\"}",
+				"{\"foo\": \"method\", \"bar\": \"baz\"}",
+				"not json"}) {
+			final MonitoredRequest mr = makeRequest(body);
+			IOUtils.toByteArray(mr.getInputStream());
+			assertThat("no method for " + body, mr.getRpcMethod(),
+					is((String) null));
+			assertThat("correct byte count", mr.getBytesRead(),
+					is((long) body.length()));
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package us.kbase.workspace.test.kbase;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+import us.kbase.workspace.database.WorkspaceUser;
+import us.kbase.workspace.kbase.UploadManager;
+import us.kbase.workspace.kbase.UploadManager.StagedUpload;
+
+public class UploadManagerTest {
+
+	private static final WorkspaceUser USER = new WorkspaceUser("foo");
+	private static final WorkspaceUser USER2 = new WorkspaceUser("bar");
+
+	private static File makeDir() throws IOException {
+		final File d = File.createTempFile("UploadManagerTest", "");
+		d.delete();
+		d.deleteOnExit();
+		return d;
+	}
+
+	private static UploadManager makeManager() throws IOException {
+		return new UploadManager(makeDir(), 60000, 2, 10);
+	}
+
+	private static String md5(final String s) {
+		return DigestUtils.md5Hex(s.getBytes());
+	}
+
+	private static String read(final File f) throws IOException {
+		final FileInputStream fis = new FileInputStream(f);
+		try {
+			final byte[] b = new byte[(int) f.length()];
+			int read = 0;
+			while (read < b.length) {
+				read += fis.read(b, read, b.length - read);
+			}
+			return new String(b);
+		} finally {
+			fis.close();
+		}
+	}
+
+	private static void failAppend(final UploadManager um,
+			final WorkspaceUser user, final String id, final long offset,
+			final String data, final String md5, final String exp)
+			throws Exception {
+		try {
+			um.append(user, id, offset, data == null ? null : data.getBytes(),
+					md5);
+			fail("appended bad chunk");
+		} catch (IllegalArgumentException iae) {
+			assertThat("correct exception", iae.getLocalizedMessage(),
+					is(exp));
+		}
+	}
+
+	@Test
+	public void uploadAndCommit() throws Exception {
+		final UploadManager um = makeManager();
+		final StagedUpload su = um.open(USER);
+		assertThat("size", su.getSize(), is(0L));
+		assertThat("md5", su.getMD5(), is(md5("")));
+		final String id = su.getId();
+		um.append(USER, id, 0, "{\"a\":".getBytes(), md5("{\"a\":"));
+		final StagedUpload su2 = um.append(USER, id, 5, "1}".getBytes(),
+				md5("1}"));
+		assertThat("size", su2.getSize(), is(7L));
+		assertThat("md5", su2.getMD5(), is(md5("{\"a\":1}")));
+		assertThat("get upload", um.getUpload(USER, id).getSize(), is(7L));
+
+		final File f = um.startCommit(USER, id, md5("{\"a\":1}"));
+		assertThat("file contents", read(f), is("{\"a\":1}"));
+		failAppend(um, USER, id, 7, "2", md5("2"),
+				"Upload " + id + " is in use by another request");
+		um.finishCommit(USER, id, true);
+		assertThat("file deleted", f.exists(), is(false));
+		assertThat("upload removed", um.getUploadCount(), is(0));
+	}
+
+	@Test
+	public void failedCommitKeepsUpload() throws Exception {
+		final UploadManager um = makeManager();
+		final String id = um.open(USER).getId();
+		um.append(USER, id, 0, "{}".getBytes(), md5("{}"));
+		try {
+			um.startCommit(USER, id, md5("{ }"));
+			fail("committed with bad checksum");
+		} catch (IllegalArgumentException iae) {
+			assertThat("correct exception", iae.getLocalizedMessage(),
+					is("Upload checksum does not match the uploaded data"));
+		}
+		final File f = um.startCommit(USER, id, null);
+		um.finishCommit(USER, id, false);
+		assertThat("file kept", f.exists(), is(true));
+		assertThat("upload kept", um.getUpload(USER, id).getSize(), is(2L));
+		um.abort(USER, id);
+		assertThat("file deleted", f.exists(), is(false));
+	}
+
+	@Test
+	public void badChunks() throws Exception {
+		final UploadManager um = makeManager();
+		final String id = um.open(USER).getId();
+		um.append(USER, id, 0, "abc".getBytes(), md5("abc"));
+		failAppend(um, USER, id, 0, "def", md5("def"),
+				"Chunk offset 0 does not match the size of upload " + id +
+				", 3");
+		failAppend(um, USER, id, 3, "def", md5("deg"),
+				"Chunk checksum does not match the chunk data");
+		failAppend(um, USER, id, 3, "", md5(""), "Chunk has no data");
+		failAppend(um, USER, id, 3, null, md5(""), "Chunk has no data");
+		failAppend(um, USER, id, 3, "12345678901", md5("12345678901"),
+				"Chunk size 11 exceeds the maximum of 10");
+		failAppend(um, USER2, id, 3, "def", md5("def"),
+				"No upload with id " + id);
+		failAppend(um, USER, "foo", 3, "def", md5("def"),
+				"No upload with id foo");
+		assertThat("upload unchanged", um.getUpload(USER, id).getMD5(),
+				is(md5("abc")));
+		um.append(USER, id, 3, "def".getBytes(), md5("def"));
+		assertThat("resumed", um.getUpload(USER, id).getMD5(),
+				is(md5("abcdef")));
+	}
+
+	@Test
+	public void userLimit() throws Exception {
+		final UploadManager um = makeManager();
+		um.open(USER);
+		final String id = um.open(USER).getId();
+		um.open(USER2);
+		try {
+			um.open(USER);
+			fail("opened too many uploads");
+		} catch (IllegalArgumentException iae) {
+			assertThat("correct exception", iae.getLocalizedMessage(),
+					is("User foo already has the maximum of 2 open uploads"));
+		}
+		um.abort(USER, id);
+		um.open(USER);
+		assertThat("upload count", um.getUploadCount(), is(3));
+	}
+
+	@Test
+	public void expiry() throws Exception {
+		final File dir = makeDir();
+		final UploadManager um = new UploadManager(dir, 50, 2, 10);
+		final String id = um.open(USER).getId();
+		assertThat("staged file", dir.listFiles().length, is(1));
+		Thread.sleep(100);
+		assertThat("upload expired", um.getUploadCount(), is(0));
+		assertThat("staged file deleted", dir.listFiles().length, is(0));
+		try {
+			um.getUpload(USER, id);
+			fail("got expired upload");
+		} catch (IllegalArgumentException iae) {
+			assertThat("correct exception", iae.getLocalizedMessage(),
+					is("No upload with id " + id));
+		}
+	}
+
+	@Test
+	public void leftoverFilesDeleted() throws Exception {
+		final File dir = makeDir();
+		new UploadManager(dir, 60000, 2, 10).open(USER);
+		final File other = new File(dir, "other");
+		other.createNewFile();
+		new UploadManager(dir, 60000, 2, 10);
+		assertThat("only non-upload file left",
+				Arrays.asList(dir.listFiles()), is(Arrays.asList(other)));
+		other.delete();
+	}
+}
@@ -32,6 +32,7 @@ import org.junit.Test;
 
 import us.kbase.common.service.JsonTokenStream;
 import us.kbase.typedobj.core.AbsoluteTypeDefId;
+import us.kbase.typedobj.core.MD5;
 import us.kbase.typedobj.core.ObjectPaths;
 import us.kbase.typedobj.core.TempFileListener;
 import us.kbase.typedobj.core.TypeDefId;
@@ -48,18 +49,24 @@ import us.kbase.typedobj.exceptions.TypedObjectValidationException;
 import us.kbase.typedobj.idref.IdReferenceHandlerSetFactory;
 import us.kbase.typedobj.idref.IdReferenceType;
 import us.kbase.workspace.database.AllUsers;
+import us.kbase.workspace.database.CallStatistics;
+import us.kbase.workspace.database.EventFeedPage;
 import us.kbase.workspace.database.ModuleInfo;
 import us.kbase.workspace.database.ObjectChain;
+import us.kbase.workspace.database.ObjectHistoryPage;
 import us.kbase.workspace.database.ObjectIDNoWSNoVer;
 import us.kbase.workspace.database.ObjectIDResolvedWS;
 import us.kbase.workspace.database.ObjectIdentifier;
 import us.kbase.workspace.database.ObjectInformation;
+import us.kbase.workspace.database.OperationStatistics;
 import us.kbase.workspace.database.Permission;
 import us.kbase.workspace.database.Provenance;
 import us.kbase.workspace.database.Provenance.ExternalData;
 import us.kbase.workspace.database.Reference;
 import us.kbase.workspace.database.ResourceUsageConfigurationBuilder;
 import us.kbase.workspace.database.WorkspaceSaveObject;
+import us.kbase.workspace.database.WorkspaceEvent;
+import us.kbase.workspace.database.WorkspaceEvent.EventType;
 import us.kbase.workspace.database.Provenance.ProvenanceAction;
 import us.kbase.workspace.database.ResourceUsageConfigurationBuilder.ResourceUsageConfiguration;
 import us.kbase.workspace.database.SubObjectIdentifier;
@@ -1277,6 +1284,283 @@ public class WorkspaceTest extends WorkspaceTester {
 		assertThat("data saved correctly", dataObj, is(data));
 	}
 	
+	@Test
+	public void saveFromStoredData() throws Exception {
+		WorkspaceUser user1 = new WorkspaceUser("storedDataUser1");
+		WorkspaceUser user2 = new WorkspaceUser("storedDataUser2");
+		WorkspaceIdentifier wsi1 = new WorkspaceIdentifier("storedData1");
+		WorkspaceIdentifier wsi2 = new WorkspaceIdentifier("storedData2");
+		WorkspaceIdentifier wsipriv =
+				new WorkspaceIdentifier("storedDataPriv");
+		ws.createWorkspace(user1, wsi1.getName(), false, null, null);
+		long wsid2 = ws.createWorkspace(user2, wsi2.getName(), false, null,
+				null).getId();
+		long wsidpriv = ws.createWorkspace(user1, wsipriv.getName(), false,
+				null, null).getId();
+		Provenance prov1 = new Provenance(user1);
+		Provenance prov2 = new Provenance(user2);
+		
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("stored", Arrays.asList("some", "data"));
+		ObjectInformation orig = ws.saveObjects(user1, wsi1, Arrays.asList(
+				new WorkspaceSaveObject(data, SAFE_TYPE1, null, prov1, false)),
+				getIdFactory(user1)).get(0);
+		MD5 md5 = new MD5(orig.getCheckSum());
+		
+		Map<String, String> meta = new HashMap<String, String>();
+		meta.put("some", "meta");
+		List<WorkspaceSaveObject> storedsave = Arrays.asList(
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("stored"),
+						SAFE_TYPE1, md5, meta, prov2, false));
+		
+		// the data isn't readable by user2, so knowing the MD5 isn't enough
+		failSave(user2, wsi2, storedsave, new TypedObjectValidationException(
+				String.format(
+				"Object #1: no data of type SomeModule.AType-0.1 with MD5 %s is stored in a workspace readable by the user, so the data must be provided",
+				md5.getMD5())));
+		ws.setPermissions(user1, wsi1, Arrays.asList(user2), Permission.READ);
+		
+		ObjectInformation info = ws.saveObjects(user2, wsi2, storedsave,
+				getIdFactory(user2)).get(0);
+		checkObjInfo(info, 1, "stored", SAFE_TYPE1.getTypeString(), 1, user2,
+				wsid2, wsi2.getName(), orig.getCheckSum(), orig.getSize(),
+				meta);
+		ObjectIdentifier oi = new ObjectIdentifier(wsi2, "stored");
+		assertThat("correct data", ws.getObjects(user2, Arrays.asList(oi))
+				.get(0).getData(), is((Object) data));
+		
+		failSave(user2, wsi2, Arrays.asList(new WorkspaceSaveObject(
+				SAFE_TYPE1, new MD5("0123456789abcdef0123456789abcdef"),
+				null, prov2, false)),
+				new TypedObjectValidationException(
+						"Object #1: no data of type SomeModule.AType-0.1 with MD5 0123456789abcdef0123456789abcdef is stored in a workspace readable by the user, so the data must be provided"));
+		failSave(user2, wsi2, Arrays.asList(new WorkspaceSaveObject(
+				SAFE_TYPE1_10, md5, null, prov2, false)),
+				new TypedObjectValidationException(String.format(
+						"Object #1: no data of type SomeModule.AType-1.0 with MD5 %s is stored in a workspace readable by the user, so the data must be provided",
+						md5.getMD5())));
+		
+		// references in the stored data must be readable by the saver
+		ObjectInformation privorig = ws.saveObjects(user1, wsipriv,
+				Arrays.asList(new WorkspaceSaveObject(data, SAFE_TYPE1, null,
+						prov1, false)), getIdFactory(user1)).get(0);
+		Map<String, Object> refdata = new HashMap<String, Object>();
+		refdata.put("refs", Arrays.asList(wsipriv.getName() + "/1"));
+		ObjectInformation reforig = ws.saveObjects(user1, wsi1, Arrays.asList(
+				new WorkspaceSaveObject(refdata, REF_TYPE, null, prov1, false)),
+				getIdFactory(user1)).get(0);
+		List<WorkspaceSaveObject> refsave = Arrays.asList(
+				new WorkspaceSaveObject(REF_TYPE,
+						new MD5(reforig.getCheckSum()), null, prov2, false));
+		failSave(user2, wsi2, refsave, new TypedObjectValidationException(
+				"Object #1 has invalid reference: No read access to id " +
+				wsidpriv + "/1/1: Object 1 cannot be accessed: User storedDataUser2 may not read workspace " +
+				wsidpriv + " at [a location in the stored data]"));
+		ws.setPermissions(user1, wsipriv, Arrays.asList(user2),
+				Permission.READ);
+		ObjectInformation refinfo = ws.saveObjects(user2, wsi2, refsave,
+				getIdFactory(user2)).get(0);
+		assertThat("correct chksum", refinfo.getCheckSum(),
+				is(reforig.getCheckSum()));
+		assertThat("correct references", ws.getReferencedObjects(user2,
+				Arrays.asList(new ObjectChain(new ObjectIdentifier(wsi2,
+						refinfo.getObjectId()), Arrays.asList(
+								new ObjectIdentifier(wsipriv,
+										privorig.getObjectId()))))).get(0)
+										.getData(),
+				is((Object) data));
+		
+		// data in deleted objects isn't used
+		WorkspaceUser user3 = new WorkspaceUser("storedDataUser3");
+		WorkspaceIdentifier wsi3 = new WorkspaceIdentifier("storedData3");
+		ws.createWorkspace(user3, wsi3.getName(), false, null, null);
+		ws.setPermissions(user1, wsi1, Arrays.asList(user3), Permission.READ);
+		List<WorkspaceSaveObject> refsave3 = Arrays.asList(
+				new WorkspaceSaveObject(REF_TYPE,
+						new MD5(reforig.getCheckSum()), null,
+						new Provenance(user3), false));
+		ws.setObjectsDeleted(user1, Arrays.asList(new ObjectIdentifier(wsi1,
+				reforig.getObjectId())), true);
+		failSave(user3, wsi3, refsave3, new TypedObjectValidationException(
+				String.format(
+				"Object #1: no data of type %s with MD5 %s is stored in a workspace readable by the user, so the data must be provided",
+				REF_TYPE.getTypeString(), reforig.getCheckSum())));
+	}
+	
+	@Test
+	public void eventFeed() throws Exception {
+		WorkspaceUser user1 = new WorkspaceUser("eventUser1");
+		WorkspaceUser user2 = new WorkspaceUser("eventUser2");
+		WorkspaceIdentifier wsi1 = new WorkspaceIdentifier("events1");
+		WorkspaceIdentifier wsi2 = new WorkspaceIdentifier("events2");
+		long wsid1 = ws.createWorkspace(user1, wsi1.getName(), false, null,
+				null).getId();
+		long wsid2 = ws.createWorkspace(user2, wsi2.getName(), false, null,
+				null).getId();
+		long head = getEventFeedHead();
+		
+		Map<String, Object> data = new HashMap<String, Object>();
+		ws.saveObjects(user1, wsi1, Arrays.asList(new WorkspaceSaveObject(
+				new ObjectIDNoWSNoVer("obj"), data, SAFE_TYPE1, null,
+				new Provenance(user1), false)), getIdFactory(user1));
+		ws.copyObject(user1, new ObjectIdentifier(wsi1, "obj"),
+				new ObjectIdentifier(wsi1, "copy"));
+		ws.saveObjects(user2, wsi2, Arrays.asList(new WorkspaceSaveObject(
+				new ObjectIDNoWSNoVer("obj"), data, SAFE_TYPE1, null,
+				new Provenance(user2), false)), getIdFactory(user2));
+		ws.renameObject(user1, new ObjectIdentifier(wsi1, "obj"), "renamed");
+		ws.setObjectsDeleted(user1, Arrays.asList(
+				new ObjectIdentifier(wsi1, "copy")), true);
+		
+		// the admin sees every event
+		EventFeedPage all = ws.getEvents(null, head, -1, true);
+		List<WorkspaceEvent> events = all.getEvents();
+		assertThat("correct event count", events.size(), is(5));
+		checkEvent(events.get(0), EventType.SAVE_OBJECT, user1, wsid1, 1L, 1,
+				null);
+		checkEvent(events.get(1), EventType.COPY_OBJECT, user1, wsid1, 2L, 1,
+				null);
+		checkEvent(events.get(2), EventType.SAVE_OBJECT, user2, wsid2, 1L, 1,
+				null);
+		checkEvent(events.get(3), EventType.RENAME_OBJECT, user1, wsid1, 1L,
+				null, "renamed");
+		checkEvent(events.get(4), EventType.DELETE_OBJECT, user1, wsid1, 2L,
+				null, null);
+		for (int i = 0; i < events.size(); i++) {
+			assertThat("correct token", events.get(i).getToken(),
+					is(head + i + 1));
+		}
+		assertThat("correct token", all.getToken(), is(head + 5));
+		
+		// users only see events in workspaces they can read, but the token
+		// skips the filtered events
+		EventFeedPage p1 = ws.getEvents(user1, head, -1, false);
+		assertThat("correct tokens", getTokens(p1.getEvents()),
+				is(Arrays.asList(head + 1, head + 2, head + 4, head + 5)));
+		assertThat("correct token", p1.getToken(), is(head + 5));
+		EventFeedPage p2 = ws.getEvents(user2, head, -1, false);
+		assertThat("correct tokens", getTokens(p2.getEvents()),
+				is(Arrays.asList(head + 3)));
+		assertThat("correct token", p2.getToken(), is(head + 5));
+		assertThat("anon sees no events", ws.getEvents(null, head, -1, false)
+				.getEvents().size(), is(0));
+		
+		// paging
+		EventFeedPage page = ws.getEvents(user1, head, 2, false);
+		assertThat("correct tokens", getTokens(page.getEvents()),
+				is(Arrays.asList(head + 1, head + 2)));
+		assertThat("correct token", page.getToken(), is(head + 2));
+		page = ws.getEvents(user1, page.getToken(), 2, false);
+		assertThat("correct tokens", getTokens(page.getEvents()),
+				is(Arrays.asList(head + 4)));
+		assertThat("correct token", page.getToken(), is(head + 4));
+		page = ws.getEvents(user1, page.getToken(), 2, false);
+		assertThat("correct tokens", getTokens(page.getEvents()),
+				is(Arrays.asList(head + 5)));
+		assertThat("correct token", page.getToken(), is(head + 5));
+		page = ws.getEvents(user1, page.getToken(), 2, false);
+		assertThat("no more events", page.getEvents().size(), is(0));
+		assertThat("token unchanged", page.getToken(), is(head + 5));
+		
+		// sharing a workspace shows its events, including earlier ones
+		ws.setPermissions(user2, wsi2, Arrays.asList(user1), Permission.READ);
+		p1 = ws.getEvents(user1, head, 3, false);
+		assertThat("correct tokens", getTokens(p1.getEvents()),
+				is(Arrays.asList(head + 1, head + 2, head + 3)));
+		checkEvent(ws.getEvents(null, head + 5, -1, true).getEvents().get(0),
+				EventType.SET_PERMISSIONS, user2, wsid2, null, null, null);
+		
+		try {
+			ws.getEvents(user1, -1, 1, false);
+			fail("got events with a bad token");
+		} catch (IllegalArgumentException iae) {
+			assertThat("correct exception", iae.getLocalizedMessage(),
+					is("Event token cannot be negative"));
+		}
+	}
+	
+	private long getEventFeedHead() throws Exception {
+		long token = 0;
+		EventFeedPage page;
+		do {
+			page = ws.getEvents(null, token, -1, true);
+			token = page.getToken();
+		} while (!page.getEvents().isEmpty());
+		return token;
+	}
+	
+	private List<Long> getTokens(final List<WorkspaceEvent> events) {
+		final List<Long> ret = new LinkedList<Long>();
+		for (final WorkspaceEvent e: events) {
+			ret.add(e.getToken());
+		}
+		return ret;
+	}
+	
+	private void checkEvent(final WorkspaceEvent event, final EventType type,
+			final WorkspaceUser user, final long wsid, final Long objid,
+			final Integer ver, final String name) {
+		assertThat("correct event type", event.getType(), is(type));
+		assertThat("correct user", event.getUser(), is(user));
+		assertThat("correct workspace", event.getWorkspaceId(), is(wsid));
+		assertThat("correct object", event.getObjectId(), is(objid));
+		assertThat("correct version", event.getVersion(), is(ver));
+		assertThat("correct name", event.getName(), is(name));
+		assertTrue("date is recent", new Date().getTime() -
+				event.getDate().getTime() < 60000);
+	}
+	
+	@Test
+	public void saveManyAutoNamed() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("autoNameUser");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("autoNames");
+		long wsid = ws.createWorkspace(user, wsi.getName(), false, null, null)
+				.getId();
+		Provenance p = new Provenance(user);
+		Map<String, Object> data = new HashMap<String, Object>();
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("auto10"), data,
+						SAFE_TYPE1, null, p, false),
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("auto10-1"),
+						data, SAFE_TYPE1, null, p, false),
+				new WorkspaceSaveObject(new ObjectIDNoWSNoVer("auto100"),
+						data, SAFE_TYPE1, null, p, false)),
+				getIdFactory(user));
+		
+		// ids 4 - 16 cross a digit boundary, and objects 10 and 12 clash
+		// with a saved name and a name in the same save
+		List<WorkspaceSaveObject> objects = new ArrayList<WorkspaceSaveObject>();
+		for (int i = 0; i < 12; i++) {
+			if (i == 3) {
+				objects.add(new WorkspaceSaveObject(
+						new ObjectIDNoWSNoVer("auto12"), data, SAFE_TYPE1,
+						null, p, false));
+			}
+			objects.add(new WorkspaceSaveObject(data, SAFE_TYPE1, null, p,
+					false));
+		}
+		List<ObjectInformation> objinfo = ws.saveObjects(user, wsi, objects,
+				getIdFactory(user));
+		assertThat("correct number of objects", objinfo.size(), is(13));
+		String chksum = objinfo.get(0).getCheckSum();
+		long id = 4;
+		for (ObjectInformation oi: objinfo) {
+			final String name;
+			if (id == 7) {
+				name = "auto12";
+			} else if (id == 10) {
+				name = "auto10-2";
+			} else if (id == 12) {
+				name = "auto12-1";
+			} else {
+				name = "auto" + id;
+			}
+			checkObjInfo(oi, id, name, SAFE_TYPE1.getTypeString(), 1, user,
+					wsid, wsi.getName(), chksum, 2, null);
+			id++;
+		}
+	}
+	
 	@Test
 	public void saveObjectWithTypeChecking() throws Exception {
 		final String specTypeCheck1 =
@@ -4466,6 +4750,80 @@ public class WorkspaceTest extends WorkspaceTester {
 		ws.setGlobalPermission(user3, new WorkspaceIdentifier("thirdparty"), Permission.NONE);
 	}
 
+	@Test
+	public void getObjectHistoryPage() throws Exception {
+		WorkspaceUser u = new WorkspaceUser("objHistPage");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("objHistPageWS");
+		ws.createWorkspace(u, wsi.getName(), false, null, null);
+		Map<String, String> data = new HashMap<String, String>();
+		Provenance p = new Provenance(u);
+		List<ObjectInformation> saved = new LinkedList<ObjectInformation>();
+		for (int i = 0; i < 5; i++) {
+			saved.add(saveObject(u, wsi, null, data, SAFE_TYPE1, "hist", p));
+		}
+		ObjectIdentifier oi = new ObjectIdentifier(wsi, "hist");
+		
+		ObjectHistoryPage page = ws.getObjectHistory(u, oi, null, 2);
+		assertThat("correct history", page.getHistory(),
+				is(Arrays.asList(saved.get(4), saved.get(3))));
+		assertThat("correct token", page.getNext(), is(4));
+		page = ws.getObjectHistory(u, oi, page.getNext(), 2);
+		assertThat("correct history", page.getHistory(),
+				is(Arrays.asList(saved.get(2), saved.get(1))));
+		assertThat("correct token", page.getNext(), is(2));
+		page = ws.getObjectHistory(u, oi, page.getNext(), 2);
+		assertThat("correct history", page.getHistory(),
+				is(Arrays.asList(saved.get(0))));
+		assertThat("correct token", page.getNext(), is((Integer) null));
+		
+		page = ws.getObjectHistory(u, oi, 3, 2);
+		assertThat("correct history", page.getHistory(),
+				is(Arrays.asList(saved.get(1), saved.get(0))));
+		assertThat("correct token", page.getNext(), is((Integer) null));
+		
+		List<ObjectInformation> all = new ArrayList<ObjectInformation>(saved);
+		Collections.reverse(all);
+		page = ws.getObjectHistory(u, oi, null, null);
+		assertThat("correct history", page.getHistory(), is(all));
+		assertThat("correct token", page.getNext(), is((Integer) null));
+		page = ws.getObjectHistory(u, oi, null, 20000);
+		assertThat("correct history", page.getHistory(), is(all));
+		
+		//the version is ignored, even if it doesn't exist
+		page = ws.getObjectHistory(u, new ObjectIdentifier(wsi, "hist", 2),
+				null, 2);
+		assertThat("correct history", page.getHistory(),
+				is(Arrays.asList(saved.get(4), saved.get(3))));
+		page = ws.getObjectHistory(u, new ObjectIdentifier(wsi,
+				saved.get(0).getObjectId(), 6), 3, null);
+		assertThat("correct history", page.getHistory(),
+				is(Arrays.asList(saved.get(1), saved.get(0))));
+		
+		try {
+			ws.getObjectHistory(u, oi, 0, 2);
+			fail("got history with bad token");
+		} catch (IllegalArgumentException iae) {
+			assertThat("correct exception", iae.getLocalizedMessage(),
+					is("History token must be greater than 0"));
+		}
+		for (int limit: Arrays.asList(0, -1)) {
+			try {
+				ws.getObjectHistory(u, oi, null, limit);
+				fail("got history with bad limit");
+			} catch (IllegalArgumentException iae) {
+				assertThat("correct exception", iae.getLocalizedMessage(),
+						is("Limit must be greater than 0"));
+			}
+		}
+		try {
+			ws.getObjectHistory(new WorkspaceUser("objHistPage2"), oi, null, 2);
+			fail("got history without permission");
+		} catch (InaccessibleObjectException ioe) {
+			assertThat("correct exception", ioe.getLocalizedMessage(),
+					is("Object hist cannot be accessed: User objHistPage2 may not read workspace objHistPageWS"));
+		}
+	}
+
 	@Test
 	public void listObjectsByDate() throws Exception {
 		WorkspaceUser u = new WorkspaceUser("listObjsByDate");
@@ -5142,6 +5500,31 @@ public class WorkspaceTest extends WorkspaceTester {
 		compareObjectAndInfo(lwod.get(5), leaf1, new Provenance(user2), data1, mtlist, mtmap);
 		compareObjectAndInfo(lwod.get(6), leaf2, new Provenance(user2), data2, mtlist, mtmap);
 		
+		List<ObjectChain> infochains = Arrays.asList(
+				new ObjectChain(delptr12oi, Arrays.asList(del1oi, leaf1oi)),
+				new ObjectChain(delptr12oi, Arrays.asList(del1oi, leaf2oi)),
+				new ObjectChain(delptrwsoi, Arrays.asList(delwsoi, leaf2oi)),
+				new ObjectChain(delptr12oi, Arrays.asList(del2oi)));
+		//twice so the second call uses the verified references
+		for (int i = 0; i < 2; i++) {
+			List<ObjectInformation> infos = new LinkedList<ObjectInformation>();
+			for (WorkspaceObjectData wod: ws.getReferencedObjects(
+					user1, infochains)) {
+				infos.add(wod.getObjectInfo());
+			}
+			assertThat("correct info", infos,
+					is(Arrays.asList(leaf1, leaf2, leaf2, del2)));
+		}
+		try {
+			ws.getReferencedObjects(user1, Arrays.asList(
+					new ObjectChain(delptr2oi, Arrays.asList(del1oi, leaf1oi))));
+			fail("got object with bad reference chain");
+		} catch (NoSuchReferenceException nsre) {
+			assertThat("correct exception", nsre.getLocalizedMessage(),
+					is("The object delptr2 in workspace refedaccessible2 does not contain the reference " +
+					wsidun1 + "/2/1"));
+		}
+		
 		checkReferencedObject(user1, new ObjectChain(delptr12oi, Arrays.asList(del1oi)),
 				del1, new Provenance(user2), makeRefData(wsidun1 + "/1/1", wsidun2 + "/1/1"),
 				Arrays.asList(wsidun1 + "/1/1", wsidun2 + "/1/1"),  mtmap);
@@ -5620,15 +6003,113 @@ public class WorkspaceTest extends WorkspaceTester {
 		ws.setResourceConfig(build.withMaxRelabelAndSortMemoryUsage(maxmem).build());
 		ws.saveObjects(user, wsi, objs, getIdFactory(user));
 		
+		//too little memory for the in memory sorter, falls back to temp files
 		ws.setResourceConfig(build.withMaxRelabelAndSortMemoryUsage(maxmem - 1).build());
+		List<ObjectInformation> objinfo =
+				ws.saveObjects(user, wsi, objs, getIdFactory(user));
+		WorkspaceObjectData o = ws.getObjects(user, Arrays.asList(
+				new ObjectIdentifier(wsi, objinfo.get(1).getObjectId())))
+				.get(0);
+		assertThat("data is sorted", IOUtils.toString(
+				o.getDataAsTokens().getJSON()), is("{\"b\":\"d\",\"z\":\"a\"}"));
+		ws.setResourceConfig(oldcfg);
+	}
+	
+	@Test
+	public void operationStatistics() throws Exception {
+		WorkspaceUser user = new WorkspaceUser("opstats");
+		WorkspaceIdentifier wsi = new WorkspaceIdentifier("opstats");
+		ws.createWorkspace(user, wsi.getIdentifierString(), false, null, null);
+		OperationStatistics stats = ws.getOperationStatistics();
+		long saves = stats.getCount("save.total");
+		long validates = stats.getCount("save.validate");
+		long blobs = stats.getCount("save.blob_write");
+		long gets = stats.getCount("get.total");
+		long fetches = stats.getCount("get.blob_fetch");
+		long bytesRead = stats.getBytes("get.bytes");
+		
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("foo", "bar");
+		ObjectInformation info = ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(data, SAFE_TYPE1, null,
+						new Provenance(user), false)),
+				getIdFactory(user)).get(0);
+		ws.getObjects(user, Arrays.asList(
+				new ObjectIdentifier(wsi, info.getObjectId())));
+		
+		assertThat("save counted", stats.getCount("save.total"), is(saves + 1));
+		assertThat("validate counted", stats.getCount("save.validate"),
+				is(validates + 1));
+		assertThat("blob write counted", stats.getCount("save.blob_write"),
+				is(blobs + 1));
+		assertThat("get counted", stats.getCount("get.total"), is(gets + 1));
+		assertThat("blob fetch counted", stats.getCount("get.blob_fetch"),
+				is(fetches + 1));
+		assertThat("bytes read counted", stats.getBytes("get.bytes"),
+				is(bytesRead + info.getSize()));
+		@SuppressWarnings("unchecked")
+		Map<String, Object> phases =
+				(Map<String, Object>) stats.getStatistics().get("phases");
+		assertThat("phases reported", phases.containsKey("save.sort"),
+				is(true));
+		assertThat("reference phase reported",
+				phases.containsKey("save.resolve_references"), is(true));
+		assertThat("relabel phase reported",
+				phases.containsKey("save.relabel"), is(true));
+		
+		//phases are recorded once per save, however many objects are saved
+		long refs = stats.getCount("save.resolve_references");
+		long relabels = stats.getCount("save.relabel");
+		saves = stats.getCount("save.total");
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(data, SAFE_TYPE1, null,
+						new Provenance(user), false),
+				new WorkspaceSaveObject(data, SAFE_TYPE1, null,
+						new Provenance(user), false)),
+				getIdFactory(user));
+		assertThat("references timed once",
+				stats.getCount("save.resolve_references"), is(refs + 1));
+		assertThat("relabel timed once", stats.getCount("save.relabel"),
+				is(relabels + 1));
+		assertThat("save counted", stats.getCount("save.total"), is(saves + 1));
+		
+		//failed saves are recorded
+		long perms = stats.getCount("save.check_permissions");
+		validates = stats.getCount("save.validate");
+		saves = stats.getCount("save.total");
 		try {
-			ws.saveObjects(user, wsi, objs, getIdFactory(user));
-			fail("sorted w/ too little mem");
-		} catch (TypedObjectValidationException tove) {
-			assertThat("got correct exception", tove.getMessage(),
-					is("Object #2: Memory necessary for sorting map keys exceeds the limit " + 
-							(maxmem - 1) + " bytes at /"));
+			ws.saveObjects(new WorkspaceUser("opstats2"), wsi, Arrays.asList(
+					new WorkspaceSaveObject(data, SAFE_TYPE1, null,
+							new Provenance(user), false)),
+					getIdFactory(user));
+			fail("saved to unwritable workspace");
+		} catch (WorkspaceAuthorizationException e) {
+			//expected
 		}
-		ws.setResourceConfig(oldcfg);
+		assertThat("failed save counted", stats.getCount("save.total"),
+				is(saves + 1));
+		assertThat("failed permission check counted",
+				stats.getCount("save.check_permissions"), is(perms + 1));
+		assertThat("unreached phase not counted",
+				stats.getCount("save.validate"), is(validates));
+		
+		//statistics for a single call
+		stats.startCall();
+		ws.saveObjects(user, wsi, Arrays.asList(
+				new WorkspaceSaveObject(data, SAFE_TYPE1, null,
+						new Provenance(user), false)),
+				getIdFactory(user));
+		CallStatistics cs = stats.endCall();
+		assertThat("one object saved in call",
+				cs.getCount(OperationStatistics.OBJECTS_SAVED), is(1L));
+		assertThat("nothing read in call",
+				cs.getCount(OperationStatistics.OBJECTS_READ), is(0L));
+		assertThat("one save in call", cs.getPhaseCount("save.total"),
+				is(1L));
+		assertThat("no get in call", cs.getPhaseCount("get.total"), is(0L));
+		assertThat("save time recorded", cs.getPhaseMillis("save.total") > 0,
+				is(true));
+		assertThat("no call in progress", stats.endCall(),
+				is((CallStatistics) null));
 	}
 }
@@ -121,7 +121,9 @@ module Workspace {
 		username owner - name of the user who owns (who created) this workspace
 		timestamp moddate - date when the workspace was last modified
 		int objects - the approximate number of objects currently stored in
-			the workspace.
+			the workspace. This is the highest object ID assigned in the
+			workspace, and since object IDs may not be contiguous it may be
+			larger than the number of objects.
 		permission user_permission - permissions for the currently logged in
 			user for the workspace
 		permission global_permission - default permissions for the workspace
@@ -141,7 +143,9 @@ module Workspace {
 		username owner - name of the user who owns (e.g. created) this workspace.
 		timestamp moddate - date when the workspace was last modified.
 		int objects - the approximate number of objects currently stored in
-			the workspace.
+			the workspace. This is the highest object ID assigned in the
+			workspace, and since object IDs may not be contiguous it may be
+			larger than the number of objects.
 		permission user_permission - permissions for the authenticated user of
 			this workspace.
 		permission globalread - whether this workspace is globally readable.
@@ -154,7 +158,10 @@ module Workspace {
 		int object, permission user_permission, permission globalread,
 		lock_status lockstat, usermeta metadata> workspace_info;
 		
-	/* The unique, permanent numerical ID of an object. */
+	/* The unique, permanent numerical ID of an object. IDs are assigned in
+		increasing order, but are not necessarily contiguous - a server may
+		reserve a block of IDs and IDs it doesn't use are skipped.
+	*/
 	typedef int obj_id;
 	
 	/* A string used as a name for an object.
@@ -684,7 +691,7 @@ module Workspace {
 		Required arguments:
 		type_string type - the type of the object. Omit the version information
 			to use the latest version.
-		UnspecifiedObject data - the object data.
+		UnspecifiedObject data - the object data. Omit if chksum is provided.
 		
 		Optional arguments:
 		One of an object name or id. If no name or id is provided the name
@@ -701,6 +708,16 @@ module Workspace {
 		list<ProvenanceAction> provenance - provenance data for the object.
 		boolean hidden - true if this object should not be listed when listing
 			workspace objects.
+		string chksum - the md5 checksum of the sorted object data, as
+			returned in object_info. If provided instead of the data, the
+			object is saved from data of the same type and checksum that is
+			already stored in a workspace the user can read, so the data
+			doesn't need to be sent. References and IDs in the stored data
+			are checked exactly as for a normal save. If no such data is
+			readable by the user, or the type specifies automatic metadata
+			extraction, the save fails and no objects are saved. The server
+			does not fall back to an upload - the client must resend the
+			save with the data in place of the checksum.
 	
 	*/
 	typedef structure {
@@ -711,6 +728,7 @@ module Workspace {
 		usermeta meta;
 		list<ProvenanceAction> provenance;
 		boolean hidden;
+		string chksum;
 	} ObjectSaveData;
 	
 	/* Input parameters for the "save_objects" function.
@@ -894,6 +912,45 @@ module Workspace {
 	funcdef get_object_history(ObjectIdentity object)
 		 returns (list<object_info> history);
 	
+	/* A position in an object's history. */
+	typedef string history_token;
+	
+	/* Input parameters for the "get_object_history_page" function.
+	
+		Required arguments:
+		ObjectIdentity object - the object. The version argument is ignored.
+		
+		Optional arguments:
+		history_token before - return versions older than this position in
+			the object's history. If omitted, the newest versions are
+			returned.
+		int limit - the maximum number of versions to return. Default and
+			maximum 10000. Must be greater than 0.
+	*/
+	typedef structure {
+		ObjectIdentity object;
+		history_token before;
+		int limit;
+	} GetObjectHistoryParams;
+	
+	/* Results of the "get_object_history_page" function.
+	
+		list<object_info> history - the versions of the object, newest first.
+		history_token token - the position in the object's history to pass
+			as the before argument of the next call. Absent if there are no
+			older versions.
+	*/
+	typedef structure {
+		list<object_info> history;
+		history_token token;
+	} GetObjectHistoryResults;
+	
+	/* 
+		Get an object's history a page at a time, newest version first.
+	*/
+	funcdef get_object_history_page(GetObjectHistoryParams params)
+		returns (GetObjectHistoryResults results) authentication optional;
+	
 	/* 
 		List objects that reference one or more objects.
 	*/
@@ -1281,6 +1338,193 @@ module Workspace {
 	*/
 	funcdef undelete_workspace(WorkspaceIdentity wsi) returns();
 	
+	/* A position in the workspace change feed. The token is opaque and
+		should only be passed back to the get_events function.
+	*/
+	typedef string event_token;
+	
+	/* A change to a workspace or an object in a workspace.
+	
+		event_token token - the position of the event in the change feed.
+		string type - the type of the change. One of save_object,
+			copy_object, revert_object, rename_object, hide_object,
+			unhide_object, delete_object, undelete_object, clone_workspace,
+			rename_workspace, delete_workspace, undelete_workspace,
+			set_permissions, set_global_permission, or set_owner.
+		timestamp date - the date of the change.
+		username user - the user that made the change, if known. For
+			set_owner events, the previous owner of the workspace.
+		ws_id wsid - the workspace that changed. For clone_workspace events,
+			the new workspace.
+		obj_id objid - the object that changed, if any.
+		int ver - the version of the object created by the change, if any.
+		string name - the new name of the object or workspace, if any.
+		permission perm - the permission set by the change, if any.
+		list<username> users - the users whose permissions were set, if
+			any.
+	*/
+	typedef structure {
+		event_token token;
+		string type;
+		timestamp date;
+		username user;
+		ws_id wsid;
+		obj_id objid;
+		int ver;
+		string name;
+		permission perm;
+		list<username> users;
+	} Event;
+	
+	/* Input parameters for the "get_events" function.
+	
+		Optional arguments:
+		event_token since - return events after this position in the change
+			feed. If omitted, events are returned from the start of the feed.
+		int limit - the maximum number of events to return. Default and
+			maximum 10000.
+	*/
+	typedef structure {
+		event_token since;
+		int limit;
+	} GetEventsParams;
+	
+	/* Results of the "get_events" function.
+	
+		list<Event> events - the events, in the order they occurred.
+		event_token token - the position in the change feed to pass as the
+			since argument of the next call.
+	*/
+	typedef structure {
+		list<Event> events;
+		event_token token;
+	} GetEventsResults;
+	
+	/* 
+		Get changes to workspaces and objects in the order they occurred.
+		Events are recorded for object saves, copies, reverts, renames,
+		hides, and deletes, and for workspace clones, renames, deletions,
+		and permission changes.
+		
+		Only events in workspaces the user can read are returned, unless the
+		user is a workspace administrator. Fewer events than the limit may
+		be returned even if more events exist, so continue calling with the
+		returned token until no events are returned. Events are kept for 30
+		days.
+	*/
+	funcdef get_events(GetEventsParams params) returns(GetEventsResults results)
+		authentication optional;
+	
+	/* **************** Staged upload functions ******************** */
+	
+	/* The ID of a staged upload. */
+	typedef string upload_id;
+	
+	/* Information about a staged upload.
+	
+		upload_id id - the ID of the upload.
+		int size - the number of bytes uploaded so far. The next chunk must
+			start at this offset.
+		string chksum - the MD5 checksum of the bytes uploaded so far.
+		timestamp expires - the time at which the upload will be deleted if
+			no more chunks are uploaded and it is not committed.
+	*/
+	typedef structure {
+		upload_id id;
+		int size;
+		string chksum;
+		timestamp expires;
+	} UploadInfo;
+	
+	/* 
+		Open a staged upload for an object that is too large to save reliably
+		in a single save_objects call. Send the object data with
+		upload_chunk and then save the object with commit_upload. A user
+		may only have a limited number of uploads open at once.
+	*/
+	funcdef open_upload() returns(UploadInfo info) authentication required;
+	
+	/* 
+		Get information about a staged upload, e.g. to find the offset from
+		which to resume sending chunks after a failed transfer.
+	*/
+	funcdef get_upload_info(upload_id id) returns(UploadInfo info)
+		authentication required;
+	
+	/* Input parameters for the "upload_chunk" function.
+	
+		Required arguments:
+		upload_id id - the ID of the upload.
+		int offset - the position of the chunk in the object data. This must
+			be the current size of the upload.
+		string data - the chunk data, base64 encoded. Chunks may be at most
+			50MB before encoding.
+		string chksum - the MD5 checksum of the chunk data before encoding.
+	*/
+	typedef structure {
+		upload_id id;
+		int offset;
+		string data;
+		string chksum;
+	} UploadChunkParams;
+	
+	/* 
+		Append a chunk of object data to a staged upload. If the call fails
+		the upload is unchanged and the chunk may be sent again.
+	*/
+	funcdef upload_chunk(UploadChunkParams params) returns(UploadInfo info)
+		authentication required;
+	
+	/* Input parameters for the "commit_upload" function.
+	
+		One, and only one, of the following is required:
+		ws_id id - the numerical ID of the workspace.
+		ws_name workspace - name of the workspace or the workspace ID in KBase
+			format, e.g. kb|ws.78.
+		
+		Required arguments:
+		upload_id upload - the ID of the upload containing the object data.
+		type_string type - the type of the object. Omit the version information
+			to use the latest version.
+		
+		Optional arguments:
+		One of an object name or id, as for the save_objects function.
+		obj_name name - the name of the object.
+		obj_id objid - the id of the object to save over.
+		usermeta meta - arbitrary user-supplied metadata for the object,
+			not to exceed 16kb.
+		list<ProvenanceAction> provenance - provenance data for the object.
+		boolean hidden - true if this object should not be listed when listing
+			workspace objects.
+		string chksum - the MD5 checksum of the complete object data. If
+			provided, the commit fails unless the uploaded data matches.
+	*/
+	typedef structure {
+		ws_name workspace;
+		ws_id id;
+		upload_id upload;
+		type_string type;
+		obj_name name;
+		obj_id objid;
+		usermeta meta;
+		list<ProvenanceAction> provenance;
+		boolean hidden;
+		string chksum;
+	} CommitUploadParams;
+	
+	/* 
+		Save the object data in a staged upload to the workspace. The upload
+		is deleted if the object is saved. Otherwise the upload is kept, so
+		the commit may be retried without sending the data again.
+	*/
+	funcdef commit_upload(CommitUploadParams params)
+		returns(object_info info) authentication required;
+	
+	/* 
+		Delete a staged upload.
+	*/
+	funcdef abort_upload(upload_id id) returns() authentication required;
+	
 	/* **************** Type registering functions ******************** */
 	
 	/* A type specification (typespec) file in the KBase Interface Description